@@ -0,0 +1,49 @@
+package edu.neu.coe.huskySort.jmh;
+
+import edu.neu.coe.huskySort.sort.huskySort.HuskySortBenchmark;
+import edu.neu.coe.huskySort.sort.huskySortUtils.Coding;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the String coders of HuskyCoderFactory, i.e. the encoding phase of HuskySort alone.
+ * <p>
+ * The result of encoding is returned from the benchmark method so that the encoding cannot be eliminated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class CoderBenchmark {
+
+    @Param({"ASCII", "English", "TrainedEnglish", "Unicode", "UTF8", "Pinyin"})
+    public String coder;
+
+    @Param({"10000", "100000"})
+    public int n;
+
+    @Param({"eng-uk_web_2002_100K-words.txt", "eng-uk_web_2002_1M-sentences.txt", "zho-simp-tw_web_2014_10K-sentences.txt"})
+    public String corpus;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        final String[] words = HuskySortBenchmark.getLeipzigWordsFromResource(corpus);
+        final Random random = new Random(0L);
+        xs = new String[n];
+        for (int i = 0; i < n; i++) xs[i] = words[random.nextInt(words.length)];
+        huskyCoder = StringSorters.getCoder(coder);
+    }
+
+    @Benchmark
+    public Coding encode() {
+        return huskyCoder.huskyEncode(xs);
+    }
+
+    private HuskyCoder<String> huskyCoder;
+    private String[] xs;
+}
@@ -0,0 +1,35 @@
+package edu.neu.coe.huskySort.jmh;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main program for the JMH benchmarks.
+ * <p>
+ * The arguments are the usual JMH command-line arguments (e.g. a benchmark regex and -p name=value options).
+ * Unless otherwise specified (by -rf and -rff), the results are written as JSON to target/jmh-result.json.
+ * The GC profiler is always enabled so that allocation rates and GC counts are reported alongside the timings.
+ */
+public final class JmhRunner {
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        final Options options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .resultFormat(commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLineOptions.getResult().orElse(RESULT_FILE))
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+
+    private static final String RESULT_FILE = "target/jmh-result.json";
+
+    private JmhRunner() {
+    }
+}
@@ -0,0 +1,101 @@
+package edu.neu.coe.huskySort.jmh;
+
+import edu.neu.coe.huskySort.sort.huskySort.MergeHuskySort;
+import edu.neu.coe.huskySort.sort.huskySort.PureHuskySort;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.sort.simple.PureDualPivotQuicksort;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * JMH benchmark for sorting random numbers of various types, using the numeric coders of HuskyCoderFactory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class NumberSorterBenchmark {
+
+    @Param({"SystemSort", "PureHuskySort", "MergeHuskySort", "DualPivotQuicksort"})
+    public String sorter;
+
+    @Param({"Integer", "Long", "Double", "BigInteger", "BigDecimal"})
+    public String type;
+
+    @Param({"10000", "100000", "1000000"})
+    public int n;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        switch (type) {
+            case "Integer":
+                setup(new Integer[n], Random::nextInt, HuskyCoderFactory.integerCoder);
+                break;
+            case "Long":
+                setup(new Long[n], Random::nextLong, HuskyCoderFactory.longCoder);
+                break;
+            case "Double":
+                setup(new Double[n], Random::nextDouble, HuskyCoderFactory.doubleCoder);
+                break;
+            case "BigInteger":
+                setup(new BigInteger[n], r -> BigInteger.valueOf(r.nextLong()), HuskyCoderFactory.bigIntegerCoder);
+                break;
+            case "BigDecimal":
+                setup(new BigDecimal[n], r -> BigDecimal.valueOf(r.nextDouble() * Long.MAX_VALUE), HuskyCoderFactory.bigDecimalCoder);
+                break;
+            default:
+                throw new IllegalArgumentException("NumberSorterBenchmark: unknown type: " + type);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        System.arraycopy(source, 0, xs, 0, n);
+    }
+
+    @Benchmark
+    public Object[] sort() {
+        numberSorter.accept(xs);
+        return xs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <X extends Comparable<X>> void setup(final X[] array, final Function<Random, X> f, final HuskyCoder<X> coder) {
+        final Random random = new Random(0L);
+        for (int i = 0; i < n; i++) array[i] = f.apply(random);
+        source = array;
+        xs = Arrays.copyOf(array, n);
+        final Consumer<X[]> consumer;
+        switch (sorter) {
+            case "SystemSort":
+                consumer = Arrays::sort;
+                break;
+            case "PureHuskySort":
+                consumer = new PureHuskySort<>(coder, false, false)::sort;
+                break;
+            case "MergeHuskySort":
+                consumer = new MergeHuskySort<>(coder)::sort;
+                break;
+            case "DualPivotQuicksort":
+                consumer = PureDualPivotQuicksort::sort;
+                break;
+            default:
+                throw new IllegalArgumentException("NumberSorterBenchmark: unknown sorter: " + sorter);
+        }
+        numberSorter = ys -> consumer.accept((X[]) ys);
+    }
+
+    private Object[] source;
+    private Object[] xs;
+    private Consumer<Object[]> numberSorter;
+}
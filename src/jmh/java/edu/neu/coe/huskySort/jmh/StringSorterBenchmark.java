@@ -0,0 +1,69 @@
+package edu.neu.coe.huskySort.jmh;
+
+import edu.neu.coe.huskySort.sort.huskySort.HuskySortBenchmark;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for sorting words taken (randomly, with replacement) from one of the Leipzig corpora.
+ * <p>
+ * The parameters are the sorter (see StringSorters), the coder (for the HuskySorts), the number of words and the corpus.
+ * The full cross-product of the default parameters is very large: use -p to select particular values.
+ * <p>
+ * A new random selection of words is made before each invocation (this is not timed);
+ * the sorted array is returned from the benchmark method so that the sort cannot be eliminated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StringSorterBenchmark {
+
+    @Param({"PureHuskySort", "PureHuskySort/Indexed", "MergeHuskySort", "IntroHuskySort", "IntroHuskySort/Indexed", "QuickHuskySort", "ParallelIntroHuskySort", "RadixHuskySort", "PartialHuskySort/100", "HuskyBucketSort",
+            "SystemSort", "DualPivotQuicksort", "MergeSortBasic", "IntroSort", "QuickSort_3way", "QuickSort_DualPivot", "TimSort",
+            "MSDStringSort", "MSDStringSort/Parallel"})
+    public String sorter;
+
+    @Param({"ASCII", "English", "Unicode"})
+    public String coder;
+
+    @Param({"10000", "100000", "1000000"})
+    public int n;
+
+    @Param({"eng-uk_web_2002_100K-words.txt", "eng-uk_web_2002_1M-sentences.txt", "rus-su_web_2015_10K-words.txt", "zho-simp-tw_web_2014_10K-sentences.txt"})
+    public String corpus;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        words = HuskySortBenchmark.getLeipzigWordsFromResource(corpus);
+        stringSorter = StringSorters.create(sorter, StringSorters.getCoder(coder), n, StringSorters.getConfig());
+        xs = new String[n];
+        random = new Random(0L);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        for (int i = 0; i < n; i++) xs[i] = words[random.nextInt(words.length)];
+        stringSorter.prepare(xs);
+    }
+
+    @Benchmark
+    public String[] sort() {
+        stringSorter.accept(xs);
+        return xs;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws Exception {
+        stringSorter.close();
+    }
+
+    private String[] words;
+    private StringSorters.StringSorter stringSorter;
+    private String[] xs;
+    private Random random;
+}
@@ -0,0 +1,168 @@
+package edu.neu.coe.huskySort.jmh;
+
+import edu.neu.coe.huskySort.sort.SortWithHelper;
+import edu.neu.coe.huskySort.sort.huskySort.*;
+import edu.neu.coe.huskySort.sort.huskySortUtils.ChineseCharacter;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper;
+import edu.neu.coe.huskySort.sort.radix.Alphabet;
+import edu.neu.coe.huskySort.sort.radix.CharacterMap;
+import edu.neu.coe.huskySort.sort.radix.MSDStringSort;
+import edu.neu.coe.huskySort.sort.radix.UnicodeMSDStringSort;
+import edu.neu.coe.huskySort.sort.simple.*;
+import edu.neu.coe.huskySort.util.Config;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Factory for the String sorters (and coders) which are benchmarked by the JMH benchmarks.
+ * <p>
+ * The names of the sorters are those used for the sorter parameter of StringSorterBenchmark.
+ * NOTE: UnicodeMSDStringSort (which orders by Pinyin) is not among the default parameters: it is intended for the Chinese corpus.
+ */
+final class StringSorters {
+
+    /**
+     * A String sorter which (mutatingly) sorts an array and which may need to be closed.
+     */
+    interface StringSorter extends Consumer<String[]>, AutoCloseable {
+        /**
+         * Method to prepare xs for sorting (this is not timed).
+         *
+         * @param xs the array which is about to be sorted.
+         */
+        default void prepare(final String[] xs) {
+        }
+
+        @Override
+        default void close() {
+        }
+    }
+
+    /**
+     * Method to create the named String sorter.
+     *
+     * @param name   the name of the sorter.
+     * @param coder  the Husky coder (ignored by sorters which are not HuskySorts).
+     * @param n      the number of elements to be sorted.
+     * @param config the configuration.
+     * @return a StringSorter.
+     */
+    static StringSorter create(final String name, final HuskyCoder<String> coder, final int n, final Config config) {
+        switch (name) {
+            // huskySort
+            case "PureHuskySort":
+                return new PureHuskySort<>(coder, false, false)::sort;
+            case "PureHuskySort/Indexed":
+                return new PureHuskySort<>(coder, false, false, true)::sort;
+            case "MergeHuskySort":
+                return new MergeHuskySort<>(coder)::sort;
+            case "IntroHuskySort":
+                return withHelper(new IntroHuskySort<>(name, coder, Arrays::sort, config), n);
+            case "IntroHuskySort/Indexed":
+                final IntroHuskySort<String> sorter = new IntroHuskySort<>(name, coder, Arrays::sort, config);
+                sorter.setIndexPermutation(true);
+                return withHelper(sorter, n);
+            case "QuickHuskySort":
+                return withHelper(new QuickHuskySort<>(name, n, coder, Arrays::sort, config), n);
+            case "ParallelIntroHuskySort":
+                return withHelper(new ParallelIntroHuskySort<>(name, coder, Arrays::sort, config), n);
+            case "RadixHuskySort":
+                return withHelper(new RadixHuskySort<>(name, n, coder, Arrays::sort, config, RadixHuskySort.DEFAULT_RADIX_BITS), n);
+            case "PartialHuskySort/100":
+                return withHelper(new PartialHuskySort<>(coder, 100, config), n);
+            case "HuskyBucketSort":
+                return withHelper(new HuskyBucketSort<>(1000, coder, config), n);
+            // simple
+            case "SystemSort":
+                return Arrays::sort;
+            case "DualPivotQuicksort":
+                return PureDualPivotQuicksort::sort;
+            case "MergeSortBasic":
+                return withHelper(new MergeSortBasic<>(n, config), n);
+            case "IntroSort":
+                return withHelper(new IntroSort<>(n, config), n);
+            case "QuickSort_3way":
+                return withHelper(new QuickSort_3way<>(n, config), n);
+            case "QuickSort_DualPivot":
+                return withHelper(new QuickSort_DualPivot<>(n, config), n);
+            case "TimSort":
+                return withHelper(new TimSort<>(n, config), n);
+            // radix
+            case "MSDStringSort":
+                final MSDStringSort msdStringSort = new MSDStringSort(new Alphabet(Alphabet.RADIX_UNICODE));
+                return xs -> {
+                    msdStringSort.reset();
+                    msdStringSort.sort(xs);
+                };
+            case "MSDStringSort/Parallel":
+                final MSDStringSort parallelMsdStringSort = new MSDStringSort(new Alphabet(Alphabet.RADIX_UNICODE), MSDStringSort.DEFAULT_CUTOFF, ForkJoinPool.commonPool(), MSDStringSort.DEFAULT_PARALLEL_THRESHOLD);
+                return xs -> {
+                    parallelMsdStringSort.reset();
+                    parallelMsdStringSort.sort(xs);
+                };
+            case "UnicodeMSDStringSort":
+                return new UnicodeMSDStringSort(new CharacterMap(ChineseCharacter::new, "Hanyu", '阿'))::sortArray;
+            default:
+                throw new IllegalArgumentException("StringSorters: unknown sorter: " + name);
+        }
+    }
+
+    /**
+     * Method to get a String coder by name.
+     * In addition to the sequence coders known to HuskySortHelper (ASCII, English, Unicode and UTF8), Pinyin and TrainedEnglish are also recognized.
+     *
+     * @param name the name of the coder.
+     * @return the coder.
+     */
+    static HuskyCoder<String> getCoder(final String name) {
+        if ("Pinyin".equals(name)) return HuskyCoderFactory.chineseEncoderPinyin;
+        if ("TrainedEnglish".equals(name))
+            try {
+                return HuskyCoderFactory.trainedEnglishCoder();
+            } catch (final IOException e) {
+                throw new RuntimeException("StringSorters: cannot load trained coder", e);
+            }
+        return HuskySortHelper.getSequenceCoderByName(name);
+    }
+
+    /**
+     * Method to get a configuration which is suitable for benchmarking, i.e. uninstrumented.
+     *
+     * @return a Config.
+     */
+    static Config getConfig() {
+        try {
+            return Config.load(StringSorters.class).copy(Config.HELPER, Config.INSTRUMENT, "false");
+        } catch (final IOException e) {
+            throw new RuntimeException("StringSorters: cannot load configuration", e);
+        }
+    }
+
+    private static StringSorter withHelper(final SortWithHelper<String> sorter, final int n) {
+        sorter.init(n);
+        return new StringSorter() {
+            @Override
+            public void prepare(final String[] xs) {
+                sorter.preProcess(xs);
+            }
+
+            @Override
+            public void accept(final String[] xs) {
+                sorter.mutatingSort(xs);
+            }
+
+            @Override
+            public void close() {
+                sorter.close();
+            }
+        };
+    }
+
+    private StringSorters() {
+    }
+}
@@ -0,0 +1,299 @@
+package edu.neu.coe.huskySort.sort.external;
+
+import edu.neu.coe.huskySort.sort.huskySort.PureHuskySort;
+import edu.neu.coe.huskySort.sort.huskySortUtils.Coding;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.util.LazyLogger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class implements an external merge sort (for text files which are too large for the heap) based on HuskySort.
+ * Each line of the input file is one element to be sorted.
+ * <p>
+ * The sort proceeds in two phases:
+ * <ol>
+ *     <li>Run formation: the input is read in chunks of runSize lines, each of which is sorted by PureHuskySort.
+ *     Each sorted chunk is spilled to a binary run (see RunWriter) in which every record carries its Husky code.</li>
+ *     <li>Merge: up to fanIn runs at a time are merged by a loser tree which is keyed first on the stored codes.
+ *     The Strings themselves are compared only when two codes are equal (and the coder is not perfect).
+ *     If there are more than fanIn runs, intermediate (binary) runs are merged until there are no more than fanIn.</li>
+ * </ol>
+ * The resulting order is the same as that of PureHuskySort with the same coder
+ * (i.e. the natural order of String, or the order of the coder's Collator).
+ * Every line of the output is terminated by a newline.
+ */
+public final class ExternalHuskySort {
+
+    /**
+     * Main program to sort the lines of a file.
+     *
+     * @param args the input file, the output file and, optionally, the run size and the fan-in.
+     * @throws IOException if either file cannot be read or written.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) throw new IllegalArgumentException("usage: ExternalHuskySort input output [runSize [fanIn]]");
+        final int runSize = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_RUN_SIZE;
+        final int fanIn = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_FAN_IN;
+        final ExternalHuskySort sorter = new ExternalHuskySort(HuskyCoderFactory.unicodeCoder, runSize, fanIn);
+        final long lines = sorter.sort(Paths.get(args[0]), Paths.get(args[1]));
+        logger.info("ExternalHuskySort: sorted " + lines + " lines from " + args[0] + " into " + args[1] + " using " + sorter.getRuns() + " runs and " + sorter.getMergePasses() + " merge passes");
+    }
+
+    /**
+     * Method to sort the lines of the input file into the output file.
+     *
+     * @param input  the path of the input file.
+     * @param output the path of the output file (which will be created or truncated).
+     * @return the number of lines sorted.
+     * @throws IOException if either file (or any temporary run) cannot be read or written.
+     */
+    public long sort(final Path input, final Path output) throws IOException {
+        mergePasses = 0;
+        List<Path> runs = formRuns(input);
+        this.runs = runs.size();
+        try {
+            while (runs.size() > fanIn) runs = mergePass(runs);
+            long lines = 0;
+            try (final BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+                 final LoserTree tree = new LoserTree(open(runs))) {
+                while (tree.hasNext()) {
+                    final RunReader winner = tree.next();
+                    writer.write(winner.getString());
+                    writer.write('\n');
+                    tree.replay();
+                    lines++;
+                }
+            }
+            mergePasses++;
+            return lines;
+        } finally {
+            for (final Path run : runs) Files.deleteIfExists(run);
+        }
+    }
+
+    /**
+     * @return the number of runs formed by the most recent sort.
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+    /**
+     * @return the number of merge passes (including the final pass) performed by the most recent sort.
+     */
+    public int getMergePasses() {
+        return mergePasses;
+    }
+
+    /**
+     * Primary constructor.
+     *
+     * @param huskyCoder    the Husky coder for the Strings.
+     * @param runSize       the (maximum) number of lines in each run.
+     * @param fanIn         the (maximum) number of runs merged at one time (at least 2).
+     * @param bufferSize    the size of the buffer (in bytes) of each run which is written or read.
+     * @param tempDirectory the directory for the runs (or null for the default temporary-file directory).
+     */
+    public ExternalHuskySort(final HuskyCoder<String> huskyCoder, final int runSize, final int fanIn, final int bufferSize, final Path tempDirectory) {
+        if (runSize < 1) throw new IllegalArgumentException("ExternalHuskySort: runSize must be positive: " + runSize);
+        if (fanIn < 2) throw new IllegalArgumentException("ExternalHuskySort: fanIn must be at least 2: " + fanIn);
+        if (bufferSize < RunReader.HEADER_BYTES)
+            throw new IllegalArgumentException("ExternalHuskySort: bufferSize must be at least " + RunReader.HEADER_BYTES + ": " + bufferSize);
+        this.huskyCoder = huskyCoder;
+        this.runSize = runSize;
+        this.fanIn = fanIn;
+        this.bufferSize = bufferSize;
+        this.tempDirectory = tempDirectory;
+        this.sorter = new PureHuskySort<>(huskyCoder, false, false);
+        this.collator = huskyCoder.getCollator();
+    }
+
+    /**
+     * Secondary constructor with the default buffer size and temporary-file directory.
+     *
+     * @param huskyCoder the Husky coder for the Strings.
+     * @param runSize    the (maximum) number of lines in each run.
+     * @param fanIn      the (maximum) number of runs merged at one time (at least 2).
+     */
+    public ExternalHuskySort(final HuskyCoder<String> huskyCoder, final int runSize, final int fanIn) {
+        this(huskyCoder, runSize, fanIn, DEFAULT_BUFFER_SIZE, null);
+    }
+
+    /**
+     * Run formation: sort the input, one chunk at a time, and spill each chunk as a run.
+     */
+    private List<Path> formRuns(final Path input) throws IOException {
+        final List<Path> result = new ArrayList<>();
+        try (final BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            final String[] chunk = new String[runSize];
+            int n;
+            while ((n = readChunk(reader, chunk)) > 0) {
+                final String[] xs = n == runSize ? chunk : Arrays.copyOf(chunk, n);
+                final Coding coding = sorter.sortCoded(xs);
+                final Path run = createRun();
+                result.add(run);
+                try (final RunWriter writer = new RunWriter(run, bufferSize)) {
+                    for (int i = 0; i < n; i++) writer.write(coding.longs[i], xs[i]);
+                }
+            }
+        } catch (final IOException | RuntimeException e) {
+            for (final Path run : result) Files.deleteIfExists(run);
+            throw e;
+        }
+        return result;
+    }
+
+    private static int readChunk(final BufferedReader reader, final String[] chunk) throws IOException {
+        int n = 0;
+        String line;
+        while (n < chunk.length && (line = reader.readLine()) != null) chunk[n++] = line;
+        return n;
+    }
+
+    /**
+     * Merge the given runs, fanIn at a time, into (fewer) new runs.
+     * The given runs are deleted once they have been merged.
+     */
+    private List<Path> mergePass(final List<Path> runs) throws IOException {
+        final List<Path> result = new ArrayList<>();
+        try {
+            for (int i = 0; i < runs.size(); i += fanIn) {
+                final List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                final Path run = createRun();
+                result.add(run);
+                try (final RunWriter writer = new RunWriter(run, bufferSize);
+                     final LoserTree tree = new LoserTree(open(group))) {
+                    while (tree.hasNext()) {
+                        final RunReader winner = tree.next();
+                        writer.write(winner.getCode(), winner.getString());
+                        tree.replay();
+                    }
+                }
+            }
+        } catch (final IOException | RuntimeException e) {
+            for (final Path run : result) Files.deleteIfExists(run);
+            throw e;
+        } finally {
+            for (final Path run : runs) Files.deleteIfExists(run);
+        }
+        mergePasses++;
+        return result;
+    }
+
+    private RunReader[] open(final List<Path> runs) throws IOException {
+        final RunReader[] result = new RunReader[runs.size()];
+        try {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = new RunReader(runs.get(i), bufferSize);
+                result[i].advance();
+            }
+        } catch (final IOException e) {
+            for (final RunReader reader : result) if (reader != null) reader.close();
+            throw e;
+        }
+        return result;
+    }
+
+    private Path createRun() throws IOException {
+        return tempDirectory == null ? Files.createTempFile("husky", ".run") : Files.createTempFile(tempDirectory, "husky", ".run");
+    }
+
+    /**
+     * Compare the current records of two runs: first by code and then (only if the codes are equal) by String.
+     * An exhausted run compares greater than any other.
+     * NOTE: ties are broken by the index of the run so that the merge is stable.
+     */
+    private boolean less(final RunReader[] readers, final int i, final int j) {
+        final RunReader a = readers[i], b = readers[j];
+        if (a.isExhausted()) return false;
+        if (b.isExhausted()) return true;
+        final int cf = Long.compare(a.getCode(), b.getCode());
+        if (cf != 0) return cf < 0;
+        if (!huskyCoder.perfect()) {
+            final int cs = collator == null ? a.getString().compareTo(b.getString()) : collator.compare(a.getString(), b.getString());
+            if (cs != 0) return cs < 0;
+        }
+        return i < j;
+    }
+
+    /**
+     * Loser tree over k runs.
+     * The leaves (runs) are the implicit nodes k thru 2k-1; node n (for 1 &lt;= n &lt; k) records the loser of the match
+     * between the winners of its children (2n and 2n+1); node 0 records the overall winner.
+     * After the winner has been consumed (and advanced), replay restores the tree with only log2(k) comparisons.
+     */
+    private final class LoserTree implements AutoCloseable {
+
+        boolean hasNext() {
+            return k > 0 && !readers[tree[0]].isExhausted();
+        }
+
+        RunReader next() {
+            return readers[tree[0]];
+        }
+
+        void replay() throws IOException {
+            int s = tree[0];
+            readers[s].advance();
+            for (int n = (s + k) / 2; n >= 1; n /= 2)
+                if (less(readers, tree[n], s)) {
+                    final int loser = s;
+                    s = tree[n];
+                    tree[n] = loser;
+                }
+            tree[0] = s;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (final RunReader reader : readers) reader.close();
+        }
+
+        LoserTree(final RunReader[] readers) {
+            this.readers = readers;
+            this.k = readers.length;
+            this.tree = new int[Math.max(k, 1)];
+            final int[] winners = new int[2 * k];
+            for (int i = 0; i < k; i++) winners[k + i] = i;
+            for (int n = k - 1; n >= 1; n--) {
+                final int a = winners[2 * n], b = winners[2 * n + 1];
+                final boolean aWins = less(readers, a, b);
+                winners[n] = aWins ? a : b;
+                tree[n] = aWins ? b : a;
+            }
+            if (k > 0) tree[0] = k == 1 ? 0 : winners[1];
+        }
+
+        private final RunReader[] readers;
+        private final int k;
+        private final int[] tree;
+    }
+
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+    public static final int DEFAULT_FAN_IN = 64;
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final HuskyCoder<String> huskyCoder;
+    private final int runSize;
+    private final int fanIn;
+    private final int bufferSize;
+    private final Path tempDirectory;
+    private final PureHuskySort<String> sorter;
+    private final Collator collator;
+    private int runs = 0;
+    private int mergePasses = 0;
+
+    private final static LazyLogger logger = new LazyLogger(ExternalHuskySort.class);
+}
@@ -0,0 +1,310 @@
+package edu.neu.coe.huskySort.sort.external;
+
+import edu.neu.coe.huskySort.sort.SortException;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.util.LazyLogger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class implements an external-memory form of HuskySort for (UTF-8) text files which are too large for the heap.
+ * Each line of the input file is one element to be sorted.
+ * <p>
+ * The pipeline is as follows:
+ * <ol>
+ *     <li>The input file is memory-mapped (FileChannel.map) in segments (so that files larger than 2GB can be mapped).</li>
+ *     <li>Each line is represented by a husky code (the utf8 coding of HuskyCoderFactory, taken directly from the mapped bytes)
+ *     and its offset and length (packed into one long).
+ *     These are stored off-heap (see OffHeapLongArray): no String is ever created.</li>
+ *     <li>First pass: the records are sorted by husky code alone.</li>
+ *     <li>Second pass: each span of records which share the same husky code is sorted by comparing the mapped bytes.</li>
+ *     <li>The sorted lines are written to the output file by gathering writes of slices of the mapped input
+ *     (i.e. without copying any bytes into the heap).</li>
+ * </ol>
+ * The resulting order is the lexicographic order of the (unsigned) UTF-8 bytes, which is the same as code-point order.
+ * NOTE: that is not quite the same as String.compareTo (which compares UTF-16 chars) for supplementary characters.
+ * <p>
+ * A trailing carriage return (of a CRLF line ending) is not considered part of a line.
+ * Every line of the output is terminated by a newline.
+ */
+public final class MappedHuskySort {
+
+    /**
+     * Main program to sort the lines of a file.
+     *
+     * @param args the input file and the output file.
+     * @throws IOException if either file cannot be read or written.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) throw new IllegalArgumentException("usage: MappedHuskySort input output");
+        final long lines = new MappedHuskySort().sort(Paths.get(args[0]), Paths.get(args[1]));
+        logger.info("MappedHuskySort: sorted " + lines + " lines from " + args[0] + " into " + args[1]);
+    }
+
+    /**
+     * Method to sort the lines of the input file into the output file.
+     *
+     * @param input  the path of the input file.
+     * @param output the path of the output file (which will be created or truncated).
+     * @return the number of lines sorted.
+     * @throws IOException if either file cannot be read or written.
+     */
+    public long sort(final Path input, final Path output) throws IOException {
+        try (final FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             final FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             final OffHeapLongArray codes = new OffHeapLongArray();
+             final OffHeapLongArray positions = new OffHeapLongArray()) {
+            this.codes = codes;
+            this.positions = positions;
+            map(in);
+            scan(in.size());
+            final long n = codes.size();
+            if (n > 1) {
+                sortByCode(0, n - 1);
+                resolveTies(n);
+            }
+            write(out, n);
+            return n;
+        } finally {
+            this.codes = null;
+            this.positions = null;
+            this.segments = null;
+        }
+    }
+
+    /**
+     * @return the number of spans of equal husky codes which were resolved by comparing bytes (in the most recent sort).
+     */
+    public long getTieSpans() {
+        return tieSpans;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param segmentBits   the log (base 2) of the size of each mapped segment (at most 30).
+     * @param maxLineLength the maximum length of a line, in bytes (less than 2^24).
+     */
+    public MappedHuskySort(final int segmentBits, final int maxLineLength) {
+        if (segmentBits < 1 || segmentBits > 30)
+            throw new IllegalArgumentException("MappedHuskySort: segmentBits must be between 1 and 30: " + segmentBits);
+        if (maxLineLength < 1 || maxLineLength > LENGTH_MASK)
+            throw new IllegalArgumentException("MappedHuskySort: maxLineLength must be between 1 and " + LENGTH_MASK + ": " + maxLineLength);
+        this.segmentBits = segmentBits;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Constructor with segments of 1GB and maximum line length of 64KB.
+     */
+    public MappedHuskySort() {
+        this(30, 1 << 16);
+    }
+
+    /**
+     * Method to map the input file as a sequence of segments.
+     * Each segment overlaps the next by maxLineLength + 1 bytes so that every line is entirely within
+     * the segment in which it begins.
+     */
+    private void map(final FileChannel in) throws IOException {
+        final long size = in.size();
+        final long segmentSize = 1L << segmentBits;
+        final int nSegments = (int) ((size + segmentSize - 1) >>> segmentBits);
+        segments = new MappedByteBuffer[nSegments];
+        for (int k = 0; k < nSegments; k++) {
+            final long start = (long) k << segmentBits;
+            segments[k] = in.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, segmentSize + maxLineLength + 1));
+        }
+    }
+
+    /**
+     * Method to find all of the lines in the mapped input and to record their husky codes and positions.
+     */
+    private void scan(final long size) {
+        long lineStart = 0;
+        for (int k = 0; k < segments.length; k++) {
+            final MappedByteBuffer segment = segments[k];
+            final long start = (long) k << segmentBits;
+            final int end = (int) Math.min(size - start, 1L << segmentBits);
+            for (int i = 0; i < end; i++)
+                if (segment.get(i) == '\n') {
+                    addLine(lineStart, start + i);
+                    lineStart = start + i + 1;
+                }
+        }
+        if (lineStart < size) addLine(lineStart, size);
+    }
+
+    private void addLine(final long offset, final long end) {
+        long length = end - offset;
+        if (length > 0 && byteAt(end - 1) == '\r') length--;
+        if (length > maxLineLength)
+            throw new SortException("MappedHuskySort: line at offset " + offset + " is longer than " + maxLineLength + " bytes");
+        codes.add(HuskyCoderFactory.utf8ToLong(segment(offset), index(offset), (int) length));
+        positions.add(offset << LENGTH_BITS | length);
+    }
+
+    /**
+     * First pass: sort the records from lo thru hi (inclusive) by husky code.
+     * This is a 3-way quicksort (with median-of-three pivots) which recurses on the smaller partition only.
+     */
+    private void sortByCode(long lo, long hi) {
+        while (hi - lo >= INSERTION_THRESHOLD) {
+            swap(lo, medianOfThreeByCode(lo, lo + (hi - lo) / 2, hi));
+            final long v = codes.get(lo);
+            long lt = lo, gt = hi, i = lo + 1;
+            while (i <= gt) {
+                final long c = codes.get(i);
+                if (c < v) swap(lt++, i++);
+                else if (c > v) swap(i, gt--);
+                else i++;
+            }
+            if (lt - lo < hi - gt) {
+                sortByCode(lo, lt - 1);
+                lo = gt + 1;
+            } else {
+                sortByCode(gt + 1, hi);
+                hi = lt - 1;
+            }
+        }
+        for (long i = lo + 1; i <= hi; i++)
+            for (long j = i; j > lo && codes.get(j) < codes.get(j - 1); j--) swap(j, j - 1);
+    }
+
+    private long medianOfThreeByCode(final long a, final long b, final long c) {
+        final long x = codes.get(a), y = codes.get(b), z = codes.get(c);
+        if (x < y) return y < z ? b : x < z ? c : a;
+        else return x < z ? a : y < z ? c : b;
+    }
+
+    /**
+     * Second pass: sort each span of records which have equal husky codes by comparing their bytes.
+     */
+    private void resolveTies(final long n) {
+        tieSpans = 0;
+        long i = 0;
+        while (i < n) {
+            final long code = codes.get(i);
+            long j = i + 1;
+            while (j < n && codes.get(j) == code) j++;
+            if (j - i > 1) {
+                tieSpans++;
+                sortByBytes(i, j - 1);
+            }
+            i = j;
+        }
+    }
+
+    /**
+     * Sort the records from lo thru hi (inclusive) by comparing their bytes.
+     * As in sortByCode, this is a 3-way quicksort: the pivot is always to be found at index lt.
+     */
+    private void sortByBytes(long lo, long hi) {
+        while (hi - lo >= INSERTION_THRESHOLD) {
+            swap(lo, lo + (hi - lo) / 2);
+            long lt = lo, gt = hi, i = lo + 1;
+            while (i <= gt) {
+                final int cf = compareBytes(i, lt);
+                if (cf < 0) swap(lt++, i++);
+                else if (cf > 0) swap(i, gt--);
+                else i++;
+            }
+            if (lt - lo < hi - gt) {
+                sortByBytes(lo, lt - 1);
+                lo = gt + 1;
+            } else {
+                sortByBytes(gt + 1, hi);
+                hi = lt - 1;
+            }
+        }
+        for (long i = lo + 1; i <= hi; i++)
+            for (long j = i; j > lo && compareBytes(j, j - 1) < 0; j--) swap(j, j - 1);
+    }
+
+    /**
+     * Compare the lines of records i and j, which are known to have the same husky code.
+     * NOTE: equal codes imply that (at least) the first seven bytes of each line are the same (or are padding),
+     * so these are not compared again.
+     */
+    private int compareBytes(final long i, final long j) {
+        final long pi = positions.get(i), pj = positions.get(j);
+        final long oi = pi >>> LENGTH_BITS, oj = pj >>> LENGTH_BITS;
+        final int li = (int) (pi & LENGTH_MASK), lj = (int) (pj & LENGTH_MASK);
+        final ByteBuffer bi = segment(oi), bj = segment(oj);
+        final int xi = index(oi), xj = index(oj);
+        final int length = Math.min(li, lj);
+        for (int k = Math.min(length, SKIP_BYTES); k < length; k++) {
+            final int cf = Integer.compare(bi.get(xi + k) & 0xFF, bj.get(xj + k) & 0xFF);
+            if (cf != 0) return cf;
+        }
+        return Integer.compare(li, lj);
+    }
+
+    /**
+     * Write the sorted lines by gathering slices of the mapped input (each followed by a newline).
+     */
+    private void write(final FileChannel out, final long n) throws IOException {
+        final ByteBuffer[] buffers = new ByteBuffer[2 * WRITE_BATCH];
+        final ByteBuffer[] newlines = new ByteBuffer[WRITE_BATCH];
+        for (int k = 0; k < WRITE_BATCH; k++) newlines[k] = ByteBuffer.wrap(NEWLINE);
+        int count = 0;
+        for (long i = 0; i < n; i++) {
+            final long p = positions.get(i);
+            final long offset = p >>> LENGTH_BITS;
+            buffers[2 * count] = segment(offset).slice(index(offset), (int) (p & LENGTH_MASK));
+            buffers[2 * count + 1] = newlines[count].rewind();
+            if (++count == WRITE_BATCH) {
+                writeFully(out, buffers, 2 * count);
+                count = 0;
+            }
+        }
+        writeFully(out, buffers, 2 * count);
+    }
+
+    private static void writeFully(final FileChannel out, final ByteBuffer[] buffers, final int length) throws IOException {
+        if (length == 0) return;
+        while (buffers[length - 1].hasRemaining()) out.write(buffers, 0, length);
+    }
+
+    private void swap(final long i, final long j) {
+        codes.swap(i, j);
+        positions.swap(i, j);
+    }
+
+    private byte byteAt(final long offset) {
+        return segment(offset).get(index(offset));
+    }
+
+    private ByteBuffer segment(final long offset) {
+        return segments[(int) (offset >>> segmentBits)];
+    }
+
+    private int index(final long offset) {
+        return (int) (offset & ((1L << segmentBits) - 1));
+    }
+
+    // NOTE: the length of a line is packed into the low 24 bits of its position; the offset is in the high 40 bits.
+    static final int LENGTH_BITS = 24;
+    static final long LENGTH_MASK = (1L << LENGTH_BITS) - 1;
+
+    private static final int INSERTION_THRESHOLD = 16;
+    private static final int SKIP_BYTES = 7;
+    private static final int WRITE_BATCH = 1024;
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final int segmentBits;
+    private final int maxLineLength;
+
+    private MappedByteBuffer[] segments;
+    private OffHeapLongArray codes;
+    private OffHeapLongArray positions;
+    private long tieSpans = 0;
+
+    private final static LazyLogger logger = new LazyLogger(MappedHuskySort.class);
+}
@@ -0,0 +1,176 @@
+package edu.neu.coe.huskySort.sort.external;
+
+import edu.neu.coe.huskySort.util.LazyLogger;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Class to model a growable array of longs which is stored off-heap (in direct buffers)
+ * and which may have more than Integer.MAX_VALUE elements.
+ * <p>
+ * The longs are stored in chunks (each of which is a direct buffer) so that no single buffer exceeds the 2GB limit.
+ * Additional chunks are allocated only as required by add.
+ * The last chunk grows geometrically (from INITIAL_CAPACITY longs, doubling up to the full chunk size),
+ * so that a small array does not reserve a whole chunk.
+ * <p>
+ * The direct buffers are released explicitly by close (and when a chunk grows) where the platform allows it;
+ * otherwise, their memory is released only when they are garbage-collected.
+ */
+final class OffHeapLongArray implements AutoCloseable {
+
+    /**
+     * Method to append a long to the end of this array.
+     *
+     * @param x the value to append.
+     */
+    void add(final long x) {
+        final int chunk = (int) (size >>> chunkBits);
+        final int offset = (int) (size & mask);
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk + 1);
+            buffers = Arrays.copyOf(buffers, chunk + 1);
+        }
+        if (chunks[chunk] == null || offset == chunks[chunk].capacity()) grow(chunk);
+        chunks[chunk].put(offset, x);
+        size++;
+    }
+
+    /**
+     * @param i the index.
+     * @return the long at index i.
+     */
+    long get(final long i) {
+        return chunks[(int) (i >>> chunkBits)].get((int) (i & mask));
+    }
+
+    /**
+     * @param i the index.
+     * @param x the value to be stored at index i.
+     */
+    void set(final long i, final long x) {
+        chunks[(int) (i >>> chunkBits)].put((int) (i & mask), x);
+    }
+
+    /**
+     * Swap the longs at indices i and j.
+     *
+     * @param i one index.
+     * @param j the other index.
+     */
+    void swap(final long i, final long j) {
+        final long temp = get(i);
+        set(i, get(j));
+        set(j, temp);
+    }
+
+    /**
+     * @return the number of longs in this array.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Release the chunks of this array.
+     */
+    @Override
+    public void close() {
+        for (final ByteBuffer buffer : buffers) free(buffer);
+        chunks = new LongBuffer[0];
+        buffers = new ByteBuffer[0];
+        size = 0;
+    }
+
+    /**
+     * @return the number of longs which can be held without allocating another direct buffer.
+     */
+    long capacity() {
+        final int n = chunks.length;
+        return n == 0 ? 0 : ((long) (n - 1) << chunkBits) + chunks[n - 1].capacity();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param chunkBits the log (base 2) of the number of longs in each chunk.
+     */
+    OffHeapLongArray(final int chunkBits) {
+        this.chunkBits = chunkBits;
+        this.mask = (1L << chunkBits) - 1;
+    }
+
+    /**
+     * Constructor with chunks of DEFAULT_CHUNK_BITS.
+     */
+    OffHeapLongArray() {
+        this(DEFAULT_CHUNK_BITS);
+    }
+
+    // NOTE: 2^24 longs, i.e. 128MB per chunk.
+    static final int DEFAULT_CHUNK_BITS = 24;
+
+    // NOTE: 2^10 longs, i.e. 8KB for the first allocation of each chunk.
+    static final int INITIAL_CAPACITY = 1 << 10;
+
+    /**
+     * Method to (re-)allocate the given chunk, doubling its capacity (up to the full chunk size) and copying its contents.
+     */
+    private void grow(final int chunk) {
+        final LongBuffer old = chunks[chunk];
+        final int capacity = old == null ? INITIAL_CAPACITY : old.capacity() << 1;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(Long.BYTES * (int) Math.min(capacity, mask + 1)).order(ByteOrder.nativeOrder());
+        final LongBuffer result = buffer.asLongBuffer();
+        if (old != null) {
+            result.put(old.duplicate().clear());
+            free(buffers[chunk]);
+        }
+        chunks[chunk] = result;
+        buffers[chunk] = buffer;
+    }
+
+    /**
+     * Method to release the memory of a direct buffer without waiting for it to be garbage-collected.
+     * NOTE: the buffer (and any view of it) must not be used again.
+     * If the platform does not allow this, the memory is left to the garbage collector.
+     */
+    private static void free(final ByteBuffer buffer) {
+        if (unsafe != null && invokeCleaner != null)
+            try {
+                invokeCleaner.invoke(unsafe, buffer);
+            } catch (final ReflectiveOperationException | RuntimeException e) {
+                logger.debug("OffHeapLongArray: cannot release direct buffer: " + e);
+            }
+    }
+
+    private final static LazyLogger logger = new LazyLogger(OffHeapLongArray.class);
+
+    private static final Object unsafe;
+    private static final Method invokeCleaner;
+
+    static {
+        Object u = null;
+        Method m = null;
+        try {
+            final Class<?> clazz = Class.forName("sun.misc.Unsafe");
+            final Field field = clazz.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            u = field.get(null);
+            m = clazz.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            // NOTE: before Java 9 (or without the jdk.unsupported module), direct buffers are released only by the garbage collector.
+        }
+        unsafe = u;
+        invokeCleaner = m;
+    }
+
+    private final int chunkBits;
+    private final long mask;
+    private LongBuffer[] chunks = new LongBuffer[0];
+    private ByteBuffer[] buffers = new ByteBuffer[0];
+    private long size = 0;
+}
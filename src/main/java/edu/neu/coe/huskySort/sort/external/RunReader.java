@@ -0,0 +1,109 @@
+package edu.neu.coe.huskySort.sort.external;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class to read, one record at a time, a sorted run which was written by RunWriter.
+ * <p>
+ * The current record is available from getCode and getString until advance is called again.
+ * Once the run is exhausted, advance returns false (and the channel is closed).
+ */
+final class RunReader implements AutoCloseable {
+
+    /**
+     * Method to read the next record.
+     *
+     * @return true if there was another record; false if the run is exhausted.
+     * @throws IOException if the run cannot be read.
+     */
+    boolean advance() throws IOException {
+        if (!fill(HEADER_BYTES)) {
+            exhausted = true;
+            close();
+            return false;
+        }
+        code = buffer.getLong();
+        final int length = buffer.getInt();
+        if (!fill(length)) throw new IOException("RunReader: truncated record in " + path);
+        if (bytes.length < length) bytes = new byte[Math.max(length, 2 * bytes.length)];
+        buffer.get(bytes, 0, length);
+        string = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        return true;
+    }
+
+    /**
+     * @return the Husky code of the current record.
+     */
+    long getCode() {
+        return code;
+    }
+
+    /**
+     * @return the String of the current record.
+     */
+    String getString() {
+        return string;
+    }
+
+    /**
+     * @return true if the run has been exhausted.
+     */
+    boolean isExhausted() {
+        return exhausted;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Constructor.
+     * NOTE: the first record is not read until advance is called.
+     *
+     * @param path       the path of the run.
+     * @param bufferSize the size of the buffer, in bytes (at least HEADER_BYTES).
+     * @throws IOException if the run cannot be opened.
+     */
+    RunReader(final Path path, final int bufferSize) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        buffer.flip();
+    }
+
+    /**
+     * Ensure that (at least) n bytes are remaining in the buffer, reading from the channel if necessary.
+     * If the buffer is too small for n bytes, it is replaced by a larger buffer.
+     *
+     * @return false if the channel reached end-of-file before n bytes were available.
+     */
+    private boolean fill(final int n) throws IOException {
+        if (buffer.remaining() >= n) return true;
+        if (buffer.capacity() < n) {
+            final ByteBuffer larger = ByteBuffer.allocateDirect(n);
+            larger.put(buffer);
+            buffer = larger;
+        } else buffer.compact();
+        while (buffer.position() < n)
+            if (channel.read(buffer) < 0) break;
+        buffer.flip();
+        return buffer.remaining() >= n;
+    }
+
+    // NOTE: the header of each record is the code (a long) and the length of the UTF-8 bytes (an int).
+    static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final Path path;
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+    private byte[] bytes = new byte[256];
+    private long code;
+    private String string;
+    private boolean exhausted = false;
+}
@@ -0,0 +1,82 @@
+package edu.neu.coe.huskySort.sort.external;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class to write a sorted run (a binary file of records) for ExternalHuskySort.
+ * <p>
+ * Each record consists of the Husky code of a String (8 bytes), the length of its UTF-8 encoding (4 bytes)
+ * and then the UTF-8 bytes themselves.
+ * The records are accumulated in a direct buffer which is written to the channel whenever it becomes full.
+ */
+final class RunWriter implements AutoCloseable {
+
+    /**
+     * Method to write one record.
+     *
+     * @param code the Husky code of x.
+     * @param x    the String.
+     * @throws IOException if the run cannot be written.
+     */
+    void write(final long code, final String x) throws IOException {
+        final byte[] bytes = x.getBytes(StandardCharsets.UTF_8);
+        if (buffer.remaining() < RunReader.HEADER_BYTES + bytes.length) flush();
+        buffer.putLong(code).putInt(bytes.length);
+        if (buffer.remaining() >= bytes.length) buffer.put(bytes);
+        else {
+            // NOTE: a record which is larger than the buffer is written directly.
+            flush();
+            final ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+            while (wrapped.hasRemaining()) channel.write(wrapped);
+        }
+        records++;
+    }
+
+    /**
+     * @return the number of records written so far.
+     */
+    long getRecords() {
+        return records;
+    }
+
+    /**
+     * Flush the buffer and close the channel.
+     *
+     * @throws IOException if the run cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param path       the path of the run (which will be created or truncated).
+     * @param bufferSize the size of the buffer, in bytes (at least HEADER_BYTES).
+     * @throws IOException if the run cannot be opened.
+     */
+    RunWriter(final Path path, final int bufferSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long records = 0;
+}
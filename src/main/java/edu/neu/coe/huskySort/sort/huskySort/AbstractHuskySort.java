@@ -8,6 +8,8 @@ import edu.neu.coe.huskySort.sort.SortWithHelper;
 import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
 import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
 import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyHelper;
+import edu.neu.coe.huskySort.sort.huskySortUtils.ParallelCoding;
+import edu.neu.coe.huskySort.sort.huskySortUtils.TieSpanSorter;
 import edu.neu.coe.huskySort.util.Config;
 import edu.neu.coe.huskySort.util.LazyLogger;
 
@@ -48,10 +50,35 @@ public abstract class AbstractHuskySort<X extends Comparable<X>> extends SortWit
             return xs;
 
         // NOTE: Second pass to fix any remaining inversions.
-        huskyHelper.getPostSorter().accept(xs);
+        secondPass(xs);
         return xs;
     }
 
+    /**
+     * Method to perform the second pass of HuskySort on xs, which has been sorted by the first pass.
+     * If the helper has a TieSpanSorter, then only the spans of equal codes are sorted
+     * (NOTE: this is only valid if the coding is monotonic);
+     * otherwise, the post-sorter is applied to the whole array.
+     *
+     * @param xs the array sorted by the first pass.
+     */
+    protected final void secondPass(final X[] xs) {
+        final TieSpanSorter tieSpanSorter = huskyHelper.getTieSpanSorter();
+        if (tieSpanSorter != null)
+            tieSpanSorter.sort(xs, huskyHelper.getLongs(), 0, xs.length, huskyHelper.getCoder().getCollator());
+        else huskyHelper.getPostSorter().accept(xs);
+    }
+
+    /**
+     * Method to determine if the tie-span second pass is configured.
+     *
+     * @param config the configuration.
+     * @return the value of huskyhelper.tiespanpostsort (defaults to false).
+     */
+    public static boolean isConfigTieSpanPostSort(final Config config) {
+        return config.get("huskyhelper", "tiespanpostsort", Boolean.class, false);
+    }
+
     /**
      * Sort array xs, making a copy if stipulated by huskyHelper.
      *
@@ -113,7 +140,11 @@ public abstract class AbstractHuskySort<X extends Comparable<X>> extends SortWit
      * NOTE: callers of this method should consider arranging for the helper to be closed on close of the sorter.
      */
     private static <Y extends Comparable<Y>> HuskyHelper<Y> createHelper(final String name, final int n, final HuskyCoder<Y> huskyCoder, final Consumer<Y[]> postSorter, final boolean instrumentation, final Config config) {
-        return instrumentation ? new HuskyHelper<>(HelperFactory.create("Husky Delegate ComparisonSortHelper", n, config), huskyCoder, postSorter, false) : new HuskyHelper<>(name, n, huskyCoder, postSorter);
+        final HuskyHelper<Y> result = instrumentation ? new HuskyHelper<>(HelperFactory.create("Husky Delegate ComparisonSortHelper", n, config), huskyCoder, postSorter, false) : new HuskyHelper<>(name, n, huskyCoder, postSorter);
+        result.setParallelCoding(ParallelCoding.create(config));
+        result.setBufferReuse(config.get("huskyhelper", "reusebuffers", Boolean.class, false), config.get("huskyhelper", "threadlocalbuffers", Boolean.class, false));
+        if (isConfigTieSpanPostSort(config)) result.setTieSpanSorter(TieSpanSorter.create(config));
+        return result;
     }
 
     protected final HuskyHelper<X> huskyHelper;
@@ -1,5 +1,7 @@
 package edu.neu.coe.huskySort.sort.huskySort;
 
+import edu.neu.coe.huskySort.sort.huskySortUtils.CollationKeyCache;
+
 import java.nio.charset.StandardCharsets;
 import java.text.CollationKey;
 import java.text.Collator;
@@ -28,6 +30,16 @@ public class GenericCollator<X> {
         this(x -> collator.getCollationKey(x.toString()), x -> (X) x.getSourceString());
     }
 
+    /**
+     * Do not use this constructor unless X is a String.
+     * The CollationKeys are taken from (and added to) the given cache, which may be shared (for example, with SequenceEncoder_Collator).
+     *
+     * @param cache a CollationKeyCache.
+     */
+    public GenericCollator(final CollationKeyCache cache) {
+        this(cache.asCollator());
+    }
+
     /**
      * Do not use this constructor unless X is a String.
      */
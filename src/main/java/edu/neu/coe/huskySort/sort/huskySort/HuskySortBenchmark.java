@@ -11,6 +11,7 @@ import edu.neu.coe.huskySort.sort.huskySortUtils.*;
 import edu.neu.coe.huskySort.sort.radix.Alphabet;
 import edu.neu.coe.huskySort.sort.radix.CharacterMap;
 import edu.neu.coe.huskySort.sort.radix.MSDStringSort;
+import edu.neu.coe.huskySort.sort.radix.MultikeyQuicksort;
 import edu.neu.coe.huskySort.sort.radix.UnicodeMSDStringSort;
 import edu.neu.coe.huskySort.sort.simple.TimSort;
 import edu.neu.coe.huskySort.sort.simple.*;
@@ -25,6 +26,7 @@ import java.text.Collator;
 import java.time.LocalDateTime;
 import java.time.chrono.ChronoLocalDateTime;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.*;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -79,6 +81,14 @@ public final class HuskySortBenchmark {
         // NOTE: Chinese Name corpus benchmarks (according to command-line arguments)
         if (isConfigBenchmarkStringSorter("chinesenames"))
             benchmarkUnicodeStringSorters(CHINESE_NAMES_CORPUS, HuskySortBenchmarkHelper.getWords(CHINESE_NAMES_CORPUS, HuskySortBenchmark::lineAsList), n, m);
+
+        // NOTE: trained (order-preserving) coder benchmarks on the Leipzig English corpus
+        if (isConfigBenchmarkStringSorter("trainedcoder"))
+            benchmarkTrainedCoder(n, m);
+
+        // NOTE: generated path corpus benchmarks (Strings with long common prefixes)
+        if (isConfigBenchmarkStringSorter("paths"))
+            benchmarkPathSorters(HuskySortHelper.generateRandomPathArray(n, 3), n, m);
     }
 
     /**
@@ -163,6 +173,10 @@ public final class HuskySortBenchmark {
 
         compareSystemAndPureHuskySortsNumeric(n + " BigDecimals", getSupplier(n, BigDecimal.class, r -> BigDecimal.valueOf(r.nextDouble() * Long.MAX_VALUE)), HuskyCoderFactory.bigDecimalCoder, null, s -> isConfigBenchmarkNumberSorter(s, "bigdecimal"), m, BigDecimal.class, false);
 
+        compareSystemAndPureHuskySortsNumeric(n + " BigIntegers (ordered coder)", getSupplier(n, BigInteger.class, r1 -> BigInteger.valueOf(r1.nextLong())), HuskyCoderFactory.orderedBigIntegerCoder, null, s1 -> isConfigBenchmarkNumberSorter(s1, "orderedbiginteger"), m, BigInteger.class, true);
+
+        compareSystemAndPureHuskySortsNumeric(n + " BigDecimals (ordered coder)", getSupplier(n, BigDecimal.class, r -> BigDecimal.valueOf(r.nextDouble() * Long.MAX_VALUE)), HuskyCoderFactory.orderedBigDecimalCoder, null, s -> isConfigBenchmarkNumberSorter(s, "orderedbigdecimal"), m, BigDecimal.class, false);
+
         compareSystemAndPureHuskySortsNumeric(n + " Bytes", getSupplier(n, Byte.class, byteFunction), HuskyCoderFactory.createProbabilisticCoder(config.getDouble("benchmarknumbersorters", "pcrit", 0.15)), null, s -> isConfigBenchmarkNumberSorter(s, "probabilistic"), m, Byte.class, true);
         compareSystemAndPureHuskySortsNumeric(n + " Integers", getSupplier(n, Integer.class, Random::nextInt), HuskyCoderFactory.createProbabilisticCoder(config.getDouble("benchmarknumbersorters", "pcrit", 0.15)), null, s -> isConfigBenchmarkNumberSorter(s, "probabilistic"), m, Integer.class, true);
     }
@@ -201,6 +215,12 @@ public final class HuskySortBenchmark {
             doPureBenchmark(words, nWords, nRuns, random, benchmark, preSorted);
         }
 
+        if (isConfigBenchmarkStringSorter("purehuskysortindexed")) {
+            final PureHuskySort<String> pureHuskySort = new PureHuskySort<>(huskyCoder, preSorted, false, true);
+            final Benchmark<String[]> benchmark = new Benchmark<>(getDescription(nWords, "PureHuskySort/Indexed", s2), null, pureHuskySort::sort, null);
+            doPureBenchmark(words, nWords, nRuns, random, benchmark, preSorted);
+        }
+
         if (isConfigBenchmarkStringSorter("mergehuskysort")) {
             final MergeHuskySort<String> mergeHuskySort = new MergeHuskySort<>(huskyCoder);
             final Benchmark<String[]> benchmark = new Benchmark<>(getDescription(nWords, "MergeHuskySort", s2), null, mergeHuskySort::sort, null);
@@ -219,6 +239,43 @@ public final class HuskySortBenchmark {
             final Benchmark<String[]> benchmark = new Benchmark<>(getDescription(nWords, "DualPivotQuicksort", s2), null, PureDualPivotQuicksort::sort, null);
             doPureBenchmark(words, nWords, nRuns, random, benchmark, preSorted);
         }
+
+        if (huskyCoder instanceof SequenceEncoder_Collator) {
+            final CollationKeyCache cache = ((SequenceEncoder_Collator) huskyCoder).getCache();
+            if (cache != null) logger.info("benchmarkStringSorters: " + cache);
+        }
+    }
+
+    /**
+     * Method to run pure (non-instrumented) string sorter benchmarks on file-system paths,
+     * which share long prefixes and so are poorly served by (one-long) Husky codes.
+     * PureHuskySort (with the ASCII coder) is compared with WideHuskySort (with the wide ASCII coder).
+     *
+     * @param words  the word source.
+     * @param nWords the number of words to be sorted.
+     * @param nRuns  the number of runs.
+     */
+    void benchmarkPathSorters(final String[] words, final int nWords, final int nRuns) {
+        logger.info("benchmarkPathSorters: testing pure sorts with " + formatWhole(nRuns) + " runs of sorting " + formatWhole(nWords) + " paths");
+        final Random random = new Random();
+        final String s2 = ") generated paths";
+
+        if (isConfigBenchmarkStringSorter("puresystemsort")) {
+            final Benchmark<String[]> benchmark = new Benchmark<>(getDescription(nWords, "SystemSort", s2), null, Arrays::sort, null);
+            doPureBenchmark(words, nWords, nRuns, random, benchmark, false);
+        }
+
+        if (isConfigBenchmarkStringSorter("purehuskysort")) {
+            final PureHuskySort<String> pureHuskySort = new PureHuskySort<>(HuskyCoderFactory.asciiCoder, false, false);
+            final Benchmark<String[]> benchmark = new Benchmark<>(getDescription(nWords, "PureHuskySort", s2), null, pureHuskySort::sort, null);
+            doPureBenchmark(words, nWords, nRuns, random, benchmark, false);
+        }
+
+        if (isConfigBenchmarkStringSorter("widehuskysort")) {
+            final WideHuskySort<String> wideHuskySort = new WideHuskySort<>(HuskyCoderFactory.wideAsciiCoder);
+            final Benchmark<String[]> benchmark = new Benchmark<>(getDescription(nWords, "WideHuskySort", s2), null, wideHuskySort::sort, null);
+            doPureBenchmark(words, nWords, nRuns, random, benchmark, false);
+        }
     }
 
     /**
@@ -285,6 +342,43 @@ public final class HuskySortBenchmark {
                 throw new RuntimeException("sort exception", e);
             }
         }
+
+        // NOTE: this is a scaling benchmark: parallel MSDStringSort with 1, 2, 4, ... threads, up to the number of processors.
+        if (isConfigBenchmarkStringSorter("parallelmsdstringsort")) {
+            final String s2 = ") words from " + corpus;
+            final int processors = Runtime.getRuntime().availableProcessors();
+            for (int parallelism = 1; ; parallelism = Math.min(2 * parallelism, processors)) {
+                final ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    final MSDStringSort sorter = new MSDStringSort(new Alphabet(Alphabet.RADIX_UNICODE), MSDStringSort.DEFAULT_CUTOFF, pool, MSDStringSort.DEFAULT_PARALLEL_THRESHOLD);
+                    final Benchmark<String[]> benchmark = new Benchmark<>(getDescription(nWords, "MSDStringSort/Parallel(" + parallelism + ")", s2), (x) -> {
+                        sorter.reset();
+                        return x;
+                    }, sorter::sort, HuskySortBenchmark::checkSorted);
+                    doPureBenchmark(words, nWords, nRuns, random, benchmark, false);
+                } finally {
+                    pool.shutdown();
+                }
+                if (parallelism == processors) break;
+            }
+        }
+
+        // NOTE: multikey quicksort on the chars of the Strings: plain (multikeyquicksort) and seeded with long codes (huskymultikeyquicksort).
+        for (final boolean seeded : new boolean[]{false, true})
+            if (isConfigBenchmarkStringSorter(seeded ? "huskymultikeyquicksort" : "multikeyquicksort")) {
+                final String s2 = ") words from " + corpus;
+                final MultikeyQuicksort sorter = new MultikeyQuicksort(seeded);
+                final Benchmark<String[]> benchmark = new Benchmark<>(getDescription(nWords, "MultikeyQuicksort" + (seeded ? " (seeded)" : ""), s2), null, sorter::sort, HuskySortBenchmark::checkSorted);
+                doPureBenchmark(words, nWords, nRuns, random, benchmark, false);
+            }
+
+        // NOTE: multikey quicksort (seeded) on the ordinals of the Chinese characters (i.e. in pinyin order, as for UnicodeMSDStringSort).
+        if (isConfigBenchmarkStringSorter("unicodemultikeyquicksort")) {
+            final CharacterMap characterMap = new CharacterMap(ChineseCharacter::new, "Hanyu", '阿');
+            final MultikeyQuicksort sorter = new MultikeyQuicksort(true);
+            final Benchmark<String[]> benchmark = new Benchmark<>("MultikeyQuicksort (Chinese Names)", null, xs -> sorter.sort(characterMap, xs), HuskySortBenchmark::checkChineseSorted);
+            doPureBenchmark(words, nWords, nRuns, random, benchmark, false);
+        }
     }
 
     /**
@@ -363,9 +457,31 @@ public final class HuskySortBenchmark {
                 logInterimInversions(nWords, sorter);
         }
 
+        if (isConfigBenchmarkStringSorter("introhuskysortindexed")) {
+            final IntroHuskySort<String> sorter = new IntroHuskySort<>("IntroHuskySort/Indexed", huskyCoder, Arrays::sort, config);
+            sorter.setIndexPermutation(true);
+            runStringSortBenchmark(words, nWords, nRuns, sorter, timeLoggersLinearithmic);
+        }
+
+        if (isConfigBenchmarkStringSorter("introhuskysorttiespan"))
+            runStringSortBenchmark(words, nWords, nRuns, new IntroHuskySort<>("IntroHuskySort/TieSpan", huskyCoder, Arrays::sort, config.copy("huskyhelper", "tiespanpostsort", "true")), timeLoggersLinearithmic);
+
+        if (isConfigBenchmarkStringSorter("parallelintrohuskysort"))
+            runStringSortBenchmark(words, nWords, nRuns, new ParallelIntroHuskySort<>(huskyCoder, config), timeLoggersLinearithmic);
+
+        if (isConfigBenchmarkStringSorter("radixhuskysort"))
+            runStringSortBenchmark(words, nWords, nRuns, new RadixHuskySort<>(huskyCoder, config), timeLoggersLinearithmic);
+
+        if (isConfigBenchmarkStringSorter("radixhuskysort11"))
+            runStringSortBenchmark(words, nWords, nRuns, new RadixHuskySort<>("RadixHuskySort/11 bits", huskyCoder, Arrays::sort, config, 11), timeLoggersLinearithmic);
+
         if (isConfigBenchmarkStringSorter("quickhuskysort"))
             runStringSortBenchmark(words, nWords, nRuns, new QuickHuskySort<>(huskyCoder, config), timeLoggersLinearithmic);
 
+        // NOTE: compare with introhuskysort (a full sort of the same words).
+        if (isConfigBenchmarkStringSorter("partialhuskysort"))
+            runStringSortBenchmark(words, nWords, nRuns, new PartialHuskySort<>(huskyCoder, Math.min(nWords, config.getInt("benchmarkstringsorters", "topk", 100)), config), timeLoggersLinearithmic);
+
         if (isConfigBenchmarkStringSorter("quickuskyinsertionsort"))
             runStringSortBenchmark(words, nWords, nRuns, new QuickHuskySort<>("QuickHuskySort/Insertion", huskyCoder, new InsertionSort<String>()::mutatingSort, config), timeLoggersLinearithmic);
 
@@ -621,7 +737,7 @@ public final class HuskySortBenchmark {
         compareSystemAndHuskySorts(subject, supplier, huskyCoder, checker, isConfig, m);
 
         if (isConfig.test("quicksort")) {
-            doNumericQuicksort(subject, supplier, m, clazz, isInt);
+            doNumericQuicksort(subject, supplier, huskyCoder, m, clazz, isInt);
         }
     }
 
@@ -650,13 +766,46 @@ public final class HuskySortBenchmark {
             logBenchmarkRun(benchmarkFactory("Sort " + subject + " using MergeHuskySort", new MergeHuskySort<>(huskyCoder)::sort, checker).run(supplier, m));
     }
 
+    /**
+     * Method to compare the trained (order-preserving) coder with englishCoder and asciiCoder,
+     * using PureHuskySort on the Leipzig English corpus.
+     * For each coder, the number of words which overflow the coder (and so must be dealt with by the second pass) is also logged.
+     *
+     * @param n the number of words to be sorted.
+     * @param m the number of runs.
+     */
+    private void benchmarkTrainedCoder(final int n, final int m) {
+        final String resource = getLeipzigEnglishResource(n);
+        final String[] words = getLeipzigWordsFromResource(resource);
+        final List<HuskySequenceCoder<String>> coders = new ArrayList<>();
+        coders.add(HuskyCoderFactory.asciiCoder);
+        coders.add(englishCoder);
+        try {
+            coders.add(HuskyCoderFactory.trainedEnglishCoder());
+        } catch (final IOException e) {
+            logger.warn("benchmarkTrainedCoder: cannot load trained coder", e);
+        }
+        final Random random = new Random();
+        final String s2 = ") words from " + resource;
+        for (final HuskySequenceCoder<String> coder : coders) {
+            logger.info("benchmarkTrainedCoder: coder " + coder.name() + " overflows on " + formatWhole(coder.huskyEncode(words).overflows) + " of " + formatWhole(words.length) + " words");
+            final PureHuskySort<String> pureHuskySort = new PureHuskySort<>(coder, false, false);
+            final Benchmark<String[]> benchmark = new Benchmark<>(getDescription(n, "PureHuskySort/" + coder.name(), s2), null, pureHuskySort::sort, null);
+            doPureBenchmark(words, n, m, random, benchmark, false);
+        }
+    }
+
     // CONSIDER why don't we just go with "10K", etc. for x??
     private void doLeipzigBenchmarkEnglish(final int n, final int m) {
-        final String resource = "eng-uk_web_2002_" + (n < 50000 ? "10K" : n < 200000 ? "100K" : "1M") + "-sentences.txt";
+        final String resource = getLeipzigEnglishResource(n);
         final HuskyCoder<String> huskyCoder = HuskySortHelper.getSequenceCoderByName(getConfigHuskyCoder());
         doLeipzigBenchmark(resource, n, m, huskyCoder);
     }
 
+    private static String getLeipzigEnglishResource(final int n) {
+        return "eng-uk_web_2002_" + (n < 50000 ? "10K" : n < 200000 ? "100K" : "1M") + "-sentences.txt";
+    }
+
     // CONSIDER making this an instance method of Benchmark
     private static void doPureBenchmark(final String[] words, final int nWords, final int nRuns, final Random random, final Benchmark<String[]> benchmark, final boolean preSorted) {
         final Supplier<String[]> wordSupplier = getWordSupplier(words, nWords, random, preSorted);
@@ -704,15 +853,23 @@ public final class HuskySortBenchmark {
             benchmarkStringSorters(resource, words, nWords, nRuns, huskyCoder);
     }
 
-    private static String[] getLeipzigWordsFromResource(final String resource) {
+    /**
+     * Method to get the words from a Leipzig corpus (sentences or words).
+     * NOTE: this method is public because it is referenced by the JMH benchmarks.
+     *
+     * @param resource the name of the corpus resource.
+     * @return an array of words.
+     */
+    public static String[] getLeipzigWordsFromResource(final String resource) {
         return HuskySortBenchmarkHelper.getWords(resource, HuskySortBenchmark::getLeipzigWords);
     }
 
-    private static <Y extends Number & Comparable<Y>> void doNumericQuicksort(final String subject, final Supplier<Y[]> supplier, final int m, final Class<? extends Number> clazz, final boolean isInt) {
+    private static <Y extends Number & Comparable<Y>> void doNumericQuicksort(final String subject, final Supplier<Y[]> supplier, final HuskyCoder<Y> huskyCoder, final int m, final Class<? extends Number> clazz, final boolean isInt) {
         if (clazz == Byte.class) {
             logger.info("not attempting quicksort for: " + clazz);
             return;
         }
+        doPrimitiveHuskySort(subject, supplier, huskyCoder, m, clazz);
         if (isInt)
             try {
                 final Method method = clazz.getMethod("valueOf", long.class);
@@ -735,6 +892,21 @@ public final class HuskySortBenchmark {
         }
     }
 
+    /**
+     * Method to compare PureHuskySort with PrimitiveHuskySort (which sorts only the codes) for a perfect coder.
+     * NOTE: doubleCoder is not perfect (it does not distinguish -0.0 from 0.0), so perfectDoubleCoder is used for both sorts of Doubles.
+     */
+    @SuppressWarnings("unchecked")
+    private static <Y extends Number & Comparable<Y>> void doPrimitiveHuskySort(final String subject, final Supplier<Y[]> supplier, final HuskyCoder<Y> huskyCoder, final int m, final Class<? extends Number> clazz) {
+        final HuskyCoder<Y> perfectCoder = clazz == Double.class ? (HuskyCoder<Y>) (HuskyCoder<?>) HuskyCoderFactory.perfectDoubleCoder : huskyCoder;
+        if (!perfectCoder.perfect()) {
+            logger.info("not attempting PrimitiveHuskySort for: " + clazz);
+            return;
+        }
+        logBenchmarkRun(HuskySortBenchmark.<Y>benchmarkFactory("Sort " + subject + " using PureHuskySort (perfect coder)", new PureHuskySort<>(perfectCoder, false, false)::sort, null).run(supplier, m));
+        logBenchmarkRun(HuskySortBenchmark.<Y>benchmarkFactory("Sort " + subject + " using PrimitiveHuskySort", new PrimitiveHuskySort<>(perfectCoder)::sort, null).run(supplier, m));
+    }
+
     private static void doQuicksort(final Number[] a, final boolean isInt, final Method method, final boolean isLong) {
         try {
             if (isInt)
@@ -0,0 +1,231 @@
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
+import edu.neu.coe.huskySort.sort.huskySortUtils.TieSpanSorter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * This class implements an incremental (streaming) form of HuskySort for elements which arrive one at a time.
+ * <p>
+ * Each element is Husky-encoded as it is inserted and is appended to a batch.
+ * When the batch is full, it is sorted (first by code and then, only within spans of equal codes, by the comparator)
+ * and becomes a run.
+ * Runs are kept on a stack and the top two runs are merged whenever the top run is at least as large as the one beneath it.
+ * Thus there are never more than about log2(n/batchSize) runs and each element takes part in only that many merges.
+ * Merges compare the codes of the runs and only compare the elements themselves when two codes are equal.
+ * <p>
+ * NOTE: because elements with different codes are never compared, the coding MUST be monotonic
+ * (x &lt; y implies code(x) &lt;= code(y)); with a non-monotonic coder (for example, bigDecimalCoder or a probabilistic coder),
+ * the result is unspecified.
+ * <p>
+ * The fully sorted result is available at any time (see sorted and drain): this merges the outstanding runs
+ * into one run, which is retained, so nothing that has already been sorted is ever sorted again.
+ * <p>
+ * NOTE: this class is not thread-safe.
+ *
+ * @param <X> the underlying type which must extend Comparable.
+ */
+public final class IncrementalHuskySort<X extends Comparable<X>> {
+
+    /**
+     * Method to yield a Collector which sorts the elements of a stream by means of an IncrementalHuskySort.
+     *
+     * @param huskyCoder the Husky coder.
+     * @param <X>        the underlying type which must extend Comparable.
+     * @return a Collector whose result is the sorted List of the elements.
+     */
+    public static <X extends Comparable<X>> Collector<X, IncrementalHuskySort<X>, List<X>> toSortedList(final HuskyCoder<X> huskyCoder) {
+        return Collector.of(() -> new IncrementalHuskySort<>(huskyCoder), IncrementalHuskySort::insert, IncrementalHuskySort::combine, IncrementalHuskySort::drain);
+    }
+
+    /**
+     * Method to insert an element.
+     *
+     * @param x the element.
+     */
+    public void insert(final X x) {
+        if (count == batch.length) flush();
+        batch[count] = x;
+        batchLongs[count++] = huskyCoder.huskyEncode(x);
+        size++;
+    }
+
+    /**
+     * Method to insert all the elements of an array.
+     *
+     * @param xs the elements.
+     */
+    public void insertAll(final X[] xs) {
+        for (final X x : xs) insert(x);
+    }
+
+    /**
+     * Method to yield all the elements inserted so far, in order.
+     * The elements are retained (as one run), so that subsequent insertions are merged with them.
+     *
+     * @return an unmodifiable List of the elements, in order (which is unaffected by subsequent insertions).
+     */
+    public List<X> sorted() {
+        flush();
+        while (runs.size() > 1) mergeTop();
+        if (runs.isEmpty()) return Collections.emptyList();
+        @SuppressWarnings("unchecked") final List<X> result = (List<X>) (List<?>) Collections.unmodifiableList(Arrays.asList(runs.get(0).xs));
+        return result;
+    }
+
+    /**
+     * Method to yield all the elements inserted so far, in order, and then to clear this sorter.
+     *
+     * @return the List of the elements, in order.
+     */
+    public List<X> drain() {
+        final List<X> result = sorted();
+        runs.clear();
+        size = 0;
+        return result;
+    }
+
+    /**
+     * @return the number of elements inserted (since the most recent drain).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of runs (not including the current batch).
+     */
+    public int getRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param huskyCoder the Husky coder.
+     * @param batchSize  the number of elements in each batch (which is sorted as a whole when it is full).
+     */
+    public IncrementalHuskySort(final HuskyCoder<X> huskyCoder, final int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("IncrementalHuskySort: batchSize must be positive: " + batchSize);
+        this.huskyCoder = huskyCoder;
+        final Comparator<? super X> collator = huskyCoder.getCollator();
+        this.comparator = collator != null ? collator : Comparator.naturalOrder();
+        this.batch = new Object[batchSize];
+        this.batchLongs = new long[batchSize];
+    }
+
+    /**
+     * Constructor with a batch size of DEFAULT_BATCH_SIZE.
+     *
+     * @param huskyCoder the Husky coder.
+     */
+    public IncrementalHuskySort(final HuskyCoder<X> huskyCoder) {
+        this(huskyCoder, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Sort the current batch (if it is not empty) and push it as a run.
+     */
+    @SuppressWarnings("unchecked")
+    private void flush() {
+        if (count == 0) return;
+        final Object[] xs = Arrays.copyOf(batch, count);
+        final long[] longs = Arrays.copyOf(batchLongs, count);
+        Arrays.fill(batch, 0, count, null);
+        count = 0;
+        IndexPermutationSort.sort(xs, longs, 0, xs.length);
+        if (!huskyCoder.perfect()) TieSpanSorter.DEFAULT.sort(xs, longs, 0, xs.length, (Comparator<Object>) comparator);
+        runs.add(new Run(xs, longs));
+        collapse();
+    }
+
+    /**
+     * Merge the top two runs for as long as the top run is at least as large as the one beneath it.
+     */
+    private void collapse() {
+        while (runs.size() > 1 && runs.get(runs.size() - 1).xs.length >= runs.get(runs.size() - 2).xs.length) mergeTop();
+    }
+
+    /**
+     * Merge the top two runs of the stack.
+     */
+    private void mergeTop() {
+        final Run b = runs.remove(runs.size() - 1);
+        final Run a = runs.remove(runs.size() - 1);
+        runs.add(merge(a, b));
+    }
+
+    /**
+     * Merge two runs. Where elements of a and b compare equal, those of a come first.
+     * NOTE: the result is in order only if the coding is monotonic (see less).
+     */
+    private Run merge(final Run a, final Run b) {
+        final int n = a.xs.length + b.xs.length;
+        final Object[] xs = new Object[n];
+        final long[] longs = new long[n];
+        int i = 0, j = 0;
+        for (int k = 0; k < n; k++)
+            if (j == b.xs.length || i < a.xs.length && !less(b, j, a, i)) {
+                xs[k] = a.xs[i];
+                longs[k] = a.longs[i++];
+            } else {
+                xs[k] = b.xs[j];
+                longs[k] = b.longs[j++];
+            }
+        return new Run(xs, longs);
+    }
+
+    /**
+     * Method to determine if a.xs[i] precedes b.xs[j].
+     * NOTE: the elements are compared only if their codes are equal, which assumes that the coding is monotonic.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean less(final Run a, final int i, final Run b, final int j) {
+        final long x = a.longs[i], y = b.longs[j];
+        if (x != y) return x < y;
+        return !huskyCoder.perfect() && comparator.compare((X) a.xs[i], (X) b.xs[j]) < 0;
+    }
+
+    /**
+     * Method (used by the Collector) to combine another sorter into this one.
+     * The (single) run of other is pushed onto the stack of this sorter, so that it is merged rather than re-sorted.
+     */
+    private IncrementalHuskySort<X> combine(final IncrementalHuskySort<X> other) {
+        flush();
+        other.sorted();
+        if (!other.runs.isEmpty()) {
+            runs.add(other.runs.get(0));
+            size += other.size;
+            collapse();
+        }
+        other.runs.clear();
+        other.size = 0;
+        return this;
+    }
+
+    private static final class Run {
+        Run(final Object[] xs, final long[] longs) {
+            this.xs = xs;
+            this.longs = longs;
+        }
+
+        final Object[] xs;
+        final long[] longs;
+    }
+
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final HuskyCoder<X> huskyCoder;
+    private final Comparator<? super X> comparator;
+    private final Object[] batch;
+    private final long[] batchLongs;
+    private final List<Run> runs = new ArrayList<>();
+    private int count = 0;
+    private int size = 0;
+}
@@ -0,0 +1,171 @@
+/*
+  (c) Copyright 2018, 2019 Phasmid Software
+ */
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyBuffers;
+
+import java.util.Arrays;
+
+/**
+ * This class implements the "index-permutation" form of the first pass of HuskySort.
+ * <p>
+ * In the usual form of the first pass, every swap of two codes is accompanied by a swap of two object references.
+ * Those reference writes are scattered across the heap-allocated array of Xs (and each incurs card-marking by the garbage collector).
+ * In the index-permutation form, each code is accompanied instead by the int index of its element,
+ * and only these two primitive arrays (the codes and the indices) are sorted.
+ * The resulting permutation is then applied to the Xs in one sequential gather pass.
+ * This reduces cache misses considerably for very large arrays (say, 10 million elements or more).
+ * <p>
+ * NOTE: the code and the index are not literally packed into one long because that would require
+ * giving up 32 bits of the code, which would make the coding far less likely to be perfect.
+ * <p>
+ * The sort of the codes is an IntroSort (3-way quicksort, reverting to heap sort and insertion sort as appropriate),
+ * exactly as in PureHuskySort.
+ */
+public final class IndexPermutationSort {
+
+    /**
+     * Method to sort xs[from] thru xs[to-1] according to the corresponding codes in longs.
+     * On return, both xs and longs are in order (of longs) between from and to.
+     *
+     * @param xs    the array of Xs.
+     * @param longs the array of codes (must be the same length as xs).
+     * @param from  the index of the first element to sort.
+     * @param to    the index of the first element not to sort.
+     * @param <X>   the underlying type of xs.
+     */
+    public static <X> void sort(final X[] xs, final long[] longs, final int from, final int to) {
+        sort(xs, longs, from, to, null);
+    }
+
+    /**
+     * Method to sort xs[from] thru xs[to-1] according to the corresponding codes in longs.
+     * On return, both xs and longs are in order (of longs) between from and to.
+     * If buffers is not null, the indices (and the copy of xs used by the gather pass) are taken from buffers,
+     * so that nothing is allocated if the range is no larger than any previously sorted.
+     *
+     * @param xs      the array of Xs.
+     * @param longs   the array of codes (must be the same length as xs).
+     * @param from    the index of the first element to sort.
+     * @param to      the index of the first element not to sort.
+     * @param buffers the HuskyBuffers from which to take the scratch arrays (or null).
+     * @param <X>     the underlying type of xs.
+     */
+    public static <X> void sort(final X[] xs, final long[] longs, final int from, final int to, final HuskyBuffers buffers) {
+        final int n = to - from;
+        if (n < 2) return;
+        final int[] indices = buffers != null ? buffers.getAuxInts(n) : new int[n];
+        for (int i = 0; i < n; i++) indices[i] = from + i;
+        introSort(longs, indices, from, to, from, 2 * IntroHuskySort.floor_lg(n));
+        gather(xs, indices, from, n, buffers != null ? buffers.getAuxObjects(xs, n) : Arrays.copyOfRange(xs, from, to));
+    }
+
+    /**
+     * Method to apply the permutation defined by indices to xs.
+     * That's to say that xs[from + i] will be set to the original value of xs[indices[i]].
+     *
+     * @param xs      the array of Xs.
+     * @param indices the permutation (each index is an absolute index into xs).
+     * @param from    the index of xs which corresponds to indices[0].
+     * @param <X>     the underlying type of xs.
+     */
+    static <X> void gather(final X[] xs, final int[] indices, final int from) {
+        final int n = indices.length;
+        gather(xs, indices, from, n, Arrays.copyOfRange(xs, from, from + n));
+    }
+
+    /**
+     * Method to apply the permutation defined by the first n elements of indices to xs, using copy (of at least n elements) as scratch.
+     */
+    private static <X> void gather(final X[] xs, final int[] indices, final int from, final int n, final X[] copy) {
+        System.arraycopy(xs, from, copy, 0, n);
+        for (int i = 0; i < n; i++) xs[from + i] = copy[indices[i] - from];
+    }
+
+    private static void introSort(final long[] longs, final int[] indices, final int from, final int to, final int base, final int depthThreshold) {
+        if (to - from <= sizeThreshold + 1) {
+            insertionSort(longs, indices, from, to, base);
+            return;
+        }
+        if (depthThreshold == 0) {
+            heapSort(longs, indices, from, to, base);
+            return;
+        }
+
+        final int lo = from;
+        final int hi = to - 1;
+
+        if (longs[hi] < longs[lo]) swap(longs, indices, lo, hi, base);
+
+        int lt = lo + 1, gt = hi - 1;
+        int i = lo + 1;
+        while (i <= gt) {
+            if (longs[i] < longs[lo]) swap(longs, indices, lt++, i++, base);
+            else if (longs[hi] < longs[i]) swap(longs, indices, i, gt--, base);
+            else i++;
+        }
+        swap(longs, indices, lo, --lt, base);
+        swap(longs, indices, hi, ++gt, base);
+        introSort(longs, indices, lo, lt, base, depthThreshold - 1);
+        if (longs[lt] < longs[gt]) introSort(longs, indices, lt + 1, gt, base, depthThreshold - 1);
+        introSort(longs, indices, gt + 1, hi + 1, base, depthThreshold - 1);
+    }
+
+    private static void heapSort(final long[] longs, final int[] indices, final int from, final int to, final int base) {
+        final int n = to - from;
+        for (int i = n / 2; i >= 1; i = i - 1) downHeap(longs, indices, i, n, from, base);
+        for (int i = n; i > 1; i = i - 1) {
+            swap(longs, indices, from, from + i - 1, base);
+            downHeap(longs, indices, 1, i - 1, from, base);
+        }
+    }
+
+    private static void downHeap(final long[] longs, final int[] indices, int i, final int n, final int lo, final int base) {
+        final long d = longs[lo + i - 1];
+        final int id = indices[lo + i - 1 - base];
+        int child;
+        while (i <= n / 2) {
+            child = 2 * i;
+            if (child < n && longs[lo + child - 1] < longs[lo + child]) child++;
+            if (d >= longs[lo + child - 1]) break;
+            longs[lo + i - 1] = longs[lo + child - 1];
+            indices[lo + i - 1 - base] = indices[lo + child - 1 - base];
+            i = child;
+        }
+        longs[lo + i - 1] = d;
+        indices[lo + i - 1 - base] = id;
+    }
+
+    private static void insertionSort(final long[] longs, final int[] indices, final int from, final int to, final int base) {
+        for (int i = from + 1; i < to; i++) {
+            final long l = longs[i];
+            final int index = indices[i - base];
+            int j = i;
+            for (; j > from && l < longs[j - 1]; j--) {
+                longs[j] = longs[j - 1];
+                indices[j - base] = indices[j - 1 - base];
+            }
+            longs[j] = l;
+            indices[j - base] = index;
+        }
+    }
+
+    /**
+     * Swap the codes at i and j and the corresponding indices.
+     * NOTE: base is the index of longs which corresponds to indices[0].
+     */
+    private static void swap(final long[] longs, final int[] indices, final int i, final int j, final int base) {
+        final long temp1 = longs[i];
+        longs[i] = longs[j];
+        longs[j] = temp1;
+        final int temp2 = indices[i - base];
+        indices[i - base] = indices[j - base];
+        indices[j - base] = temp2;
+    }
+
+    private static final int sizeThreshold = 16;
+
+    private IndexPermutationSort() {
+    }
+}
@@ -54,6 +54,8 @@ public class IntroHuskySort<X extends Comparable<X>> extends AbstractHuskySort<X
 
     /**
      * The primary sort method.
+     * If this sorter is in index-permutation mode (and is not instrumented), only the codes are sorted (together with the indices of their elements),
+     * and the elements are then permuted in a single gather pass (see IndexPermutationSort).
      *
      * @param xs   sort the array xs from "from" until "to" (i.e. exclusive of to).
      * @param from the index of the first element to sort.
@@ -61,13 +63,32 @@ public class IntroHuskySort<X extends Comparable<X>> extends AbstractHuskySort<X
      */
     public void sort(final X[] xs, final int from, final int to) {
         final long[] longs = getHelper().getLongs();
-        quickSort(xs, longs, 0, longs.length - 1, 2 * floor_lg(to - from));
+        // NOTE: IndexPermutationSort does not swap by way of the helper, so an instrumented sorter uses quickSort regardless.
+        if (indexPermutation && !huskyHelper.instrumented()) IndexPermutationSort.sort(xs, longs, from, to, huskyHelper.getBuffers());
+        else quickSort(xs, longs, from, to - 1, 2 * floor_lg(to - from));
+    }
+
+    /**
+     * @return true if this sorter is in index-permutation mode.
+     */
+    public boolean isIndexPermutation() {
+        return indexPermutation;
+    }
+
+    /**
+     * Method to select (or deselect) index-permutation mode for this sorter.
+     * Subclasses which define their own first pass do not support this mode.
+     *
+     * @param indexPermutation true if the first pass should sort codes and indices only.
+     */
+    public void setIndexPermutation(final boolean indexPermutation) {
+        this.indexPermutation = indexPermutation;
     }
 
     /**
      * The postSort method.
-     * If adjunctSorter is not null. we invoke its pre-processor.
-     * Then we apply the post-sorter to the array.
+     * If adjunctSorter is not null. we invoke its pre-processor and then we apply the post-sorter to the array.
+     * Otherwise, we perform the second pass (see secondPass).
      * <p>
      * NOTE: this method does NOT invoke its super-method.
      *
@@ -76,9 +97,10 @@ public class IntroHuskySort<X extends Comparable<X>> extends AbstractHuskySort<X
      */
     @Override
     public X[] postSort(final X[] xs) {
-        if (adjunctSorter != null)
+        if (adjunctSorter != null) {
             adjunctSorter.preProcess(xs);
-        huskyHelper.getPostSorter().accept(xs);
+            huskyHelper.getPostSorter().accept(xs);
+        } else secondPass(xs);
         return xs;
     }
 
@@ -186,7 +208,7 @@ public class IntroHuskySort<X extends Comparable<X>> extends AbstractHuskySort<X
     }
 
     @SuppressWarnings({"UnnecessaryLocalVariable"})
-    private void quickSort(final X[] objects, final long[] longs, final int from, final int to, final int depthThreshold) {
+    void quickSort(final X[] objects, final long[] longs, final int from, final int to, final int depthThreshold) {
         final int lo = from;
         final int hi = to;
         if (hi <= lo) return;
@@ -203,7 +225,7 @@ public class IntroHuskySort<X extends Comparable<X>> extends AbstractHuskySort<X
         quickSort(objects, longs, partition.gt + 1, hi, depthThreshold - 1);
     }
 
-    private Partition partition(final X[] objects, final long[] longs, final int lo, final int hi) {
+    Partition partition(final X[] objects, final long[] longs, final int lo, final int hi) {
         // CONSIDER merge with partition from QuickHuskySort
         int lt = lo, gt = hi;
         if (longs[lo] > longs[hi]) swap(objects, lo, hi);
@@ -257,11 +279,11 @@ public class IntroHuskySort<X extends Comparable<X>> extends AbstractHuskySort<X
 
     private static final int sizeThreshold = 16;
 
-    private static int floor_lg(final int a) {
+    static int floor_lg(final int a) {
         return (int) Utilities.lg(a);
     }
 
-    private static class Partition {
+    static class Partition {
         Partition(final int lt, final int gt) {
             this.lt = lt;
             this.gt = gt;
@@ -273,6 +295,8 @@ public class IntroHuskySort<X extends Comparable<X>> extends AbstractHuskySort<X
 
     private final SortWithHelper<X> adjunctSorter;
 
+    private boolean indexPermutation = false;
+
     private boolean closed;
 
 }
@@ -1,9 +1,11 @@
 package edu.neu.coe.huskySort.sort.huskySort;
 
 import edu.neu.coe.huskySort.sort.huskySortUtils.Coding;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyBuffers;
 import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
 import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
 import edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper;
+import edu.neu.coe.huskySort.sort.huskySortUtils.ParallelCoding;
 import edu.neu.coe.huskySort.util.LazyLogger;
 
 import java.util.Arrays;
@@ -47,16 +49,28 @@ public class MergeHuskySort<X extends Comparable<X>> {
      *     <li>Insurance check for all right-hand partition larger than all left-hand partition.</li>
      *     <li>Avoidance of copying between the arrays (other than the sort method itself).</li>
      * </ul>
+     * If this sorter has buffers, then the codes and the auxiliary arrays are taken from the buffers
+     * (so that nothing is allocated if xs is no larger than any array previously sorted).
      *
      * @param xs the array to be sorted.
      */
     public void sort(final X[] xs) {
+        final int n = xs.length;
         // NOTE: First pass where we code to longs and sort according to those.
-        final Coding coding = huskyCoder.huskyEncode(xs);
+        final boolean buffered = buffers != null;
+        final Coding coding = buffered ? buffers.huskyEncode(huskyCoder, xs, ParallelCoding.DEFAULT) : ParallelCoding.DEFAULT.huskyEncode(huskyCoder, xs);
         final long[] longs = coding.longs;
-        final int n = xs.length;
-        final X[] xsCopy = Arrays.copyOf(xs, n);
-        final long[] longsCopy = Arrays.copyOf(longs, n);
+        final X[] xsCopy;
+        final long[] longsCopy;
+        if (buffered) {
+            xsCopy = buffers.getAuxObjects(xs, n);
+            System.arraycopy(xs, 0, xsCopy, 0, n);
+            longsCopy = buffers.getAuxLongs(n);
+            System.arraycopy(longs, 0, longsCopy, 0, n);
+        } else {
+            xsCopy = Arrays.copyOf(xs, n);
+            longsCopy = Arrays.copyOf(longs, n);
+        }
         mergeSort(longsCopy, xsCopy, longs, xs, 0, n);
 
         // NOTE: Second pass (if required) to fix any remaining inversions.
@@ -69,9 +83,20 @@ public class MergeHuskySort<X extends Comparable<X>> {
      * Primary constructor.
      *
      * @param huskyCoder the Husky coder to be used for the encoding into longs.
+     * @param buffers    the buffers to be reused between sorts (may be null, in which case each sort allocates its own arrays).
      */
-    public MergeHuskySort(final HuskyCoder<X> huskyCoder) {
+    public MergeHuskySort(final HuskyCoder<X> huskyCoder, final HuskyBuffers buffers) {
         this.huskyCoder = huskyCoder;
+        this.buffers = buffers;
+    }
+
+    /**
+     * Secondary constructor (without reusable buffers).
+     *
+     * @param huskyCoder the Husky coder to be used for the encoding into longs.
+     */
+    public MergeHuskySort(final HuskyCoder<X> huskyCoder) {
+        this(huskyCoder, null);
     }
 
     private static final int cutoff = 8;
@@ -92,10 +117,10 @@ public class MergeHuskySort<X extends Comparable<X>> {
             insertionSort(xsAux, lsAux, from, to);
             return;
         }
-        final int mid = from + (to - from - 1) / 2;
-        mergeSort(lsAux, xsAux, lsSortable, xsSortable, lo, mid + 1);
+        final int mid = from + (to - from) / 2;
+        mergeSort(lsAux, xsAux, lsSortable, xsSortable, lo, mid);
         mergeSort(lsAux, xsAux, lsSortable, xsSortable, mid, to);
-        merge(xsSortable, xsAux, lsSortable, lsAux, lo, mid, to - 1);
+        merge(xsSortable, xsAux, lsSortable, lsAux, lo, mid, to);
     }
 
     /**
@@ -107,11 +132,15 @@ public class MergeHuskySort<X extends Comparable<X>> {
      * @param lsDst     the long array which will be fully ordered on return.
      * @param lo        the first index.
      * @param mid       the mid-point index.
-     * @param hi        the high index.
+     * @param hi        the index of the first element not to be merged.
      */
     private void merge(final X[] xsOrdered, final X[] xsDst, final long[] lsOrdered, final long[] lsDst, final int lo, final int mid, final int hi) {
-        // Insurance check: if everything in high partition is larger than everything in low partition, just return.
-        if (lsOrdered[mid] > lsOrdered[mid - 1]) return;
+        // Insurance check: if everything in high partition is at least as large as everything in low partition, just copy.
+        if (lsOrdered[mid] >= lsOrdered[mid - 1]) {
+            System.arraycopy(xsOrdered, lo, xsDst, lo, hi - lo);
+            System.arraycopy(lsOrdered, lo, lsDst, lo, hi - lo);
+            return;
+        }
         int i = lo;
         int j = mid;
         int k = lo;
@@ -159,6 +188,7 @@ public class MergeHuskySort<X extends Comparable<X>> {
     }
 
     private final HuskyCoder<X> huskyCoder;
+    private final HuskyBuffers buffers;
 
     private final static LazyLogger logger = new LazyLogger(MergeHuskySort.class);
 }
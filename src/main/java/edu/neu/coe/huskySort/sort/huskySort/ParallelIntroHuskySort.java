@@ -0,0 +1,195 @@
+/*
+  (c) Copyright 2018, 2019 Phasmid Software
+ */
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
+import edu.neu.coe.huskySort.util.Config;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * This class defines a parallel form of IntroHuskySort.
+ * The first pass (which operates only on the long codes and collaterally moves the elements)
+ * is split into ForkJoin tasks wherever a partition is larger than the parallel threshold.
+ * Partitions at or below the threshold are sorted sequentially by the IntroHuskySort machinery
+ * (which itself falls back to heap sort and insertion sort as appropriate).
+ * <p>
+ * The parallelism and the threshold are taken from the [huskyhelper] section of the configuration:
+ * <dl>
+ *     <dt>parallelism</dt><dd>the number of threads to use (if unset or zero, the common pool is used).</dd>
+ *     <dt>parallelthreshold</dt><dd>the size of partition below which we no longer fork (default 8192).</dd>
+ * </dl>
+ * <p>
+ * NOTE: the second pass is not parallelized: it is performed by the post-sorter, exactly as in AbstractHuskySort.
+ * <p>
+ * NOTE: if the helper is instrumented, the swap counts will be unreliable because the Instrumenter is not thread-safe.
+ *
+ * @param <X> the underlying type of the elements to be sorted.
+ */
+public class ParallelIntroHuskySort<X extends Comparable<X>> extends IntroHuskySort<X> {
+
+    /**
+     * Index-permutation mode is not supported by ParallelIntroHuskySort, which defines its own first pass.
+     *
+     * @param indexPermutation must be false.
+     */
+    @Override
+    public void setIndexPermutation(final boolean indexPermutation) {
+        if (indexPermutation) throw new UnsupportedOperationException("ParallelIntroHuskySort does not support index-permutation mode");
+    }
+
+    /**
+     * The primary sort method.
+     *
+     * @param xs   sort the array xs from "from" until "to" (i.e. exclusive of to).
+     * @param from the index of the first element to sort.
+     * @param to   the index of the first element not to sort.
+     */
+    @Override
+    public void sort(final X[] xs, final int from, final int to) {
+        final long[] longs = getHelper().getLongs();
+        pool.invoke(new QuickSortTask(xs, longs, from, to - 1, 2 * floor_lg(to - from)));
+    }
+
+    /**
+     * The postSort method.
+     * Unlike IntroHuskySort, this method honors the contract of AbstractHuskySort, i.e.
+     * the post-sorter is invoked only if the coding was imperfect.
+     *
+     * @param xs the array sorted by the first pass.
+     * @return either the array passed in or the result of invoking the post-sorter on that array.
+     */
+    @Override
+    public X[] postSort(final X[] xs) {
+        if (huskyHelper.getCoding().perfect)
+            return xs;
+        return super.postSort(xs);
+    }
+
+    /**
+     * Close this sorter, including shutting down the pool (if it is not the common pool).
+     */
+    @Override
+    public void close() {
+        super.close();
+        if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+    }
+
+    /**
+     * @return the parallelism of the pool used by this sorter.
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * @return the partition size at (or below) which this sorter no longer forks.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Primary constructor for ParallelIntroHuskySort.
+     *
+     * @param name              the name of the sort which will be used by the ComparisonSortHelper.
+     * @param huskyCoder        the Husky coder.
+     * @param postSorter        the post-sorter which will eliminate any remaining inversions.
+     * @param config            the configuration.
+     * @param parallelism       the number of threads to use (if zero, the common pool will be used).
+     * @param parallelThreshold the size of partition at or below which we revert to sequential sorting.
+     */
+    public ParallelIntroHuskySort(final String name, final HuskyCoder<X> huskyCoder, final Consumer<X[]> postSorter, final Config config, final int parallelism, final int parallelThreshold) {
+        super(name, huskyCoder, postSorter, config);
+        this.pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Secondary constructor for ParallelIntroHuskySort which takes parallelism and threshold from the configuration.
+     *
+     * @param name       the name of the sort which will be used by the ComparisonSortHelper.
+     * @param huskyCoder the Husky coder.
+     * @param postSorter the post-sorter which will eliminate any remaining inversions.
+     * @param config     the configuration.
+     */
+    public ParallelIntroHuskySort(final String name, final HuskyCoder<X> huskyCoder, final Consumer<X[]> postSorter, final Config config) {
+        this(name, huskyCoder, postSorter, config, getConfigParallelism(config), getConfigParallelThreshold(config));
+    }
+
+    /**
+     * Secondary constructor for ParallelIntroHuskySort.
+     * The name will be ParallelIntroHuskySort/System.
+     * The post-sorter will be the System sort.
+     *
+     * @param huskyCoder the Husky coder.
+     * @param config     the configuration.
+     */
+    public ParallelIntroHuskySort(final HuskyCoder<X> huskyCoder, final Config config) {
+        this("ParallelIntroHuskySort/System", huskyCoder, Arrays::sort, config);
+    }
+
+    /**
+     * Method to get the configured parallelism.
+     *
+     * @param config the configuration.
+     * @return the value of huskyhelper.parallelism (defaults to 0, meaning the common pool).
+     */
+    public static int getConfigParallelism(final Config config) {
+        return config.getInt(HUSKYHELPER, PARALLELISM, 0);
+    }
+
+    /**
+     * Method to get the configured parallel threshold.
+     *
+     * @param config the configuration.
+     * @return the value of huskyhelper.parallelthreshold (defaults to DEFAULT_PARALLEL_THRESHOLD).
+     */
+    public static int getConfigParallelThreshold(final Config config) {
+        return config.getInt(HUSKYHELPER, PARALLEL_THRESHOLD, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public static final String HUSKYHELPER = "huskyhelper";
+    public static final String PARALLELISM = "parallelism";
+    public static final String PARALLEL_THRESHOLD = "parallelthreshold";
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * ForkJoin task which partitions the range lo thru hi (inclusive) and then sorts each partition,
+     * either in a new task or sequentially (if the partition is small enough).
+     */
+    @SuppressWarnings("serial")
+    private class QuickSortTask extends RecursiveAction {
+        QuickSortTask(final X[] objects, final long[] longs, final int lo, final int hi, final int depthThreshold) {
+            this.objects = objects;
+            this.longs = longs;
+            this.lo = lo;
+            this.hi = hi;
+            this.depthThreshold = depthThreshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo < parallelThreshold || depthThreshold == 0) {
+                quickSort(objects, longs, lo, hi, depthThreshold);
+                return;
+            }
+            final Partition partition = partition(objects, longs, lo, hi);
+            invokeAll(new QuickSortTask(objects, longs, lo, partition.lt - 1, depthThreshold - 1),
+                    new QuickSortTask(objects, longs, partition.gt + 1, hi, depthThreshold - 1));
+        }
+
+        private final X[] objects;
+        private final long[] longs;
+        private final int lo;
+        private final int hi;
+        private final int depthThreshold;
+    }
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+}
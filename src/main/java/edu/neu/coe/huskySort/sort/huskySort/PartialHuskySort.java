@@ -0,0 +1,155 @@
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
+import edu.neu.coe.huskySort.sort.huskySortUtils.TieSpanSorter;
+import edu.neu.coe.huskySort.util.Config;
+
+import java.text.Collator;
+import java.util.Arrays;
+
+/**
+ * This class implements a partial form of HuskySort which sorts only the smallest k elements of an array (top-k).
+ * <p>
+ * The first pass is a quickselect on the Husky codes which moves the k smallest codes (with their elements)
+ * to the front of the array; only those elements (and any others which share the k-th code) are then sorted by code.
+ * If the coding is imperfect, the second pass sorts (according to the natural order, or the Collator of the coder)
+ * just the spans of equal codes within that prefix.
+ * <p>
+ * NOTE: this sorter relies on the codes alone wherever they differ, so the coding MUST be monotonic
+ * (x &lt; y implies code(x) &lt;= code(y)): then the elements which share the k-th code are the only ones which might
+ * belong in the top-k on the basis of their true order, and they are all included in the second pass.
+ * With a non-monotonic coder (for example, bigDecimalCoder or a probabilistic coder), the result is unspecified.
+ * <p>
+ * On return from sort, xs[0] thru xs[k-1] are the smallest k elements, in order.
+ * The order of the remaining elements is unspecified.
+ * The expected time is O(n + k log k), compared with O(n log n) for a full HuskySort.
+ * <p>
+ * NOTE: index-permutation mode is not supported by this sorter (see setIndexPermutation).
+ *
+ * @param <X> the underlying type of the elements to be sorted.
+ */
+public class PartialHuskySort<X extends Comparable<X>> extends IntroHuskySort<X> {
+
+    /**
+     * Sort array xs, making a copy if appropriate, such that the first k elements are the smallest k, in order.
+     *
+     * @param xs       the array to be (partially) sorted.
+     * @param makeCopy if set to true, we make a copy first and sort that.
+     * @return the partially sorted version of xs (or its copy).
+     */
+    @Override
+    public X[] sort(final X[] xs, final boolean makeCopy) {
+        final X[] result = preSort(xs, makeCopy);
+        sort(result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Index-permutation mode is not supported by PartialHuskySort, which defines its own first pass.
+     *
+     * @param indexPermutation must be false.
+     */
+    @Override
+    public void setIndexPermutation(final boolean indexPermutation) {
+        if (indexPermutation) throw new UnsupportedOperationException("PartialHuskySort does not support index-permutation mode");
+    }
+
+    /**
+     * The primary sort method: a quickselect on the codes, followed by sorting the selected prefix.
+     *
+     * @param xs   sort the smallest k elements of xs from "from" until "to" (i.e. exclusive of to) into xs[from] thru xs[from+k-1].
+     * @param from the index of the first element to sort.
+     * @param to   the index of the first element not to sort.
+     */
+    @Override
+    public void sort(final X[] xs, final int from, final int to) {
+        final int n = Math.min(k, to - from);
+        if (n < 1) return;
+        final long[] longs = getHelper().getLongs();
+        final int target = from + n - 1;
+        select(xs, longs, from, to - 1, target);
+        int end = target + 1;
+        final boolean perfect = huskyHelper.getCoding().perfect;
+        if (!perfect) {
+            // NOTE: bring any other elements with the k-th code into the prefix.
+            final long code = longs[target];
+            for (int i = end; i < to; i++) if (longs[i] == code) swap(xs, end++, i);
+        }
+        quickSort(xs, longs, from, end - 1, 2 * floor_lg(end - from));
+        if (!perfect) TieSpanSorter.DEFAULT.sort(xs, longs, from, end, collator);
+    }
+
+    /**
+     * The postSort method, which does nothing: the second pass has already been performed (on the prefix) by sort.
+     *
+     * @param xs the result of the sorting.
+     * @return the array xs.
+     */
+    @Override
+    public X[] postSort(final X[] xs) {
+        return xs;
+    }
+
+    /**
+     * Method to post-process an array after (partial) sorting: only the first k elements are checked.
+     *
+     * @param xs the array to be post-processed.
+     * @return true if the first k elements are in order.
+     */
+    @Override
+    public boolean postProcess(final X[] xs) {
+        return getHelper().sorted(Arrays.copyOf(xs, Math.min(k, xs.length)));
+    }
+
+    /**
+     * @return the number of elements which are to be sorted.
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Primary constructor for PartialHuskySort.
+     *
+     * @param name       the name of the sort which will be used by the ComparisonSortHelper.
+     * @param huskyCoder the Husky coder.
+     * @param k          the number of (smallest) elements which are to be sorted.
+     * @param config     the configuration.
+     */
+    public PartialHuskySort(final String name, final HuskyCoder<X> huskyCoder, final int k, final Config config) {
+        super(name, huskyCoder, Arrays::sort, config);
+        if (k < 0) throw new IllegalArgumentException("PartialHuskySort: k must not be negative: " + k);
+        this.k = k;
+        this.collator = huskyCoder.getCollator();
+    }
+
+    /**
+     * Secondary constructor for PartialHuskySort.
+     * The name will be PartialHuskySort/k.
+     *
+     * @param huskyCoder the Husky coder.
+     * @param k          the number of (smallest) elements which are to be sorted.
+     * @param config     the configuration.
+     */
+    public PartialHuskySort(final HuskyCoder<X> huskyCoder, final int k, final Config config) {
+        this("PartialHuskySort/" + k, huskyCoder, k, config);
+    }
+
+    /**
+     * Quickselect on the codes: on return, longs[lo..target] are all no greater than longs[target],
+     * and longs[target+1..hi] are all no less than longs[target].
+     */
+    private void select(final X[] xs, final long[] longs, int lo, int hi, final int target) {
+        while (hi > lo) {
+            // NOTE: use the middle element as the pivot (partition takes its pivot from lo) to avoid O(n^2) behavior on ordered input.
+            swap(xs, lo, lo + (hi - lo) / 2);
+            final Partition partition = partition(xs, longs, lo, hi);
+            if (target < partition.lt) hi = partition.lt - 1;
+            else if (target > partition.gt) lo = partition.gt + 1;
+            else return;
+        }
+    }
+
+    private final int k;
+    private final Collator collator;
+}
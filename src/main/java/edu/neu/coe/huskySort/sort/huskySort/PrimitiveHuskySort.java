@@ -0,0 +1,108 @@
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.sort.huskySortUtils.InvertibleHuskyCoder;
+import edu.neu.coe.huskySort.sort.huskySortUtils.ParallelCoding;
+import edu.neu.coe.huskySort.util.LazyLogger;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * This class implements Husky Sort for perfect coders (for example, the coders for Integers, Longs and Dates),
+ * in which the codes alone are sorted (as a primitive long[], by the system sort) so that no object references are swapped.
+ * Because the coder is perfect, there is no second pass.
+ * <p>
+ * The sorted array is then rebuilt in one of the following ways:
+ * <ul>
+ *     <li>if the range of the codes leaves room for the index of each element in the same long
+ *     (as it always does for Integers, for example), then each code is packed together with its index
+ *     and the elements are gathered in one sequential pass (this preserves the original elements, and is stable);</li>
+ *     <li>otherwise, if the coder is invertible and the elements are immutable boxed primitives (for example, Longs),
+ *     each element is simply decoded from its (sorted) code
+ *     (NOTE: the resulting elements are equal to, but not necessarily the same objects as, the original elements);</li>
+ *     <li>otherwise, the codes are sorted together with the indices of their elements (see IndexPermutationSort).</li>
+ * </ul>
+ *
+ * @param <X> the type of the elements to be sorted.
+ */
+public final class PrimitiveHuskySort<X> {
+
+    public static void main(final String[] args) {
+        final int n = 1000000;
+        final int m = 100;
+        logger.info("PrimitiveHuskySort.main: sorting " + n + " random Longs " + m + " times");
+        final PrimitiveHuskySort<Long> sorter = new PrimitiveHuskySort<>(HuskyCoderFactory.longCoder);
+        final Random random = new Random();
+        for (int i = 0; i < m; i++) {
+            final Long[] xs = new Long[n];
+            for (int j = 0; j < n; j++) xs[j] = random.nextLong();
+            sorter.sort(xs);
+        }
+        logger.info("PrimitiveHuskySort.main: finished");
+    }
+
+    /**
+     * Method to sort xs.
+     *
+     * @param xs the array to be sorted.
+     */
+    public void sort(final X[] xs) {
+        final int n = xs.length;
+        if (n < 2) return;
+        final long[] longs = ParallelCoding.DEFAULT.huskyEncode(huskyCoder, xs).longs;
+        long min = longs[0];
+        long max = longs[0];
+        for (final long x : longs) {
+            if (x < min) min = x;
+            if (x > max) max = x;
+        }
+        final int indexBits = 64 - Long.numberOfLeadingZeros(n - 1);
+        if (Long.compareUnsigned(max - min, 1L << (Long.SIZE - 1 - indexBits)) < 0) sortPacked(xs, longs, min, indexBits);
+        else if (decoder != null && BOXED.contains(xs.getClass().getComponentType())) {
+            Arrays.sort(longs);
+            for (int i = 0; i < n; i++) xs[i] = decoder.huskyDecode(longs[i]);
+        } else IndexPermutationSort.sort(xs, longs, 0, n);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param huskyCoder the Husky coder, which must be perfect.
+     */
+    @SuppressWarnings("unchecked")
+    public PrimitiveHuskySort(final HuskyCoder<X> huskyCoder) {
+        if (!huskyCoder.perfect())
+            throw new IllegalArgumentException("PrimitiveHuskySort: coder is not perfect: " + huskyCoder.name());
+        this.huskyCoder = huskyCoder;
+        this.decoder = huskyCoder instanceof InvertibleHuskyCoder ? (InvertibleHuskyCoder<X>) huskyCoder : null;
+    }
+
+    /**
+     * Method to sort xs by packing (code - min) and index into each long.
+     * NOTE: the caller has ensured that (code - min) fits in the high (63 - indexBits) bits.
+     */
+    private static <X> void sortPacked(final X[] xs, final long[] longs, final long min, final int indexBits) {
+        final int n = xs.length;
+        for (int i = 0; i < n; i++) longs[i] = (longs[i] - min) << indexBits | i;
+        Arrays.sort(longs);
+        final long indexMask = (1L << indexBits) - 1;
+        final X[] copy = Arrays.copyOf(xs, n);
+        for (int i = 0; i < n; i++) xs[i] = copy[(int) (longs[i] & indexMask)];
+    }
+
+    /**
+     * The (final, immutable) classes of element which may be replaced by their decoded equivalents.
+     * NOTE: for any other class, a decoded element might be of the wrong class for the array (causing an ArrayStoreException),
+     * or might be a different mutable object from the original.
+     */
+    private static final Set<Class<?>> BOXED = new HashSet<>(Arrays.asList(Byte.class, Short.class, Character.class, Integer.class, Long.class, Float.class, Double.class));
+
+    private final HuskyCoder<X> huskyCoder;
+    private final InvertibleHuskyCoder<X> decoder;
+
+    final static LazyLogger logger = new LazyLogger(PrimitiveHuskySort.class);
+}
@@ -4,6 +4,8 @@ import edu.neu.coe.huskySort.sort.huskySortUtils.Coding;
 import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
 import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
 import edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper;
+import edu.neu.coe.huskySort.sort.huskySortUtils.ParallelCoding;
+import edu.neu.coe.huskySort.sort.huskySortUtils.TieSpanSorter;
 import edu.neu.coe.huskySort.sort.simple.InsertionSort;
 import edu.neu.coe.huskySort.util.LazyLogger;
 
@@ -17,6 +19,10 @@ import static java.util.Arrays.binarySearch;
  * This class represents the purest form of Husky Sort based on IntroSort for pass 1 and the System sort for pass 2.
  * This class does not use Helper functions, nor does it extends Sort[X] in order that it is as fast as possible.
  * <p>
+ * If tieSpanPostSort is set, pass 2 sorts only each span of equal codes (see TieSpanSorter).
+ * That is only valid if the coding is monotonic (x &lt; y implies code(x) &lt;= code(y)), which is not true of every coder
+ * (for example, bigDecimalCoder and the probabilistic coders), so by default pass 2 sorts the whole array.
+ * <p>
  * CONSIDER redefining all of the "to" parameters to be consistent with our other Sort utilities.
  *
  * @param <X> the type of the elements to be sorted.
@@ -43,24 +49,41 @@ public class PureHuskySort<X extends Comparable<X>> {
      * @param xs the array to be sorted.
      */
     public void sort(final X[] xs) {
+        sortCoded(xs);
+    }
+
+    /**
+     * Method to sort xs and to yield the Husky codes of the sorted elements.
+     * NOTE: provided that the coding is monotonic, the codes (which are sorted by the first pass) correspond element by element
+     * to the sorted xs, even if the second pass has had to rearrange some of the elements.
+     *
+     * @param xs the array to be sorted.
+     * @return the Coding of xs, whose longs are in the same order as the sorted xs.
+     */
+    public Coding sortCoded(final X[] xs) {
         // NOTE: we start with a random shuffle
         // This is necessary if we might be sorting a pre-sorted array. Otherwise, we usually don't need it.
         if (mayBeSorted) Collections.shuffle(Arrays.asList(xs));
         // NOTE: First pass where we code to longs and sort according to those.
-        final Coding coding = huskyCoder.huskyEncode(xs);
+        final Coding coding = ParallelCoding.DEFAULT.huskyEncode(huskyCoder, xs);
         final long[] longs = coding.longs;
-        introSort(xs, longs, 0, longs.length, 2 * floor_lg(xs.length));
+        if (indexPermutation) IndexPermutationSort.sort(xs, longs, 0, longs.length);
+        else introSort(xs, longs, 0, longs.length, 2 * floor_lg(xs.length));
 
         // NOTE: Second pass (if required) to fix any remaining inversions.
         if (coding.perfect)
-            return;
+            return coding;
         if (useInsertionSort)
             new InsertionSort<X>().mutatingSort(xs);
+        else if (tieSpanPostSort)
+            // NOTE: for a monotonic coding, only the spans of equal codes can contain inversions, so only those are sorted.
+            TieSpanSorter.DEFAULT.sort(xs, longs, 0, xs.length, huskyCoder.getCollator());
         else {
             final Collator collator = huskyCoder.getCollator();
             if (collator == null) Arrays.sort(xs);
             else Arrays.sort(xs, collator);
         }
+        return coding;
     }
 
     /**
@@ -70,11 +93,39 @@ public class PureHuskySort<X extends Comparable<X>> {
      * @param mayBeSorted      if this is true, then we should perform a random shuffle to prevent an O(N*N) performance.
      *                                                                         NOTE: that even though we are using IntroSort, the random shuffle precaution is necessary when
      * @param useInsertionSort if true, then insertion sort will be used to mop up remaining inversions instead of system sort.
+     * @param indexPermutation if true, then the first pass sorts only the codes and indices, and then permutes the elements (see IndexPermutationSort).
+     * @param tieSpanPostSort  if true (and useInsertionSort is false), then the second pass sorts only the spans of equal codes.
+     *                         NOTE: this must only be set if the coding is monotonic.
      */
-    public PureHuskySort(final HuskyCoder<X> huskyCoder, final boolean mayBeSorted, final boolean useInsertionSort) {
+    public PureHuskySort(final HuskyCoder<X> huskyCoder, final boolean mayBeSorted, final boolean useInsertionSort, final boolean indexPermutation, final boolean tieSpanPostSort) {
         this.huskyCoder = huskyCoder;
         this.mayBeSorted = mayBeSorted;
         this.useInsertionSort = useInsertionSort;
+        this.indexPermutation = indexPermutation;
+        this.tieSpanPostSort = tieSpanPostSort;
+    }
+
+    /**
+     * Secondary constructor (the second pass sorts the whole array).
+     *
+     * @param huskyCoder       the Husky coder to be used for the encoding into longs.
+     * @param mayBeSorted      if this is true, then we should perform a random shuffle to prevent an O(N*N) performance.
+     * @param useInsertionSort if true, then insertion sort will be used to mop up remaining inversions instead of system sort.
+     * @param indexPermutation if true, then the first pass sorts only the codes and indices, and then permutes the elements (see IndexPermutationSort).
+     */
+    public PureHuskySort(final HuskyCoder<X> huskyCoder, final boolean mayBeSorted, final boolean useInsertionSort, final boolean indexPermutation) {
+        this(huskyCoder, mayBeSorted, useInsertionSort, indexPermutation, false);
+    }
+
+    /**
+     * Secondary constructor (not in index-permutation mode).
+     *
+     * @param huskyCoder       the Husky coder to be used for the encoding into longs.
+     * @param mayBeSorted      if this is true, then we should perform a random shuffle to prevent an O(N*N) performance.
+     * @param useInsertionSort if true, then insertion sort will be used to mop up remaining inversions instead of system sort.
+     */
+    public PureHuskySort(final HuskyCoder<X> huskyCoder, final boolean mayBeSorted, final boolean useInsertionSort) {
+        this(huskyCoder, mayBeSorted, useInsertionSort, false);
     }
 
     // CONSIDER invoke method in IntroSort
@@ -226,6 +277,8 @@ public class PureHuskySort<X extends Comparable<X>> {
     private final HuskyCoder<X> huskyCoder;
     private final boolean mayBeSorted;
     private final boolean useInsertionSort;
+    private final boolean indexPermutation;
+    private final boolean tieSpanPostSort;
 
     private final static LazyLogger logger = new LazyLogger(PureHuskySort.class);
 }
@@ -0,0 +1,182 @@
+/*
+  (c) Copyright 2018, 2019 Phasmid Software
+ */
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyBuffers;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoder;
+import edu.neu.coe.huskySort.util.Config;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Class to define HuskySort which uses an LSD radix sort of the long codes for the first pass.
+ * The elements are moved collaterally with their codes (the radix sort is stable).
+ * <p>
+ * The digits are radixBits wide (typically 8 or 11 bits).
+ * All of the digit histograms are built in one scan of the codes, after which any digit which is constant across
+ * the array is skipped entirely (this is common, for example, in the high-order bits of a Unicode coding).
+ * <p>
+ * The auxiliary arrays (and the histograms) are kept between invocations of sort and are only reallocated when
+ * a larger array is to be sorted.
+ * If the helper reuses buffers (see HuskyHelper.setBufferReuse), the auxiliary arrays are taken from its HuskyBuffers instead.
+ * NOTE: the auxiliary X array may therefore retain references to elements of a previous sort until this sorter is closed
+ * (or until the HuskyBuffers is cleared).
+ *
+ * @param <X> the underlying type of element to be sorted.
+ */
+public final class RadixHuskySort<X extends Comparable<X>> extends AbstractHuskySort<X> {
+
+    /**
+     * Primary constructor to create an implementation of HuskySort which uses LSD radix sort for the first pass.
+     *
+     * @param name       the name of the sorter (used for the helper).
+     * @param n          the number of elements to be sorted (may be 0 if unknown).
+     * @param huskyCoder the Husky coder.
+     * @param postSorter the post-sorter (i.e. the sort method which will fix any remaining inversions).
+     * @param config     the configuration.
+     * @param radixBits  the number of bits in each digit (between 1 and 16).
+     */
+    public RadixHuskySort(final String name, final int n, final HuskyCoder<X> huskyCoder, final Consumer<X[]> postSorter, final Config config, final int radixBits) {
+        super(name, n, huskyCoder, postSorter, config);
+        if (radixBits < 1 || radixBits > 16)
+            throw new IllegalArgumentException("RadixHuskySort: radixBits must be between 1 and 16: " + radixBits);
+        this.radixBits = radixBits;
+        this.passes = (Long.SIZE + radixBits - 1) / radixBits;
+        this.mask = (1 << radixBits) - 1;
+    }
+
+    /**
+     * Secondary constructor to create an implementation of HuskySort which uses LSD radix sort for the first pass.
+     * The number of elements to be sorted is unknown.
+     *
+     * @param name       the name of the sorter (used for the helper).
+     * @param huskyCoder the Husky coder.
+     * @param postSorter the post-sorter (i.e. the sort method which will fix any remaining inversions).
+     * @param config     the configuration.
+     * @param radixBits  the number of bits in each digit (between 1 and 16).
+     */
+    public RadixHuskySort(final String name, final HuskyCoder<X> huskyCoder, final Consumer<X[]> postSorter, final Config config, final int radixBits) {
+        this(name, 0, huskyCoder, postSorter, config, radixBits);
+    }
+
+    /**
+     * Secondary constructor to create an implementation of HuskySort which uses LSD radix sort for the first pass.
+     * The name will be RadixHuskySort/System.
+     * The post-sorter will be the System sort.
+     * The digits will be DEFAULT_RADIX_BITS wide.
+     *
+     * @param huskyCoder the Husky coder.
+     * @param config     the configuration.
+     */
+    public RadixHuskySort(final HuskyCoder<X> huskyCoder, final Config config) {
+        this("RadixHuskySort/System", huskyCoder, Arrays::sort, config, DEFAULT_RADIX_BITS);
+    }
+
+    /**
+     * Primary sort method, defined in Sort.
+     *
+     * @param xs   sort the array xs from "from" to "to".
+     * @param from the index of the first element to sort.
+     * @param to   the index of the first element not to sort.
+     */
+    public void sort(final X[] xs, final int from, final int to) {
+        final long[] longs = getHelper().getLongs();
+        final int n = to - from;
+        if (n <= sizeThreshold) {
+            PureHuskySort.insertionSort(xs, longs, from, to);
+            return;
+        }
+        final HuskyBuffers buffers = getHelper().getBuffers();
+        ensureCapacity(xs, n, buffers == null);
+        buildHistograms(longs, from, to);
+        long[] lsFrom = longs, lsTo = buffers != null ? buffers.getAuxLongs(n) : auxLongs;
+        X[] xsFrom = xs, xsTo = buffers != null ? buffers.getAuxObjects(xs, n) : auxXs;
+        int offsetFrom = from, offsetTo = 0;
+        for (int pass = 0; pass < passes; pass++) {
+            final int shift = pass * radixBits;
+            final int[] count = counts[pass];
+            // NOTE: if every code has the same digit, this pass would not change anything.
+            if (count[digit(lsFrom[offsetFrom], shift)] == n) continue;
+            int total = 0;
+            for (int r = 0; r <= mask; r++) {
+                final int c = count[r];
+                count[r] = total;
+                total += c;
+            }
+            for (int i = offsetFrom; i < offsetFrom + n; i++) {
+                final long l = lsFrom[i];
+                final int j = offsetTo + count[digit(l, shift)]++;
+                lsTo[j] = l;
+                xsTo[j] = xsFrom[i];
+            }
+            getHelper().incrementCopies(n);
+            final long[] lsTemp = lsFrom;
+            lsFrom = lsTo;
+            lsTo = lsTemp;
+            final X[] xsTemp = xsFrom;
+            xsFrom = xsTo;
+            xsTo = xsTemp;
+            final int offsetTemp = offsetFrom;
+            offsetFrom = offsetTo;
+            offsetTo = offsetTemp;
+        }
+        // NOTE: if there was an odd number of (non-skipped) passes, the result is in the auxiliary arrays.
+        if (lsFrom != longs) {
+            System.arraycopy(lsFrom, offsetFrom, longs, from, n);
+            System.arraycopy(xsFrom, offsetFrom, xs, from, n);
+            getHelper().incrementCopies(n);
+        }
+    }
+
+    /**
+     * Close this sorter, releasing the auxiliary arrays.
+     */
+    @Override
+    public void close() {
+        super.close();
+        auxLongs = null;
+        auxXs = null;
+    }
+
+    public static final int DEFAULT_RADIX_BITS = 8;
+
+    private void ensureCapacity(final X[] xs, final int n, final boolean auxiliaries) {
+        if (auxiliaries && (auxLongs == null || auxLongs.length < n)) {
+            auxLongs = new long[n];
+            auxXs = Arrays.copyOf(xs, n);
+        }
+        if (counts == null) counts = new int[passes][mask + 1];
+        else for (final int[] count : counts) Arrays.fill(count, 0);
+    }
+
+    private void buildHistograms(final long[] longs, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            final long l = longs[i];
+            for (int pass = 0; pass < passes; pass++) counts[pass][digit(l, pass * radixBits)]++;
+        }
+    }
+
+    /**
+     * Method to get the digit of l at the given shift.
+     * NOTE: we flip the sign bit so that negative codes sort before positive codes.
+     *
+     * @param l     the long code.
+     * @param shift the number of bits to shift.
+     * @return the digit.
+     */
+    private int digit(final long l, final int shift) {
+        return (int) ((l ^ Long.MIN_VALUE) >>> shift) & mask;
+    }
+
+    private static final int sizeThreshold = 16;
+
+    private final int radixBits;
+    private final int passes;
+    private final int mask;
+
+    private long[] auxLongs;
+    private X[] auxXs;
+    private int[][] counts;
+}
@@ -0,0 +1,147 @@
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper;
+import edu.neu.coe.huskySort.sort.huskySortUtils.TieSpanSorter;
+import edu.neu.coe.huskySort.sort.huskySortUtils.WideCoding;
+import edu.neu.coe.huskySort.sort.huskySortUtils.WideHuskyCoder;
+import edu.neu.coe.huskySort.util.LazyLogger;
+
+/**
+ * This class represents a form of (pure) Husky Sort in which each element is encoded as two longs (a 128-bit code).
+ * <p>
+ * The first pass is an IntroSort on the (high, low) pairs of codes, where the high halves are compared as signed values
+ * and the low halves as unsigned values (see WideHuskyCoder.compare).
+ * Because twice as many characters are significant, the coding is perfect for many more Strings
+ * and, where it is not, the spans of equal codes (which must be sorted by the second pass) are much shorter.
+ * This is especially worthwhile for elements which share long prefixes, such as file paths, URLs, or SKUs.
+ * <p>
+ * Like PureHuskySort, this class does not use Helper functions, nor does it extend Sort[X].
+ *
+ * @param <X> the type of the elements to be sorted.
+ */
+public class WideHuskySort<X extends Comparable<X>> {
+
+    public static void main(final String[] args) {
+        final int N = 50000;
+        final int m = 1000;
+        logger.info("WideHuskySort.main: sorting " + N + " random paths " + m + " times");
+        final WideHuskySort<String> sorter = new WideHuskySort<>(HuskyCoderFactory.wideAsciiCoder);
+        for (int i = 0; i < m; i++) sorter.sort(HuskySortHelper.generateRandomPathArray(N, 3));
+        logger.info("WideHuskySort.main: finished");
+    }
+
+    /**
+     * The main sort method.
+     *
+     * @param xs the array to be sorted.
+     */
+    public void sort(final X[] xs) {
+        sortCoded(xs);
+    }
+
+    /**
+     * Method to sort xs and to yield the wide Husky codes of the sorted elements.
+     *
+     * @param xs the array to be sorted.
+     * @return the WideCoding of xs, whose longs and lows are in the same order as the sorted xs.
+     */
+    public WideCoding sortCoded(final X[] xs) {
+        // NOTE: First pass where we code to pairs of longs and sort according to those.
+        final WideCoding coding = huskyCoder.huskyEncodeWide(xs);
+        final long[] his = coding.longs;
+        final long[] los = coding.lows;
+        introSort(xs, his, los, 0, xs.length, 2 * IntroHuskySort.floor_lg(xs.length));
+
+        // NOTE: Second pass (if required) to fix any remaining inversions: only the spans of equal codes need be sorted.
+        if (!coding.perfect)
+            TieSpanSorter.DEFAULT.sort(xs, his, los, 0, xs.length, huskyCoder.getCollator());
+        return coding;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param huskyCoder the wide Husky coder to be used for the encoding into pairs of longs.
+     */
+    public WideHuskySort(final WideHuskyCoder<X> huskyCoder) {
+        this.huskyCoder = huskyCoder;
+    }
+
+    private static final int sizeThreshold = 16;
+
+    private static <X> void introSort(final X[] xs, final long[] his, final long[] los, final int from, final int to, final int depthThreshold) {
+        if (to - from <= sizeThreshold + 1) {
+            insertionSort(xs, his, los, from, to);
+            return;
+        }
+        if (depthThreshold == 0) {
+            heapSort(xs, his, los, from, to);
+            return;
+        }
+
+        final int lo = from;
+        final int hi = to - 1;
+        // NOTE: use the middle element as one of the pivots in order to avoid O(n^2) behavior on ordered input.
+        swap(xs, his, los, lo, lo + (hi - lo) / 2);
+        if (compare(his, los, hi, lo) < 0) swap(xs, his, los, lo, hi);
+
+        int lt = lo + 1, gt = hi - 1;
+        int i = lo + 1;
+        while (i <= gt) {
+            if (compare(his, los, i, lo) < 0) swap(xs, his, los, lt++, i++);
+            else if (compare(his, los, hi, i) < 0) swap(xs, his, los, i, gt--);
+            else i++;
+        }
+        swap(xs, his, los, lo, --lt);
+        swap(xs, his, los, hi, ++gt);
+        introSort(xs, his, los, lo, lt, depthThreshold - 1);
+        if (compare(his, los, lt, gt) < 0) introSort(xs, his, los, lt + 1, gt, depthThreshold - 1);
+        introSort(xs, his, los, gt + 1, hi + 1, depthThreshold - 1);
+    }
+
+    private static <X> void heapSort(final X[] xs, final long[] his, final long[] los, final int from, final int to) {
+        final int n = to - from;
+        for (int i = n / 2; i >= 1; i--) downHeap(xs, his, los, i, n, from);
+        for (int i = n; i > 1; i--) {
+            swap(xs, his, los, from, from + i - 1);
+            downHeap(xs, his, los, 1, i - 1, from);
+        }
+    }
+
+    private static <X> void downHeap(final X[] xs, final long[] his, final long[] los, int i, final int n, final int lo) {
+        while (i <= n / 2) {
+            int child = 2 * i;
+            if (child < n && compare(his, los, lo + child - 1, lo + child) < 0) child++;
+            if (compare(his, los, lo + i - 1, lo + child - 1) >= 0) break;
+            swap(xs, his, los, lo + i - 1, lo + child - 1);
+            i = child;
+        }
+    }
+
+    private static <X> void insertionSort(final X[] xs, final long[] his, final long[] los, final int from, final int to) {
+        for (int i = from + 1; i < to; i++)
+            for (int j = i; j > from && compare(his, los, j, j - 1) < 0; j--)
+                swap(xs, his, los, j, j - 1);
+    }
+
+    private static int compare(final long[] his, final long[] los, final int i, final int j) {
+        return WideHuskyCoder.compare(his[i], los[i], his[j], los[j]);
+    }
+
+    private static <X> void swap(final X[] xs, final long[] his, final long[] los, final int i, final int j) {
+        final long hi = his[i];
+        his[i] = his[j];
+        his[j] = hi;
+        final long lo = los[i];
+        los[i] = los[j];
+        los[j] = lo;
+        final X x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+    }
+
+    private final WideHuskyCoder<X> huskyCoder;
+
+    private final static LazyLogger logger = new LazyLogger(WideHuskySort.class);
+}
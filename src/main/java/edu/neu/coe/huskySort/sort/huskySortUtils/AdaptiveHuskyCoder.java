@@ -0,0 +1,214 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory.*;
+
+/**
+ * Husky sequence coder which, for each array to be encoded, chooses the densest safe coder
+ * among englishCoder, asciiCoder, utf8Coder and unicodeCoder.
+ * <p>
+ * The coders are safe (i.e. monotonic with respect to the natural order of Strings) for progressively wider ranges of characters:
+ * <ul>
+ *     <li>englishCoder keeps only six bits of each char, so it is safe only for chars between 'A' and DEL
+ *     (letters of either case and a few punctuation characters):
+ *     NOTE: '@' is not safe because its six bits are zero, the same as the padding which follows a short String;</li>
+ *     <li>asciiCoder is safe for chars below 0x80;</li>
+ *     <li>utf8Coder is safe for any chars other than surrogates;</li>
+ *     <li>unicodeCoder is always safe.</li>
+ * </ul>
+ * Only the characters which a coder actually encodes need be safe (for example, the first ten for englishCoder).
+ * <p>
+ * A sample of the array determines which of the (sample-safe) coders encodes the most characters,
+ * taking account of the length distribution and (for utf8Coder) the number of bytes per char.
+ * Then every element of the array is checked (cheaply) and, if any element is not safe for the chosen coder,
+ * the next safer coder is chosen instead.
+ * Thus, the result of adapt is always safe for the whole array.
+ * <p>
+ * The choice (and its cost) is recorded by HuskyHelper.doCoding in the Instrumenter (if any) of the sort.
+ */
+public final class AdaptiveHuskyCoder implements HuskySequenceCoder<String> {
+
+    /**
+     * Method to choose the coder for xs.
+     *
+     * @param xs the array of Strings which is to be encoded.
+     * @return the densest coder which is safe for xs.
+     */
+    @Override
+    public HuskySequenceCoder<String> adapt(final String[] xs) {
+        int level = chooseLevel(xs);
+        for (final String x : xs) if (level < UNICODE) level = Math.max(level, level(x));
+        return CODERS.get(level);
+    }
+
+    /**
+     * Encode x as a long.
+     * NOTE: a single String cannot be adapted to, so it is encoded by unicodeCoder, which is always safe.
+     *
+     * @param x the String to encode.
+     * @return the (Unicode) Husky code of x.
+     */
+    public long huskyEncode(final String x) {
+        return unicodeCoder.huskyEncode(x);
+    }
+
+    /**
+     * Encode an array of Strings, using the coder chosen by adapt.
+     *
+     * @param xs an array of Strings.
+     * @return a Coding of xs.
+     */
+    @Override
+    public Coding huskyEncode(final String[] xs) {
+        return adapt(xs).huskyEncode(xs);
+    }
+
+    /**
+     * Encode an array of Strings into an existing array of longs, using the coder chosen by adapt.
+     *
+     * @param xs    an array of Strings.
+     * @param longs an array of longs, at least as long as xs.
+     * @return true if every element of xs was perfectly encoded.
+     */
+    @Override
+    public boolean huskyEncode(final String[] xs, final long[] longs) {
+        return adapt(xs).huskyEncode(xs, longs);
+    }
+
+    /**
+     * Encode xs[from..to) into longs[from..to).
+     * NOTE: a part of an array cannot be adapted to (the whole array must be encoded by the same coder),
+     * so this is encoded by unicodeCoder, which is always safe. Callers which encode an array in parts should adapt first.
+     *
+     * @param xs    an array of Strings.
+     * @param from  the index of the first element to be encoded.
+     * @param to    the index of the first element NOT to be encoded.
+     * @param longs an array of longs, at least as long as to.
+     * @return the number of elements in the range which could not be perfectly encoded.
+     */
+    @Override
+    public int huskyEncode(final String[] xs, final int from, final int to, final long[] longs) {
+        return unicodeCoder.huskyEncode(xs, from, to, longs);
+    }
+
+    /**
+     * NOTE: this is conservative, since it assumes that unicodeCoder will be chosen.
+     *
+     * @param length the length of a particular String.
+     * @return true if unicodeCoder is perfect for a String of the given length.
+     */
+    public boolean perfectForLength(final int length) {
+        return unicodeCoder.perfectForLength(length);
+    }
+
+    /**
+     * NOTE: perfection is determined solely by the huskyEncode(X[]) method.
+     *
+     * @return false.
+     */
+    @Override
+    public boolean perfect() {
+        return false;
+    }
+
+    /**
+     * @return "Adaptive".
+     */
+    @Override
+    public String name() {
+        return "Adaptive";
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveHuskyCoder{" +
+                "sampleSize=" + sampleSize +
+                '}';
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sampleSize the (maximum) number of elements to sample (evenly spaced throughout the array).
+     */
+    public AdaptiveHuskyCoder(final int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    public static final int DEFAULT_SAMPLE_SIZE = 256;
+
+    /**
+     * Method to determine (from a sample of xs) the level of the coder which encodes the most characters.
+     * Where there is a tie, the denser (lower) level is chosen.
+     */
+    int chooseLevel(final String[] xs) {
+        final int n = Math.min(sampleSize, xs.length);
+        int level = ENGLISH;
+        for (int i = 0; i < n; i++) level = Math.max(level, level(sample(xs, i, n)));
+        if (level == UNICODE) return level;
+        int result = level;
+        long best = -1;
+        for (int candidate = level; candidate <= UNICODE; candidate++) {
+            long score = 0;
+            for (int i = 0; i < n; i++) score += encodedCharacters(sample(xs, i, n), candidate);
+            if (score > best) {
+                best = score;
+                result = candidate;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to determine the level of the densest coder which is safe for x.
+     *
+     * @param x a String.
+     * @return one of ENGLISH, ASCII, UTF8, or UNICODE.
+     */
+    static int level(final String x) {
+        int result = ENGLISH;
+        final int n = Math.min(x.length(), MAX_CHARS[ENGLISH]);
+        for (int i = 0; i < n && result < UNICODE; i++) {
+            final char c = x.charAt(i);
+            if (result == ENGLISH && (c <= '@' || c >= 0x80)) result = ASCII;
+            if (result == ASCII && i < MAX_CHARS[ASCII] && c >= 0x80) result = UTF8;
+            if (result == UTF8 && i < MAX_CHARS[UTF8] && Character.isSurrogate(c)) result = UNICODE;
+        }
+        return result;
+    }
+
+    /**
+     * Method to determine how many characters of x are (fully) encoded by the coder at the given level.
+     */
+    private static int encodedCharacters(final String x, final int level) {
+        if (level != UTF8) return Math.min(x.length(), MAX_CHARS[level]);
+        int bytes = 0;
+        int i = 0;
+        while (i < x.length()) {
+            final char c = x.charAt(i);
+            bytes += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+            // NOTE: the last bit of the eighth byte is lost, so only seven bytes are fully encoded.
+            if (bytes > UTF8_BYTES) break;
+            i++;
+        }
+        return i;
+    }
+
+    private static String sample(final String[] xs, final int i, final int n) {
+        return xs[(int) ((long) i * xs.length / n)];
+    }
+
+    static final int ENGLISH = 0;
+    static final int ASCII = 1;
+    static final int UTF8 = 2;
+    static final int UNICODE = 3;
+
+    private static final List<HuskySequenceCoder<String>> CODERS = Arrays.asList(englishCoder, asciiCoder, utf8Coder, unicodeCoder);
+    // NOTE: the maximum number of characters which each coder can encode (at least in part).
+    private static final int[] MAX_CHARS = {10, 9, 8, 3};
+    private static final int UTF8_BYTES = 7;
+
+    private final int sampleSize;
+}
@@ -39,18 +39,45 @@ public abstract class BaseHuskySequenceCoder<X extends CharSequence> implements
      * Encode an array of Xs.
      *
      * @param xs an array of X elements.
-     * @return an array of longs corresponding to the Husky codes of the X elements.
+     * @return a Coding of xs, including the number of elements which are too long to be perfectly encoded.
      */
     @Override
     public Coding huskyEncode(final X[] xs) {
-        boolean isPerfect = true;
         final long[] result = new long[xs.length];
-        for (int i = 0; i < xs.length; i++) {
+        final int overflows = huskyEncode(xs, 0, xs.length, result);
+        return new Coding(result, overflows == 0, overflows);
+    }
+
+    /**
+     * Encode an array of Xs into an existing array of longs.
+     *
+     * @param xs    an array of X elements.
+     * @param longs an array of longs, at least as long as xs.
+     * @return true if every element of xs is of a length which can be perfectly encoded.
+     */
+    @Override
+    public boolean huskyEncode(final X[] xs, final long[] longs) {
+        return huskyEncode(xs, 0, xs.length, longs) == 0;
+    }
+
+    /**
+     * Encode xs[from..to) into longs[from..to).
+     *
+     * @param xs    an array of X elements.
+     * @param from  the index of the first element to be encoded.
+     * @param to    the index of the first element NOT to be encoded.
+     * @param longs an array of longs, at least as long as to.
+     * @return the number of elements in the range which are too long to be perfectly encoded.
+     */
+    @Override
+    public int huskyEncode(final X[] xs, final int from, final int to, final long[] longs) {
+        int overflows = 0;
+        for (int i = from; i < to; i++) {
             final X x = xs[i];
-            if (isPerfect) isPerfect = perfectForLength(x.length());
-            result[i] = huskyEncode(x);
+            if (!perfectForLength(x.length())) overflows++;
+            longs[i] = huskyEncode(x);
         }
-        return new Coding(result, isPerfect);
+        return overflows;
     }
 
     /**
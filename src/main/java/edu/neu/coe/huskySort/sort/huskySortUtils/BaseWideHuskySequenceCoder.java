@@ -0,0 +1,54 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+/**
+ * Base Husky sequence coder which can also encode a sequence as two longs.
+ * <p>
+ * NOTE: the ordinary (one-long) coding is perfect only for sequences of at most maxLength,
+ * whereas the wide coding is perfect for sequences of at most wideMaxLength.
+ */
+public abstract class BaseWideHuskySequenceCoder<X extends CharSequence> extends BaseHuskySequenceCoder<X> implements WideHuskyCoder<X> {
+
+    /**
+     * Method to determine if the wide coding of this Husky Coder is perfect for a sequence of the given length.
+     *
+     * @param length the length of a particular String.
+     * @return true if length <= wideMaxLength.
+     */
+    public final boolean perfectForWideLength(final int length) {
+        return length <= wideMaxLength;
+    }
+
+    /**
+     * Encode an array of Xs as wide codes.
+     *
+     * @param xs an array of X elements.
+     * @return a WideCoding of xs which is perfect if every element of xs is of a length which can be perfectly encoded in two longs.
+     */
+    @Override
+    public WideCoding huskyEncodeWide(final X[] xs) {
+        final long[] longs = new long[xs.length];
+        final long[] lows = new long[xs.length];
+        boolean isPerfect = true;
+        for (int i = 0; i < xs.length; i++) {
+            final X x = xs[i];
+            if (isPerfect) isPerfect = perfectForWideLength(x.length());
+            longs[i] = huskyEncode(x);
+            lows[i] = huskyEncodeLow(x);
+        }
+        return new WideCoding(longs, lows, isPerfect);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name          the name of this coder.
+     * @param maxLength     the maximum length of a sequence which can be perfectly encoded in one long.
+     * @param wideMaxLength the maximum length of a sequence which can be perfectly encoded in two longs.
+     */
+    public BaseWideHuskySequenceCoder(final String name, final int maxLength, final int wideMaxLength) {
+        super(name, maxLength);
+        this.wideMaxLength = wideMaxLength;
+    }
+
+    private final int wideMaxLength;
+}
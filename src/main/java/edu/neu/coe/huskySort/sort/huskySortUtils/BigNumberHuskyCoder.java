@@ -0,0 +1,214 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Order-preserving Husky coders for BigDecimal and BigInteger.
+ * <p>
+ * Each code is formed like a floating-point number: the sign (zero has the code zero and negative values have the negation of
+ * the code of their magnitude), then a biased exponent, then the leading digits (or bits) of the mantissa.
+ * Thus, the codes are monotonic with respect to compareTo, even for values with fractional parts or very large magnitudes
+ * (exponents which are out of range are clamped).
+ * <p>
+ * The coding of an individual element is exact (so that it can never tie with a different value) when its mantissa fits.
+ * Perfection is therefore determined, element by element, by the huskyEncode(X[]) methods (see also perfectFor).
+ *
+ * @param <X> BigDecimal or BigInteger.
+ */
+public abstract class BigNumberHuskyCoder<X extends Number> implements HuskyCoder<X> {
+
+    /**
+     * A coder for BigDecimals, with a decimal exponent of 10 bits (i.e. between -512 and 511) and 15 significant decimal digits.
+     */
+    public static final BigNumberHuskyCoder<BigDecimal> bigDecimalCoder = new BigNumberHuskyCoder<>("OrderedBigDecimal") {
+        @Override
+        long encode(final BigDecimal x, final boolean[] inexact) {
+            return bigDecimalToLong(x, inexact);
+        }
+    };
+
+    /**
+     * A coder for BigIntegers, with a binary exponent (the bit length) of 8 bits and 55 bits (following the leading one) of mantissa.
+     */
+    public static final BigNumberHuskyCoder<BigInteger> bigIntegerCoder = new BigNumberHuskyCoder<>("OrderedBigInteger") {
+        @Override
+        long encode(final BigInteger x, final boolean[] inexact) {
+            return bigIntegerToLong(x, inexact);
+        }
+    };
+
+    /**
+     * Encode x as a long.
+     *
+     * @param x the value to encode.
+     * @return a long which is monotonically non-decreasing with x.
+     */
+    public long huskyEncode(final X x) {
+        return encode(x, null);
+    }
+
+    /**
+     * Encode an array of Xs.
+     *
+     * @param xs an array of X elements.
+     * @return a Coding of xs, including the number of elements which are not exactly encoded.
+     */
+    @Override
+    public Coding huskyEncode(final X[] xs) {
+        final long[] result = new long[xs.length];
+        final int overflows = huskyEncode(xs, 0, xs.length, result);
+        return new Coding(result, overflows == 0, overflows);
+    }
+
+    /**
+     * Encode an array of Xs into an existing array of longs.
+     *
+     * @param xs    an array of X elements.
+     * @param longs an array of longs, at least as long as xs.
+     * @return true if every element of xs is exactly encoded.
+     */
+    @Override
+    public boolean huskyEncode(final X[] xs, final long[] longs) {
+        final boolean[] inexact = new boolean[1];
+        for (int i = 0; i < xs.length; i++) longs[i] = encode(xs[i], inexact);
+        return !inexact[0];
+    }
+
+    /**
+     * Encode xs[from..to) into longs[from..to).
+     *
+     * @param xs    an array of X elements.
+     * @param from  the index of the first element to be encoded.
+     * @param to    the index of the first element NOT to be encoded.
+     * @param longs an array of longs, at least as long as to.
+     * @return the number of elements in the range which are not exactly encoded.
+     */
+    @Override
+    public int huskyEncode(final X[] xs, final int from, final int to, final long[] longs) {
+        final boolean[] inexact = new boolean[1];
+        int overflows = 0;
+        for (int i = from; i < to; i++) {
+            inexact[0] = false;
+            longs[i] = encode(xs[i], inexact);
+            if (inexact[0]) overflows++;
+        }
+        return overflows;
+    }
+
+    /**
+     * Method to determine if x is exactly encoded.
+     *
+     * @param x a value.
+     * @return true if no other value has the same code as x.
+     */
+    public boolean perfectFor(final X x) {
+        final boolean[] inexact = new boolean[1];
+        encode(x, inexact);
+        return !inexact[0];
+    }
+
+    /**
+     * NOTE: perfection is determined solely by the huskyEncode(X[]) methods.
+     *
+     * @return false.
+     */
+    @Override
+    public boolean perfect() {
+        return false;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "BigNumberHuskyCoder{" + name + '}';
+    }
+
+    /**
+     * Method to encode x.
+     *
+     * @param x       the value to encode.
+     * @param inexact if not null, then inexact[0] is set to true if x is not exactly encoded (otherwise it is unchanged).
+     * @return the code for x.
+     */
+    abstract long encode(final X x, final boolean[] inexact);
+
+    /**
+     * Method to encode a BigDecimal.
+     */
+    static long bigDecimalToLong(final BigDecimal x, final boolean[] inexact) {
+        final int signum = x.signum();
+        if (signum == 0) return 0L;
+        final BigDecimal magnitude = x.abs();
+        final int precision = magnitude.precision();
+        // NOTE: magnitude is d.ddd... times ten to the power of exponent.
+        final long exponent = (long) precision - magnitude.scale() - 1;
+        final long code;
+        if (exponent < -DECIMAL_BIAS) {
+            code = 1L;
+            if (inexact != null) inexact[0] = true;
+        } else if (exponent >= DECIMAL_BIAS) {
+            code = Long.MAX_VALUE;
+            if (inexact != null) inexact[0] = true;
+        } else {
+            // NOTE: the mantissa is the (truncated) value of the first DECIMAL_DIGITS significant digits.
+            final BigDecimal scaled = magnitude.scaleByPowerOfTen((int) (DECIMAL_DIGITS - 1 - exponent));
+            final long mantissa = scaled.longValue();
+            if (inexact != null && precision > DECIMAL_DIGITS && scaled.compareTo(BigDecimal.valueOf(mantissa)) != 0)
+                inexact[0] = true;
+            code = (exponent + DECIMAL_BIAS) << DECIMAL_MANTISSA_BITS | mantissa;
+        }
+        return signum > 0 ? code : -code;
+    }
+
+    /**
+     * Method to encode a BigInteger.
+     */
+    static long bigIntegerToLong(final BigInteger x, final boolean[] inexact) {
+        final int signum = x.signum();
+        if (signum == 0) return 0L;
+        final long code;
+        if (x.bitLength() < Long.SIZE) {
+            // NOTE: the magnitude is treated as unsigned, so that Long.MIN_VALUE is also dealt with correctly.
+            final long value = x.longValue();
+            final long magnitude = value < 0 ? -value : value;
+            final int bits = Long.SIZE - Long.numberOfLeadingZeros(magnitude);
+            final long fraction = magnitude & ~(1L << bits - 1);
+            final int shift = bits - 1 - BINARY_MANTISSA_BITS;
+            if (shift <= 0) code = (long) bits << BINARY_MANTISSA_BITS | fraction << -shift;
+            else {
+                if (inexact != null && (fraction & (1L << shift) - 1) != 0) inexact[0] = true;
+                code = (long) bits << BINARY_MANTISSA_BITS | fraction >>> shift;
+            }
+        } else {
+            final BigInteger magnitude = x.abs();
+            final int bits = magnitude.bitLength();
+            if (bits > MAX_BIT_LENGTH) {
+                code = Long.MAX_VALUE;
+                if (inexact != null) inexact[0] = true;
+            } else {
+                final int shift = bits - 1 - BINARY_MANTISSA_BITS;
+                if (inexact != null && magnitude.getLowestSetBit() < shift) inexact[0] = true;
+                code = (long) bits << BINARY_MANTISSA_BITS | magnitude.shiftRight(shift).longValue() & BINARY_MANTISSA_MASK;
+            }
+        }
+        return signum > 0 ? code : -code;
+    }
+
+    private BigNumberHuskyCoder(final String name) {
+        this.name = name;
+    }
+
+    private static final int DECIMAL_DIGITS = 15;
+    private static final int DECIMAL_MANTISSA_BITS = 53;
+    private static final long DECIMAL_BIAS = 512;
+    private static final int BINARY_MANTISSA_BITS = 55;
+    private static final long BINARY_MANTISSA_MASK = (1L << BINARY_MANTISSA_BITS) - 1;
+    private static final int MAX_BIT_LENGTH = 255;
+
+    private final String name;
+}
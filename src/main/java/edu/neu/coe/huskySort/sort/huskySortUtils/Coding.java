@@ -2,13 +2,27 @@ package edu.neu.coe.huskySort.sort.huskySortUtils;
 
 /**
  * Class to combine the long codes for an array of objects with a determination of coding perfection.
+ * <p>
+ * Where the coder is able to determine it, the number of elements which overflowed the capacity of the coder
+ * (i.e. which could not be perfectly encoded) is also recorded; otherwise, overflows is UNKNOWN.
  */
 public class Coding {
-    public Coding(final long[] longs, final boolean perfect) {
+    public Coding(final long[] longs, final boolean perfect, final int overflows) {
         this.longs = longs;
         this.perfect = perfect;
+        this.overflows = overflows;
     }
 
+    public Coding(final long[] longs, final boolean perfect) {
+        this(longs, perfect, perfect ? 0 : UNKNOWN);
+    }
+
+    /**
+     * The value of overflows where the number of overflowing elements is not known.
+     */
+    public static final int UNKNOWN = -1;
+
     public final long[] longs;
     public final boolean perfect;
+    public final int overflows;
 }
@@ -0,0 +1,313 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded (least-recently-used) cache from String to its CollationKey (according to a given Collator),
+ * the bytes of that key, and the Husky code of those bytes.
+ * <p>
+ * A cache is intended to be shared by everything which sorts the same (overlapping) sets of Strings with the same Collator,
+ * for example SequenceEncoder_Collator (which encodes and then fixes the spans of equal codes) and GenericCollator.
+ * The Collator returned by asCollator compares Strings by their cached keys, and so can replace the original Collator.
+ * NOTE: each comparison by that Collator looks up two keys (under the lock of the cache); TieSpanSorter recognizes it
+ * and instead looks up the keys of all the tied Strings at once (see getAll) before sorting the spans by those keys.
+ * <p>
+ * When an array is looked up (see getAll), the keys of the misses are generated in parallel (if there are enough of them),
+ * each task using its own clone of the Collator (because the methods of RuleBasedCollator are synchronized).
+ * <p>
+ * The numbers of hits and misses are recorded (see getHits and getMisses).
+ */
+public final class CollationKeyCache {
+
+    /**
+     * Class to represent the cached values for one String.
+     */
+    public static final class Entry {
+        /**
+         * The CollationKey of the String.
+         */
+        public final CollationKey key;
+        /**
+         * The bytes of key.
+         */
+        public final byte[] bytes;
+        /**
+         * The Husky code of bytes.
+         */
+        public final long code;
+
+        private Entry(final CollationKey key, final ToLongFunction<byte[]> encoder) {
+            this.key = key;
+            this.bytes = key.toByteArray();
+            this.code = encoder.applyAsLong(bytes);
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param collator the Collator which defines the keys.
+     * @param capacity the maximum number of Strings to be cached.
+     * @param encoder  the function which yields the Husky code of the bytes of a key.
+     * @param pool     the ForkJoinPool on which misses are generated (if null, they are generated sequentially).
+     */
+    public CollationKeyCache(final Collator collator, final int capacity, final ToLongFunction<byte[]> encoder, final ForkJoinPool pool) {
+        if (capacity < 1) throw new IllegalArgumentException("CollationKeyCache: capacity must be positive: " + capacity);
+        this.collator = collator;
+        this.capacity = capacity;
+        this.encoder = encoder;
+        this.pool = pool;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > CollationKeyCache.this.capacity;
+            }
+        };
+        this.cachingCollator = new CachingCollator();
+    }
+
+    /**
+     * Constructor which generates misses on the common pool.
+     *
+     * @param collator the Collator which defines the keys.
+     * @param capacity the maximum number of Strings to be cached.
+     * @param encoder  the function which yields the Husky code of the bytes of a key.
+     */
+    public CollationKeyCache(final Collator collator, final int capacity, final ToLongFunction<byte[]> encoder) {
+        this(collator, capacity, encoder, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Method to get the Entry for x.
+     *
+     * @param x a String.
+     * @return the (possibly cached) Entry for x.
+     */
+    public Entry get(final String x) {
+        synchronized (map) {
+            final Entry entry = map.get(x);
+            if (entry != null) {
+                hits++;
+                return entry;
+            }
+            misses++;
+        }
+        final Entry entry = new Entry(collator.getCollationKey(x), encoder);
+        synchronized (map) {
+            // NOTE: another thread may have cached x in the meantime.
+            final Entry existing = map.putIfAbsent(x, entry);
+            return existing != null ? existing : entry;
+        }
+    }
+
+    /**
+     * Method to get the Entries for all the elements of xs.
+     * The misses are generated in parallel (if there are at least PARALLEL_THRESHOLD of them) and then cached.
+     *
+     * @param xs an array of Strings.
+     * @return an array of Entries, corresponding to xs.
+     */
+    public Entry[] getAll(final String[] xs) {
+        final Entry[] result = new Entry[xs.length];
+        final List<Integer> missing = new ArrayList<>();
+        synchronized (map) {
+            for (int i = 0; i < xs.length; i++) {
+                result[i] = map.get(xs[i]);
+                if (result[i] == null) missing.add(i);
+            }
+            hits += xs.length - missing.size();
+            misses += missing.size();
+        }
+        if (missing.isEmpty()) return result;
+        final int[] indices = missing.stream().mapToInt(Integer::intValue).toArray();
+        if (pool == null || indices.length < PARALLEL_THRESHOLD)
+            for (final int i : indices) result[i] = new Entry(collator.getCollationKey(xs[i]), encoder);
+        else {
+            final int chunkSize = Math.max(PARALLEL_THRESHOLD / 2, indices.length / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1);
+            pool.invoke(new KeyTask(xs, indices, result, 0, indices.length, chunkSize));
+        }
+        synchronized (map) {
+            // NOTE: if x occurs more than once among the misses (or has been cached in the meantime), the first Entry is kept.
+            for (final int i : indices) {
+                final Entry existing = map.putIfAbsent(xs[i], result[i]);
+                if (existing != null) result[i] = existing;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to yield a Collator which compares Strings by their cached keys.
+     *
+     * @return a Collator which is equivalent to the Collator of this cache.
+     */
+    public Collator asCollator() {
+        return cachingCollator;
+    }
+
+    /**
+     * @return the Collator which defines the keys.
+     */
+    public Collator getCollator() {
+        return collator;
+    }
+
+    /**
+     * @return the number of lookups which were satisfied by the cache.
+     */
+    public long getHits() {
+        synchronized (map) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return the number of lookups which required a new key to be generated.
+     */
+    public long getMisses() {
+        synchronized (map) {
+            return misses;
+        }
+    }
+
+    /**
+     * @return the number of Strings currently cached.
+     */
+    public int size() {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    /**
+     * @return the maximum number of Strings to be cached.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Method to empty the cache and reset the hit and miss counts.
+     */
+    public void clear() {
+        synchronized (map) {
+            map.clear();
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (map) {
+            return "CollationKeyCache{" +
+                    "capacity=" + capacity +
+                    ", size=" + map.size() +
+                    ", hits=" + hits +
+                    ", misses=" + misses +
+                    '}';
+        }
+    }
+
+    public static final int DEFAULT_CAPACITY = 1 << 18;
+    public static final int PARALLEL_THRESHOLD = 4096;
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Task which generates the Entries for xs[indices[from]] thru xs[indices[to-1]], using its own clone of the Collator.
+     */
+    @SuppressWarnings("serial")
+    private class KeyTask extends RecursiveAction {
+        KeyTask(final String[] xs, final int[] indices, final Entry[] result, final int from, final int to, final int chunkSize) {
+            this.xs = xs;
+            this.indices = indices;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                final Collator clone = (Collator) collator.clone();
+                for (int j = from; j < to; j++) result[indices[j]] = new Entry(clone.getCollationKey(xs[indices[j]]), encoder);
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            final KeyTask left = new KeyTask(xs, indices, result, from, mid, chunkSize);
+            left.fork();
+            new KeyTask(xs, indices, result, mid, to, chunkSize).compute();
+            left.join();
+        }
+
+        private final String[] xs;
+        private final int[] indices;
+        private final Entry[] result;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+    }
+
+    /**
+     * Collator which compares (and yields the keys of) Strings via this cache.
+     * NOTE: the strength and decomposition are those of the original Collator and should not be changed.
+     */
+    final class CachingCollator extends Collator {
+        CachingCollator() {
+            super.setStrength(collator.getStrength());
+            super.setDecomposition(collator.getDecomposition());
+        }
+
+        @Override
+        public int compare(final String source, final String target) {
+            return get(source).key.compareTo(get(target).key);
+        }
+
+        @Override
+        public CollationKey getCollationKey(final String source) {
+            return source == null ? null : get(source).key;
+        }
+
+        /**
+         * Method to get the keys of all the elements of xs at once (see getAll).
+         *
+         * @param xs an array of Strings.
+         * @return an array of CollationKeys, corresponding to xs.
+         */
+        CollationKey[] getCollationKeys(final String[] xs) {
+            final Entry[] entries = getAll(xs);
+            final CollationKey[] result = new CollationKey[entries.length];
+            for (int i = 0; i < entries.length; i++) result[i] = entries[i].key;
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return collator.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object that) {
+            return this == that;
+        }
+    }
+
+    private final Collator collator;
+    private final int capacity;
+    private final ToLongFunction<byte[]> encoder;
+    private final ForkJoinPool pool;
+    private final LinkedHashMap<String, Entry> map;
+    private final Collator cachingCollator;
+    private long hits = 0;
+    private long misses = 0;
+}
@@ -0,0 +1,233 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import java.util.Arrays;
+
+/**
+ * Husky sequence coder which strips a common prefix before encoding a String, so that the 64 bits of the code
+ * are spent on the characters which actually discriminate between elements (file paths, URLs, SKUs, etc.).
+ * <p>
+ * A String which begins with the prefix is encoded (by the underlying coder) from the first character after the prefix.
+ * A String which does not begin with the prefix is less than (or greater than) every String which does,
+ * and is encoded as Long.MIN_VALUE (or Long.MAX_VALUE), so that the coding remains monotonic.
+ * Such Strings are counted as overflows, as are prefixed Strings whose remainder the underlying coder cannot perfectly encode
+ * (as determined by the underlying coder itself, when it encodes the remainders).
+ * <p>
+ * NOTE: the underlying coder must respect the natural order of Strings (i.e. it must not have a Collator).
+ * Instances are normally created by HuskyCoderFactory.commonPrefixCoder.
+ */
+public final class CommonPrefixHuskyCoder implements HuskySequenceCoder<String> {
+
+    /**
+     * Function to encode the characters of a String beginning at a given offset.
+     */
+    public interface SuffixEncoder {
+        /**
+         * @param x      the String to encode.
+         * @param offset the index of the first character to encode.
+         * @return the Husky code of x, starting from offset.
+         */
+        long encode(String x, int offset);
+    }
+
+    /**
+     * Method to find the prefix which is shared by (at least) a given fraction of a sample of xs.
+     * The sample is sorted, so that every set of elements which share a prefix is contiguous,
+     * and then the longest common prefix of each window of the required size is found (from its first and last elements).
+     *
+     * @param xs         the array of Strings.
+     * @param sampleSize the (maximum) number of elements to sample (evenly spaced throughout xs).
+     * @param coverage   the fraction of the sample (between 0 and 1) which must share the prefix.
+     * @return the longest such prefix (possibly empty).
+     */
+    public static String findPrefix(final String[] xs, final int sampleSize, final double coverage) {
+        final int n = Math.min(sampleSize, xs.length);
+        if (n == 0) return "";
+        final String[] sample = new String[n];
+        for (int i = 0; i < n; i++) sample[i] = xs[(int) ((long) i * xs.length / n)];
+        Arrays.sort(sample);
+        final int window = Math.max(1, (int) Math.ceil(coverage * n));
+        String result = "";
+        for (int i = 0; i + window <= n; i++) {
+            final int length = commonPrefixLength(sample[i], sample[i + window - 1]);
+            if (length > result.length()) result = sample[i].substring(0, length);
+        }
+        return result;
+    }
+
+    /**
+     * Encode x as a long.
+     *
+     * @param x the String to encode.
+     * @return the Husky code of x.
+     */
+    public long huskyEncode(final String x) {
+        if (x.startsWith(prefix)) return encoder.encode(x, prefix.length());
+        return x.compareTo(prefix) < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+
+    /**
+     * Encode an array of Strings.
+     *
+     * @param xs an array of Strings.
+     * @return a Coding of xs, including the number of elements which overflowed the capacity of this coder.
+     */
+    @Override
+    public Coding huskyEncode(final String[] xs) {
+        final long[] result = new long[xs.length];
+        final int overflows = encode(xs, 0, xs.length, result);
+        return new Coding(result, overflows == 0, overflows);
+    }
+
+    /**
+     * Encode an array of Strings into an existing array of longs.
+     *
+     * @param xs    an array of Strings.
+     * @param longs an array of longs, at least as long as xs.
+     * @return true if every element of xs was perfectly encoded.
+     */
+    @Override
+    public boolean huskyEncode(final String[] xs, final long[] longs) {
+        return encode(xs, 0, xs.length, longs) == 0;
+    }
+
+    /**
+     * Encode xs[from..to) into longs[from..to).
+     *
+     * @param xs    an array of Strings.
+     * @param from  the index of the first element to be encoded.
+     * @param to    the index of the first element NOT to be encoded.
+     * @param longs an array of longs, at least as long as to.
+     * @return the number of elements in the range which could not be perfectly encoded.
+     */
+    @Override
+    public int huskyEncode(final String[] xs, final int from, final int to, final long[] longs) {
+        return encode(xs, from, to, longs);
+    }
+
+    /**
+     * Method to determine if this coder is perfect for a String of the given length which begins with the prefix.
+     * NOTE: a String which does not begin with the prefix is never perfectly encoded, whatever its length.
+     * NOTE: this is not used to count overflows, since (other than for the fixed-width coders) perfection may depend on the content of the String.
+     *
+     * @param length the length of a particular String.
+     * @return true if the remainder of the String (after the prefix) can be perfectly encoded by the underlying coder.
+     */
+    public boolean perfectForLength(final int length) {
+        return coder.perfectForLength(Math.max(0, length - prefix.length()));
+    }
+
+    /**
+     * NOTE: perfection is determined solely by the huskyEncode(X[]) method.
+     *
+     * @return false.
+     */
+    @Override
+    public boolean perfect() {
+        return false;
+    }
+
+    /**
+     * @return the name of this coder, viz. Prefix/ followed by the name of the underlying coder.
+     */
+    @Override
+    public String name() {
+        return PREFIX + coder.name();
+    }
+
+    /**
+     * @return the prefix which is stripped before encoding.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public String toString() {
+        return "CommonPrefixHuskyCoder{" +
+                "name='" + name() + '\'' +
+                ", prefix='" + prefix + '\'' +
+                '}';
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param prefix  the common prefix.
+     * @param coder   the underlying coder (which must not have a Collator).
+     * @param encoder the function which encodes (according to coder) the characters of a String beginning at an offset
+     *                (for an array, it is used only if coder is a fixed-width coder: otherwise, the remainders are encoded by coder itself).
+     */
+    public CommonPrefixHuskyCoder(final String prefix, final HuskySequenceCoder<String> coder, final SuffixEncoder encoder) {
+        if (coder.getCollator() != null)
+            throw new IllegalArgumentException("CommonPrefixHuskyCoder: coder must respect the natural order of Strings: " + coder.name());
+        this.prefix = prefix;
+        this.coder = coder;
+        this.encoder = encoder;
+    }
+
+    /**
+     * Constructor which encodes the remainder of each prefixed String as a substring.
+     *
+     * @param prefix the common prefix.
+     * @param coder  the underlying coder (which must not have a Collator).
+     */
+    public CommonPrefixHuskyCoder(final String prefix, final HuskySequenceCoder<String> coder) {
+        this(prefix, coder, (x, offset) -> coder.huskyEncode(x.substring(offset)));
+    }
+
+    /**
+     * The prefix to the name of a CommonPrefixHuskyCoder.
+     */
+    public static final String PREFIX = "Prefix/";
+
+    private int encode(final String[] xs, final int from, final int to, final long[] longs) {
+        // NOTE: a fixed-width coder counts its own overflows by length (see BaseHuskySequenceCoder), so we can do the same without a substring.
+        if (coder instanceof BaseHuskySequenceCoder) return encodeFixedWidth(xs, from, to, longs);
+        final int length = prefix.length();
+        int overflows = 0;
+        int m = 0;
+        for (int i = from; i < to; i++) if (xs[i].startsWith(prefix)) m++;
+        final String[] suffixes = new String[m];
+        int j = 0;
+        for (int i = from; i < to; i++) {
+            final String x = xs[i];
+            if (x.startsWith(prefix)) suffixes[j++] = x.substring(length);
+            else {
+                longs[i] = x.compareTo(prefix) < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+                overflows++;
+            }
+        }
+        final long[] codes = new long[m];
+        final int suffixOverflows = coder.huskyEncode(suffixes, 0, m, codes);
+        j = 0;
+        for (int i = from; i < to; i++) if (xs[i].startsWith(prefix)) longs[i] = codes[j++];
+        return suffixOverflows == Coding.UNKNOWN ? Coding.UNKNOWN : overflows + suffixOverflows;
+    }
+
+    private int encodeFixedWidth(final String[] xs, final int from, final int to, final long[] longs) {
+        final int length = prefix.length();
+        int overflows = 0;
+        for (int i = from; i < to; i++) {
+            final String x = xs[i];
+            if (x.startsWith(prefix)) {
+                longs[i] = encoder.encode(x, length);
+                if (!coder.perfectForLength(x.length() - length)) overflows++;
+            } else {
+                longs[i] = x.compareTo(prefix) < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+                overflows++;
+            }
+        }
+        return overflows;
+    }
+
+    private static int commonPrefixLength(final String x, final String y) {
+        final int n = Math.min(x.length(), y.length());
+        int i = 0;
+        while (i < n && x.charAt(i) == y.charAt(i)) i++;
+        return i;
+    }
+
+    private final String prefix;
+    private final HuskySequenceCoder<String> coder;
+    private final SuffixEncoder encoder;
+}
@@ -0,0 +1,123 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import java.lang.reflect.Array;
+
+/**
+ * Class to provide reusable scratch buffers for HuskySort, so that repeated sorts allocate nothing
+ * (provided that each array to be sorted is no larger than the current capacity).
+ * <p>
+ * The buffers are grow-only: a buffer is reallocated only when a larger one is required.
+ * Accordingly, the arrays yielded by this class are typically longer than requested:
+ * callers must use the number of elements being sorted, not the length of a buffer.
+ * <p>
+ * There are four buffers: the codes (as used by the Coding yielded by huskyEncode);
+ * an auxiliary long array; an auxiliary int array (for indices); and an auxiliary array of elements.
+ * The most recent Coding is also kept and is reused by huskyEncode whenever the number of overflows is unchanged,
+ * so that repeated sorts of similar arrays need not allocate a new Coding either.
+ * <p>
+ * NOTE: an instance of HuskyBuffers is not thread-safe. Use forCurrentThread() to get an instance which is private to the current thread.
+ * NOTE: the auxiliary element array retains references to the elements of a previous sort until clear() is invoked.
+ */
+public final class HuskyBuffers {
+
+    /**
+     * Method to get the HuskyBuffers which belongs to the current thread.
+     * NOTE: the result must not be used by more than one sort at a time.
+     *
+     * @return an instance of HuskyBuffers which is private to the current thread.
+     */
+    public static HuskyBuffers forCurrentThread() {
+        return threadLocal.get();
+    }
+
+    /**
+     * Method to encode xs (sequentially) into the codes buffer.
+     *
+     * @param coder the Husky coder.
+     * @param xs    the array to be encoded.
+     * @param <X>   the underlying type of xs.
+     * @return a Coding whose longs is the codes buffer (which may be longer than xs), and which records the number of overflows.
+     */
+    public <X> Coding huskyEncode(final HuskyCoder<X> coder, final X[] xs) {
+        return huskyEncode(coder, xs, ParallelCoding.SEQUENTIAL);
+    }
+
+    /**
+     * Method to encode xs into the codes buffer, in parallel if appropriate.
+     *
+     * @param coder          the Husky coder.
+     * @param xs             the array to be encoded.
+     * @param parallelCoding the ParallelCoding which determines whether xs is large enough to be encoded in parallel.
+     * @param <X>            the underlying type of xs.
+     * @return a Coding whose longs is the codes buffer (which may be longer than xs), and which records the number of overflows.
+     */
+    public <X> Coding huskyEncode(final HuskyCoder<X> coder, final X[] xs, final ParallelCoding parallelCoding) {
+        ensureCodes(xs.length);
+        final int overflows = parallelCoding.huskyEncode(coder, xs, codes);
+        if (coding.longs != codes || coding.overflows != overflows) coding = new Coding(codes, overflows == 0, overflows);
+        return coding;
+    }
+
+    /**
+     * Method to get the auxiliary long buffer.
+     *
+     * @param n the number of longs required.
+     * @return an array of at least n longs (its contents are undefined).
+     */
+    public long[] getAuxLongs(final int n) {
+        if (auxLongs.length < n) auxLongs = new long[n];
+        return auxLongs;
+    }
+
+    /**
+     * Method to get the auxiliary int buffer.
+     *
+     * @param n the number of ints required.
+     * @return an array of at least n ints (its contents are undefined).
+     */
+    public int[] getAuxInts(final int n) {
+        if (auxInts.length < n) auxInts = new int[n];
+        return auxInts;
+    }
+
+    /**
+     * Method to get the auxiliary element buffer.
+     *
+     * @param xs an array of the required type.
+     * @param n  the number of elements required.
+     * @param <X> the underlying type of xs.
+     * @return an array of at least n Xs, of the same class as xs (its contents are undefined).
+     */
+    @SuppressWarnings("unchecked")
+    public <X> X[] getAuxObjects(final X[] xs, final int n) {
+        if (auxObjects == null || auxObjects.length < n || auxObjects.getClass() != xs.getClass())
+            auxObjects = (Object[]) Array.newInstance(xs.getClass().getComponentType(), n);
+        return (X[]) auxObjects;
+    }
+
+    /**
+     * @return the number of codes which can be encoded without allocation.
+     */
+    public int getCapacity() {
+        return codes.length;
+    }
+
+    /**
+     * Method to release any references to elements which are held by the auxiliary element buffer.
+     */
+    public void clear() {
+        auxObjects = null;
+    }
+
+    private void ensureCodes(final int n) {
+        if (codes.length < n) codes = new long[n];
+    }
+
+    private long[] codes = new long[0];
+    private long[] auxLongs = new long[0];
+    private int[] auxInts = new int[0];
+    private Object[] auxObjects = null;
+    private Coding coding = new Coding(codes, true);
+
+    private static final ThreadLocal<HuskyBuffers> threadLocal = ThreadLocal.withInitial(HuskyBuffers::new);
+}
@@ -57,8 +57,49 @@ public interface HuskyCoder<X> {
      */
     default Coding huskyEncode(final X[] xs) {
         final long[] result = new long[xs.length];
-        for (int i = 0; i < xs.length; i++) result[i] = huskyEncode(xs[i]);
-        return new Coding(result, perfect());
+        return new Coding(result, huskyEncode(xs, result));
+    }
+
+    /**
+     * Encode an array of Xs into an existing array of longs.
+     * Unlike huskyEncode(X[]), this method does not itself allocate anything.
+     *
+     * @param xs    an array of X elements.
+     * @param longs an array of longs, at least as long as xs, whose first xs.length elements will be set to the Husky codes of xs.
+     * @return true if the resulting codes are perfect.
+     */
+    default boolean huskyEncode(final X[] xs, final long[] longs) {
+        for (int i = 0; i < xs.length; i++) longs[i] = huskyEncode(xs[i]);
+        return perfect();
+    }
+
+    /**
+     * Encode the elements of xs from index "from" until index "to" (exclusive) into the corresponding elements of longs.
+     * This allows part of an array to be encoded without copying it (see ParallelCoding).
+     *
+     * @param xs    an array of X elements.
+     * @param from  the index of the first element to be encoded.
+     * @param to    the index of the first element NOT to be encoded.
+     * @param longs an array of longs, at least as long as to.
+     * @return the number of elements in the range which could not be perfectly encoded,
+     * or Coding.UNKNOWN if this coder cannot determine it (in which case the codes are not perfect).
+     */
+    default int huskyEncode(final X[] xs, final int from, final int to, final long[] longs) {
+        for (int i = from; i < to; i++) longs[i] = huskyEncode(xs[i]);
+        return perfect() ? 0 : Coding.UNKNOWN;
+    }
+
+    /**
+     * Method to get the coder which should actually be used to encode xs.
+     * An adaptive coder (see AdaptiveHuskyCoder) may choose a different coder according to the content of xs.
+     * NOTE: all of the elements of an array must be encoded by the same coder (else the codes would not be comparable),
+     * so callers which encode an array in parts should adapt first and then encode each part with the result.
+     *
+     * @param xs the array which is to be encoded.
+     * @return this coder (by default).
+     */
+    default HuskyCoder<X> adapt(final X[] xs) {
+        return this;
     }
 
     default Collator getCollator() {
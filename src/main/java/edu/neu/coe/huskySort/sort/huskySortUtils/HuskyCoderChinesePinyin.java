@@ -1,6 +1,9 @@
 package edu.neu.coe.huskySort.sort.huskySortUtils;
 
 import edu.neu.coe.huskySort.sort.SortException;
+import edu.neu.coe.huskySort.util.LazyLogger;
+
+import java.io.IOException;
 
 public class HuskyCoderChinesePinyin implements HuskyCoder<String> {
     /**
@@ -36,7 +39,24 @@ public class HuskyCoderChinesePinyin implements HuskyCoder<String> {
         this.dialect = dialect;
     }
 
+    /**
+     * Method to encode s (Hanyu pinyin).
+     * NOTE: if every character of s is in the CJK table, only array lookups are required;
+     * otherwise (or if the table is unavailable), the pinyin is derived via pinyin4j and ChineseCharacter.parsePinyin.
+     */
     private static long encodeHanyu(final String s) {
+        final PinyinTable table = TableHolder.table;
+        if (table != null && table.covers(s)) return table.encode(s);
+        return HuskyCoderFactory.englishCoder.huskyEncode(hanyuString(s));
+    }
+
+    /**
+     * Method to yield the (Hanyu) pinyin String of s which is encoded by this coder.
+     *
+     * @param s a String of Chinese characters.
+     * @return a String of ASCII characters, for example "zh--ang-1" for 张.
+     */
+    static String hanyuString(final String s) {
         final String[] tokens = ChineseCharacter.parsePinyin(ChineseCharacter.convertToPinyin(s), s.length());
         final StringBuilder result = new StringBuilder();
         for (final String token : tokens)
@@ -47,9 +67,7 @@ public class HuskyCoderChinesePinyin implements HuskyCoder<String> {
                 else result.append(token);
 
             }
-        final String pinyin = result.toString();
-        final HuskySequenceCoder<String> coder = HuskyCoderFactory.englishCoder;
-        return coder.huskyEncode(pinyin);
+        return result.toString();
     }
 
     private static long encodeBoPoMoFo(final String s) {
@@ -77,4 +95,22 @@ public class HuskyCoderChinesePinyin implements HuskyCoder<String> {
     }
 
     private final String dialect;
+
+    /**
+     * Holder of the CJK PinyinTable, which is loaded (once) when first required.
+     */
+    private static class TableHolder {
+        private static final PinyinTable table = loadTable();
+
+        private static PinyinTable loadTable() {
+            try {
+                return PinyinTable.cjkTable();
+            } catch (final IOException e) {
+                logger.warn("HuskyCoderChinesePinyin: cannot load pinyin table (pinyin4j will be used instead): " + e.getLocalizedMessage());
+                return null;
+            }
+        }
+    }
+
+    private final static LazyLogger logger = new LazyLogger(HuskyCoderChinesePinyin.class);
 }
@@ -5,8 +5,12 @@ package edu.neu.coe.huskySort.sort.huskySortUtils;
 
 //import java.lang.reflect.Field;
 
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.LongBuffer;
 import java.nio.charset.Charset;
 import java.text.Collator;
@@ -123,11 +127,83 @@ public final class HuskyCoderFactory {
         }
     };
 
+    /**
+     * A Husky Coder for Strings, based on their UTF-8 encoding: the first 8 bytes (less one bit) are significant.
+     * NOTE: the order of UTF-8 bytes is the order of code points, which differs from the natural order of Strings
+     * only where supplementary characters (surrogate pairs) are involved.
+     * NOTE: the maximum length (2) is conservative, since a char may require three bytes.
+     */
+    public final static HuskySequenceCoder<String> utf8Coder = new BaseHuskySequenceCoder<>("UTF-8", 2) {
+        public long huskyEncode(final String str) {
+            return utf8ToLong(str);
+        }
+    };
+
+    /**
+     * A Husky Coder which chooses (for each array to be encoded) the densest safe coder among englishCoder, asciiCoder, utf8Coder and unicodeCoder.
+     */
+    public final static AdaptiveHuskyCoder adaptiveCoder = new AdaptiveHuskyCoder(AdaptiveHuskyCoder.DEFAULT_SAMPLE_SIZE);
+
+    /**
+     * A wide (two-long) Husky Coder for ASCII Strings: the first 18 characters are significant.
+     */
+    public final static BaseWideHuskySequenceCoder<String> wideAsciiCoder = new BaseWideHuskySequenceCoder<>("WideASCII", MAX_LENGTH_ASCII, 2 * MAX_LENGTH_ASCII) {
+        public long huskyEncode(final String str) {
+            return asciiToLong(str);
+        }
+
+        public long huskyEncodeLow(final String str) {
+            return stringToLong(str, MAX_LENGTH_ASCII, MAX_LENGTH_ASCII, BIT_WIDTH_ASCII, MASK_ASCII);
+        }
+    };
+
+    /**
+     * A wide (two-long) Husky Coder for English Strings: the first 20 characters are significant.
+     */
+    public final static BaseWideHuskySequenceCoder<String> wideEnglishCoder = new BaseWideHuskySequenceCoder<>("WideEnglish", MAX_LENGTH_ENGLISH, 2 * MAX_LENGTH_ENGLISH) {
+        public long huskyEncode(final String str) {
+            return englishToLong(str);
+        }
+
+        public long huskyEncodeLow(final String str) {
+            return stringToLong(str, MAX_LENGTH_ENGLISH, MAX_LENGTH_ENGLISH, BIT_WIDTH_ENGLISH, MASK_ENGLISH);
+        }
+    };
+
+    /**
+     * A wide (two-long) Husky Coder for unicode Strings: the first 7 characters are significant.
+     * NOTE: the 128 bits of eight characters are shifted right by one bit (as for unicodeCoder),
+     * so the low long begins with the last bit of the fourth character.
+     */
+    public final static BaseWideHuskySequenceCoder<String> wideUnicodeCoder = new BaseWideHuskySequenceCoder<>("WideUnicode", MAX_LENGTH_UNICODE - 1, 2 * MAX_LENGTH_UNICODE - 1) {
+        public long huskyEncode(final String str) {
+            return unicodeToLong(str);
+        }
+
+        public long huskyEncodeLow(final String str) {
+            final long high = stringToLong(str, MAX_LENGTH_UNICODE, BIT_WIDTH_UNICODE, MASK_UNICODE);
+            return high << (BITS_LONG - 1) | stringToLong(str, MAX_LENGTH_UNICODE, MAX_LENGTH_UNICODE, BIT_WIDTH_UNICODE, MASK_UNICODE) >>> 1;
+        }
+    };
+
     /**
      * A Husky Coder for Chinese UTF8 Strings which are ordered according to the CHINA-local collator.
      */
     public final static HuskySequenceCoder<String> chineseEncoderCollator = new SequenceEncoder_Collator(Collator.getInstance(Locale.CHINA));
 
+    /**
+     * Method to create a Husky Coder for Chinese UTF8 Strings (ordered according to the CHINA-local collator)
+     * which caches the CollationKeys of the Strings it encodes (see SequenceEncoder_Collator.getCache).
+     * This is appropriate where the same names tend to be sorted repeatedly.
+     * NOTE: the cache belongs to the result, so its memory is retained for as long as the result is.
+     *
+     * @param capacity the maximum number of Strings to be cached (for example, CollationKeyCache.DEFAULT_CAPACITY).
+     * @return a new caching SequenceEncoder_Collator.
+     */
+    public static SequenceEncoder_Collator cachingChineseEncoderCollator(final int capacity) {
+        return new SequenceEncoder_Collator(Collator.getInstance(Locale.CHINA), capacity);
+    }
+
     /**
      * A Husky Coder for Chinese UTF8 which are ordered according to a pinyin dialect.
      */
@@ -136,6 +212,8 @@ public final class HuskyCoderFactory {
 
     /**
      * A Husky Coder for Dates.
+     * NOTE: this coder is deliberately not invertible: a decoded Date would not be the same (mutable) object as the original
+     * and would not be of the same class if the original were a subclass of Date (for example, a Timestamp).
      */
     public final static HuskyCoder<Date> dateCoder = new HuskyCoder<>() {
         /**
@@ -186,15 +264,38 @@ public final class HuskyCoderFactory {
      */
     public final static HuskyCoder<Double> doubleCoder = HuskyCoderFactory::doubleToLong;
 
+    /**
+     * A perfect (and invertible) Husky Coder for Doubles.
+     * Unlike doubleCoder, this distinguishes -0.0 from 0.0, so that the order of the codes is exactly that of Double.compare.
+     */
+    public final static InvertibleHuskyCoder<Double> perfectDoubleCoder = new InvertibleHuskyCoder<>() {
+        @Override
+        public long huskyEncode(final Double x) {
+            final long bits = Double.doubleToLongBits(x);
+            // NOTE: for negative values, invert all bits other than the sign bit.
+            return bits ^ (bits >> 63 & Long.MAX_VALUE);
+        }
+
+        @Override
+        public Double huskyDecode(final long code) {
+            return Double.longBitsToDouble(code ^ (code >> 63 & Long.MAX_VALUE));
+        }
+    };
+
     /**
      * A Husky Coder for Integers.
      */
-    public final static HuskyCoder<Integer> integerCoder = new HuskyCoder<>() {
+    public final static InvertibleHuskyCoder<Integer> integerCoder = new InvertibleHuskyCoder<>() {
         @Override
         public long huskyEncode(final Integer x) {
             return x.longValue();
         }
 
+        @Override
+        public Integer huskyDecode(final long code) {
+            return (int) code;
+        }
+
         /**
          * Method to determine if this Husky Coder is perfect for a class of objects (Integer).
          *
@@ -209,12 +310,17 @@ public final class HuskyCoderFactory {
     /**
      * A Husky Coder for Longs.
      */
-    public final static HuskyCoder<Long> longCoder = new HuskyCoder<>() {
+    public final static InvertibleHuskyCoder<Long> longCoder = new InvertibleHuskyCoder<>() {
         @Override
         public long huskyEncode(final Long x) {
             return x;
         }
 
+        @Override
+        public Long huskyDecode(final long code) {
+            return code;
+        }
+
         /**
          * Method to determine if this Husky Coder is perfect for a class of objects (Long).
          *
@@ -280,6 +386,18 @@ public final class HuskyCoderFactory {
      */
     public final static HuskyCoder<BigDecimal> bigDecimalCoder = BigDecimal::longValue;
 
+    /**
+     * An order-preserving Husky Coder for BigIntegers (see BigNumberHuskyCoder).
+     * Unlike bigIntegerCoder, the perfection of a coding is determined element by element.
+     */
+    public final static BigNumberHuskyCoder<BigInteger> orderedBigIntegerCoder = BigNumberHuskyCoder.bigIntegerCoder;
+
+    /**
+     * An order-preserving Husky Coder for BigDecimals (see BigNumberHuskyCoder).
+     * Unlike bigDecimalCoder, fractional values and large magnitudes are ordered correctly.
+     */
+    public final static BigNumberHuskyCoder<BigDecimal> orderedBigDecimalCoder = BigNumberHuskyCoder.bigDecimalCoder;
+
     /**
      * A Husky Coder for scaled BigDecimals.
      * NOTE: use this if you know that your range of BigDecimals is particularly large or small.
@@ -293,18 +411,95 @@ public final class HuskyCoderFactory {
         return x -> x.movePointRight(scale).longValue();
     }
 
+    /**
+     * Method to create a HuskySequenceCoder which strips the prefix shared by (most of) the elements of xs
+     * before encoding each String with coder (see CommonPrefixHuskyCoder).
+     * Up to DEFAULT_PREFIX_SAMPLE_SIZE elements of xs are sampled, and the prefix must be shared by at least
+     * DEFAULT_PREFIX_COVERAGE of them.
+     *
+     * @param xs    the Strings which are to be encoded (or a representative sample).
+     * @param coder the underlying coder (which must not have a Collator).
+     * @return a CommonPrefixHuskyCoder (or, if there is no common prefix, coder itself).
+     */
+    public static HuskySequenceCoder<String> commonPrefixCoder(final String[] xs, final HuskySequenceCoder<String> coder) {
+        return commonPrefixCoder(xs, coder, DEFAULT_PREFIX_SAMPLE_SIZE, DEFAULT_PREFIX_COVERAGE);
+    }
+
+    /**
+     * Method to create a HuskySequenceCoder which strips the prefix shared by (most of) the elements of xs
+     * before encoding each String with coder (see CommonPrefixHuskyCoder).
+     *
+     * @param xs         the Strings which are to be encoded (or a representative sample).
+     * @param coder      the underlying coder (which must not have a Collator).
+     * @param sampleSize the (maximum) number of elements of xs to sample.
+     * @param coverage   the fraction of the sample which must share the prefix.
+     * @return a CommonPrefixHuskyCoder (or, if there is no common prefix, coder itself).
+     */
+    public static HuskySequenceCoder<String> commonPrefixCoder(final String[] xs, final HuskySequenceCoder<String> coder, final int sampleSize, final double coverage) {
+        final String prefix = CommonPrefixHuskyCoder.findPrefix(xs, sampleSize, coverage);
+        if (prefix.isEmpty()) return coder;
+        // NOTE: for our own coders, we encode from the offset directly rather than creating a substring.
+        if (coder == asciiCoder)
+            return new CommonPrefixHuskyCoder(prefix, coder, (x, offset) -> stringToLong(x, offset, MAX_LENGTH_ASCII, BIT_WIDTH_ASCII, MASK_ASCII));
+        if (coder == englishCoder)
+            return new CommonPrefixHuskyCoder(prefix, coder, (x, offset) -> stringToLong(x, offset, MAX_LENGTH_ENGLISH, BIT_WIDTH_ENGLISH, MASK_ENGLISH));
+        if (coder == unicodeCoder)
+            return new CommonPrefixHuskyCoder(prefix, coder, (x, offset) -> stringToLong(x, offset, MAX_LENGTH_UNICODE, BIT_WIDTH_UNICODE, MASK_UNICODE) >>> 1);
+        return new CommonPrefixHuskyCoder(prefix, coder);
+    }
+
+    /**
+     * Method to load the order-preserving coder which was trained on the character frequencies of the
+     * Leipzig English words corpus (see TrainedHuskyCoder.main).
+     *
+     * @return a TrainedHuskyCoder, named TrainedEnglish.
+     * @throws IOException if the resource cannot be found or read.
+     */
+    public static TrainedHuskyCoder trainedEnglishCoder() throws IOException {
+        try (final InputStream stream = HuskyCoderFactory.class.getResourceAsStream(TRAINED_ENGLISH_RESOURCE)) {
+            if (stream == null) throw new FileNotFoundException("cannot find resource: " + TRAINED_ENGLISH_RESOURCE);
+            return TrainedHuskyCoder.load(stream);
+        }
+    }
+
+    public static final String TRAINED_ENGLISH_RESOURCE = "/eng-uk_web_2002_100K-words.huskycoder";
+
+    public static final int DEFAULT_PREFIX_SAMPLE_SIZE = 1024;
+    public static final double DEFAULT_PREFIX_COVERAGE = 0.9;
+
     // CONSIDER making this private
     public static long asciiToLong(final String str) {
-        // CONSIDER an alternative coding scheme which would use str.getBytes(Charset.forName("ISO-8859-1"));
-        // and then pack the first 8 bytes into the long.
-        // NOTE: to be compatible with this current encoding, we would take only 7 bits from each byte, leaving the first bit unset,
-        // and thus allowing 9 characters to be significant.
+        // NOTE: an alternative (bulk) coding scheme has been tried which copies the low bytes of the first 8 chars into a buffer
+        // (using str.getBytes(0, 8, buffer, 0)), reads them as one long, and packs the 7-bit fields together in three SWAR steps.
+        // Likewise, a fully unrolled version of stringToLong (for Strings of at least 9 chars).
+        // Neither was any faster than stringToLong (the SWAR version was about 30% slower):
+        // the cost is dominated by loading each String and its value array, not by the packing itself.
+        // See CoderBenchmark (jmh).
         return stringToLong(str, MAX_LENGTH_ASCII, BIT_WIDTH_ASCII, MASK_ASCII);
     }
 
     static long utf8ToLong(final String str) {
         // TODO Need to test that the mask value is correct. I think it might not be.
-        return longArrayToLong(toUTF8Array(str), MAX_LENGTH_UTF8, BIT_WIDTH_UTF8, MASK_UTF8) >>> 1;
+        // NOTE: no more than MAX_LENGTH_UTF8 characters can contribute to the result.
+        return longArrayToLong(toUTF8Array(str, MAX_LENGTH_UTF8), MAX_LENGTH_UTF8, BIT_WIDTH_UTF8, MASK_UTF8) >>> 1;
+    }
+
+    /**
+     * Method to encode a sequence of UTF-8 bytes (for example, in a memory-mapped file) as a long.
+     * The result is the same as utf8ToLong applied to the String which those bytes represent,
+     * but no String (or any other object) is created.
+     *
+     * @param buffer the buffer containing the bytes.
+     * @param index  the (absolute) index of the first byte in buffer.
+     * @param length the number of bytes in the sequence.
+     * @return a long which is monotonically non-decreasing with the (unsigned) lexicographic order of the bytes.
+     */
+    public static long utf8ToLong(final ByteBuffer buffer, final int index, final int length) {
+        final int n = Math.min(length, MAX_LENGTH_UTF8);
+        long result = 0L;
+        for (int i = 0; i < n; i++) result = result << BIT_WIDTH_UTF8 | buffer.get(index + i) & MASK_UTF8;
+        if (n < MAX_LENGTH_UTF8) result = result << (BIT_WIDTH_UTF8 * (MAX_LENGTH_UTF8 - n));
+        return result >>> 1;
     }
 
     private static long unicodeToLong(final String str) {
@@ -316,13 +511,21 @@ public final class HuskyCoderFactory {
     }
 
     private static long stringToLong(final String str, final int maxLength, final int bitWidth, final int mask) {
-        final int length = Math.min(str.length(), maxLength);
+        return stringToLong(str, 0, maxLength, bitWidth, mask);
+    }
+
+    /**
+     * Method to encode (at most) maxLength characters of str, beginning at offset, as a long.
+     * If there are fewer than maxLength characters available, the result is padded with zero bits.
+     */
+    private static long stringToLong(final String str, final int offset, final int maxLength, final int bitWidth, final int mask) {
+        final int length = Math.max(0, Math.min(str.length() - offset, maxLength));
         final int padding = maxLength - length;
         long result = 0L;
         if (((mask ^ MASK_SHORT) & MASK_SHORT) == 0)
-            for (int i = 0; i < length; i++) result = result << bitWidth | str.charAt(i);
+            for (int i = offset; i < offset + length; i++) result = result << bitWidth | str.charAt(i);
         else
-            for (int i = 0; i < length; i++) result = result << bitWidth | str.charAt(i) & mask;
+            for (int i = offset; i < offset + length; i++) result = result << bitWidth | str.charAt(i) & mask;
         result = result << bitWidth * padding;
         return result;
     }
@@ -383,13 +586,17 @@ public final class HuskyCoderFactory {
         return result;
     }
 
-    private static long[] toUTF8Array(final String str) {
+    /**
+     * Method to get the UTF-8 bytes of (at most) the first limit characters of str (a straddling surrogate pair is included).
+     * NOTE: an unpaired surrogate is encoded in three bytes, like any other char.
+     */
+    private static long[] toUTF8Array(final String str, final int limit) {
         final int length = str.length();
-        final LongBuffer byteBuffer = LongBuffer.allocate(length << 2);
+        final int n = Math.min(length, limit);
+        final LongBuffer byteBuffer = LongBuffer.allocate((n + 1) << 2);
         int count = 0;
-        final char[] codes = str.toCharArray();
-        for (int i = 0; i < length; i++) {
-            final char code = codes[i];
+        for (int i = 0; i < n; i++) {
+            final char code = str.charAt(i);
             if (code < 0x80) {
                 count++;
                 byteBuffer.put(code);
@@ -397,14 +604,14 @@ public final class HuskyCoderFactory {
                 count += 2;
                 byteBuffer.put(0xC0 | (code >> 6));
                 byteBuffer.put(0x80 | (code & 0x3F));
-            } else if (code < 0xD800 || code >= 0xE000) {
+            } else if (!Character.isHighSurrogate(code) || i + 1 >= length || !Character.isLowSurrogate(str.charAt(i + 1))) {
                 count += 3;
                 byteBuffer.put(0xE0 | (code >> 12));
                 byteBuffer.put(0x80 | ((code >> 6) & 0x3F));
                 byteBuffer.put(0x80 | (code & 0x3F));
             } else {
                 i++;
-                final int tempCode = 0x10000 + (((code & 0x3FF) << 10) | codes[i] & 0x3FF);
+                final int tempCode = 0x10000 + (((code & 0x3FF) << 10) | str.charAt(i) & 0x3FF);
                 count += 4;
                 byteBuffer.put(0xF0 | (tempCode >> 18));
                 byteBuffer.put(0x80 | ((tempCode >> 12) & 0x3F));
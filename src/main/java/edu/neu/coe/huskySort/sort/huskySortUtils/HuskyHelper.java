@@ -21,9 +21,11 @@ public class HuskyHelper<X extends Comparable<X>> implements ComparisonSortHelpe
         this.checkSorted = checkSorted;
     }
 
-    // TODO this should be implemented properly.
+    /**
+     * @return the Instrumenter of the underlying helper (if any).
+     */
     public Instrumenter getInstrumenter() {
-        return null;
+        return helper.getInstrumenter();
     }
 
     /**
@@ -42,6 +44,8 @@ public class HuskyHelper<X extends Comparable<X>> implements ComparisonSortHelpe
 
     /**
      * CONSIDER eliminating this method
+     * <p>
+     * NOTE: if buffers are being reused, this array may be longer than the array being sorted.
      *
      * @return the array of longs.
      */
@@ -346,13 +350,65 @@ public class HuskyHelper<X extends Comparable<X>> implements ComparisonSortHelpe
      * @param array the array from which we build a long array by encoding.
      */
     public void doCoding(final X[] array) {
-        coding = coder.huskyEncode(array);
+        final HuskyBuffers buffers = getBuffers();
+        // NOTE: an adaptive coder chooses its coder here (once), and the choice and its cost are recorded by the Instrumenter.
+        final long start = System.nanoTime();
+        final HuskyCoder<X> adapted = coder.adapt(array);
+        if (adapted != coder) {
+            final Instrumenter instrumenter = getInstrumenter();
+            if (instrumenter != null) instrumenter.recordCoderChoice(adapted.name(), System.nanoTime() - start);
+        }
+        coding = buffers != null ? buffers.huskyEncode(adapted, array, parallelCoding) : parallelCoding.huskyEncode(adapted, array);
+    }
+
+    /**
+     * Method to set up the reuse of buffers by doCoding (and by any sorter which uses getBuffers).
+     * NOTE: when buffers are reused, the array returned by getLongs may be longer than the array being sorted.
+     *
+     * @param reuse       true if buffers should be reused between sorts.
+     * @param threadLocal true if the buffers should belong to the current thread rather than to this helper (ignored unless reuse is true).
+     */
+    public void setBufferReuse(final boolean reuse, final boolean threadLocal) {
+        this.buffers = reuse && !threadLocal ? new HuskyBuffers() : null;
+        this.threadLocalBuffers = reuse && threadLocal;
+    }
+
+    /**
+     * @return the HuskyBuffers to be used by the current thread (or null if buffers are not reused).
+     */
+    public HuskyBuffers getBuffers() {
+        return threadLocalBuffers ? HuskyBuffers.forCurrentThread() : buffers;
+    }
+
+    /**
+     * Method to set the ParallelCoding used by doCoding.
+     *
+     * @param parallelCoding the ParallelCoding (use ParallelCoding.SEQUENTIAL to turn off parallel coding).
+     */
+    public void setParallelCoding(final ParallelCoding parallelCoding) {
+        this.parallelCoding = parallelCoding;
     }
 
     public Coding getCoding() {
         return coding;
     }
 
+    /**
+     * Method to set the TieSpanSorter to be used for the second pass of HuskySort in place of the post-sorter.
+     *
+     * @param tieSpanSorter the TieSpanSorter (or null if the post-sorter is to be used).
+     */
+    public void setTieSpanSorter(final TieSpanSorter tieSpanSorter) {
+        this.tieSpanSorter = tieSpanSorter;
+    }
+
+    /**
+     * @return the TieSpanSorter to be used for the second pass (or null if the post-sorter is to be used).
+     */
+    public TieSpanSorter getTieSpanSorter() {
+        return tieSpanSorter;
+    }
+
     /**
      * Constructor to create a HuskyHelper
      *
@@ -402,5 +458,9 @@ public class HuskyHelper<X extends Comparable<X>> implements ComparisonSortHelpe
     private final boolean makeCopy;
 
     private Coding coding;
+    private ParallelCoding parallelCoding = ParallelCoding.DEFAULT;
+    private HuskyBuffers buffers = null;
+    private TieSpanSorter tieSpanSorter = null;
+    private boolean threadLocalBuffers = false;
     private boolean checkSorted = false;
 }
@@ -25,6 +25,21 @@ public final class HuskySortHelper {
         return sequenceCoderMap.getOrDefault(name, unicodeCoder);
     }
 
+    /**
+     * Method to get a HuskySequenceCoder by name, adapting it (if appropriate) to the Strings which are to be encoded.
+     * If name begins with "Prefix/" (for example, "Prefix/ASCII"), the remainder of the name identifies the underlying coder,
+     * and the result is a coder which strips the prefix shared by (most of) the elements of xs (see HuskyCoderFactory.commonPrefixCoder).
+     *
+     * @param name a string representing the name (case must match).
+     * @param xs   the Strings which are to be encoded (or a representative sample).
+     * @return the appropriate HuskySequenceCoder.
+     */
+    public static HuskySequenceCoder<String> getSequenceCoderByName(final String name, final String[] xs) {
+        if (name.startsWith(CommonPrefixHuskyCoder.PREFIX))
+            return commonPrefixCoder(xs, getSequenceCoderByName(name.substring(CommonPrefixHuskyCoder.PREFIX.length())));
+        return getSequenceCoderByName(name);
+    }
+
     /**
      * Generate a random String of (English) alphabetic characters.
      *
@@ -47,6 +62,30 @@ public final class HuskySortHelper {
         return result;
     }
 
+    /**
+     * Generate a random array of file-system paths, which (like URLs and SKUs) tend to share long prefixes.
+     * Each path consists of a root (one of a few), then depth directories, then a file name.
+     * The directory names at each level are chosen from only a few possibilities.
+     *
+     * @param number the number of paths to generate.
+     * @param depth  the number of directories in each path (below the root).
+     * @return an array (of length number) of paths.
+     */
+    public static String[] generateRandomPathArray(final int number, final int depth) {
+        final String[] roots = {"/home/users/", "/usr/local/share/", "/var/lib/projects/"};
+        final String[] directories = {"src", "main", "test", "java", "resources", "target", "classes", "build"};
+        final String[] extensions = {".java", ".class", ".txt", ".xml"};
+        final String[] result = new String[number];
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < number; i++) {
+            final StringBuilder tmp = new StringBuilder(roots[random.nextInt(roots.length)]);
+            for (int j = 0; j < depth; j++) tmp.append(directories[random.nextInt(directories.length)]).append('/');
+            tmp.append("file").append(random.nextInt(100000)).append(extensions[random.nextInt(extensions.length)]);
+            result[i] = tmp.toString();
+        }
+        return result;
+    }
+
     /**
      * Generate a random array of LocalDateTime instances.
      *
@@ -73,6 +112,11 @@ public final class HuskySortHelper {
         addToSequenceCoderMap(chineseEncoderCollator);
         addToSequenceCoderMap(englishCoder);
         addToSequenceCoderMap(unicodeCoder);
+        addToSequenceCoderMap(utf8Coder);
+        addToSequenceCoderMap(adaptiveCoder);
+        addToSequenceCoderMap(wideAsciiCoder);
+        addToSequenceCoderMap(wideEnglishCoder);
+        addToSequenceCoderMap(wideUnicodeCoder);
     }
 
     private static void addToSequenceCoderMap(final HuskySequenceCoder<String> asciiCoder) {
@@ -0,0 +1,30 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+/**
+ * A perfect Husky coder whose codes can be decoded, i.e. huskyDecode(huskyEncode(x)) is equal to x
+ * (although it is not necessarily the same object).
+ * <p>
+ * Such a coder allows an array to be sorted by sorting its codes alone (see PrimitiveHuskySort).
+ *
+ * @param <X> the underlying type for this coder.
+ */
+public interface InvertibleHuskyCoder<X> extends HuskyCoder<X> {
+
+    /**
+     * Decode a Husky code.
+     *
+     * @param code a long which was yielded by huskyEncode.
+     * @return the X value whose code is code.
+     */
+    X huskyDecode(long code);
+
+    /**
+     * An invertible coder is always perfect.
+     *
+     * @return true.
+     */
+    @Override
+    default boolean perfect() {
+        return true;
+    }
+}
@@ -0,0 +1,141 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import edu.neu.coe.huskySort.util.Config;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Factory class to create a Coding for an array of Xs, encoding chunks of the array in parallel.
+ * <p>
+ * Each chunk is encoded directly into the shared array of longs by the ranged huskyEncode(X[], int, int, long[]) method of the coder itself,
+ * so that the coder's own determination of perfection is respected (and nothing is copied).
+ * The overflow counts of the chunks are then summed (the result is perfect only if there are no overflows);
+ * if the count of any chunk is UNKNOWN, then so is the count of the result (see Coding).
+ * <p>
+ * Arrays which are smaller than the threshold are simply encoded sequentially.
+ * Coders which depend on a Collator are also encoded sequentially because the Collator methods are synchronized.
+ */
+public final class ParallelCoding {
+
+    /**
+     * Method to encode the given array, in parallel if appropriate.
+     *
+     * @param coder the Husky coder.
+     * @param xs    the array to be encoded.
+     * @param <X>   the underlying type of xs.
+     * @return a Coding of xs.
+     */
+    public <X> Coding huskyEncode(final HuskyCoder<X> coder, final X[] xs) {
+        if (!isParallel(coder, xs.length)) return coder.huskyEncode(xs);
+        final long[] longs = new long[xs.length];
+        final int overflows = huskyEncode(coder, xs, longs);
+        return new Coding(longs, overflows == 0, overflows);
+    }
+
+    /**
+     * Method to encode the given array into an existing array of longs, in parallel if appropriate.
+     * Unlike huskyEncode(HuskyCoder, X[]), this method does not allocate the codes (see HuskyBuffers).
+     *
+     * @param coder the Husky coder.
+     * @param xs    the array to be encoded.
+     * @param longs an array of longs, at least as long as xs.
+     * @param <X>   the underlying type of xs.
+     * @return the number of elements which could not be perfectly encoded, or Coding.UNKNOWN.
+     */
+    public <X> int huskyEncode(final HuskyCoder<X> coder, final X[] xs, final long[] longs) {
+        final int n = xs.length;
+        // NOTE: every chunk (or the whole array) must be encoded by the same coder.
+        final HuskyCoder<X> adapted = coder.adapt(xs);
+        if (!isParallel(coder, n)) return adapted.huskyEncode(xs, 0, n, longs);
+        final int chunkSize = Math.max(threshold / 2, n / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1);
+        return pool.invoke(new EncodeTask<>(adapted, xs, longs, 0, n, chunkSize));
+    }
+
+    /**
+     * @return the size of array below which the coding is sequential.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Method to create a ParallelCoding according to the configuration.
+     * The threshold is taken from huskyhelper.parallelcodingthreshold:
+     * if it is unset, then DEFAULT_THRESHOLD is used; if it is zero or negative, coding will be sequential.
+     *
+     * @param config the configuration.
+     * @return a new ParallelCoding (or SEQUENTIAL).
+     */
+    public static ParallelCoding create(final Config config) {
+        final int threshold = config.getInt("huskyhelper", "parallelcodingthreshold", DEFAULT_THRESHOLD);
+        return threshold > 0 ? new ParallelCoding(ForkJoinPool.commonPool(), threshold) : SEQUENTIAL;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pool      the ForkJoinPool on which to encode (if null, coding is always sequential).
+     * @param threshold the size of array below which the coding is sequential.
+     */
+    public ParallelCoding(final ForkJoinPool pool, final int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public static final int DEFAULT_THRESHOLD = 65536;
+
+    /**
+     * The default ParallelCoding, which uses the common pool.
+     */
+    public static final ParallelCoding DEFAULT = new ParallelCoding(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+
+    /**
+     * A ParallelCoding which always encodes sequentially.
+     */
+    public static final ParallelCoding SEQUENTIAL = new ParallelCoding(null, Integer.MAX_VALUE);
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private boolean isParallel(final HuskyCoder<?> coder, final int n) {
+        return pool != null && n >= threshold && coder.getCollator() == null;
+    }
+
+    /**
+     * Task which encodes xs[from] thru xs[to-1] into longs and yields the number of overflows in that chunk (or UNKNOWN).
+     *
+     * @param <X> the underlying type of xs.
+     */
+    @SuppressWarnings("serial")
+    private static class EncodeTask<X> extends RecursiveTask<Integer> {
+        EncodeTask(final HuskyCoder<X> coder, final X[] xs, final long[] longs, final int from, final int to, final int chunkSize) {
+            this.coder = coder;
+            this.xs = xs;
+            this.longs = longs;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= chunkSize) return coder.huskyEncode(xs, from, to, longs);
+            final int mid = (from + to) >>> 1;
+            final EncodeTask<X> left = new EncodeTask<>(coder, xs, longs, from, mid, chunkSize);
+            left.fork();
+            final int right = new EncodeTask<>(coder, xs, longs, mid, to, chunkSize).compute();
+            final int result = left.join();
+            return result == Coding.UNKNOWN || right == Coding.UNKNOWN ? Coding.UNKNOWN : result + right;
+        }
+
+        private final HuskyCoder<X> coder;
+        private final X[] xs;
+        private final long[] longs;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+    }
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+}
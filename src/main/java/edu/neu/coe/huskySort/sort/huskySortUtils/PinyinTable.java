@@ -0,0 +1,275 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import edu.neu.coe.huskySort.util.LazyLogger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Dense, char-indexed table of the Hanyu pinyin strings (as used by HuskyCoderChinesePinyin) of a block of characters,
+ * by default the CJK Unified Ideographs (U+4E00 through U+9FFF).
+ * <p>
+ * Each entry is exactly the String which HuskyCoderChinesePinyin.hanyuString yields for that character on its own
+ * (e.g. "zh--ang-1"), and which is otherwise derived via pinyin4j and ChineseCharacter.parsePinyin.
+ * Characters with no (parseable) pinyin have no entry.
+ * Because every such String ends with its tone, the pinyin String of a sequence of characters is the concatenation
+ * of the entries for its characters. Thus, encode yields the same Husky code as HuskyCoderChinesePinyin, using only array lookups.
+ * <p>
+ * The table is built once (see main) and shipped as a compact binary resource (CJK_RESOURCE):
+ * MAGIC, VERSION, first char, number of chars, then (for each char) the length of its entry followed by its (ISO-8859-1) bytes.
+ */
+public final class PinyinTable {
+
+    /**
+     * Main program to build the table for the CJK Unified Ideographs block and save it.
+     *
+     * @param args the output file (for example, src/main/resources/cjk-unified-ideographs.pinyin).
+     * @throws IOException if the table cannot be saved.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 1) throw new IllegalArgumentException("usage: PinyinTable outputFile");
+        final PinyinTable table = build(CJK_FIRST, CJK_LAST);
+        table.save(Paths.get(args[0]));
+        logger.info("PinyinTable.main: saved " + table + " to " + args[0]);
+    }
+
+    /**
+     * Method to build a table from pinyin4j (via HuskyCoderChinesePinyin.hanyuString).
+     *
+     * @param first the first char of the table.
+     * @param last  the last char of the table.
+     * @return a new PinyinTable.
+     */
+    public static PinyinTable build(final char first, final char last) {
+        final int n = last - first + 1;
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        final int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = data.size();
+            final byte[] bytes = entryBytes((char) (first + i));
+            data.write(bytes, 0, bytes.length);
+        }
+        offsets[n] = data.size();
+        return new PinyinTable(first, offsets, data.toByteArray());
+    }
+
+    /**
+     * Method to load the table for the CJK Unified Ideographs block from its resource.
+     *
+     * @return the PinyinTable saved in CJK_RESOURCE.
+     * @throws IOException if the resource cannot be found or is invalid.
+     */
+    public static PinyinTable cjkTable() throws IOException {
+        try (final InputStream stream = PinyinTable.class.getResourceAsStream(CJK_RESOURCE)) {
+            if (stream == null) throw new FileNotFoundException("cannot find resource: " + CJK_RESOURCE);
+            return load(stream);
+        }
+    }
+
+    /**
+     * Method to load a table from a file.
+     *
+     * @param path the path of a table saved by save.
+     * @return the PinyinTable.
+     * @throws IOException if the file cannot be read or is invalid.
+     */
+    public static PinyinTable load(final Path path) throws IOException {
+        try (final InputStream stream = Files.newInputStream(path)) {
+            return load(stream);
+        }
+    }
+
+    /**
+     * Method to load a table from a stream.
+     * NOTE: the stream is not closed.
+     *
+     * @param stream the stream of a table saved by save.
+     * @return the PinyinTable.
+     * @throws IOException if the stream cannot be read or is invalid.
+     */
+    public static PinyinTable load(final InputStream stream) throws IOException {
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+        if (input.readInt() != MAGIC) throw new IOException("PinyinTable: not a saved table");
+        final int version = input.readInt();
+        if (version != VERSION) throw new IOException("PinyinTable: unsupported version: " + version);
+        final char first = input.readChar();
+        final int n = input.readInt();
+        if (n < 1 || first + n > Character.MAX_VALUE + 1) throw new IOException("PinyinTable: invalid number of chars: " + n);
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        final int[] offsets = new int[n + 1];
+        final byte[] buffer = new byte[Byte.MAX_VALUE];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = data.size();
+            final int length = input.readByte();
+            if (length < 0) throw new IOException("PinyinTable: invalid entry length: " + length);
+            input.readFully(buffer, 0, length);
+            data.write(buffer, 0, length);
+        }
+        offsets[n] = data.size();
+        return new PinyinTable(first, offsets, data.toByteArray());
+    }
+
+    /**
+     * Method to save this table to a file.
+     *
+     * @param path the path of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(final Path path) throws IOException {
+        try (final OutputStream stream = Files.newOutputStream(path)) {
+            save(stream);
+        }
+    }
+
+    /**
+     * Method to save this table to a stream.
+     * NOTE: the stream is flushed but not closed.
+     *
+     * @param stream the stream.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void save(final OutputStream stream) throws IOException {
+        final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeChar(first);
+        final int n = offsets.length - 1;
+        output.writeInt(n);
+        for (int i = 0; i < n; i++) {
+            output.writeByte(offsets[i + 1] - offsets[i]);
+            output.write(data, offsets[i], offsets[i + 1] - offsets[i]);
+        }
+        output.flush();
+    }
+
+    /**
+     * Method to determine whether every character of s has an entry in this table.
+     *
+     * @param s a String.
+     * @return true if encode(s) and pinyin(s) can be used.
+     */
+    public boolean covers(final String s) {
+        for (int i = 0; i < s.length(); i++) if (length(s.charAt(i)) <= 0) return false;
+        return true;
+    }
+
+    /**
+     * Method to yield the pinyin String of s, i.e. the concatenation of the entries for its characters.
+     * NOTE: covers(s) must be true.
+     *
+     * @param s a String.
+     * @return the pinyin String of s.
+     */
+    public String pinyin(final String s) {
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < s.length(); i++) {
+            final int index = s.charAt(i) - first;
+            result.append(new String(data, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.ISO_8859_1));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Method to yield the same result as englishCoder.huskyEncode(pinyin(s)), but without creating any Strings.
+     * NOTE: covers(s) must be true.
+     *
+     * @param s a String.
+     * @return the Husky code of s.
+     */
+    public long encode(final String s) {
+        long result = 0L;
+        int symbols = 0;
+        for (int i = 0; i < s.length() && symbols < MAX_SYMBOLS; i++) {
+            final int index = s.charAt(i) - first;
+            final int end = Math.min(offsets[index + 1], offsets[index] + MAX_SYMBOLS - symbols);
+            for (int j = offsets[index]; j < end; j++) result = result << BIT_WIDTH | data[j] & MASK;
+            symbols += end - offsets[index];
+        }
+        return result << BIT_WIDTH * (MAX_SYMBOLS - symbols);
+    }
+
+    /**
+     * @return the number of characters which have an entry in this table.
+     */
+    public int entries() {
+        int result = 0;
+        for (int i = 1; i < offsets.length; i++) if (offsets[i] > offsets[i - 1]) result++;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PinyinTable{" +
+                "first=" + Integer.toHexString(first) +
+                ", chars=" + (offsets.length - 1) +
+                ", entries=" + entries() +
+                ", bytes=" + data.length +
+                '}';
+    }
+
+    /**
+     * The first char of the CJK Unified Ideographs block.
+     */
+    public static final char CJK_FIRST = '一';
+    /**
+     * The last char of the CJK Unified Ideographs block.
+     */
+    public static final char CJK_LAST = '鿿';
+    public static final String CJK_RESOURCE = "/cjk-unified-ideographs.pinyin";
+
+    /**
+     * Private constructor.
+     *
+     * @param first   the first char of the table.
+     * @param offsets the offsets of the entries in data (one more than the number of chars).
+     * @param data    the (ISO-8859-1) bytes of all the entries.
+     */
+    private PinyinTable(final char first, final int[] offsets, final byte[] data) {
+        this.first = first;
+        this.offsets = offsets;
+        this.data = data;
+    }
+
+    /**
+     * Method to get the length of the entry for c.
+     *
+     * @return the length (zero if c has no entry, or negative if c is outside this table).
+     */
+    private int length(final char c) {
+        final int index = c - first;
+        if (index < 0 || index >= offsets.length - 1) return -1;
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Method to get the bytes of the entry for c.
+     * NOTE: the result is empty if c has no (parseable) pinyin, or if any of its pinyin cannot be represented in one byte.
+     */
+    private static byte[] entryBytes(final char c) {
+        final String pinyin;
+        try {
+            pinyin = HuskyCoderChinesePinyin.hanyuString(String.valueOf(c));
+        } catch (final RuntimeException e) {
+            return new byte[0];
+        }
+        for (int i = 0; i < pinyin.length(); i++) if (pinyin.charAt(i) > 0xFF) return new byte[0];
+        return pinyin.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    // NOTE: these correspond to the English coder of HuskyCoderFactory.
+    private static final int MAX_SYMBOLS = 10;
+    private static final int BIT_WIDTH = 6;
+    private static final int MASK = 0x3F;
+
+    private static final int MAGIC = 0x48535059;
+    private static final int VERSION = 1;
+
+    private final char first;
+    private final int[] offsets;
+    private final byte[] data;
+
+    private final static LazyLogger logger = new LazyLogger(PinyinTable.class);
+}
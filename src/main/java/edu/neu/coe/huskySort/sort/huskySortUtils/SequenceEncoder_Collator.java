@@ -12,16 +12,76 @@ public class SequenceEncoder_Collator extends BaseHuskySequenceCoder<String> {
     public SequenceEncoder_Collator(final Collator collator) {
         super("UTF8", Integer.MAX_VALUE);
         this.collator = collator;
+        this.cache = null;
+    }
+
+    /**
+     * Constructor which caches the CollationKeys (and Husky codes) of the Strings it encodes.
+     * The Collator yielded by getCollator (used for the second pass of Husky Sort) also compares via the cache.
+     *
+     * @param collator      the appropriate Collator
+     * @param cacheCapacity the maximum number of Strings to be cached.
+     */
+    public SequenceEncoder_Collator(final Collator collator, final int cacheCapacity) {
+        super("UTF8", Integer.MAX_VALUE);
+        this.cache = new CollationKeyCache(collator, cacheCapacity, this::getCode);
+        this.collator = cache.asCollator();
     }
 
     @Override
     public Coding huskyEncode(final String[] xs) {
         final int length = xs.length;
+        if (cache != null) {
+            final long[] longs = new long[length];
+            return new Coding(longs, huskyEncode(xs, longs));
+        }
         final CollationKey[] keys = new CollationKey[length];
         for (int i = 0; i < length; i++) keys[i] = getCollationKey(xs[i]);
         return huskyEncode(keys);
     }
 
+    /**
+     * Encode an array of Strings into an existing array of longs.
+     * NOTE: a CollationKey is still generated for each String (unless it is cached).
+     *
+     * @param xs    an array of Strings.
+     * @param longs an array of longs, at least as long as xs.
+     * @return true if no CollationKey was too long to be perfectly encoded.
+     */
+    @Override
+    public boolean huskyEncode(final String[] xs, final long[] longs) {
+        return huskyEncode(xs, 0, xs.length, longs) == 0;
+    }
+
+    /**
+     * Encode xs[from..to) into longs[from..to).
+     * NOTE: if the range is the whole of xs, then the keys are looked up (and the misses generated) by CollationKeyCache.getAll.
+     *
+     * @param xs    an array of Strings.
+     * @param from  the index of the first element to be encoded.
+     * @param to    the index of the first element NOT to be encoded.
+     * @param longs an array of longs, at least as long as to.
+     * @return the number of elements in the range whose CollationKey is too long to be perfectly encoded.
+     */
+    @Override
+    public int huskyEncode(final String[] xs, final int from, final int to, final long[] longs) {
+        int overflows = 0;
+        if (cache != null && from == 0 && to == xs.length) {
+            final CollationKeyCache.Entry[] entries = cache.getAll(xs);
+            for (int i = 0; i < xs.length; i++) {
+                if (entries[i].bytes.length > 7) overflows++;
+                longs[i] = entries[i].code;
+            }
+            return overflows;
+        }
+        for (int i = from; i < to; i++) {
+            final byte[] byteArray = cache != null ? cache.get(xs[i]).bytes : getCollationKey(xs[i]).toByteArray();
+            if (byteArray.length > 7) overflows++;
+            longs[i] = getCode(byteArray);
+        }
+        return overflows;
+    }
+
     /**
      * Encode x as a long.
      * As much as possible, if x > y, huskyEncode(x) > huskyEncode(y).
@@ -31,6 +91,7 @@ public class SequenceEncoder_Collator extends BaseHuskySequenceCoder<String> {
      * @return a long which is, as closely as possible, monotonically increasing with the domain of X values.
      */
     public long huskyEncode(final String str) {
+        if (cache != null) return cache.get(str).code;
         return getCode(getCollationKey(str).toByteArray());
     }
 
@@ -43,9 +104,19 @@ public class SequenceEncoder_Collator extends BaseHuskySequenceCoder<String> {
         return collator;
     }
 
+    /**
+     * Method to get the cache of CollationKeys, so that it can be shared (for example, by GenericCollator).
+     *
+     * @return the CollationKeyCache, or null if this coder does not cache.
+     */
+    public CollationKeyCache getCache() {
+        return cache;
+    }
+
     private CollationKey getCollationKey(final String x) {
         return this.collator.getCollationKey(x);
     }
 
     private final Collator collator;
+    private final CollationKeyCache cache;
 }
@@ -0,0 +1,248 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import edu.neu.coe.huskySort.util.Config;
+
+import java.text.CollationKey;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class to perform the second pass of HuskySort by sorting only the spans of elements which have equal Husky codes.
+ * <p>
+ * After the first pass, the codes are in order and, provided that the coding is monotonic,
+ * an inversion can only remain between two elements which have the same code.
+ * Thus, instead of sorting the whole array a second time, it suffices to scan the codes once,
+ * to find each maximal span of equal codes, and to sort each such span according to the true order of the elements.
+ * NOTE: with a non-monotonic coder, the whole array must be sorted instead.
+ * <p>
+ * If there are at least threshold spans (and there is a pool), the spans are sorted in parallel.
+ * <p>
+ * If the comparator is the Collator of a CollationKeyCache, the keys of the tied elements are looked up (once) before
+ * the spans are sorted by those keys.
+ */
+public final class TieSpanSorter {
+
+    /**
+     * Method to sort each span of equal codes between from and to.
+     *
+     * @param xs         the array of Xs (which must be in order of the corresponding codes).
+     * @param longs      the array of (ordered) codes.
+     * @param from       the index of the first element to consider.
+     * @param to         the index of the first element not to consider.
+     * @param comparator the comparator which defines the true order of the Xs (if null, the natural order is used).
+     * @param <X>        the underlying type of xs.
+     * @return the number of spans (of two or more elements) which were sorted.
+     */
+    public <X> int sort(final X[] xs, final long[] longs, final int from, final int to, final Comparator<? super X> comparator) {
+        return sort(xs, longs, null, from, to, comparator);
+    }
+
+    /**
+     * Method to sort each span of equal wide (two-long) codes between from and to.
+     *
+     * @param xs         the array of Xs (which must be in order of the corresponding codes).
+     * @param longs      the array of (ordered) high halves of the codes.
+     * @param lows       the array of low halves of the codes (if null, only longs is considered).
+     * @param from       the index of the first element to consider.
+     * @param to         the index of the first element not to consider.
+     * @param comparator the comparator which defines the true order of the Xs (if null, the natural order is used).
+     * @param <X>        the underlying type of xs.
+     * @return the number of spans (of two or more elements) which were sorted.
+     */
+    public <X> int sort(final X[] xs, final long[] longs, final long[] lows, final int from, final int to, final Comparator<? super X> comparator) {
+        int[] spans = new int[64];
+        int count = 0;
+        int i = from;
+        while (i < to) {
+            final int j = endOfSpan(longs, lows, i, to);
+            if (j - i > 1) {
+                if (2 * count + 2 > spans.length) spans = Arrays.copyOf(spans, 2 * spans.length);
+                spans[2 * count] = i;
+                spans[2 * count + 1] = j;
+                count++;
+            }
+            i = j;
+        }
+        if (count == 0) return 0;
+        final SpanSorter spanSorter = createSpanSorter(xs, spans, count, comparator);
+        if (pool == null || count < threshold) for (int k = 0; k < count; k++) spanSorter.sortSpan(k);
+        else {
+            final int chunkSize = Math.max(threshold / 2, count / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1);
+            pool.invoke(new SpanTask(spanSorter, 0, count, chunkSize));
+        }
+        return count;
+    }
+
+    /**
+     * Method to sort each span of equal codes between from and to, according to the natural order of the Xs.
+     *
+     * @param xs    the array of Xs (which must be in order of the corresponding codes).
+     * @param longs the array of (ordered) codes.
+     * @param from  the index of the first element to consider.
+     * @param to    the index of the first element not to consider.
+     * @param <X>   the underlying type of xs.
+     * @return the number of spans (of two or more elements) which were sorted.
+     */
+    public <X extends Comparable<X>> int sort(final X[] xs, final long[] longs, final int from, final int to) {
+        return sort(xs, longs, from, to, null);
+    }
+
+    /**
+     * @return the number of spans at and above which the spans are sorted in parallel.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Method to create a TieSpanSorter according to the configuration.
+     * The threshold is taken from huskyhelper.parallelspanthreshold:
+     * if it is unset, then DEFAULT_THRESHOLD is used; if it is zero or negative, the spans will be sorted sequentially.
+     *
+     * @param config the configuration.
+     * @return a new TieSpanSorter (or SEQUENTIAL).
+     */
+    public static TieSpanSorter create(final Config config) {
+        final int threshold = config.getInt("huskyhelper", "parallelspanthreshold", DEFAULT_THRESHOLD);
+        return threshold > 0 ? new TieSpanSorter(ForkJoinPool.commonPool(), threshold) : SEQUENTIAL;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pool      the ForkJoinPool on which to sort the spans (if null, the spans are always sorted sequentially).
+     * @param threshold the number of spans at and above which the spans are sorted in parallel.
+     */
+    public TieSpanSorter(final ForkJoinPool pool, final int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    /**
+     * The default TieSpanSorter, which uses the common pool.
+     */
+    public static final TieSpanSorter DEFAULT = new TieSpanSorter(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+
+    /**
+     * A TieSpanSorter which always sorts the spans sequentially.
+     */
+    public static final TieSpanSorter SEQUENTIAL = new TieSpanSorter(null, Integer.MAX_VALUE);
+
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int INSERTION_CUTOFF = 16;
+
+    /**
+     * Method to create the SpanSorter for the given spans.
+     * If the comparator is the Collator of a CollationKeyCache, the keys of all the elements of the spans are looked up at once,
+     * and each span is then sorted by those keys (rather than by looking up two keys in the cache for every comparison).
+     */
+    private static <X> SpanSorter createSpanSorter(final X[] xs, final int[] spans, final int count, final Comparator<? super X> comparator) {
+        if (comparator instanceof CollationKeyCache.CachingCollator) {
+            final int[] offsets = new int[count + 1];
+            for (int k = 0; k < count; k++) offsets[k + 1] = offsets[k] + spans[2 * k + 1] - spans[2 * k];
+            final String[] tied = new String[offsets[count]];
+            for (int k = 0; k < count; k++)
+                for (int i = spans[2 * k]; i < spans[2 * k + 1]; i++) tied[offsets[k] + i - spans[2 * k]] = (String) xs[i];
+            final CollationKey[] keys = ((CollationKeyCache.CachingCollator) comparator).getCollationKeys(tied);
+            return k -> sortByKeys(xs, spans[2 * k], spans[2 * k + 1], keys, offsets[k]);
+        }
+        return k -> Arrays.sort(xs, spans[2 * k], spans[2 * k + 1], comparator);
+    }
+
+    /**
+     * Method to sort xs[from..to) (stably) according to keys[offset..offset+to-from), which correspond to those elements.
+     * The (primitive) indices of the keys are sorted, by insertion sort for a short span (the usual case) or else by merge sort,
+     * and the elements are then permuted accordingly.
+     */
+    static <X, K extends Comparable<K>> void sortByKeys(final X[] xs, final int from, final int to, final K[] keys, final int offset) {
+        final int n = to - from;
+        final int[] indices = new int[n];
+        for (int i = 0; i < n; i++) indices[i] = offset + i;
+        if (n <= INSERTION_CUTOFF) insertionSort(indices, 0, n, keys);
+        else mergeSort(indices.clone(), indices, 0, n, keys);
+        final X[] copy = Arrays.copyOfRange(xs, from, to);
+        for (int i = 0; i < n; i++) xs[from + i] = copy[indices[i] - offset];
+    }
+
+    /**
+     * Method to sort dst[lo..hi) (stably) by the keys which they index, using src (which has the same content) as auxiliary.
+     */
+    private static <K extends Comparable<K>> void mergeSort(final int[] src, final int[] dst, final int lo, final int hi, final K[] keys) {
+        if (hi - lo <= INSERTION_CUTOFF) {
+            insertionSort(dst, lo, hi, keys);
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        mergeSort(dst, src, lo, mid, keys);
+        mergeSort(dst, src, mid, hi, keys);
+        if (keys[src[mid - 1]].compareTo(keys[src[mid]]) <= 0) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+        for (int i = lo, p = lo, q = mid; i < hi; i++)
+            dst[i] = q >= hi || p < mid && keys[src[p]].compareTo(keys[src[q]]) <= 0 ? src[p++] : src[q++];
+    }
+
+    private static <K extends Comparable<K>> void insertionSort(final int[] indices, final int lo, final int hi, final K[] keys) {
+        for (int i = lo + 1; i < hi; i++) {
+            final int x = indices[i];
+            int j = i;
+            for (; j > lo && keys[indices[j - 1]].compareTo(keys[x]) > 0; j--) indices[j] = indices[j - 1];
+            indices[j] = x;
+        }
+    }
+
+    private static int endOfSpan(final long[] longs, final long[] lows, final int i, final int to) {
+        final long code = longs[i];
+        int j = i + 1;
+        if (lows == null)
+            while (j < to && longs[j] == code) j++;
+        else {
+            final long low = lows[i];
+            while (j < to && longs[j] == code && lows[j] == low) j++;
+        }
+        return j;
+    }
+
+    /**
+     * Functional interface to sort the kth span.
+     */
+    private interface SpanSorter {
+        void sortSpan(int k);
+    }
+
+    /**
+     * Task which sorts spans lo thru hi-1.
+     */
+    @SuppressWarnings("serial")
+    private static class SpanTask extends RecursiveAction {
+        SpanTask(final SpanSorter spanSorter, final int lo, final int hi, final int chunkSize) {
+            this.spanSorter = spanSorter;
+            this.lo = lo;
+            this.hi = hi;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= chunkSize) {
+                for (int k = lo; k < hi; k++) spanSorter.sortSpan(k);
+                return;
+            }
+            final int mid = (lo + hi) >>> 1;
+            invokeAll(new SpanTask(spanSorter, lo, mid, chunkSize), new SpanTask(spanSorter, mid, hi, chunkSize));
+        }
+
+        private final SpanSorter spanSorter;
+        private final int lo;
+        private final int hi;
+        private final int chunkSize;
+    }
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+}
@@ -0,0 +1,382 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import edu.neu.coe.huskySort.util.LazyLogger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Husky sequence coder which uses an order-preserving (alphabetic) variable-length code for each character,
+ * trained on the character frequencies of a corpus.
+ * <p>
+ * The fixed-width coders (englishCoder and asciiCoder) spend 6 or 7 bits on every character.
+ * An alphabetic prefix code assigns short codes to frequent characters (and long codes to rare ones)
+ * while preserving the order of the characters, so that many more characters of a typical String fit into a long.
+ * The codes are constructed by weight-balanced bisection of the (ordered) alphabet, which is within two bits per character
+ * of the optimal (Hu-Tucker) alphabetic code.
+ * <p>
+ * Every char value is covered: each character which was seen in training has its own code,
+ * and each maximal run of characters which was not seen shares a single (rare) code.
+ * A String is perfectly encoded only if all of its characters have their own codes and if its codes fit into 63 bits.
+ * Because the code is prefix-free and alphabetic, and the unused bits are zero, the coding is monotonic.
+ * <p>
+ * A trained coder can be saved to (and quickly loaded from) a compact binary file:
+ * see save, load and main (which trains a coder from a Leipzig words file).
+ */
+public final class TrainedHuskyCoder implements HuskySequenceCoder<String> {
+
+    /**
+     * Main program to train a coder from a Leipzig words file (each line of which is: id TAB word TAB frequency)
+     * and to save it.
+     *
+     * @param args the words file, the output file and (optionally) the name of the coder.
+     * @throws IOException if the files cannot be read or written.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) throw new IllegalArgumentException("usage: TrainedHuskyCoder wordsFile outputFile [name]");
+        final long[] counts = new long[CHARS];
+        try (final BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] fields = line.split("\t");
+                if (fields.length < 3) continue;
+                countCharacters(counts, fields[1], Long.parseLong(fields[2].trim()));
+            }
+        }
+        final TrainedHuskyCoder coder = train(args.length > 2 ? args[2] : DEFAULT_NAME, counts);
+        coder.save(Paths.get(args[1]));
+        logger.info("TrainedHuskyCoder.main: saved " + coder + " to " + args[1]);
+    }
+
+    /**
+     * Method to train a coder on an array of words (each of which is counted once).
+     *
+     * @param name  the name of the coder.
+     * @param words the training words.
+     * @return a new TrainedHuskyCoder.
+     */
+    public static TrainedHuskyCoder train(final String name, final String[] words) {
+        final long[] counts = new long[CHARS];
+        for (final String word : words) countCharacters(counts, word, 1);
+        return train(name, counts);
+    }
+
+    /**
+     * Method to train a coder on a table of character frequencies.
+     *
+     * @param name   the name of the coder.
+     * @param counts an array (of length 0x10000) of the frequencies of each char value.
+     * @return a new TrainedHuskyCoder.
+     */
+    public static TrainedHuskyCoder train(final String name, final long[] counts) {
+        if (counts.length != CHARS) throw new IllegalArgumentException("TrainedHuskyCoder: counts must have length " + CHARS);
+        long total = 0;
+        int n = 0;
+        for (int c = 0; c < CHARS; c++) {
+            total += counts[c];
+            if (counts[c] > 0 || c == 0 || counts[c - 1] > 0) n++;
+        }
+        // NOTE: an unseen range is given a small weight so that its code is long, but not excessively so.
+        final long gapWeight = Math.max(1, total >> GAP_WEIGHT_SHIFT);
+        final char[] starts = new char[n];
+        final long[] weights = new long[n];
+        final boolean[] exact = new boolean[n];
+        int k = -1;
+        for (int c = 0; c < CHARS; c++)
+            if (counts[c] > 0) {
+                starts[++k] = (char) c;
+                weights[k] = counts[c];
+                // NOTE: the first symbol has the all-zero code, which is indistinguishable from padding.
+                exact[k] = k > 0;
+            } else if (c == 0 || counts[c - 1] > 0) {
+                starts[++k] = (char) c;
+                weights[k] = gapWeight;
+            }
+        final long[] cumulative = new long[n + 1];
+        for (int i = 0; i < n; i++) cumulative[i + 1] = cumulative[i] + weights[i];
+        final long[] codes = new long[n];
+        final byte[] lengths = new byte[n];
+        assignCodes(cumulative, codes, lengths, 0, n, 0L, 0);
+        return new TrainedHuskyCoder(name, starts, codes, lengths, exact);
+    }
+
+    /**
+     * Method to load a coder which was previously saved.
+     *
+     * @param path the path of the file.
+     * @return a TrainedHuskyCoder.
+     * @throws IOException if the file cannot be read or is not a saved coder.
+     */
+    public static TrainedHuskyCoder load(final Path path) throws IOException {
+        try (final InputStream stream = Files.newInputStream(path)) {
+            return load(stream);
+        }
+    }
+
+    /**
+     * Method to load a coder which was previously saved.
+     *
+     * @param stream the input stream (which is not closed).
+     * @return a TrainedHuskyCoder.
+     * @throws IOException if the stream cannot be read or does not contain a saved coder.
+     */
+    public static TrainedHuskyCoder load(final InputStream stream) throws IOException {
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+        if (input.readInt() != MAGIC) throw new IOException("TrainedHuskyCoder: not a saved coder");
+        final int version = input.readInt();
+        if (version != VERSION) throw new IOException("TrainedHuskyCoder: unsupported version: " + version);
+        final String name = input.readUTF();
+        final int n = input.readInt();
+        if (n < 1 || n > CHARS) throw new IOException("TrainedHuskyCoder: invalid number of symbols: " + n);
+        final char[] starts = new char[n];
+        final long[] codes = new long[n];
+        final byte[] lengths = new byte[n];
+        final boolean[] exact = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = input.readChar();
+            lengths[i] = input.readByte();
+            codes[i] = input.readLong();
+            exact[i] = input.readBoolean();
+        }
+        return new TrainedHuskyCoder(name, starts, codes, lengths, exact);
+    }
+
+    /**
+     * Method to save this coder to a file.
+     *
+     * @param path the path of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(final Path path) throws IOException {
+        try (final OutputStream stream = Files.newOutputStream(path)) {
+            save(stream);
+        }
+    }
+
+    /**
+     * Method to save this coder to a stream.
+     *
+     * @param stream the output stream (which is flushed but not closed).
+     * @throws IOException if the stream cannot be written.
+     */
+    public void save(final OutputStream stream) throws IOException {
+        final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeUTF(name);
+        output.writeInt(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            output.writeChar(starts[i]);
+            output.writeByte(lengths[i]);
+            output.writeLong(codes[i]);
+            output.writeBoolean(exact[i]);
+        }
+        output.flush();
+    }
+
+    /**
+     * Encode x as a long.
+     *
+     * @param x the String to encode.
+     * @return the Husky code of x.
+     */
+    public long huskyEncode(final String x) {
+        long result = 0L;
+        int bits = 0;
+        for (int i = 0; i < x.length(); i++) {
+            final int symbol = symbols[x.charAt(i)];
+            final int length = lengths[symbol];
+            if (bits + length > BITS) {
+                final int remaining = BITS - bits;
+                return result << remaining | codes[symbol] >>> (length - remaining);
+            }
+            result = result << length | codes[symbol];
+            bits += length;
+        }
+        return result << (BITS - bits);
+    }
+
+    /**
+     * Encode an array of Strings.
+     *
+     * @param xs an array of Strings.
+     * @return a Coding of xs, including the number of elements which could not be perfectly encoded.
+     */
+    @Override
+    public Coding huskyEncode(final String[] xs) {
+        final long[] result = new long[xs.length];
+        final int overflows = encode(xs, 0, xs.length, result);
+        return new Coding(result, overflows == 0, overflows);
+    }
+
+    /**
+     * Encode an array of Strings into an existing array of longs.
+     *
+     * @param xs    an array of Strings.
+     * @param longs an array of longs, at least as long as xs.
+     * @return true if every element of xs was perfectly encoded.
+     */
+    @Override
+    public boolean huskyEncode(final String[] xs, final long[] longs) {
+        return encode(xs, 0, xs.length, longs) == 0;
+    }
+
+    /**
+     * Encode xs[from..to) into longs[from..to).
+     *
+     * @param xs    an array of Strings.
+     * @param from  the index of the first element to be encoded.
+     * @param to    the index of the first element NOT to be encoded.
+     * @param longs an array of longs, at least as long as to.
+     * @return the number of elements in the range which could not be perfectly encoded.
+     */
+    @Override
+    public int huskyEncode(final String[] xs, final int from, final int to, final long[] longs) {
+        return encode(xs, from, to, longs);
+    }
+
+    /**
+     * Method to determine if a String can be perfectly encoded.
+     *
+     * @param x a String.
+     * @return true if every character of x has its own code and the codes fit into a long.
+     */
+    public boolean perfectFor(final String x) {
+        int bits = 0;
+        for (int i = 0; i < x.length(); i++) {
+            final int symbol = symbols[x.charAt(i)];
+            if (!exact[symbol]) return false;
+            bits += lengths[symbol];
+            if (bits > BITS) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Method to determine if this coder is perfect for every String of the given length.
+     * NOTE: length alone cannot decide perfection when some characters share a code (a run of unseen characters, or the first symbol),
+     * which is the case for any trained coder, so the result is then true only for the empty String: use perfectFor instead.
+     *
+     * @param length the length of a particular String.
+     * @return true if every character has its own code and length characters of the longest code fit into a long.
+     */
+    public boolean perfectForLength(final int length) {
+        return length == 0 || allExact && (long) length * maxExactLength <= BITS;
+    }
+
+    /**
+     * NOTE: perfection is determined solely by the huskyEncode(X[]) method.
+     *
+     * @return false.
+     */
+    @Override
+    public boolean perfect() {
+        return false;
+    }
+
+    /**
+     * @return the name of this coder.
+     */
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the mean code length (in bits) of the characters which were seen in training, weighted equally.
+     */
+    public double meanCodeLength() {
+        int sum = 0;
+        int count = 0;
+        for (int i = 0; i < lengths.length; i++)
+            if (exact[i]) {
+                sum += lengths[i];
+                count++;
+            }
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    @Override
+    public String toString() {
+        return "TrainedHuskyCoder{" +
+                "name='" + name + '\'' +
+                ", symbols=" + starts.length +
+                '}';
+    }
+
+    /**
+     * The default name of a trained coder.
+     */
+    public static final String DEFAULT_NAME = "Trained";
+
+    private TrainedHuskyCoder(final String name, final char[] starts, final long[] codes, final byte[] lengths, final boolean[] exact) {
+        this.name = name;
+        this.starts = starts;
+        this.codes = codes;
+        this.lengths = lengths;
+        this.exact = exact;
+        this.symbols = new char[CHARS];
+        int max = 0;
+        boolean all = true;
+        for (int i = 0; i < starts.length; i++) {
+            final int end = i + 1 < starts.length ? starts[i + 1] : CHARS;
+            for (int c = starts[i]; c < end; c++) symbols[c] = (char) i;
+            if (exact[i]) max = Math.max(max, lengths[i]);
+            else all = false;
+        }
+        this.maxExactLength = max;
+        this.allExact = all;
+    }
+
+    private int encode(final String[] xs, final int from, final int to, final long[] longs) {
+        int overflows = 0;
+        for (int i = from; i < to; i++) {
+            final String x = xs[i];
+            longs[i] = huskyEncode(x);
+            if (!perfectFor(x)) overflows++;
+        }
+        return overflows;
+    }
+
+    /**
+     * Assign codes to symbols lo thru hi-1 by splitting them (in order) into two parts of (nearly) equal weight.
+     */
+    private static void assignCodes(final long[] cumulative, final long[] codes, final byte[] lengths, final int lo, final int hi, final long code, final int length) {
+        if (hi - lo == 1) {
+            codes[lo] = code;
+            lengths[lo] = (byte) length;
+            return;
+        }
+        if (length >= BITS) throw new IllegalStateException("TrainedHuskyCoder: code is too long");
+        final long half = (cumulative[lo] + cumulative[hi]) / 2;
+        int split = lo + 1;
+        while (split < hi - 1 && Math.abs(cumulative[split + 1] - half) < Math.abs(cumulative[split] - half)) split++;
+        assignCodes(cumulative, codes, lengths, lo, split, code << 1, length + 1);
+        assignCodes(cumulative, codes, lengths, split, hi, code << 1 | 1, length + 1);
+    }
+
+    private static void countCharacters(final long[] counts, final String word, final long weight) {
+        for (int i = 0; i < word.length(); i++) counts[word.charAt(i)] += weight;
+    }
+
+    private static final int CHARS = 0x10000;
+    // NOTE: we use only 63 bits so that the codes (which are compared as signed longs) are never negative.
+    private static final int BITS = 63;
+    private static final int GAP_WEIGHT_SHIFT = 20;
+    private static final int MAGIC = 0x48534B43;
+    private static final int VERSION = 1;
+
+    private final String name;
+    private final char[] starts;
+    private final long[] codes;
+    private final byte[] lengths;
+    private final boolean[] exact;
+    private final char[] symbols;
+    private final int maxExactLength;
+    private final boolean allExact;
+
+    private final static LazyLogger logger = new LazyLogger(TrainedHuskyCoder.class);
+}
@@ -21,6 +21,16 @@ public abstract class UnicodeCharacter implements Comparable<UnicodeCharacter> {
      */
     public abstract String alt();
 
+    /**
+     * Method to get the alternative representation which was generated (by alt) when this UnicodeCharacter was constructed.
+     * NOTE: unlike alt, this does not recalculate the representation.
+     *
+     * @return the alternative representation.
+     */
+    public String getAlt() {
+        return alt;
+    }
+
     /**
      * Compare this UnicodeCharacter with "other".
      *
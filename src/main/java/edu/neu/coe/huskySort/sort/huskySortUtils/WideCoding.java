@@ -0,0 +1,17 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+/**
+ * Class to combine the wide (two-long) codes for an array of objects with a determination of coding perfection.
+ * <p>
+ * The code of element i is the 128-bit quantity whose high half is longs[i] and whose low half is lows[i].
+ * The high halves are compared as signed longs and the low halves (only if the high halves are equal) as unsigned longs.
+ * See WideHuskyCoder.compare.
+ */
+public class WideCoding extends Coding {
+    public WideCoding(final long[] longs, final long[] lows, final boolean perfect) {
+        super(longs, perfect);
+        this.lows = lows;
+    }
+
+    public final long[] lows;
+}
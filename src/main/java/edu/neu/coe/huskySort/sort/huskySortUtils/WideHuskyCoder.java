@@ -0,0 +1,52 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+/**
+ * This interface extends HuskyCoder for coders which can encode an X as two longs (a 128-bit code).
+ * <p>
+ * The high long is the same as the (ordinary) Husky code of an X, i.e. huskyEncode(x).
+ * The low long continues the encoding where the high long leaves off, so that (for example)
+ * twice as many characters of a String are significant.
+ * This is useful where the elements to be sorted share long prefixes (file paths, URLs, etc.).
+ *
+ * @param <X> the underlying type of the elements to be encoded.
+ */
+public interface WideHuskyCoder<X> extends HuskyCoder<X> {
+
+    /**
+     * Encode the low half of the wide code of x.
+     *
+     * @param x the X value to encode.
+     * @return a long which, taken as an unsigned value, continues the encoding of huskyEncode(x).
+     */
+    long huskyEncodeLow(X x);
+
+    /**
+     * Encode an array of Xs as wide codes.
+     *
+     * @param xs an array of X elements.
+     * @return a WideCoding of xs.
+     */
+    default WideCoding huskyEncodeWide(final X[] xs) {
+        final long[] longs = new long[xs.length];
+        final long[] lows = new long[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            longs[i] = huskyEncode(xs[i]);
+            lows[i] = huskyEncodeLow(xs[i]);
+        }
+        return new WideCoding(longs, lows, perfect());
+    }
+
+    /**
+     * Method to compare two wide codes.
+     *
+     * @param hi1 the high half of the first code.
+     * @param lo1 the low half of the first code.
+     * @param hi2 the high half of the second code.
+     * @param lo2 the low half of the second code.
+     * @return a negative integer, zero, or a positive integer as the first code is less than, equal to, or greater than the second.
+     */
+    static int compare(final long hi1, final long lo1, final long hi2, final long lo2) {
+        final int cf = Long.compare(hi1, hi2);
+        return cf != 0 ? cf : Long.compareUnsigned(lo1, lo2);
+    }
+}
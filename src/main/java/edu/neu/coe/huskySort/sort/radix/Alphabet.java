@@ -16,22 +16,29 @@ public class Alphabet {
         if ((int) x + 2 < 0 || (int) x >= radix)
             throw new SortException("char " + x + " is out of bounds for radix: " + radix);
         if (x < 256) return x;
-        Integer position = map.get(x);
-        if (position == null) {
-            position = spareCount++;
-            map.put(x, position);
+        // NOTE: positions for non-ASCII characters are allocated lazily, so this is synchronized (MSDStringSort may be parallel).
+        synchronized (map) {
+            Integer position = map.get(x);
+            if (position == null) {
+                position = spareCount++;
+                map.put(x, position);
+            }
+            if (position >= length)
+                throw new SortException("char " + x + " is out of bounds for count array: " + length);
+            return position;
         }
-        if (position >= length)
-            throw new SortException("char " + x + " is out of bounds for count array: " + length);
-        return position;
     }
 
     public void reset() {
-        spareCount = RADIX_ASCII;
+        synchronized (map) {
+            spareCount = RADIX_ASCII;
+        }
     }
 
     public int counts() {
-        return spareCount;
+        synchronized (map) {
+            return spareCount;
+        }
     }
 
     public Alphabet(final int radix) {
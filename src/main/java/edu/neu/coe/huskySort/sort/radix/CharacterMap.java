@@ -2,15 +2,19 @@ package edu.neu.coe.huskySort.sort.radix;
 
 import edu.neu.coe.huskySort.sort.huskySortUtils.UnicodeCharacter;
 
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Function;
 
 /**
  * Class to model the mapping of Unicode characters to a (long) proxy value which can be used for sorting.
  * There is also an intermediate mapping possible to a form such as Pinyin for Chinese characters.
+ * <p>
+ * The characters (which are all in the Basic Multilingual Plane, since they are chars) are held in a page table:
+ * one page of 256 UnicodeCharacters for each possible high byte, where a page is only allocated when one of its characters is first added.
+ * Thus get(char) never allocates (other than when a character is seen for the first time).
  */
 public class CharacterMap {
 
@@ -22,17 +26,16 @@ public class CharacterMap {
      * NOTE: currently only used by test code and for checking sorts.
      */
     public final Comparator<String> stringComparatorPinyin = (o1, o2) -> {
-        final UnicodeString unicodeString1 = getUnicodeString(o1);
-        final UnicodeString unicodeString2 = getUnicodeString(o2);
-        int d = 0;
-        while (unicodeString1.valid(d) && unicodeString2.valid(d)) {
-            int cf = unicodeString1.unicodes[d].alt().compareTo(unicodeString2.unicodes[d].alt());
-            d++;
+        // NOTE: the characters are looked up directly (no UnicodeStrings are constructed) and their (cached) pinyin compared.
+        final int n = Math.min(o1.length(), o2.length());
+        for (int d = 0; d < n; d++) {
+            final char c1 = o1.charAt(d);
+            final char c2 = o2.charAt(d);
+            if (c1 == c2) continue;
+            final int cf = get(c1).getAlt().compareTo(get(c2).getAlt());
             if (cf != 0) return cf;
         }
-        if (unicodeString1.valid(d)) return 1;
-        else if (unicodeString2.valid(d)) return -1;
-        else return 0;
+        return Integer.signum(o1.length() - o2.length());
     };
 
     /**
@@ -71,14 +74,155 @@ public class CharacterMap {
      * @param x a character.
      */
     public UnicodeCharacter get(final char x) {
-        UnicodeCharacter unicodeCharacter = characters.get(x);
-        if (unicodeCharacter == null) {
-            unicodeCharacter = toUnicodeCharacter.apply(x);
-            put(x, unicodeCharacter);
+        final UnicodeCharacter[] page = pages[x >>> PAGE_BITS];
+        if (page != null) {
+            final UnicodeCharacter unicodeCharacter = page[x & PAGE_MASK];
+            if (unicodeCharacter != null) return unicodeCharacter;
         }
+        final UnicodeCharacter unicodeCharacter = toUnicodeCharacter.apply(x);
+        put(x, unicodeCharacter);
         return unicodeCharacter;
     }
 
+    /**
+     * Method to convert a String into the dense ordinals (see getOrdinals) of its characters.
+     * <p>
+     * NOTE: if s contains characters which are new to this map, then the ordinals will be rebuilt,
+     * so for many Strings it is better to call getOrdinals(String[]) once and then use Ordinals.toOrdinals.
+     *
+     * @param s a String.
+     * @return an array (of the same length as s) of ordinals.
+     */
+    public int[] toOrdinals(final String s) {
+        addCharacters(s, ordinals);
+        final int[] result = new int[s.length()];
+        updateOrdinals().toOrdinals(s, result, 0);
+        return result;
+    }
+
+    /**
+     * Method to get the dense ordinals of the characters of this map, ensuring first that every character of xs[from..to) is known.
+     * The ordinals are in the order of the UnicodeCharacters (i.e. of their long codes): characters with the same long code share an ordinal.
+     * The end of a string (see UnicodeCharacter.NullChar) has its own ordinal.
+     * <p>
+     * NOTE: the result is cached and is only rebuilt when new characters have been added to this map.
+     *
+     * @param xs   an array of UnicodeStrings.
+     * @param from the index of the first UnicodeString to consider.
+     * @param to   the index of the first UnicodeString NOT to consider.
+     * @return an Ordinals object which covers all of the characters in xs[from..to).
+     */
+    public Ordinals getOrdinals(final UnicodeString[] xs, final int from, final int to) {
+        for (int i = from; i < to; i++) addCharacters(xs[i].word, ordinals);
+        return updateOrdinals();
+    }
+
+    /**
+     * Method to get the dense ordinals of the characters of this map, ensuring first that every character of ws is known.
+     *
+     * @param ws an array of Strings.
+     * @return an Ordinals object which covers all of the characters in ws.
+     */
+    public Ordinals getOrdinals(final String[] ws) {
+        for (final String w : ws) addCharacters(w, ordinals);
+        return updateOrdinals();
+    }
+
+    /**
+     * Class to represent an immutable snapshot of the dense ordinals of the characters of a CharacterMap.
+     */
+    public static final class Ordinals {
+
+        /**
+         * Method to get the ordinal of the dth character of x.
+         *
+         * @param x a UnicodeString all of whose characters are covered by this Ordinals.
+         * @param d the index of the character.
+         * @return the ordinal of x.charAt(d) (or of the end of the string if d is not valid).
+         */
+        public int ordinal(final UnicodeString x, final int d) {
+            final String word = x.word;
+            return d < word.length() ? table[word.charAt(d)] : end;
+        }
+
+        /**
+         * Method to get the ordinal of a character.
+         *
+         * @param c a character which is covered by this Ordinals.
+         * @return the ordinal of c.
+         */
+        public int ordinal(final char c) {
+            return table[c];
+        }
+
+        /**
+         * Method to convert the characters of a String into their ordinals, in bulk.
+         *
+         * @param s      a String all of whose characters are covered by this Ordinals.
+         * @param result the array into which the ordinals will be written.
+         * @param offset the index in result of the ordinal of the first character of s.
+         * @return the index in result following the ordinal of the last character of s.
+         */
+        public int toOrdinals(final String s, final int[] result, final int offset) {
+            int index = offset;
+            for (int j = 0; j < s.length(); j++) result[index++] = table[s.charAt(j)];
+            return index;
+        }
+
+        /**
+         * @param c a character.
+         * @return true if c has an ordinal in this Ordinals.
+         */
+        public boolean covers(final char c) {
+            return table[c] >= 0;
+        }
+
+        /**
+         * @return the number of distinct ordinals (including the end-of-string ordinal).
+         */
+        public int radix() {
+            return radix;
+        }
+
+        /**
+         * @return the ordinal of the end of a string.
+         */
+        public int end() {
+            return end;
+        }
+
+        private Ordinals(final char[] keys, final UnicodeCharacter[] values) {
+            final Integer[] order = new Integer[keys.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (i, j) -> values[i].compareTo(values[j]));
+            this.table = new int[Character.MAX_VALUE + 1];
+            Arrays.fill(table, -1);
+            int ordinal = -1;
+            int endOrdinal = -1;
+            UnicodeCharacter previous = null;
+            for (final int i : order) {
+                final UnicodeCharacter u = values[i];
+                // NOTE: the end of a string precedes (and is distinct from) any character with the same long code as NullChar.
+                if (endOrdinal < 0 && u.compareTo(UnicodeCharacter.NullChar) >= 0) {
+                    endOrdinal = ++ordinal;
+                    previous = null;
+                }
+                if (previous == null || u.compareTo(previous) != 0) ordinal++;
+                table[keys[i]] = ordinal;
+                previous = u;
+            }
+            if (endOrdinal < 0) endOrdinal = ++ordinal;
+            this.end = endOrdinal;
+            this.radix = ordinal + 1;
+            this.size = keys.length;
+        }
+
+        private final int[] table;
+        private final int end;
+        private final int radix;
+        private final int size;
+    }
+
     /**
      * Method to get the dialect for this CharacterMap.
      * For example, for Chinese, we might specify "Hanyu" or "bopomofo."
@@ -90,10 +234,16 @@ public class CharacterMap {
     }
 
     /**
-     * Returns a {@link Set} view of the keys contained in this map.
+     * Returns a {@link Set} of the keys contained in this map.
+     * NOTE: the result is a copy, not a view.
      */
     public Set<Character> keySet() {
-        return characters.keySet();
+        final Set<Character> result = new HashSet<>();
+        for (int p = 0; p < pages.length; p++)
+            if (pages[p] != null)
+                for (int i = 0; i <= PAGE_MASK; i++)
+                    if (pages[p][i] != null) result.add((char) (p << PAGE_BITS | i));
+        return result;
     }
 
     /**
@@ -104,7 +254,7 @@ public class CharacterMap {
      * @return the number of key-value mappings in this map
      */
     public int size() {
-        return characters.size();
+        return size;
     }
 
     /**
@@ -137,13 +287,48 @@ public class CharacterMap {
      *                                       is not supported by this map
      */
     public void clear() {
-        characters.clear();
+        Arrays.fill(pages, null);
+        size = 0;
+        ordinals = null;
     }
 
-    private final Map<Character, UnicodeCharacter> characters = new HashMap<>();
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+    private final UnicodeCharacter[][] pages = new UnicodeCharacter[(Character.MAX_VALUE >>> PAGE_BITS) + 1][];
+    private int size;
+
+    private Ordinals ordinals;
+
+    private void addCharacters(final String word, final Ordinals known) {
+        for (int j = 0; j < word.length(); j++) {
+            final char c = word.charAt(j);
+            if (known == null || !known.covers(c)) get(c);
+        }
+    }
+
+    private Ordinals updateOrdinals() {
+        if (ordinals == null || ordinals.size != size) {
+            final char[] keys = new char[size];
+            final UnicodeCharacter[] values = new UnicodeCharacter[size];
+            int k = 0;
+            for (int p = 0; p < pages.length; p++)
+                if (pages[p] != null)
+                    for (int i = 0; i <= PAGE_MASK; i++)
+                        if (pages[p][i] != null) {
+                            keys[k] = (char) (p << PAGE_BITS | i);
+                            values[k++] = pages[p][i];
+                        }
+            ordinals = new Ordinals(keys, values);
+        }
+        return ordinals;
+    }
 
     private void put(final char x, final UnicodeCharacter value) {
-        characters.put(x, value);
+        UnicodeCharacter[] page = pages[x >>> PAGE_BITS];
+        if (page == null) page = pages[x >>> PAGE_BITS] = new UnicodeCharacter[PAGE_MASK + 1];
+        if (page[x & PAGE_MASK] == null) size++;
+        page[x & PAGE_MASK] = value;
     }
 
     private final Function<Character, UnicodeCharacter> toUnicodeCharacter;
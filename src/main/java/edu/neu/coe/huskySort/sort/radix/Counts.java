@@ -10,6 +10,8 @@ import java.util.TreeMap;
  * Class to maintain a set of character counts for MSD radix sort.
  * <p>
  * NOTE: At present this is not generic: and is specific to Unicode Characters.
+ * <p>
+ * NOTE: UnicodeMSDStringSort no longer uses this class: it counts in an int[] indexed by dense ordinals (see CharacterMap.Ordinals).
  */
 public class Counts {
 
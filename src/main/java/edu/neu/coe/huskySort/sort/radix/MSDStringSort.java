@@ -1,13 +1,56 @@
 package edu.neu.coe.huskySort.sort.radix;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Class to implement Most significant digit string sort (a radix sort).
+ * <p>
+ * All of the state of a sort (in particular, the auxiliary array) belongs to one invocation of sort,
+ * so one MSDStringSort may be used by several threads at once (Alphabet is itself thread-safe).
+ * <p>
+ * If a ForkJoinPool is given, then the sort is parallel:
+ * the counting of the first character uses a histogram for each chunk of the array (the chunks are counted in parallel),
+ * the distribution is likewise done in parallel, and thereafter every bucket which is at least as large as the parallel threshold
+ * is sorted as a ForkJoin task (smaller buckets are sorted sequentially).
  */
 public final class MSDStringSort {
 
-    public MSDStringSort(final Alphabet alphabet) {
+    /**
+     * Primary constructor.
+     *
+     * @param alphabet          the Alphabet.
+     * @param cutoff            the size of sub-array below which we switch to insertion sort.
+     * @param pool              the ForkJoinPool on which to sort (if null, the sort is sequential).
+     * @param parallelThreshold the size of sub-array below which we no longer fork.
+     */
+    public MSDStringSort(final Alphabet alphabet, final int cutoff, final ForkJoinPool pool, final int parallelThreshold) {
         this.alphabet = alphabet;
+        this.cutoff = cutoff;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Constructor for a sequential MSDStringSort.
+     *
+     * @param alphabet the Alphabet.
+     * @param cutoff   the size of sub-array below which we switch to insertion sort.
+     */
+    public MSDStringSort(final Alphabet alphabet, final int cutoff) {
+        this(alphabet, cutoff, null, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Constructor for a sequential MSDStringSort with the default cutoff.
+     *
+     * @param alphabet the Alphabet.
+     */
+    public MSDStringSort(final Alphabet alphabet) {
+        this(alphabet, DEFAULT_CUTOFF);
     }
 
     /**
@@ -17,8 +60,10 @@ public final class MSDStringSort {
      */
     public void sort(final String[] a) {
         final int n = a.length;
-        aux = new String[n];
-        sort(a, 0, n, 0);
+        if (n < 2) return;
+        final String[] aux = new String[n];
+        if (pool != null && n >= parallelThreshold) pool.invoke(new DistributeTask(a, aux, 0, n));
+        else sort(a, aux, 0, n, 0);
     }
 
     public void reset() {
@@ -29,45 +74,58 @@ public final class MSDStringSort {
         return alphabet;
     }
 
-    public static void setCutoff(final int cutoff) {
-        MSDStringSort.cutoff = cutoff;
+    public int getCutoff() {
+        return cutoff;
+    }
+
+    /**
+     * @return the parallelism of the pool used by this sorter (or 1 if this sorter is sequential).
+     */
+    public int getParallelism() {
+        return pool != null ? pool.getParallelism() : 1;
     }
 
     /**
      * Sort from a[lo] to a[hi] (exclusive), ignoring the first d characters of each String.
      * This method is recursive.
+     * <p>
+     * NOTE: aux is indexed in the same way as a, so that sorts of disjoint sub-arrays may share it.
      *
-     * @param a  the array to be sorted.
-     * @param lo the low index.
-     * @param hi the high index (one above the highest actually processed).
-     * @param d  the number of characters in each String to be skipped.
+     * @param a   the array to be sorted.
+     * @param aux the auxiliary array for distribution (of the same length as a).
+     * @param lo  the low index.
+     * @param hi  the high index (one above the highest actually processed).
+     * @param d   the number of characters in each String to be skipped.
      */
-    private void sort(final String[] a, final int lo, final int hi, final int d) {
+    private void sort(final String[] a, final String[] aux, final int lo, final int hi, final int d) {
         assert lo >= 0 : "lo " + lo + " is negative";
         assert hi <= a.length : "hi " + hi + " is out of bounds: " + a.length;
         if (hi < lo + cutoff) insertionSort(a, lo, hi, d);
         else {
-            final int countLength = alphabet.getCountLength();
-            final int[] count = new int[countLength];
-            for (int i = lo; i < hi; i++) {
-                final int x = alphabet.getCountIndex(charAt(a[i], d));
-                count[x + 2]++;
-            }
-            for (int r = 0; r < alphabet.counts() + 1; r++)      // Transform counts to indices.
+            final int[] count = new int[alphabet.getCountLength() + 2];
+            for (int i = lo; i < hi; i++) count[countIndex(a[i], d) + 1]++;
+            final int buckets = alphabet.counts() + 1;
+            for (int r = 0; r < buckets; r++)      // Transform counts to indices.
                 count[r + 1] += count[r];
             for (int i = lo; i < hi; i++)
-                aux[count[alphabet.getCountIndex(charAt(a[i], d)) + 1]++] = a[i];
+                aux[lo + count[countIndex(a[i], d)]++] = a[i];
             // Copy back.
-            if (hi - lo >= 0) System.arraycopy(aux, 0, a, lo, hi - lo);
-            // Recursively sort for each character value.
-            for (int r = 0; r < alphabet.counts(); r++)
-                sort(a, lo + count[r], lo + count[r + 1], d + 1);
+            System.arraycopy(aux, lo, a, lo, hi - lo);
+            // Recursively sort for each character value (but not for those strings which have ended).
+            for (int r = 0; r < buckets - 1; r++)
+                sort(a, aux, lo + count[r], lo + count[r + 1], d + 1);
         }
     }
 
-    private static char charAt(final String s, final int d) {
-        if (d < s.length()) return s.charAt(d);
-        else return (char) 0;
+    /**
+     * Method to get the index into the count array of the dth character of s.
+     *
+     * @param s a String.
+     * @param d the index of the character.
+     * @return 0 if s has ended, otherwise one more than the count index of the character.
+     */
+    private int countIndex(final String s, final int d) {
+        return d < s.length() ? alphabet.getCountIndex(s.charAt(d)) + 1 : 0;
     }
 
     private static void insertionSort(final String[] a, final int lo, final int hi, final int d) {
@@ -76,8 +134,18 @@ public final class MSDStringSort {
                 swap(a, j, j - 1);
     }
 
-    private static boolean less(final String v, final String w, final int d) {
-        return v.substring(d).compareTo(w.substring(d)) < 0;
+    /**
+     * Method to determine if v is less than w, ignoring the first d characters of each.
+     * NOTE: this is equivalent to v.substring(d).compareTo(w.substring(d)) < 0 but does not allocate.
+     */
+    static boolean less(final String v, final String w, final int d) {
+        final int n = Math.min(v.length(), w.length());
+        for (int i = d; i < n; i++) {
+            final char x = v.charAt(i);
+            final char y = w.charAt(i);
+            if (x != y) return x < y;
+        }
+        return v.length() < w.length();
     }
 
     private static void swap(final Object[] a, final int j, final int i) {
@@ -86,8 +154,161 @@ public final class MSDStringSort {
         a[i] = temp;
     }
 
-    private static int cutoff = 15;
-    private static String[] aux;       // auxiliary array for distribution
+    /**
+     * ForkJoin task which distributes a[lo..hi) on the dth character (counting and distributing in parallel chunks)
+     * and then sorts each bucket, forking those which are large enough.
+     */
+    @SuppressWarnings("serial")
+    private final class DistributeTask extends RecursiveAction {
+        DistributeTask(final String[] a, final String[] aux, final int lo, final int hi) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            final int chunks = Math.max(1, Math.min(getPool().getParallelism() * 4, (hi - lo) / Math.max(1, parallelThreshold / 2)));
+            final int chunkSize = (hi - lo + chunks - 1) / chunks;
+            // XXX count each chunk in parallel.
+            final HistogramTask[] histograms = new HistogramTask[chunks];
+            for (int c = 0; c < chunks; c++)
+                histograms[c] = new HistogramTask(a, lo + c * chunkSize, Math.min(hi, lo + (c + 1) * chunkSize));
+            invokeAll(histograms);
+            // XXX determine the starting index of each bucket for each chunk.
+            final int buckets = alphabet.counts() + 1;
+            final int[][] counts = new int[chunks][];
+            final int[][] starts = new int[chunks][];
+            for (int c = 0; c < chunks; c++) {
+                counts[c] = histograms[c].join();
+                starts[c] = new int[buckets];
+            }
+            final int[] bounds = new int[buckets + 1];
+            int total = lo;
+            for (int r = 0; r < buckets; r++) {
+                bounds[r] = total;
+                for (int c = 0; c < chunks; c++) {
+                    starts[c][r] = total;
+                    total += counts[c][r];
+                }
+            }
+            bounds[buckets] = total;
+            // XXX distribute each chunk in parallel, then copy back.
+            final ScatterTask[] scatters = new ScatterTask[chunks];
+            for (int c = 0; c < chunks; c++) scatters[c] = new ScatterTask(a, aux, histograms[c].lo, histograms[c].hi, starts[c]);
+            invokeAll(scatters);
+            System.arraycopy(aux, lo, a, lo, hi - lo);
+            // XXX sort each bucket (except for the strings which have ended): large buckets are forked, the others sorted here.
+            final List<SortTask> tasks = new ArrayList<>();
+            for (int r = 1; r < buckets; r++)
+                if (bounds[r + 1] - bounds[r] >= parallelThreshold)
+                    tasks.add(new SortTask(a, aux, bounds[r], bounds[r + 1], 1));
+            for (final SortTask task : tasks) task.fork();
+            for (int r = 1; r < buckets; r++)
+                if (bounds[r + 1] - bounds[r] < parallelThreshold) sort(a, aux, bounds[r], bounds[r + 1], 1);
+            for (final SortTask task : tasks) task.join();
+        }
+
+        private final String[] a;
+        private final String[] aux;
+        private final int lo;
+        private final int hi;
+    }
+
+    /**
+     * ForkJoin task which yields the histogram of the first character of each string in a[lo..hi).
+     * The histogram is indexed as for countIndex.
+     */
+    @SuppressWarnings("serial")
+    private final class HistogramTask extends RecursiveTask<int[]> {
+        HistogramTask(final String[] a, final int lo, final int hi) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected int[] compute() {
+            final int[] histogram = new int[alphabet.getCountLength() + 1];
+            for (int i = lo; i < hi; i++) histogram[countIndex(a[i], 0)]++;
+            return histogram;
+        }
+
+        private final String[] a;
+        private final int lo;
+        private final int hi;
+    }
+
+    /**
+     * ForkJoin task which distributes a[lo..hi) into aux according to the first character, starting each bucket at the given index.
+     */
+    @SuppressWarnings("serial")
+    private final class ScatterTask extends RecursiveAction {
+        ScatterTask(final String[] a, final String[] aux, final int lo, final int hi, final int[] starts) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+            this.starts = starts;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = lo; i < hi; i++) aux[starts[countIndex(a[i], 0)]++] = a[i];
+        }
+
+        private final String[] a;
+        private final String[] aux;
+        private final int lo;
+        private final int hi;
+        private final int[] starts;
+    }
+
+    /**
+     * ForkJoin task which sorts a[lo..hi) on the dth and subsequent characters.
+     * Buckets at least as large as the parallel threshold are forked again.
+     */
+    @SuppressWarnings("serial")
+    private final class SortTask extends RecursiveAction {
+        SortTask(final String[] a, final String[] aux, final int lo, final int hi, final int d) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+            this.d = d;
+        }
+
+        @Override
+        protected void compute() {
+            final int[] count = new int[alphabet.getCountLength() + 2];
+            for (int i = lo; i < hi; i++) count[countIndex(a[i], d) + 1]++;
+            final int buckets = alphabet.counts() + 1;
+            for (int r = 0; r < buckets; r++) count[r + 1] += count[r];
+            for (int i = lo; i < hi; i++) aux[lo + count[countIndex(a[i], d)]++] = a[i];
+            System.arraycopy(aux, lo, a, lo, hi - lo);
+            final List<SortTask> tasks = new ArrayList<>();
+            for (int r = 0; r < buckets - 1; r++) {
+                final int from = lo + count[r];
+                final int to = lo + count[r + 1];
+                if (to - from >= parallelThreshold) tasks.add(new SortTask(a, aux, from, to, d + 1));
+                else sort(a, aux, from, to, d + 1);
+            }
+            invokeAll(tasks);
+        }
+
+        private final String[] a;
+        private final String[] aux;
+        private final int lo;
+        private final int hi;
+        private final int d;
+    }
+
+    public static final int DEFAULT_CUTOFF = 15;
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
 
     private final Alphabet alphabet;
-}
\ No newline at end of file
+    private final int cutoff;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+}
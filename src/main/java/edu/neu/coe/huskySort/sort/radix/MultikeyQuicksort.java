@@ -0,0 +1,334 @@
+package edu.neu.coe.huskySort.sort.radix;
+
+/**
+ * Class to implement multikey quicksort (three-way radix quicksort) for strings, after Bentley and Sedgewick.
+ * <p>
+ * At each level, the elements are partitioned three ways (less, equal, greater) on the dth character of a pivot:
+ * the less and greater partitions are then sorted on the same character, and the equal partition on the next character.
+ * Unlike MSDStringSort and UnicodeMSDStringSort, there are no count arrays, so the cost of a level does not depend on the size of the alphabet.
+ * <p>
+ * There are two forms: one sorts Strings on their chars (i.e. in their natural order);
+ * the other sorts a PackedUnicodeStrings on the ordinals of its characters (see CharacterMap.Ordinals).
+ * <p>
+ * If seeded, the top of the recursion partitions on a long code for each string (its first few characters packed into one word, as for a husky code)
+ * so that the first eight bytes are compared at once.
+ * Each group of strings with equal codes is then sorted by multikey quicksort, starting after the characters which were packed.
+ */
+public final class MultikeyQuicksort {
+
+    /**
+     * Primary constructor.
+     *
+     * @param cutoff the size of sub-array below which we switch to insertion sort (at least 2).
+     * @param seeded if true, the top level is partitioned on long codes.
+     */
+    public MultikeyQuicksort(final int cutoff, final boolean seeded) {
+        this.cutoff = Math.max(2, cutoff);
+        this.seeded = seeded;
+    }
+
+    /**
+     * Constructor with the default cutoff.
+     *
+     * @param seeded if true, the top level is partitioned on long codes.
+     */
+    public MultikeyQuicksort(final boolean seeded) {
+        this(DEFAULT_CUTOFF, seeded);
+    }
+
+    /**
+     * Constructor for an unseeded MultikeyQuicksort with the default cutoff.
+     */
+    public MultikeyQuicksort() {
+        this(false);
+    }
+
+    /**
+     * Sort an array of Strings (in their natural order) using multikey quicksort.
+     *
+     * @param a the array to be sorted.
+     */
+    public void sort(final String[] a) {
+        final int n = a.length;
+        if (n < 2) return;
+        if (seeded) {
+            final long[] codes = new long[n];
+            for (int i = 0; i < n; i++) codes[i] = charCode(a[i]);
+            sortCodes(codes, a, 0, n);
+        } else sort(a, 0, n, 0);
+    }
+
+    /**
+     * Sort the given packed strings (by permuting their starts) using multikey quicksort on the ordinals of their characters.
+     *
+     * @param ps a PackedUnicodeStrings which will be mutated.
+     */
+    public void sort(final PackedUnicodeStrings ps) {
+        final int n = ps.size();
+        if (n > 1) new PackedEngine(ps).sort(ps.getStarts(), n);
+    }
+
+    /**
+     * Sort an array of Strings in the order defined by a CharacterMap (by way of a PackedUnicodeStrings).
+     *
+     * @param characterMap the appropriate character map for the type of unicode strings to be sorted.
+     * @param ws           the array to be sorted.
+     */
+    public void sort(final CharacterMap characterMap, final String[] ws) {
+        final PackedUnicodeStrings ps = PackedUnicodeStrings.create(characterMap, ws);
+        sort(ps);
+        ps.recoverStrings(ws);
+    }
+
+    public int getCutoff() {
+        return cutoff;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Sort from a[lo] to a[hi] (exclusive), ignoring the first d characters of each String.
+     * This method is recursive (on the equal partition and on the smaller of the other two partitions).
+     *
+     * @param a  the array to be sorted.
+     * @param lo the low index.
+     * @param hi the high index (one above the highest actually processed).
+     * @param d  the number of characters in each String to be skipped.
+     */
+    private void sort(final String[] a, int lo, int hi, final int d) {
+        while (hi - lo >= cutoff) {
+            final int v = median(charAt(a[lo], d), charAt(a[(lo + hi) >>> 1], d), charAt(a[hi - 1], d));
+            int lt = lo, gt = hi - 1, i = lo;
+            while (i <= gt) {
+                final int t = charAt(a[i], d);
+                if (t < v) swap(a, lt++, i++);
+                else if (t > v) swap(a, i, gt--);
+                else i++;
+            }
+            // XXX the equal partition is sorted on the next character, unless its strings have all ended.
+            if (v >= 0) sort(a, lt, gt + 1, d + 1);
+            if (lt - lo < hi - gt - 1) {
+                sort(a, lo, lt, d);
+                lo = gt + 1;
+            } else {
+                sort(a, gt + 1, hi, d);
+                hi = lt;
+            }
+        }
+        insertionSort(a, lo, hi, d);
+    }
+
+    /**
+     * Sort from a[lo] to a[hi] (exclusive) by three-way quicksort on their codes (which are permuted in step with a).
+     * Each group of equal codes is then sorted by multikey quicksort.
+     */
+    private void sortCodes(final long[] codes, final String[] a, int lo, int hi) {
+        while (hi - lo >= cutoff) {
+            final long v = median(codes[lo], codes[(lo + hi) >>> 1], codes[hi - 1]);
+            int lt = lo, gt = hi - 1, i = lo;
+            while (i <= gt) {
+                final long t = codes[i];
+                if (t < v) swap(codes, a, lt++, i++);
+                else if (t > v) swap(codes, a, i, gt--);
+                else i++;
+            }
+            if (gt > lt) sort(a, lt, gt + 1, charCodeLength(v));
+            if (lt - lo < hi - gt - 1) {
+                sortCodes(codes, a, lo, lt);
+                lo = gt + 1;
+            } else {
+                sortCodes(codes, a, gt + 1, hi);
+                hi = lt;
+            }
+        }
+        insertionSort(a, lo, hi, 0);
+    }
+
+    /**
+     * Class to implement multikey quicksort for one invocation of sort on packed strings.
+     * The elements are the starts of the strings in the arena of a PackedUnicodeStrings so that each ordinal is a simple array read,
+     * and the end-of-string sentinel ensures that no string is read beyond its end.
+     */
+    private final class PackedEngine {
+
+        void sort(final int[] starts, final int n) {
+            if (seeded) {
+                final long[] codes = new long[n];
+                for (int i = 0; i < n; i++) codes[i] = code(starts[i]);
+                sortCodes(codes, starts, 0, n);
+            } else sort(starts, 0, n, 0);
+        }
+
+        /**
+         * Sort from starts[lo] to starts[hi] (exclusive), ignoring the first d characters of each string.
+         */
+        private void sort(final int[] starts, int lo, int hi, final int d) {
+            while (hi - lo >= cutoff) {
+                final int v = median(arena[starts[lo] + d], arena[starts[(lo + hi) >>> 1] + d], arena[starts[hi - 1] + d]);
+                int lt = lo, gt = hi - 1, i = lo;
+                while (i <= gt) {
+                    final int t = arena[starts[i] + d];
+                    if (t < v) swap(starts, lt++, i++);
+                    else if (t > v) swap(starts, i, gt--);
+                    else i++;
+                }
+                if (v != end) sort(starts, lt, gt + 1, d + 1);
+                if (lt - lo < hi - gt - 1) {
+                    sort(starts, lo, lt, d);
+                    lo = gt + 1;
+                } else {
+                    sort(starts, gt + 1, hi, d);
+                    hi = lt;
+                }
+            }
+            insertionSort(starts, lo, hi, d);
+        }
+
+        private void sortCodes(final long[] codes, final int[] starts, int lo, int hi) {
+            while (hi - lo >= cutoff) {
+                final long v = median(codes[lo], codes[(lo + hi) >>> 1], codes[hi - 1]);
+                int lt = lo, gt = hi - 1, i = lo;
+                while (i <= gt) {
+                    final long t = codes[i];
+                    if (t < v) swap(codes, starts, lt++, i++);
+                    else if (t > v) swap(codes, starts, i, gt--);
+                    else i++;
+                }
+                // NOTE: if the code includes the end of the (representative) string, then the strings of the group are all equal.
+                if (gt > lt && !ended(starts[lt])) sort(starts, lt, gt + 1, slots);
+                if (lt - lo < hi - gt - 1) {
+                    sortCodes(codes, starts, lo, lt);
+                    lo = gt + 1;
+                } else {
+                    sortCodes(codes, starts, gt + 1, hi);
+                    hi = lt;
+                }
+            }
+            insertionSort(starts, lo, hi, 0);
+        }
+
+        /**
+         * Method to pack the first slots ordinals of the string at start into a (non-negative) long.
+         * The slots following the end of the string are zero.
+         */
+        private long code(final int start) {
+            long result = 0L;
+            for (int j = 0; j < slots; j++) {
+                final int ordinal = arena[start + j];
+                result = result << bits | ordinal;
+                if (ordinal == end) return result << bits * (slots - j - 1);
+            }
+            return result;
+        }
+
+        private boolean ended(final int start) {
+            for (int j = 0; j < slots; j++) if (arena[start + j] == end) return true;
+            return false;
+        }
+
+        private void insertionSort(final int[] starts, final int from, final int to, final int d) {
+            for (int i = from + 1; i < to; i++) {
+                final int x = starts[i];
+                int j = i;
+                for (; j > from && PackedUnicodeStrings.compareFromD(arena, starts[j - 1], x, d, end) > 0; j--)
+                    starts[j] = starts[j - 1];
+                starts[j] = x;
+            }
+        }
+
+        PackedEngine(final PackedUnicodeStrings ps) {
+            final CharacterMap.Ordinals ordinals = ps.getOrdinals();
+            this.arena = ps.getArena();
+            this.end = ordinals.end();
+            this.bits = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(ordinals.radix() - 1));
+            this.slots = (Long.SIZE - 1) / bits;
+        }
+
+        private final int[] arena;
+        private final int end;
+        private final int bits;
+        private final int slots;
+    }
+
+    /**
+     * Method to pack the first CHAR_SLOTS chars of s into a long, which is then offset so that signed comparison is appropriate.
+     * This is the packing of HuskyCoderFactory.unicodeCoder but without losing the lowest bit, so equal codes imply equal first CHAR_SLOTS chars
+     * (other than for the ambiguity between the end of a string and the char 0, which is resolved by charCodeLength).
+     */
+    private static long charCode(final String s) {
+        final int n = Math.min(s.length(), CHAR_SLOTS);
+        long result = 0L;
+        for (int i = 0; i < n; i++) result = result << Character.SIZE | s.charAt(i);
+        return (result << Character.SIZE * (CHAR_SLOTS - n)) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Method to determine the number of chars which are known to be equal (and present) in all strings with the given code.
+     * This is the index of the first slot which is zero (which might be either the end of the string or the char 0).
+     */
+    private static int charCodeLength(final long code) {
+        final long packed = code ^ Long.MIN_VALUE;
+        for (int j = 0; j < CHAR_SLOTS; j++)
+            if ((packed >>> Character.SIZE * (CHAR_SLOTS - 1 - j) & Character.MAX_VALUE) == 0) return j;
+        return CHAR_SLOTS;
+    }
+
+    private static int charAt(final String s, final int d) {
+        return d < s.length() ? s.charAt(d) : -1;
+    }
+
+    private static void insertionSort(final String[] a, final int lo, final int hi, final int d) {
+        for (int i = lo + 1; i < hi; i++) {
+            final String x = a[i];
+            int j = i;
+            for (; j > lo && MSDStringSort.less(x, a[j - 1], d); j--) a[j] = a[j - 1];
+            a[j] = x;
+        }
+    }
+
+    private static int median(final int x, final int y, final int z) {
+        return x < y ? (y < z ? y : Math.max(x, z)) : (x < z ? x : Math.max(y, z));
+    }
+
+    private static long median(final long x, final long y, final long z) {
+        return x < y ? (y < z ? y : Math.max(x, z)) : (x < z ? x : Math.max(y, z));
+    }
+
+    private static void swap(final Object[] a, final int i, final int j) {
+        final Object temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    private static void swap(final int[] a, final int i, final int j) {
+        final int temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    private static void swap(final long[] codes, final String[] a, final int i, final int j) {
+        final long temp = codes[i];
+        codes[i] = codes[j];
+        codes[j] = temp;
+        swap(a, i, j);
+    }
+
+    private static void swap(final long[] codes, final int[] a, final int i, final int j) {
+        final long temp = codes[i];
+        codes[i] = codes[j];
+        codes[j] = temp;
+        swap(a, i, j);
+    }
+
+    public static final int DEFAULT_CUTOFF = 15;
+
+    /**
+     * The number of chars which are packed into the code of a String (four chars are eight bytes).
+     */
+    private static final int CHAR_SLOTS = Long.SIZE / Character.SIZE;
+
+    private final int cutoff;
+    private final boolean seeded;
+}
@@ -0,0 +1,133 @@
+package edu.neu.coe.huskySort.sort.radix;
+
+/**
+ * Class to represent an array of Strings in packed form, as the dense ordinals (see CharacterMap.Ordinals) of their characters.
+ * Unlike UnicodeString, there is no UnicodeCharacter (nor any other object) for each character:
+ * all the ordinals are stored in one shared arena.
+ * <p>
+ * Each String occupies a contiguous region of the arena: its index (in the original array), then the ordinals of its characters,
+ * then the end-of-string ordinal (which thus acts as a sentinel).
+ * The strings are represented, in their current order, by the offsets of their first characters (see getStarts):
+ * a sort of the packed strings simply permutes these offsets.
+ */
+public final class PackedUnicodeStrings {
+
+    /**
+     * Method to create a PackedUnicodeStrings from an array of Strings.
+     *
+     * @param characterMap the appropriate character map for the type of unicode strings to be sorted.
+     * @param ws           an array of Strings.
+     * @return a new PackedUnicodeStrings, in the same order as ws.
+     */
+    public static PackedUnicodeStrings create(final CharacterMap characterMap, final String[] ws) {
+        final CharacterMap.Ordinals ordinals = characterMap.getOrdinals(ws);
+        long total = 0;
+        for (final String w : ws) total += w.length() + 2;
+        if (total > Integer.MAX_VALUE) throw new IllegalArgumentException("PackedUnicodeStrings: too many characters: " + total);
+        final int[] arena = new int[(int) total];
+        final int[] starts = new int[ws.length];
+        int offset = 0;
+        for (int i = 0; i < ws.length; i++) {
+            final String w = ws[i];
+            arena[offset++] = i;
+            starts[i] = offset;
+            offset = ordinals.toOrdinals(w, arena, offset);
+            arena[offset++] = ordinals.end();
+        }
+        return new PackedUnicodeStrings(ws.clone(), arena, starts, ordinals);
+    }
+
+    /**
+     * @return the number of strings.
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Method to get the ordinal of the dth character of the ith string (in the current order).
+     *
+     * @param i the index of the string.
+     * @param d the index of the character.
+     * @return the ordinal of the character, or the end-of-string ordinal if d is not less than the length of the string.
+     */
+    public int charAt(final int i, final int d) {
+        final int start = starts[i];
+        return d < words[arena[start - 1]].length() ? arena[start + d] : ordinals.end();
+    }
+
+    /**
+     * Method to compare the ith and jth strings (in the current order), starting at the dth character.
+     * NOTE: d must not be greater than the length of either string.
+     *
+     * @param i the index of one string.
+     * @param j the index of the other string.
+     * @param d the offset of the first character to compare in each of the strings.
+     * @return negative, zero, or positive according to the ith string being less than, equal to or greater than the jth string.
+     */
+    public int compareFromD(final int i, final int j, final int d) {
+        return compareFromD(arena, starts[i], starts[j], d, ordinals.end());
+    }
+
+    /**
+     * Recover the ith String (in the current order).
+     *
+     * @param i the index of the string.
+     * @return the original String.
+     */
+    public String recoverString(final int i) {
+        return words[arena[starts[i] - 1]];
+    }
+
+    /**
+     * Recover all of the Strings (in the current order) into ws.
+     *
+     * @param ws an array of at least size() Strings.
+     */
+    public void recoverStrings(final String[] ws) {
+        for (int i = 0; i < starts.length; i++) ws[i] = recoverString(i);
+    }
+
+    public CharacterMap.Ordinals getOrdinals() {
+        return ordinals;
+    }
+
+    /**
+     * NOTE: the result is mutable: it is permuted by UnicodeMSDStringSort.
+     *
+     * @return the offsets in the arena of the first characters of the strings (in the current order).
+     */
+    int[] getStarts() {
+        return starts;
+    }
+
+    int[] getArena() {
+        return arena;
+    }
+
+    /**
+     * Method to compare the strings which start at offsets x and y of the arena, starting at the dth character.
+     * NOTE: the end-of-string sentinel ensures that this never reads beyond either string.
+     */
+    static int compareFromD(final int[] arena, final int x, final int y, int d, final int end) {
+        while (true) {
+            final int a = arena[x + d];
+            final int b = arena[y + d];
+            if (a != b) return Integer.compare(a, b);
+            if (a == end) return 0;
+            d++;
+        }
+    }
+
+    private PackedUnicodeStrings(final String[] words, final int[] arena, final int[] starts, final CharacterMap.Ordinals ordinals) {
+        this.words = words;
+        this.arena = arena;
+        this.starts = starts;
+        this.ordinals = ordinals;
+    }
+
+    private final String[] words;
+    private final int[] arena;
+    private final int[] starts;
+    private final CharacterMap.Ordinals ordinals;
+}
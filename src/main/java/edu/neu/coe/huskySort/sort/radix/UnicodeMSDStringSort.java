@@ -3,6 +3,7 @@ package edu.neu.coe.huskySort.sort.radix;
 import edu.neu.coe.huskySort.sort.huskySortUtils.UnicodeCharacter;
 import edu.neu.coe.huskySort.util.LazyLogger;
 
+import java.util.Arrays;
 import java.util.Random;
 
 /**
@@ -19,7 +20,8 @@ public final class UnicodeMSDStringSort extends BaseCountingSort<UnicodeString,
      * @param to   the index of the first element not to sort.
      */
     public void sort(final UnicodeString[] us, final int from, final int to) {
-        doRecursiveSort(us, from, to - from, 0);
+        if (to - from < 2) return;
+        new CountingEngine(characterMap.getOrdinals(us, from, to), to - from).doRecursiveSort(us, from, to, 0);
     }
 
     /**
@@ -29,7 +31,26 @@ public final class UnicodeMSDStringSort extends BaseCountingSort<UnicodeString,
      * @return true if the sort was successful.
      */
     public boolean sortArray(final String[] ws) {
-        return sortAll(UnicodeString.class, ws, x -> new UnicodeString(characterMap, x), UnicodeString::recoverString);
+        // NOTE: the packed form is used unless we are instrumenting (the instrumentation operates on UnicodeStrings).
+        if (helper.instrumented())
+            return sortAll(UnicodeString.class, ws, x -> new UnicodeString(characterMap, x), UnicodeString::recoverString);
+        final PackedUnicodeStrings ps = PackedUnicodeStrings.create(characterMap, ws);
+        final boolean result = sortArray(ps);
+        ps.recoverStrings(ws);
+        return result;
+    }
+
+    /**
+     * Sort the given packed strings (by permuting their starts).
+     * NOTE: the packed strings must have been created with the CharacterMap of this sorter.
+     *
+     * @param ps a PackedUnicodeStrings which will be mutated.
+     * @return true if the sort was successful.
+     */
+    public boolean sortArray(final PackedUnicodeStrings ps) {
+        final int n = ps.size();
+        if (n > 1) new PackedCountingEngine(ps, n).doRecursiveSort(ps.getStarts(), 0, n, 0);
+        return true;
     }
 
     /**
@@ -53,52 +74,190 @@ public final class UnicodeMSDStringSort extends BaseCountingSort<UnicodeString,
     }
 
     /**
-     * Sort from xs[from] to xs[to] (exclusive), ignoring the first d characters of each String.
-     * This method is recursive.
-     *
-     * @param xs   the array to be sorted.
-     * @param from the low index.
-     * @param to   the high index (one above the highest actually processed).
-     * @param d    the number of characters in each UnicodeString to be skipped.
+     * Class to implement the counting (distribution) for one invocation of sort.
+     * The characters are counted in an int[] which is indexed by their dense ordinals (see CharacterMap.Ordinals).
+     * The aux buffer and the counts are allocated once per sort (rather than once per level of recursion)
+     * and only the counts which were actually touched by a level are reset.
+     * <p>
+     * NOTE: where a level touches only a few distinct characters (relative to the radix), the touched ordinals are simply sorted
+     * (a sparse histogram) rather than scanning the whole of counts.
      */
-    private void doRecursiveSort(final UnicodeString[] xs, final int from, final int to, final int d) {
-        assert from >= 0 : "from " + from + " is negative";
-        assert to <= xs.length : "to " + to + " is out of bounds: " + xs.length;
-        final int n = to - from;
-        if (logger.isTraceEnabled())
-            logger.trace("UnicodeMSDStringSort.doRecursiveSort: on " + (d > 0 ? xs[from].charAt(d - 1) : "root") + " from=" + from + ", to=" + to + ", d=" + d);
-        // XXX if there are fewer than two elements, we return immediately because xs is already sorted.
-        if (n < 2) return;
-        // XXX if there is a small number of elements, we switch to insertion sort.
-        if (n < helper.getCutoff()) insertionSort(xs, from, to, d);
-        else {
-            // CONSIDER is this the correct place to allocate aux?
-            final UnicodeString[] aux = new UnicodeString[n];
-            final Counts counts = new Counts();
-            counts.countCharacters(xs, from, to, d);
-            final UnicodeCharacter[] keys = counts.accumulateCounts();
+    private final class CountingEngine {
+
+        /**
+         * Sort from xs[from] to xs[to] (exclusive), ignoring the first d characters of each String.
+         * This method is recursive.
+         *
+         * @param xs   the array to be sorted.
+         * @param from the low index.
+         * @param to   the high index (one above the highest actually processed).
+         * @param d    the number of characters in each UnicodeString to be skipped.
+         */
+        void doRecursiveSort(final UnicodeString[] xs, final int from, final int to, final int d) {
+            assert from >= 0 : "from " + from + " is negative";
+            assert to <= xs.length : "to " + to + " is out of bounds: " + xs.length;
+            final int n = to - from;
+            if (logger.isTraceEnabled())
+                logger.trace("UnicodeMSDStringSort.doRecursiveSort: on " + (d > 0 ? xs[from].charAt(d - 1) : "root") + " from=" + from + ", to=" + to + ", d=" + d);
+            // XXX if there are fewer than two elements, we return immediately because xs is already sorted.
+            if (n < 2) return;
+            // XXX if there is a small number of elements, we switch to insertion sort.
+            if (n < helper.getCutoff()) {
+                insertionSort(xs, from, to, d);
+                return;
+            }
+            int k = 0;
             for (int i = from; i < to; i++) {
-                final UnicodeString xsi = xs[i];
-                counts.copyAndIncrementCount(xsi, aux, d);
+                final int ordinal = ordinals.ordinal(xs[i], d);
+                if (counts[ordinal]++ == 0) touched[k++] = ordinal;
             }
-            if (helper.instrumented()) {
-                final int copies = 2 * n;  // copy and copy back
-                helper.getInstrumenter().incrementCopies(copies);
-                helper.getInstrumenter().incrementHits(n); // this accounts for the counting of the elements.
+            if (helper.instrumented()) helper.getInstrumenter().incrementHits(n); // this accounts for the counting of the elements.
+            if (k == 1) {
+                // XXX all of the elements share the same character at d, so there is nothing to distribute.
+                final int ordinal = touched[0];
+                counts[ordinal] = 0;
+                if (ordinal != ordinals.end()) doRecursiveSort(xs, from, to, d + 1);
+                return;
             }
+            if (k < ordinals.radix() >> SPARSE_SHIFT) Arrays.sort(touched, 0, k);
+            else {
+                k = 0;
+                for (int ordinal = 0; ordinal < counts.length; ordinal++) if (counts[ordinal] > 0) touched[k++] = ordinal;
+            }
+            int total = 0;
+            for (int j = 0; j < k; j++) {
+                final int ordinal = touched[j];
+                final int count = counts[ordinal];
+                counts[ordinal] = total;
+                total += count;
+            }
+            for (int i = from; i < to; i++) {
+                final UnicodeString xsi = xs[i];
+                aux[counts[ordinals.ordinal(xsi, d)]++] = xsi;
+            }
+            for (int j = 0; j < k; j++) counts[touched[j]] = 0;
+            if (helper.instrumented()) helper.getInstrumenter().incrementCopies(2 * n); // copy and copy back
             // XXX Copy back.
             System.arraycopy(aux, 0, xs, from, n);
-            int offset = 0;
-            // XXX For each key, recursively sort the appropriate sub-array on the next character position (p).
+            // XXX For each run of equal characters, recursively sort the appropriate sub-array on the next character position (p).
+            // NOTE: the runs are found again from xs because touched will be overwritten by the recursive calls.
+            final int p = d + 1;
+            int start = from;
+            int current = ordinals.ordinal(xs[from], d);
+            for (int i = from + 1; i < to; i++) {
+                final int ordinal = ordinals.ordinal(xs[i], d);
+                if (ordinal != current) {
+                    if (current != ordinals.end()) doRecursiveSort(xs, start, i, p);
+                    start = i;
+                    current = ordinal;
+                }
+            }
+            if (current != ordinals.end()) doRecursiveSort(xs, start, to, p);
+        }
+
+        CountingEngine(final CharacterMap.Ordinals ordinals, final int n) {
+            this.ordinals = ordinals;
+            this.aux = new UnicodeString[n];
+            this.counts = new int[ordinals.radix()];
+            this.touched = new int[ordinals.radix()];
+        }
+
+        private final CharacterMap.Ordinals ordinals;
+        private final UnicodeString[] aux;
+        private final int[] counts;
+        private final int[] touched;
+    }
+
+    /**
+     * Class to implement the counting (distribution) for one invocation of sort on packed strings.
+     * This is the same as CountingEngine except that the elements are the starts of the strings in the arena of a PackedUnicodeStrings
+     * so that each ordinal is a simple array read.
+     */
+    private final class PackedCountingEngine {
+
+        /**
+         * Sort from starts[from] to starts[to] (exclusive), ignoring the first d characters of each string.
+         * This method is recursive.
+         *
+         * @param starts the offsets of the strings to be sorted.
+         * @param from   the low index.
+         * @param to     the high index (one above the highest actually processed).
+         * @param d      the number of characters in each string to be skipped.
+         */
+        void doRecursiveSort(final int[] starts, final int from, final int to, final int d) {
+            final int n = to - from;
+            if (n < 2) return;
+            if (n < helper.getCutoff()) {
+                insertionSort(starts, from, to, d);
+                return;
+            }
+            int k = 0;
+            for (int i = from; i < to; i++) {
+                final int ordinal = arena[starts[i] + d];
+                if (counts[ordinal]++ == 0) touched[k++] = ordinal;
+            }
+            if (k == 1) {
+                final int ordinal = touched[0];
+                counts[ordinal] = 0;
+                if (ordinal != end) doRecursiveSort(starts, from, to, d + 1);
+                return;
+            }
+            if (k < counts.length >> SPARSE_SHIFT) Arrays.sort(touched, 0, k);
+            else {
+                k = 0;
+                for (int ordinal = 0; ordinal < counts.length; ordinal++) if (counts[ordinal] > 0) touched[k++] = ordinal;
+            }
+            int total = 0;
+            for (int j = 0; j < k; j++) {
+                final int ordinal = touched[j];
+                final int count = counts[ordinal];
+                counts[ordinal] = total;
+                total += count;
+            }
+            for (int i = from; i < to; i++) {
+                final int start = starts[i];
+                aux[counts[arena[start + d]]++] = start;
+            }
+            for (int j = 0; j < k; j++) counts[touched[j]] = 0;
+            System.arraycopy(aux, 0, starts, from, n);
             final int p = d + 1;
-            for (final UnicodeCharacter key : keys) {
-                if (key == UnicodeCharacter.NullChar)
-                    continue;
-                final int index = counts.get(key);
-                doRecursiveSort(xs, from + offset, from + index, p);
-                offset = index;
+            int first = from;
+            int current = arena[starts[from] + d];
+            for (int i = from + 1; i < to; i++) {
+                final int ordinal = arena[starts[i] + d];
+                if (ordinal != current) {
+                    if (current != end) doRecursiveSort(starts, first, i, p);
+                    first = i;
+                    current = ordinal;
+                }
+            }
+            if (current != end) doRecursiveSort(starts, first, to, p);
+        }
+
+        private void insertionSort(final int[] starts, final int from, final int to, final int d) {
+            for (int i = from + 1; i < to; i++) {
+                final int x = starts[i];
+                int j = i;
+                for (; j > from && PackedUnicodeStrings.compareFromD(arena, starts[j - 1], x, d, end) > 0; j--)
+                    starts[j] = starts[j - 1];
+                starts[j] = x;
             }
         }
+
+        PackedCountingEngine(final PackedUnicodeStrings ps, final int n) {
+            final CharacterMap.Ordinals ordinals = ps.getOrdinals();
+            this.arena = ps.getArena();
+            this.end = ordinals.end();
+            this.aux = new int[n];
+            this.counts = new int[ordinals.radix()];
+            this.touched = new int[ordinals.radix()];
+        }
+
+        private final int[] arena;
+        private final int end;
+        private final int[] aux;
+        private final int[] counts;
+        private final int[] touched;
     }
 
     /**
@@ -117,6 +276,11 @@ public final class UnicodeMSDStringSort extends BaseCountingSort<UnicodeString,
                 helper.swap(xs, j, j - 1);
     }
 
+    /**
+     * A level which touches fewer than radix/2^SPARSE_SHIFT distinct characters sorts its touched ordinals rather than scanning all the counts.
+     */
+    private static final int SPARSE_SHIFT = 3;
+
     final static LazyLogger logger = new LazyLogger(UnicodeMSDStringSort.class);
 
     private final CharacterMap characterMap; // NOTE this is used, despite IDEA's analysis.
@@ -6,6 +6,8 @@ import java.util.Arrays;
 
 /**
  * Inner instance class which represents a string of UnicodeCharacter instances.
+ * <p>
+ * NOTE: see also PackedUnicodeStrings, which represents an array of strings without any per-character objects.
  */
 public class UnicodeString implements StringComparable<UnicodeString, UnicodeCharacter> {
     /**
@@ -58,6 +58,31 @@ public class Instrumenter implements Instrumented {
         if (countHits) hits += 2L * n;
     }
 
+    /**
+     * Record the choice of coder made by an adaptive Husky coder, and the time spent making it.
+     *
+     * @param coderName     the name of the chosen coder.
+     * @param samplingNanos the time (in nanoseconds) spent sampling the array and choosing the coder.
+     */
+    public void recordCoderChoice(final String coderName, final long samplingNanos) {
+        this.coderChoice = coderName;
+        this.samplingNanos += samplingNanos;
+    }
+
+    /**
+     * @return the name of the coder most recently chosen by an adaptive Husky coder (or null).
+     */
+    public String getCoderChoice() {
+        return coderChoice;
+    }
+
+    /**
+     * @return the time (in nanoseconds) spent choosing coders since this Instrumenter was initialized.
+     */
+    public long getSamplingNanos() {
+        return samplingNanos;
+    }
+
     /**
      * Update the statPack according to the current counts.
      */
@@ -74,6 +99,8 @@ public class Instrumenter implements Instrumented {
             statPack.add(FIXES, fixes);
         if (countHits)
             statPack.add(HITS, hits);
+        if (coderChoice != null)
+            statPack.add(SAMPLING, samplingNanos);
     }
 
     /**
@@ -88,9 +115,11 @@ public class Instrumenter implements Instrumented {
         copies = 0;
         fixes = 0;
         hits = 0;
+        coderChoice = null;
+        samplingNanos = 0;
         if (n != this.n) {
             this.n = n;
-            this.statPack = new StatPack(n, COMPARES, SWAPS, COPIES, INVERSIONS, FIXES, HITS, INTERIM_INVERSIONS);
+            this.statPack = new StatPack(n, COMPARES, SWAPS, COPIES, INVERSIONS, FIXES, HITS, INTERIM_INVERSIONS, SAMPLING);
             this.countCopies = config.getBoolean(INSTRUMENTING, COPIES);
             this.countSwaps = config.getBoolean(INSTRUMENTING, SWAPS);
             this.countCompares = config.getBoolean(INSTRUMENTING, COMPARES);
@@ -156,6 +185,7 @@ public class Instrumenter implements Instrumented {
     public static final String FIXES = "fixes";
     public static final String INSTRUMENTING = "instrumenting";
     public static final String HITS = "hits";
+    public static final String SAMPLING = "sampling";
 
     /**
      * Public method to get the value of countFixes (because counting fixes is complicated).
@@ -174,4 +204,6 @@ public class Instrumenter implements Instrumented {
 
     private boolean countHits;
     private long hits;
+    private String coderChoice;
+    private long samplingNanos;
 }
@@ -0,0 +1,119 @@
+package edu.neu.coe.huskySort.sort.external;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper.generateRandomAlphaBetaArray;
+import static org.junit.Assert.*;
+
+public class ExternalHuskySortTest {
+
+    @Test
+    public void testSort0() throws IOException {
+        Files.write(input, Arrays.asList("Hello", "Goodbye", "Ciao", "Willkommen"), StandardCharsets.UTF_8);
+        final ExternalHuskySort sorter = new ExternalHuskySort(HuskyCoderFactory.asciiCoder, 3, 2, 16, directory);
+        assertEquals(4, sorter.sort(input, output));
+        assertEquals(Arrays.asList("Ciao", "Goodbye", "Hello", "Willkommen"), Files.readAllLines(output, StandardCharsets.UTF_8));
+        assertEquals(2, sorter.getRuns());
+        assertEquals(1, sorter.getMergePasses());
+    }
+
+    @Test
+    public void testSortEmpty() throws IOException {
+        Files.write(input, new byte[0]);
+        final ExternalHuskySort sorter = new ExternalHuskySort(HuskyCoderFactory.asciiCoder, 10, 2, 64, directory);
+        assertEquals(0, sorter.sort(input, output));
+        assertEquals(0, Files.size(output));
+        assertEquals(0, sorter.getRuns());
+    }
+
+    @Test
+    public void testSortMultiplePasses() throws IOException {
+        final Random random = new Random(0L);
+        final List<String> lines = new ArrayList<>(Arrays.asList(generateRandomAlphaBetaArray(10000, 1, 20)));
+        // NOTE: these words collide (they share their first nine characters), so the merge must compare the Strings.
+        for (int i = 0; i < 1000; i++) lines.add("abcdefghi" + random.nextInt(1000));
+        final String[] unicode = {"中文", "太长的中文字符串", "¥", "Ωmega"};
+        for (int i = 0; i < 1000; i++) lines.add(unicode[random.nextInt(unicode.length)] + random.nextInt(100));
+        Files.write(input, lines, StandardCharsets.UTF_8);
+        // NOTE: the buffer of 32 bytes is smaller than some of the records.
+        final ExternalHuskySort sorter = new ExternalHuskySort(HuskyCoderFactory.unicodeCoder, 500, 4, 32, directory);
+        assertEquals(lines.size(), sorter.sort(input, output));
+        assertEquals(24, sorter.getRuns());
+        assertEquals(3, sorter.getMergePasses());
+        final String[] expected = lines.toArray(new String[0]);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, Files.readAllLines(output, StandardCharsets.UTF_8).toArray(new String[0]));
+        try (final Stream<Path> files = Files.list(directory)) {
+            assertEquals("runs not deleted", 0, files.count());
+        }
+    }
+
+    @Test
+    public void testSortAscii() throws IOException {
+        final String[] words = generateRandomAlphaBetaArray(5000, 4, 12);
+        Files.write(input, Arrays.asList(words), StandardCharsets.UTF_8);
+        final ExternalHuskySort sorter = new ExternalHuskySort(HuskyCoderFactory.asciiCoder, 1000, 8, 1024, directory);
+        assertEquals(words.length, sorter.sort(input, output));
+        assertEquals(5, sorter.getRuns());
+        Arrays.sort(words);
+        assertArrayEquals(words, Files.readAllLines(output, StandardCharsets.UTF_8).toArray(new String[0]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadFanIn() {
+        new ExternalHuskySort(HuskyCoderFactory.asciiCoder, 1000, 1);
+    }
+
+    @Test
+    public void testRunWriterReader() throws IOException {
+        final Path run = Files.createTempFile(directory, "test", ".run");
+        final String[] xs = {"", "a", "a much longer string than the buffer", "中文"};
+        try (final RunWriter writer = new RunWriter(run, 16)) {
+            for (int i = 0; i < xs.length; i++) writer.write(i, xs[i]);
+            assertEquals(xs.length, writer.getRecords());
+        }
+        try (final RunReader reader = new RunReader(run, 16)) {
+            for (int i = 0; i < xs.length; i++) {
+                assertTrue(reader.advance());
+                assertEquals(i, reader.getCode());
+                assertEquals(xs[i], reader.getString());
+            }
+            assertFalse(reader.advance());
+            assertTrue(reader.isExhausted());
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("ExternalHuskySortTest");
+        input = Files.createTempFile("ExternalHuskySortTest", ".in");
+        output = Files.createTempFile("ExternalHuskySortTest", ".out");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            for (final Path file : (Iterable<Path>) files::iterator) Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(directory);
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    private Path directory;
+    private Path input;
+    private Path output;
+}
@@ -0,0 +1,124 @@
+package edu.neu.coe.huskySort.sort.external;
+
+import edu.neu.coe.huskySort.sort.SortException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper.generateRandomAlphaBetaArray;
+import static org.junit.Assert.*;
+
+public class MappedHuskySortTest {
+
+    @Test
+    public void testSort0() throws IOException {
+        Files.write(input, "Hello\nGoodbye\nCiao\nWillkommen\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(4, new MappedHuskySort().sort(input, output));
+        assertEquals(Arrays.asList("Ciao", "Goodbye", "Hello", "Willkommen"), Files.readAllLines(output, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSortCRLFAndNoTrailingNewline() throws IOException {
+        Files.write(input, "b\r\na\r\n\r\nc".getBytes(StandardCharsets.UTF_8));
+        assertEquals(4, new MappedHuskySort().sort(input, output));
+        assertEquals("\na\nb\nc\n", new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSortEmpty() throws IOException {
+        Files.write(input, new byte[0]);
+        assertEquals(0, new MappedHuskySort().sort(input, output));
+        assertEquals(0, Files.size(output));
+    }
+
+    @Test
+    public void testSortTies() throws IOException {
+        // NOTE: these words share (at least) their first eight bytes, so they can only be ordered by the second pass.
+        final String[] words = {"abcdefghZ", "abcdefgh", "abcdefghA", "abcdefghijk", "abcdefgh", "abcdefgiA"};
+        Files.write(input, Arrays.asList(words), StandardCharsets.UTF_8);
+        final MappedHuskySort sorter = new MappedHuskySort();
+        assertEquals(words.length, sorter.sort(input, output));
+        assertEquals(Arrays.asList("abcdefgh", "abcdefgh", "abcdefghA", "abcdefghZ", "abcdefghijk", "abcdefgiA"), Files.readAllLines(output, StandardCharsets.UTF_8));
+        assertEquals(1, sorter.getTieSpans());
+    }
+
+    @Test
+    public void testSortRandomSmallSegments() throws IOException {
+        final Random random = new Random(0L);
+        final List<String> lines = new ArrayList<>(Arrays.asList(generateRandomAlphaBetaArray(10000, 1, 20)));
+        final String[] unicode = {"中文", "太长的中文字符串", "¥", "Ωmega", "zürich", "zurich"};
+        for (int i = 0; i < 1000; i++) lines.add(unicode[random.nextInt(unicode.length)] + random.nextInt(100));
+        Files.write(input, lines, StandardCharsets.UTF_8);
+        // NOTE: segments of 1KB ensure that many lines begin near the end of a segment.
+        assertEquals(lines.size(), new MappedHuskySort(10, 64).sort(input, output));
+        final byte[][] expected = lines.stream().map(w -> w.getBytes(StandardCharsets.UTF_8)).sorted(Arrays::compareUnsigned).toArray(byte[][]::new);
+        final List<String> actual = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(expected.length, actual.size());
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(new String(expected[i], StandardCharsets.UTF_8), actual.get(i));
+    }
+
+    @Test(expected = SortException.class)
+    public void testLineTooLong() throws IOException {
+        Files.write(input, "short\nmuch too long for this sorter\n".getBytes(StandardCharsets.UTF_8));
+        new MappedHuskySort(10, 8).sort(input, output);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadSegmentBits() {
+        new MappedHuskySort(31, 8);
+    }
+
+    @Test
+    public void testOffHeapLongArray() {
+        try (final OffHeapLongArray array = new OffHeapLongArray(4)) {
+            for (int i = 0; i < 100; i++) array.add(i * 3L);
+            assertEquals(100, array.size());
+            assertEquals(99 * 3L, array.get(99));
+            array.swap(1, 98);
+            assertEquals(98 * 3L, array.get(1));
+            assertEquals(3L, array.get(98));
+            array.set(17, -1L);
+            assertEquals(-1L, array.get(17));
+        }
+    }
+
+    @Test
+    public void testOffHeapLongArrayGrowth() {
+        final OffHeapLongArray array = new OffHeapLongArray(12);
+        array.add(42L);
+        assertEquals(OffHeapLongArray.INITIAL_CAPACITY, array.capacity());
+        for (int i = 1; i < 10000; i++) array.add(i * 3L);
+        // NOTE: two full chunks of 4096 and a third chunk which has grown from 1024 to 2048.
+        assertEquals(2 * 4096 + 2048, array.capacity());
+        assertEquals(42L, array.get(0));
+        for (int i = 1; i < 10000; i++) assertEquals(i * 3L, array.get(i));
+        array.close();
+        assertEquals(0, array.size());
+        assertEquals(0, array.capacity());
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        input = Files.createTempFile("MappedHuskySortTest", ".in");
+        output = Files.createTempFile("MappedHuskySortTest", ".out");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    private Path input;
+    private Path output;
+}
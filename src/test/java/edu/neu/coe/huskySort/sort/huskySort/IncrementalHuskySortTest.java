@@ -0,0 +1,73 @@
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IncrementalHuskySortTest {
+
+    @Test
+    public void testInsertAndDrain() {
+        final IncrementalHuskySort<String> sorter = new IncrementalHuskySort<>(HuskyCoderFactory.asciiCoder, 4);
+        sorter.insertAll(new String[]{"Hello", "Goodbye", "Ciao", "Willkommen", "abcdefghijklZ", "abcdefghijklA", "Au revoir"});
+        assertEquals(7, sorter.size());
+        assertEquals(1, sorter.getRuns());
+        assertEquals(Arrays.asList("Au revoir", "Ciao", "Goodbye", "Hello", "Willkommen", "abcdefghijklA", "abcdefghijklZ"), sorter.drain());
+        assertEquals(0, sorter.size());
+        assertTrue(sorter.drain().isEmpty());
+    }
+
+    @Test
+    public void testSortedIsIncremental() {
+        final IncrementalHuskySort<String> sorter = new IncrementalHuskySort<>(HuskyCoderFactory.unicodeCoder, 100);
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(1000, 2, 12);
+        final String[] ys = HuskySortHelper.generateRandomAlphaBetaArray(1000, 2, 12);
+        sorter.insertAll(xs);
+        final List<String> first = sorter.sorted();
+        assertEquals(1, sorter.getRuns());
+        sorter.insertAll(ys);
+        final List<String> second = sorter.sorted();
+        final String[] expectedFirst = xs.clone();
+        Arrays.sort(expectedFirst);
+        assertArrayEquals(expectedFirst, first.toArray(new String[0]));
+        final String[] expectedSecond = Arrays.copyOf(xs, 2000);
+        System.arraycopy(ys, 0, expectedSecond, 1000, 1000);
+        Arrays.sort(expectedSecond);
+        assertArrayEquals(expectedSecond, second.toArray(new String[0]));
+        assertEquals(2000, sorter.size());
+    }
+
+    @Test
+    public void testRunsAreLogarithmic() {
+        final IncrementalHuskySort<Integer> sorter = new IncrementalHuskySort<>(HuskyCoderFactory.integerCoder, 16);
+        final Random random = new Random(0L);
+        for (int i = 0; i < 16 * 1000; i++) sorter.insert(random.nextInt());
+        assertTrue(sorter.getRuns() <= 10);
+        final List<Integer> result = sorter.drain();
+        assertEquals(16000, result.size());
+        for (int i = 1; i < result.size(); i++) assertTrue(result.get(i - 1) <= result.get(i));
+    }
+
+    @Test
+    public void testCollector() {
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(20000, 2, 15);
+        final List<String> sequential = Arrays.stream(xs).collect(IncrementalHuskySort.toSortedList(HuskyCoderFactory.englishCoder));
+        final List<String> parallel = Arrays.stream(xs).parallel().collect(IncrementalHuskySort.toSortedList(HuskyCoderFactory.englishCoder));
+        Arrays.sort(xs);
+        assertArrayEquals(xs, sequential.toArray(new String[0]));
+        assertArrayEquals(xs, parallel.toArray(new String[0]));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSortedIsUnmodifiable() {
+        final IncrementalHuskySort<String> sorter = new IncrementalHuskySort<>(HuskyCoderFactory.asciiCoder);
+        sorter.insert("x");
+        sorter.sorted().set(0, "y");
+    }
+}
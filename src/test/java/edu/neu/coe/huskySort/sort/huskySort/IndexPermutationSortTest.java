@@ -0,0 +1,117 @@
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyBuffers;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.util.BaseHelper;
+import edu.neu.coe.huskySort.util.Config;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper.generateRandomAlphaBetaArray;
+import static org.junit.Assert.*;
+
+public class IndexPermutationSortTest {
+
+    @Test
+    public void testSort() {
+        final int N = 10000;
+        final Random random = new Random(0L);
+        final Integer[] xs = new Integer[N];
+        final long[] longs = new long[N];
+        for (int i = 0; i < N; i++) {
+            xs[i] = random.nextInt(1000);
+            longs[i] = xs[i];
+        }
+        IndexPermutationSort.sort(xs, longs, 0, N);
+        final Integer[] expected = Arrays.copyOf(xs, N);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, xs);
+        for (int i = 0; i < N; i++) assertEquals(xs[i].longValue(), longs[i]);
+    }
+
+    @Test
+    public void testSortSubArray() {
+        final String[] xs = {"z", "d", "c", "b", "a", "y"};
+        final long[] longs = HuskyCoderFactory.asciiCoder.huskyEncode(xs).longs;
+        IndexPermutationSort.sort(xs, longs, 1, 5);
+        assertArrayEquals(new String[]{"z", "a", "b", "c", "d", "y"}, xs);
+    }
+
+    @Test
+    public void testSortBuffers() {
+        final HuskyBuffers buffers = new HuskyBuffers();
+        final String[] xs = {"z", "d", "c", "b", "a", "y"};
+        final long[] longs = HuskyCoderFactory.asciiCoder.huskyEncode(xs).longs;
+        IndexPermutationSort.sort(xs, longs, 1, 5, buffers);
+        assertArrayEquals(new String[]{"z", "a", "b", "c", "d", "y"}, xs);
+        // NOTE: the indices and the copy of xs are taken from the buffers.
+        final int[] indices = buffers.getAuxInts(0);
+        assertTrue(indices.length >= 4);
+        final String[] ys = {"b", "a"};
+        IndexPermutationSort.sort(ys, HuskyCoderFactory.asciiCoder.huskyEncode(ys).longs, 0, 2, buffers);
+        assertArrayEquals(new String[]{"a", "b"}, ys);
+        assertSame(indices, buffers.getAuxInts(0));
+    }
+
+    @Test
+    public void testGather() {
+        final String[] xs = {"x", "a", "b", "c"};
+        IndexPermutationSort.gather(xs, new int[]{3, 1, 2}, 1);
+        assertArrayEquals(new String[]{"x", "c", "a", "b"}, xs);
+    }
+
+    @Test
+    public void testPureHuskySortIndexed() {
+        final int N = 100000;
+        final String[] xs = generateRandomAlphaBetaArray(N, 4, 12);
+        final String[] expected = Arrays.copyOf(xs, N);
+        Arrays.sort(expected);
+        new PureHuskySort<>(HuskyCoderFactory.asciiCoder, false, false, true).sort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testIntroHuskySortIndexed() {
+        final int N = 100000;
+        final String[] xs = generateRandomAlphaBetaArray(N, 4, 12);
+        final IntroHuskySort<String> sorter = new IntroHuskySort<>("IntroHuskySort/Indexed", HuskyCoderFactory.asciiCoder, Arrays::sort, config);
+        assertFalse(sorter.isIndexPermutation());
+        sorter.setIndexPermutation(true);
+        final String[] ys = sorter.sort(xs);
+        final String[] expected = Arrays.copyOf(xs, N);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, ys);
+        sorter.close();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testParallelIntroHuskySortIndexed() {
+        final ParallelIntroHuskySort<String> sorter = new ParallelIntroHuskySort<>(HuskyCoderFactory.asciiCoder, config);
+        try {
+            assertFalse(sorter.isIndexPermutation());
+            sorter.setIndexPermutation(true);
+        } finally {
+            sorter.close();
+        }
+    }
+
+    @Test
+    public void testInstrumentedIntroHuskySortIndexed() {
+        final IntroHuskySort<String> sorter = new IntroHuskySort<>("IntroHuskySort/Indexed", HuskyCoderFactory.asciiCoder, Arrays::sort, config.copy(Config.HELPER, BaseHelper.INSTRUMENT, "true"));
+        sorter.setIndexPermutation(true);
+        final String[] xs = generateRandomAlphaBetaArray(1000, 4, 12);
+        assertTrue("sorted", sorter.getHelper().sorted(sorter.sort(xs)));
+        sorter.close();
+    }
+
+    @BeforeClass
+    public static void before() throws IOException {
+        config = Config.load(IndexPermutationSortTest.class);
+    }
+
+    private static Config config;
+}
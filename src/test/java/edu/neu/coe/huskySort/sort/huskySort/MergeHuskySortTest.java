@@ -45,6 +45,17 @@ public class MergeHuskySortTest {
         assertTrue("sorted", helper.sorted(xs));
     }
 
+    @Test
+    public void testSortLongPerfect() {
+        // NOTE: longCoder is perfect so the first pass alone must yield a sorted array.
+        final MergeHuskySort<Long> sorter = new MergeHuskySort<>(HuskyCoderFactory.longCoder);
+        final Random random = new Random(0L);
+        final Long[] xs = new Long[1000];
+        for (int i = 0; i < xs.length; i++) xs[i] = random.nextLong();
+        sorter.sort(xs);
+        assertTrue("sorted", new ComparableSortHelper<Long>("dummy helper").sorted(xs));
+    }
+
     @Test
     public void testSortString4() {
         final String[] xs = {"Hello", "Goodbye", "Ciao", "Willkommen"};
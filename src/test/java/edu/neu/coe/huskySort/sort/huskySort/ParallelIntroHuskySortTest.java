@@ -0,0 +1,81 @@
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.util.Config;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import static edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper.generateRandomAlphaBetaArray;
+import static org.junit.Assert.*;
+
+public class ParallelIntroHuskySortTest {
+
+    @Test
+    public void testSortString1() {
+        final String[] xs = {"Hello", "Goodbye", "Ciao", "Willkommen"};
+        final ParallelIntroHuskySort<String> sorter = new ParallelIntroHuskySort<>(HuskyCoderFactory.asciiCoder, config);
+        assertTrue("sorted", sorter.getHelper().sorted(sorter.sort(xs)));
+        sorter.close();
+    }
+
+    @Test
+    public void testSortString2() {
+        final int N = 100000;
+        final String[] xs = generateRandomAlphaBetaArray(N, 4, 12);
+        final ParallelIntroHuskySort<String> sorter = new ParallelIntroHuskySort<>("ParallelIntroHuskySort", HuskyCoderFactory.asciiCoder, Arrays::sort, config, 4, 256);
+        assertEquals(4, sorter.getParallelism());
+        assertEquals(256, sorter.getParallelThreshold());
+        final String[] ys = sorter.sort(xs);
+        assertTrue("sorted", sorter.getHelper().sorted(ys));
+        final String[] expected = Arrays.copyOf(xs, N);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, ys);
+        sorter.close();
+    }
+
+    @Test
+    public void testSortString3() {
+        final int N = 50000;
+        final Random random = new Random(0L);
+        final String[] xs = new String[N];
+        for (int i = 0; i < N; i++)
+            xs[i] = BigInteger.valueOf(random.nextInt(1000000000)).multiply(BigInteger.valueOf(1000000)).toString();
+        final ParallelIntroHuskySort<String> sorter = new ParallelIntroHuskySort<>("ParallelIntroHuskySort", HuskyCoderFactory.asciiCoder, Arrays::sort, config, 2, 64);
+        assertTrue("sorted", sorter.getHelper().sorted(sorter.sort(xs)));
+        sorter.close();
+    }
+
+    @Test
+    public void testSortInteger() {
+        final int N = 100000;
+        final Random random = new Random(0L);
+        final Integer[] xs = new Integer[N];
+        for (int i = 0; i < N; i++) xs[i] = random.nextInt();
+        // NOTE: integerCoder is perfect so the post-sorter must never be invoked.
+        final ParallelIntroHuskySort<Integer> sorter = new ParallelIntroHuskySort<>("ParallelIntroHuskySort", HuskyCoderFactory.integerCoder, ys -> fail("post-sorter invoked"), config, 0, 1024);
+        assertTrue("sorted", sorter.getHelper().sorted(sorter.sort(xs)));
+        sorter.close();
+    }
+
+    @Test
+    public void testConfig() {
+        final Config config = ParallelIntroHuskySortTest.config.copy(ParallelIntroHuskySort.HUSKYHELPER, ParallelIntroHuskySort.PARALLELISM, "3")
+                .copy(ParallelIntroHuskySort.HUSKYHELPER, ParallelIntroHuskySort.PARALLEL_THRESHOLD, "1000");
+        final ParallelIntroHuskySort<String> sorter = new ParallelIntroHuskySort<>(HuskyCoderFactory.asciiCoder, config);
+        assertEquals(3, sorter.getParallelism());
+        assertEquals(1000, sorter.getParallelThreshold());
+        sorter.close();
+    }
+
+    @BeforeClass
+    public static void before() throws IOException {
+        config = Config.load(ParallelIntroHuskySortTest.class);
+    }
+
+    private static Config config;
+}
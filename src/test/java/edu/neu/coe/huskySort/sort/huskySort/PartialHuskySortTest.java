@@ -0,0 +1,81 @@
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.util.Config;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper.generateRandomAlphaBetaArray;
+import static org.junit.Assert.*;
+
+public class PartialHuskySortTest {
+
+    @Test
+    public void testSortString1() {
+        final String[] xs = {"Hello", "Goodbye", "Ciao", "Willkommen", "Au revoir"};
+        final PartialHuskySort<String> sorter = new PartialHuskySort<>(HuskyCoderFactory.asciiCoder, 2, config);
+        final String[] ys = sorter.sort(xs);
+        assertArrayEquals(new String[]{"Au revoir", "Ciao"}, Arrays.copyOf(ys, 2));
+        assertTrue(sorter.postProcess(ys));
+    }
+
+    @Test
+    public void testSortString2() {
+        final int N = 10000;
+        final String[] xs = generateRandomAlphaBetaArray(N, 4, 12);
+        final PartialHuskySort<String> sorter = new PartialHuskySort<>(HuskyCoderFactory.asciiCoder, 100, config);
+        final String[] ys = sorter.sort(xs);
+        final String[] expected = Arrays.copyOf(xs, N);
+        Arrays.sort(expected);
+        assertArrayEquals(Arrays.copyOf(expected, 100), Arrays.copyOf(ys, 100));
+        sorter.close();
+    }
+
+    @Test
+    public void testSortStringTiesAtBoundary() {
+        // NOTE: all of these strings have the same (ASCII) code, so the top-k can only be determined by the second pass.
+        final int N = 1000;
+        final Random random = new Random(0L);
+        final String[] xs = new String[N];
+        for (int i = 0; i < N; i++) xs[i] = "abcdefghijkl" + random.nextInt(100000);
+        final PartialHuskySort<String> sorter = new PartialHuskySort<>(HuskyCoderFactory.asciiCoder, 10, config);
+        final String[] ys = sorter.sort(xs);
+        final String[] expected = Arrays.copyOf(xs, N);
+        Arrays.sort(expected);
+        assertArrayEquals(Arrays.copyOf(expected, 10), Arrays.copyOf(ys, 10));
+    }
+
+    @Test
+    public void testSortIntegerOrdered() {
+        final int N = 10000;
+        final Integer[] xs = new Integer[N];
+        // NOTE: input which is already in order must not provoke quadratic behavior.
+        for (int i = 0; i < N; i++) xs[i] = N - i;
+        final PartialHuskySort<Integer> sorter = new PartialHuskySort<>("PartialHuskySort", HuskyCoderFactory.integerCoder, 5, config);
+        final Integer[] ys = sorter.sort(xs);
+        assertArrayEquals(new Integer[]{1, 2, 3, 4, 5}, Arrays.copyOf(ys, 5));
+    }
+
+    @Test
+    public void testSortKLargerThanN() {
+        final String[] xs = {"Hello", "Goodbye", "Ciao"};
+        final PartialHuskySort<String> sorter = new PartialHuskySort<>(HuskyCoderFactory.asciiCoder, 10, config);
+        assertArrayEquals(new String[]{"Ciao", "Goodbye", "Hello"}, sorter.sort(xs));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeK() {
+        new PartialHuskySort<>(HuskyCoderFactory.asciiCoder, -1, config);
+    }
+
+    @BeforeClass
+    public static void before() throws IOException {
+        config = Config.load(PartialHuskySortTest.class);
+    }
+
+    private static Config config;
+}
@@ -0,0 +1,127 @@
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveHuskySortTest {
+
+    @Test
+    public void testSortIntegers() {
+        final Random random = new Random(0L);
+        final Integer[] xs = new Integer[10000];
+        for (int i = 0; i < xs.length; i++) xs[i] = random.nextInt();
+        xs[0] = Integer.MIN_VALUE;
+        xs[1] = Integer.MAX_VALUE;
+        final Integer[] expected = xs.clone();
+        Arrays.sort(expected);
+        final Integer[] original = xs.clone();
+        new PrimitiveHuskySort<>(HuskyCoderFactory.integerCoder).sort(xs);
+        assertArrayEquals(expected, xs);
+        // NOTE: the codes of Integers can always be packed with their indices, so the original elements are preserved.
+        for (final Integer x : xs) assertTrue(Arrays.stream(original).anyMatch(y -> y == x));
+    }
+
+    @Test
+    public void testSortIntegersStable() {
+        final Integer[] xs = new Integer[1000];
+        // NOTE: these values are outside the Integer cache, so that equal elements are distinct objects.
+        for (int i = 0; i < xs.length; i++) xs[i] = Integer.valueOf(1000 + i % 10);
+        assertNotSame(xs[0], xs[10]);
+        final Integer[] original = xs.clone();
+        new PrimitiveHuskySort<>(HuskyCoderFactory.integerCoder).sort(xs);
+        for (int i = 0; i < xs.length; i++) assertSame(original[i / 100 + 10 * (i % 100)], xs[i]);
+    }
+
+    @Test
+    public void testSortLongs() {
+        final Random random = new Random(0L);
+        final Long[] xs = new Long[10000];
+        for (int i = 0; i < xs.length; i++) xs[i] = random.nextLong();
+        xs[0] = Long.MIN_VALUE;
+        xs[1] = Long.MAX_VALUE;
+        final Long[] expected = xs.clone();
+        Arrays.sort(expected);
+        new PrimitiveHuskySort<>(HuskyCoderFactory.longCoder).sort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testSortDoubles() {
+        final Random random = new Random(0L);
+        final Double[] xs = new Double[10000];
+        for (int i = 0; i < xs.length; i++) xs[i] = random.nextGaussian() * 1E10;
+        xs[0] = -0.0;
+        xs[1] = 0.0;
+        xs[2] = Double.NEGATIVE_INFINITY;
+        xs[3] = Double.NaN;
+        xs[4] = Double.MIN_VALUE;
+        xs[5] = -Double.MAX_VALUE;
+        final Double[] expected = xs.clone();
+        Arrays.sort(expected);
+        new PrimitiveHuskySort<>(HuskyCoderFactory.perfectDoubleCoder).sort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testSortDates() {
+        final Random random = new Random(0L);
+        final Date[] xs = new Date[10000];
+        for (int i = 0; i < xs.length; i++) xs[i] = new Date(random.nextInt(Integer.MAX_VALUE) * 1000L);
+        final Date[] expected = xs.clone();
+        Arrays.sort(expected);
+        new PrimitiveHuskySort<>(HuskyCoderFactory.dateCoder).sort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testSortTimestampsWide() {
+        final Random random = new Random(0L);
+        // NOTE: the range of these codes is too wide for the index to be packed with the code.
+        final Timestamp[] xs = new Timestamp[10000];
+        for (int i = 0; i < xs.length; i++) xs[i] = new Timestamp(random.nextLong() >> 4);
+        final Timestamp[] expected = xs.clone();
+        Arrays.sort(expected);
+        final Timestamp[] original = xs.clone();
+        new PrimitiveHuskySort<Date>(HuskyCoderFactory.dateCoder).sort(xs);
+        assertArrayEquals(expected, xs);
+        // NOTE: the original (mutable) objects are preserved.
+        final Set<Timestamp> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+        identities.addAll(Arrays.asList(original));
+        for (final Timestamp x : xs) assertTrue(identities.contains(x));
+    }
+
+    @Test
+    public void testSortTrivial() {
+        final Integer[] xs = {};
+        new PrimitiveHuskySort<>(HuskyCoderFactory.integerCoder).sort(xs);
+        final Integer[] ys = {42};
+        new PrimitiveHuskySort<>(HuskyCoderFactory.integerCoder).sort(ys);
+        assertEquals(42, ys[0].intValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testImperfectCoder() {
+        new PrimitiveHuskySort<>(HuskyCoderFactory.doubleCoder);
+    }
+
+    @Test
+    public void testPerfectDoubleCoder() {
+        final double[] ds = {Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.0, -Double.MIN_VALUE, -0.0, 0.0, Double.MIN_VALUE, 1.0, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN};
+        for (int i = 0; i < ds.length; i++) {
+            assertEquals(Double.valueOf(ds[i]), HuskyCoderFactory.perfectDoubleCoder.huskyDecode(HuskyCoderFactory.perfectDoubleCoder.huskyEncode(ds[i])));
+            if (i > 0)
+                assertTrue(HuskyCoderFactory.perfectDoubleCoder.huskyEncode(ds[i - 1]) < HuskyCoderFactory.perfectDoubleCoder.huskyEncode(ds[i]));
+        }
+        assertTrue(HuskyCoderFactory.perfectDoubleCoder.perfect());
+    }
+}
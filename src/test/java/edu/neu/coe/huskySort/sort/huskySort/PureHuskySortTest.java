@@ -8,6 +8,7 @@ import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
 import edu.neu.coe.huskySort.util.PrivateMethodInvoker;
 import org.junit.Test;
 
+import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Arrays;
 
@@ -49,6 +50,16 @@ public class PureHuskySortTest {
         assertTrue("sorted", helper.sorted(xs));
     }
 
+    @Test
+    public void testSortCoded() {
+        final PureHuskySort<String> sorter = new PureHuskySort<>(HuskyCoderFactory.asciiCoder, false, false);
+        final String[] xs = {"Willkommen", "Goodbye", "abcdefghijklZ", "Ciao", "abcdefghijklA", "Hello"};
+        final Coding coding = sorter.sortCoded(xs);
+        assertTrue("sorted", helper.sorted(xs));
+        assertFalse(coding.perfect);
+        for (int i = 0; i < xs.length; i++) assertEquals(HuskyCoderFactory.asciiCoder.huskyEncode(xs[i]), coding.longs[i]);
+    }
+
     @Test
     public void testSortString4() {
         final String[] xs = {"Hello", "Goodbye", "Ciao", "Willkommen"};
@@ -97,6 +108,24 @@ public class PureHuskySortTest {
         assertEquals(2, privateMethodInvoker.invokePrivate("floor_lg", 5));
     }
 
+    @Test
+    public void testSortNonMonotonic() {
+        // NOTE: the code of 1E19 (its longValue) overflows, so the codes are not in the same order as the elements.
+        final BigDecimal[] xs = {new BigDecimal("1E19"), BigDecimal.valueOf(5), BigDecimal.valueOf(3)};
+        new PureHuskySort<>(HuskyCoderFactory.bigDecimalCoder, false, false).sort(xs);
+        assertArrayEquals(new BigDecimal[]{BigDecimal.valueOf(3), BigDecimal.valueOf(5), new BigDecimal("1E19")}, xs);
+    }
+
+    @Test
+    public void testSortTieSpan() {
+        final PureHuskySort<String> sorter = new PureHuskySort<>(HuskyCoderFactory.asciiCoder, false, false, false, true);
+        final String[] xs = {"Willkommen", "Goodbye", "abcdefghijklZ", "Ciao", "abcdefghijklA", "Hello"};
+        final Coding coding = sorter.sortCoded(xs);
+        assertTrue("sorted", helper.sorted(xs));
+        assertFalse(coding.perfect);
+        for (int i = 0; i < xs.length; i++) assertEquals(HuskyCoderFactory.asciiCoder.huskyEncode(xs[i]), coding.longs[i]);
+    }
+
     @Test
     public void testWithInsertionSort() {
         final PureHuskySort<String> sorter = new PureHuskySort<>(HuskyCoderFactory.asciiCoder, false, true);
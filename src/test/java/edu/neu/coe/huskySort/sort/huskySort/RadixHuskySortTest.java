@@ -0,0 +1,84 @@
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.util.Config;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import static edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper.generateRandomAlphaBetaArray;
+import static org.junit.Assert.*;
+
+public class RadixHuskySortTest {
+
+    @Test
+    public void testSortString1() {
+        final String[] xs = {"Hello", "Goodbye", "Ciao", "Willkommen"};
+        final RadixHuskySort<String> sorter = new RadixHuskySort<>(HuskyCoderFactory.asciiCoder, config);
+        assertTrue("sorted", sorter.getHelper().sorted(sorter.sort(xs)));
+    }
+
+    @Test
+    public void testSortString2() {
+        final int N = 10000;
+        final String[] xs = generateRandomAlphaBetaArray(N, 4, 12);
+        final RadixHuskySort<String> sorter = new RadixHuskySort<>(HuskyCoderFactory.asciiCoder, config);
+        final String[] ys = sorter.sort(xs);
+        final String[] expected = Arrays.copyOf(xs, N);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, ys);
+        // NOTE: sort again to make sure that the auxiliary arrays are reused correctly.
+        final String[] zs = generateRandomAlphaBetaArray(N, 4, 12);
+        assertTrue("sorted", sorter.getHelper().sorted(sorter.sort(zs)));
+        sorter.close();
+    }
+
+    @Test
+    public void testSortString3() {
+        final int N = 10000;
+        final Random random = new Random(0L);
+        final String[] xs = new String[N];
+        for (int i = 0; i < N; i++)
+            xs[i] = BigInteger.valueOf(random.nextInt(1000000000)).multiply(BigInteger.valueOf(1000000)).toString();
+        final RadixHuskySort<String> sorter = new RadixHuskySort<>("RadixHuskySort/11", HuskyCoderFactory.asciiCoder, Arrays::sort, config, 11);
+        assertTrue("sorted", sorter.getHelper().sorted(sorter.sort(xs)));
+    }
+
+    @Test
+    public void testSortInteger() {
+        final int N = 10000;
+        final Random random = new Random(0L);
+        final Integer[] xs = new Integer[N];
+        // NOTE: these include negative values, so the sign bit must be handled correctly.
+        for (int i = 0; i < N; i++) xs[i] = random.nextInt();
+        final RadixHuskySort<Integer> sorter = new RadixHuskySort<>("RadixHuskySort", HuskyCoderFactory.integerCoder, ys -> fail("post-sorter invoked"), config, 8);
+        assertTrue("sorted", sorter.getHelper().sorted(sorter.sort(xs)));
+    }
+
+    @Test
+    public void testSortLong() {
+        final int N = 10000;
+        final Random random = new Random(0L);
+        final Long[] xs = new Long[N];
+        // NOTE: only the low-order bits vary, so most of the passes should be skipped.
+        for (int i = 0; i < N; i++) xs[i] = (long) random.nextInt(1000);
+        final RadixHuskySort<Long> sorter = new RadixHuskySort<>("RadixHuskySort", HuskyCoderFactory.longCoder, Arrays::sort, config, 11);
+        assertTrue("sorted", sorter.getHelper().sorted(sorter.sort(xs)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRadixBits() {
+        new RadixHuskySort<>("RadixHuskySort", HuskyCoderFactory.longCoder, Arrays::sort, config, 17);
+    }
+
+    @BeforeClass
+    public static void before() throws IOException {
+        config = Config.load(RadixHuskySortTest.class);
+    }
+
+    private static Config config;
+}
@@ -0,0 +1,79 @@
+package edu.neu.coe.huskySort.sort.huskySort;
+
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskyCoderFactory;
+import edu.neu.coe.huskySort.sort.huskySortUtils.HuskySortHelper;
+import edu.neu.coe.huskySort.sort.huskySortUtils.WideCoding;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class WideHuskySortTest {
+
+    @Test
+    public void testSortString1() {
+        final String[] xs = {"Hello", "Goodbye", "Ciao", "Willkommen", "Au revoir"};
+        final WideHuskySort<String> sorter = new WideHuskySort<>(HuskyCoderFactory.wideAsciiCoder);
+        final WideCoding coding = sorter.sortCoded(xs);
+        assertArrayEquals(new String[]{"Au revoir", "Ciao", "Goodbye", "Hello", "Willkommen"}, xs);
+        assertTrue(coding.perfect);
+    }
+
+    @Test
+    public void testSortPaths() {
+        final int N = 10000;
+        final String[] xs = HuskySortHelper.generateRandomPathArray(N, 3);
+        final String[] expected = Arrays.copyOf(xs, N);
+        Arrays.sort(expected);
+        new WideHuskySort<>(HuskyCoderFactory.wideAsciiCoder).sort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testSortPerfect() {
+        // NOTE: these strings are all longer than 9 characters (so not perfect for the ASCII coder) but no longer than 18.
+        final int N = 1000;
+        final Random random = new Random(0L);
+        final String[] xs = new String[N];
+        for (int i = 0; i < N; i++) xs[i] = "abcdefghij" + random.nextInt(100000);
+        final String[] expected = Arrays.copyOf(xs, N);
+        Arrays.sort(expected);
+        final WideCoding coding = new WideHuskySort<>(HuskyCoderFactory.wideAsciiCoder).sortCoded(xs);
+        assertTrue(coding.perfect);
+        assertArrayEquals(expected, xs);
+        for (int i = 1; i < N; i++)
+            assertTrue(coding.longs[i - 1] < coding.longs[i] || coding.longs[i - 1] == coding.longs[i] && Long.compareUnsigned(coding.lows[i - 1], coding.lows[i]) <= 0);
+    }
+
+    @Test
+    public void testSortImperfect() {
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(20000, 10, 30);
+        final String[] expected = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(expected);
+        new WideHuskySort<>(HuskyCoderFactory.wideEnglishCoder).sort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testSortOrdered() {
+        final String[] xs = HuskySortHelper.generateRandomPathArray(5000, 2);
+        Arrays.sort(xs);
+        final String[] expected = Arrays.copyOf(xs, xs.length);
+        for (int i = 0; i < xs.length / 2; i++) {
+            final String x = xs[i];
+            xs[i] = xs[xs.length - 1 - i];
+            xs[xs.length - 1 - i] = x;
+        }
+        new WideHuskySort<>(HuskyCoderFactory.wideAsciiCoder).sort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testSortUnicode() {
+        final String[] xs = {"中文中文中文B", "中文中文中文A", "abc", "中文", "中文中文中文A2", "中"};
+        new WideHuskySort<>(HuskyCoderFactory.wideUnicodeCoder).sort(xs);
+        assertArrayEquals(new String[]{"abc", "中", "中文", "中文中文中文A", "中文中文中文A2", "中文中文中文B"}, xs);
+    }
+}
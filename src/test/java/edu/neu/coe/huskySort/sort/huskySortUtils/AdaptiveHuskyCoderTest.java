@@ -0,0 +1,105 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import edu.neu.coe.huskySort.sort.huskySort.IntroHuskySort;
+import edu.neu.coe.huskySort.sort.huskySort.PureHuskySort;
+import edu.neu.coe.huskySort.util.Config;
+import edu.neu.coe.huskySort.util.Instrumenter;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveHuskyCoderTest {
+
+    @Test
+    public void testLevel() {
+        assertEquals(AdaptiveHuskyCoder.ENGLISH, AdaptiveHuskyCoder.level("Hello"));
+        assertEquals(AdaptiveHuskyCoder.ASCII, AdaptiveHuskyCoder.level("Hello World"));
+        assertEquals(AdaptiveHuskyCoder.ASCII, AdaptiveHuskyCoder.level("abc123"));
+        // NOTE: only the first ten characters matter to the English coder.
+        assertEquals(AdaptiveHuskyCoder.ENGLISH, AdaptiveHuskyCoder.level("abcdefghij 123"));
+        assertEquals(AdaptiveHuskyCoder.UTF8, AdaptiveHuskyCoder.level("café"));
+        // NOTE: only the first nine characters matter to the ASCII coder.
+        assertEquals(AdaptiveHuskyCoder.ASCII, AdaptiveHuskyCoder.level("abc def gé"));
+        assertEquals(AdaptiveHuskyCoder.UTF8, AdaptiveHuskyCoder.level("中文"));
+        assertEquals(AdaptiveHuskyCoder.UNICODE, AdaptiveHuskyCoder.level("a𝒑"));
+        assertEquals(AdaptiveHuskyCoder.ENGLISH, AdaptiveHuskyCoder.level(""));
+        // NOTE: '@' is encoded by the English coder as zero, the same as the end of a String.
+        assertEquals(AdaptiveHuskyCoder.ASCII, AdaptiveHuskyCoder.level("A@"));
+        assertEquals(AdaptiveHuskyCoder.ENGLISH, AdaptiveHuskyCoder.level("A"));
+    }
+
+    @Test
+    public void testSortAt() {
+        final String[] xs = {"C@", "B", "A@", "C", "A", "A@@", "B@A", "BA"};
+        final String[] expected = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(expected);
+        new PureHuskySort<>(HuskyCoderFactory.adaptiveCoder, false, false, false, true).sort(xs);
+        assertArrayEquals(expected, xs);
+        assertSame(HuskyCoderFactory.asciiCoder, HuskyCoderFactory.adaptiveCoder.adapt(xs));
+    }
+
+    @Test
+    public void testAdapt() {
+        final AdaptiveHuskyCoder coder = HuskyCoderFactory.adaptiveCoder;
+        assertSame(HuskyCoderFactory.englishCoder, coder.adapt(new String[]{"Hello", "Goodbye", "Ciao"}));
+        assertSame(HuskyCoderFactory.asciiCoder, coder.adapt(new String[]{"Hello", "Goodbye", "Au revoir"}));
+        assertSame(HuskyCoderFactory.utf8Coder, coder.adapt(new String[]{"Hello", "Grüß Gott", "Ciao"}));
+        assertSame(HuskyCoderFactory.unicodeCoder, coder.adapt(new String[]{"中文名字", "中华人民共和国", "汉字"}));
+        assertSame(HuskyCoderFactory.unicodeCoder, coder.adapt(new String[]{"Hello", "a𝒑"}));
+    }
+
+    @Test
+    public void testAdaptBeyondSample() {
+        // NOTE: the only element which requires the ASCII coder is not in the sample.
+        final AdaptiveHuskyCoder coder = new AdaptiveHuskyCoder(4);
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(1000, 2, 8);
+        xs[1] = "x y";
+        assertEquals(AdaptiveHuskyCoder.ENGLISH, coder.chooseLevel(xs));
+        assertSame(HuskyCoderFactory.asciiCoder, coder.adapt(xs));
+    }
+
+    @Test
+    public void testSortMixed() {
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(20000, 2, 12);
+        xs[10] = "Grüß Gott";
+        xs[20] = "@home";
+        xs[30] = "123";
+        xs[40] = "中文";
+        final String[] expected = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(expected);
+        new PureHuskySort<>(HuskyCoderFactory.adaptiveCoder, false, false).sort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testSequenceCoderByName() {
+        assertSame(HuskyCoderFactory.adaptiveCoder, HuskySortHelper.getSequenceCoderByName("Adaptive"));
+        assertSame(HuskyCoderFactory.utf8Coder, HuskySortHelper.getSequenceCoderByName("UTF-8"));
+    }
+
+    @Test
+    public void testUtf8Coder() {
+        final String[] xs = {"", "a", "caffè latte", "café", "cafë", "zz", "ÿ", "中", "中文"};
+        for (int i = 1; i < xs.length; i++)
+            assertTrue(xs[i - 1] + ", " + xs[i], HuskyCoderFactory.utf8Coder.huskyEncode(xs[i - 1]) < HuskyCoderFactory.utf8Coder.huskyEncode(xs[i]));
+        // NOTE: an unpaired surrogate does not cause an exception.
+        HuskyCoderFactory.utf8Coder.huskyEncode("a\uD835");
+    }
+
+    @Test
+    public void testInstrumenter() throws IOException {
+        final Config config = Config.load(AdaptiveHuskyCoderTest.class).copy("helper", "instrument", "true");
+        final IntroHuskySort<String> sorter = new IntroHuskySort<>("IntroHuskySort/Adaptive", HuskyCoderFactory.adaptiveCoder, Arrays::sort, config);
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(1000, 2, 12);
+        final String[] ys = sorter.sort(xs);
+        final Instrumenter instrumenter = sorter.getHelper().getInstrumenter();
+        assertNotNull(instrumenter);
+        assertEquals("English", instrumenter.getCoderChoice());
+        assertTrue(instrumenter.getSamplingNanos() > 0);
+        Arrays.sort(xs);
+        assertArrayEquals(xs, ys);
+    }
+}
@@ -0,0 +1,148 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import edu.neu.coe.huskySort.sort.huskySort.PureHuskySort;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BigNumberHuskyCoderTest {
+
+    @Test
+    public void testBigDecimalMonotonic() {
+        final BigDecimal[] xs = randomBigDecimals(new Random(0L), 10000);
+        Arrays.sort(xs);
+        checkMonotonic(xs, BigNumberHuskyCoder.bigDecimalCoder);
+    }
+
+    @Test
+    public void testBigDecimalSpecialValues() {
+        final BigNumberHuskyCoder<BigDecimal> coder = BigNumberHuskyCoder.bigDecimalCoder;
+        assertEquals(0L, coder.huskyEncode(BigDecimal.ZERO));
+        assertEquals(0L, coder.huskyEncode(new BigDecimal("0.000")));
+        assertEquals(coder.huskyEncode(new BigDecimal("2.0")), coder.huskyEncode(new BigDecimal("2.00")));
+        assertEquals(-coder.huskyEncode(new BigDecimal("3.25")), coder.huskyEncode(new BigDecimal("-3.25")));
+        assertTrue(coder.huskyEncode(new BigDecimal("0.5")) < coder.huskyEncode(new BigDecimal("0.75")));
+        assertTrue(coder.huskyEncode(new BigDecimal("0.75")) < coder.huskyEncode(BigDecimal.ONE));
+        assertTrue(coder.huskyEncode(new BigDecimal("-0.75")) < coder.huskyEncode(new BigDecimal("-0.5")));
+        // NOTE: exponents beyond the range of the coder are clamped.
+        assertEquals(Long.MAX_VALUE, coder.huskyEncode(new BigDecimal("1E600")));
+        assertEquals(1L, coder.huskyEncode(new BigDecimal("1E-600")));
+        assertEquals(-Long.MAX_VALUE, coder.huskyEncode(new BigDecimal("-1E600")));
+    }
+
+    @Test
+    public void testBigDecimalPerfectFor() {
+        final BigNumberHuskyCoder<BigDecimal> coder = BigNumberHuskyCoder.bigDecimalCoder;
+        assertTrue(coder.perfectFor(BigDecimal.ZERO));
+        assertTrue(coder.perfectFor(new BigDecimal("123456789012345")));
+        assertTrue(coder.perfectFor(new BigDecimal("-1.23456789012345E-300")));
+        assertTrue(coder.perfectFor(new BigDecimal("1.000000000000000000000")));
+        assertFalse(coder.perfectFor(new BigDecimal("1234567890123456")));
+        assertFalse(coder.perfectFor(new BigDecimal("1E600")));
+        assertFalse(coder.perfectFor(new BigDecimal("1E-600")));
+    }
+
+    @Test
+    public void testBigDecimalCoding() {
+        final BigNumberHuskyCoder<BigDecimal> coder = BigNumberHuskyCoder.bigDecimalCoder;
+        final Coding perfect = coder.huskyEncode(new BigDecimal[]{new BigDecimal("1.5"), new BigDecimal("-2"), BigDecimal.ZERO});
+        assertTrue(perfect.perfect);
+        assertEquals(0, perfect.overflows);
+        final BigDecimal[] xs = {new BigDecimal("1.5"), new BigDecimal("3.14159265358979323846"), new BigDecimal("2.71828182845904523536")};
+        final Coding imperfect = coder.huskyEncode(xs);
+        assertFalse(imperfect.perfect);
+        assertEquals(2, imperfect.overflows);
+        assertFalse(coder.huskyEncode(xs, new long[xs.length]));
+        assertFalse(coder.perfect());
+    }
+
+    @Test
+    public void testBigIntegerMonotonic() {
+        final BigInteger[] xs = randomBigIntegers(new Random(0L), 10000);
+        Arrays.sort(xs);
+        checkMonotonic(xs, BigNumberHuskyCoder.bigIntegerCoder);
+    }
+
+    @Test
+    public void testBigIntegerSpecialValues() {
+        final BigNumberHuskyCoder<BigInteger> coder = BigNumberHuskyCoder.bigIntegerCoder;
+        final BigInteger minLong = BigInteger.valueOf(Long.MIN_VALUE);
+        assertEquals(0L, coder.huskyEncode(BigInteger.ZERO));
+        assertTrue(coder.huskyEncode(minLong.subtract(BigInteger.ONE)) <= coder.huskyEncode(minLong));
+        assertTrue(coder.huskyEncode(minLong) < coder.huskyEncode(minLong.add(BigInteger.ONE.shiftLeft(8))));
+        assertEquals(coder.huskyEncode(minLong), coder.huskyEncode(minLong.negate()) * -1);
+        assertTrue(coder.huskyEncode(BigInteger.valueOf(Long.MAX_VALUE)) <= coder.huskyEncode(minLong.negate()));
+        assertEquals(Long.MAX_VALUE, coder.huskyEncode(BigInteger.ONE.shiftLeft(300)));
+    }
+
+    @Test
+    public void testBigIntegerPerfectFor() {
+        final BigNumberHuskyCoder<BigInteger> coder = BigNumberHuskyCoder.bigIntegerCoder;
+        assertTrue(coder.perfectFor(BigInteger.ONE.shiftLeft(56).subtract(BigInteger.ONE)));
+        assertTrue(coder.perfectFor(BigInteger.valueOf(-123456789L)));
+        assertTrue(coder.perfectFor(BigInteger.valueOf(Long.MIN_VALUE)));
+        assertTrue(coder.perfectFor(BigInteger.ONE.shiftLeft(200)));
+        assertFalse(coder.perfectFor(BigInteger.ONE.shiftLeft(56).add(BigInteger.ONE)));
+        assertFalse(coder.perfectFor(BigInteger.ONE.shiftLeft(200).add(BigInteger.ONE)));
+        assertFalse(coder.perfectFor(BigInteger.ONE.shiftLeft(300)));
+    }
+
+    @Test
+    public void testPureHuskySort() {
+        final Random random = new Random(1L);
+        final BigDecimal[] ds = randomBigDecimals(random, 20000);
+        final BigDecimal[] expectedDs = ds.clone();
+        Arrays.sort(expectedDs);
+        new PureHuskySort<>(HuskyCoderFactory.orderedBigDecimalCoder, false, false).sort(ds);
+        // NOTE: values such as -83 and -83.0 are equal according to compareTo (but not equals), so their order is arbitrary.
+        for (int i = 0; i < ds.length; i++) assertEquals(0, expectedDs[i].compareTo(ds[i]));
+        final BigInteger[] is = randomBigIntegers(random, 20000);
+        final BigInteger[] expectedIs = is.clone();
+        Arrays.sort(expectedIs);
+        new PureHuskySort<>(HuskyCoderFactory.orderedBigIntegerCoder, false, false).sort(is);
+        assertArrayEquals(expectedIs, is);
+    }
+
+    private static <X extends Number & Comparable<X>> void checkMonotonic(final X[] sorted, final BigNumberHuskyCoder<X> coder) {
+        for (int i = 1; i < sorted.length; i++) {
+            final long previous = coder.huskyEncode(sorted[i - 1]);
+            final long current = coder.huskyEncode(sorted[i]);
+            assertTrue(sorted[i - 1] + " vs " + sorted[i], previous <= current);
+            if (previous == current && sorted[i - 1].compareTo(sorted[i]) != 0)
+                assertFalse(coder.perfectFor(sorted[i - 1]) && coder.perfectFor(sorted[i]));
+        }
+    }
+
+    private static BigDecimal[] randomBigDecimals(final Random random, final int n) {
+        final BigDecimal[] result = new BigDecimal[n];
+        for (int i = 0; i < n; i++)
+            switch (i % 4) {
+                case 0:
+                    result[i] = BigDecimal.valueOf(random.nextGaussian());
+                    break;
+                case 1:
+                    result[i] = BigDecimal.valueOf(random.nextInt(2000) - 1000, random.nextInt(8));
+                    break;
+                case 2:
+                    result[i] = new BigDecimal(new BigInteger(80, random), random.nextInt(60) - 30).negate();
+                    break;
+                default:
+                    result[i] = BigDecimal.valueOf(random.nextLong(), random.nextInt(1400) - 700);
+            }
+        return result;
+    }
+
+    private static BigInteger[] randomBigIntegers(final Random random, final int n) {
+        final BigInteger[] result = new BigInteger[n];
+        for (int i = 0; i < n; i++) {
+            final BigInteger x = i % 3 == 0 ? BigInteger.valueOf(random.nextLong()) : new BigInteger(random.nextInt(300) + 1, random);
+            result[i] = random.nextBoolean() ? x : x.negate();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import edu.neu.coe.huskySort.sort.huskySort.GenericCollator;
+import edu.neu.coe.huskySort.sort.huskySort.PureHuskySort;
+import org.junit.Test;
+
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class CollationKeyCacheTest {
+
+    @Test
+    public void testGet() {
+        final Collator collator = Collator.getInstance(Locale.CHINA);
+        final CollationKeyCache cache = new CollationKeyCache(collator, 10, HuskyCoderFactory.chineseEncoderCollator::getCode);
+        final CollationKeyCache.Entry entry = cache.get("张伟");
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertSame(entry, cache.get("张伟"));
+        assertEquals(1, cache.getHits());
+        assertEquals(0, entry.key.compareTo(collator.getCollationKey("张伟")));
+        assertArrayEquals(collator.getCollationKey("张伟").toByteArray(), entry.bytes);
+        assertEquals(HuskyCoderFactory.chineseEncoderCollator.getCode(entry.bytes), entry.code);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testEviction() {
+        final CollationKeyCache cache = new CollationKeyCache(Collator.getInstance(Locale.CHINA), 2, HuskyCoderFactory.chineseEncoderCollator::getCode);
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        // NOTE: "b" is the least recently used, so it is evicted.
+        cache.get("c");
+        assertEquals(2, cache.size());
+        cache.get("a");
+        assertEquals(2, cache.getHits());
+        cache.get("b");
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new CollationKeyCache(Collator.getInstance(), 0, HuskyCoderFactory.chineseEncoderCollator::getCode);
+    }
+
+    @Test
+    public void testGetAllParallel() {
+        final Collator collator = Collator.getInstance(Locale.CHINA);
+        final CollationKeyCache cache = new CollationKeyCache(collator, 100000, HuskyCoderFactory.chineseEncoderCollator::getCode, ForkJoinPool.commonPool());
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(3 * CollationKeyCache.PARALLEL_THRESHOLD, 2, 10);
+        final CollationKeyCache.Entry[] entries = cache.getAll(xs);
+        for (int i = 0; i < xs.length; i++)
+            assertArrayEquals(xs[i], collator.getCollationKey(xs[i]).toByteArray(), entries[i].bytes);
+        assertEquals(xs.length, cache.getMisses());
+        final CollationKeyCache.Entry[] again = cache.getAll(xs);
+        for (int i = 0; i < xs.length; i++) assertSame(entries[i], again[i]);
+        assertEquals(xs.length, cache.getHits());
+    }
+
+    @Test
+    public void testAsCollator() {
+        final Collator collator = Collator.getInstance(Locale.CHINA);
+        final CollationKeyCache cache = new CollationKeyCache(collator, 100, HuskyCoderFactory.chineseEncoderCollator::getCode);
+        final String[] xs = {"张伟", "王芳", "李娜", "刘持平", "a", "B"};
+        final String[] expected = xs.clone();
+        Arrays.sort(expected, collator);
+        final String[] actual = xs.clone();
+        Arrays.sort(actual, cache.asCollator());
+        assertArrayEquals(expected, actual);
+        assertEquals(xs.length, cache.size());
+    }
+
+    @Test
+    public void testSharedWithGenericCollator() {
+        final SequenceEncoder_Collator coder = new SequenceEncoder_Collator(Collator.getInstance(Locale.CHINA), 100);
+        final CollationKeyCache cache = coder.getCache();
+        final String[] xs = {"张伟", "王芳", "李娜", "刘持平"};
+        final String[] sorted = xs.clone();
+        new PureHuskySort<>(coder, false, false).sort(sorted);
+        final long misses = cache.getMisses();
+        assertEquals(xs.length, misses);
+        final GenericCollator<String> genericCollator = new GenericCollator<>(cache);
+        for (final String x : xs) assertNotNull(genericCollator.getCollationKey(x));
+        assertEquals(misses, cache.getMisses());
+        final String[] expected = xs.clone();
+        Arrays.sort(expected, Collator.getInstance(Locale.CHINA));
+        assertArrayEquals(expected, sorted);
+    }
+
+    @Test
+    public void testCachingChineseEncoderCollator() {
+        assertNull(((SequenceEncoder_Collator) HuskyCoderFactory.chineseEncoderCollator).getCache());
+        final SequenceEncoder_Collator coder = HuskyCoderFactory.cachingChineseEncoderCollator(100);
+        assertEquals(100, coder.getCache().getCapacity());
+        assertNotSame(coder.getCache(), HuskyCoderFactory.cachingChineseEncoderCollator(100).getCache());
+        assertEquals(HuskyCoderFactory.chineseEncoderCollator.huskyEncode("曹玉德"), coder.huskyEncode("曹玉德"));
+    }
+
+    @Test
+    public void testCachedCoderMatchesUncached() {
+        final SequenceEncoder_Collator cached = new SequenceEncoder_Collator(Collator.getInstance(Locale.CHINA), 1000);
+        final SequenceEncoder_Collator uncached = new SequenceEncoder_Collator(Collator.getInstance(Locale.CHINA));
+        assertNull(uncached.getCache());
+        final String[] xs = {"张伟", "王芳", "李娜", "刘持平", "张伟"};
+        final Coding expected = uncached.huskyEncode(xs);
+        final Coding actual = cached.huskyEncode(xs);
+        assertArrayEquals(expected.longs, actual.longs);
+        assertEquals(expected.perfect, actual.perfect);
+        assertEquals(uncached.huskyEncode("王芳"), cached.huskyEncode("王芳"));
+    }
+}
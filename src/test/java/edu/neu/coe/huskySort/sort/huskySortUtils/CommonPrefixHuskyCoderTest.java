@@ -0,0 +1,128 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import edu.neu.coe.huskySort.sort.huskySort.PureHuskySort;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class CommonPrefixHuskyCoderTest {
+
+    @Test
+    public void testFindPrefix() {
+        final String[] xs = {"/usr/local/share/b", "/usr/local/share/a", "/usr/local/bin/c", "/usr/local/share/d"};
+        assertEquals("/usr/local/", CommonPrefixHuskyCoder.findPrefix(xs, 100, 1.0));
+        // NOTE: three of the four elements share a longer prefix.
+        assertEquals("/usr/local/share/", CommonPrefixHuskyCoder.findPrefix(xs, 100, 0.75));
+        assertEquals("", CommonPrefixHuskyCoder.findPrefix(new String[]{"a", "b"}, 100, 1.0));
+        assertEquals("", CommonPrefixHuskyCoder.findPrefix(new String[0], 100, 1.0));
+    }
+
+    @Test
+    public void testHuskyEncode() {
+        final CommonPrefixHuskyCoder coder = new CommonPrefixHuskyCoder("/usr/local/", HuskyCoderFactory.asciiCoder);
+        assertEquals("Prefix/ASCII", coder.name());
+        assertEquals(HuskyCoderFactory.asciiToLong("share/a"), coder.huskyEncode("/usr/local/share/a"));
+        assertEquals(Long.MIN_VALUE, coder.huskyEncode("/etc/hosts"));
+        assertEquals(Long.MIN_VALUE, coder.huskyEncode("/usr/"));
+        assertEquals(Long.MAX_VALUE, coder.huskyEncode("/var/lib"));
+    }
+
+    @Test
+    public void testCodingOverflows() {
+        final CommonPrefixHuskyCoder coder = new CommonPrefixHuskyCoder("/usr/local/", HuskyCoderFactory.asciiCoder);
+        final String[] xs = {"/usr/local/share/a", "/usr/local/share/abcd", "/etc/hosts", "/usr/local/bin"};
+        final Coding coding = coder.huskyEncode(xs);
+        // NOTE: "share/abcd" is too long for the ASCII coder, and "/etc/hosts" does not have the prefix.
+        assertEquals(2, coding.overflows);
+        assertFalse(coding.perfect);
+        assertFalse(coder.huskyEncode(xs, new long[xs.length]));
+        final Coding perfect = coder.huskyEncode(new String[]{"/usr/local/share/a", "/usr/local/bin"});
+        assertEquals(0, perfect.overflows);
+        assertTrue(perfect.perfect);
+    }
+
+    @Test
+    public void testTrainedCodingOverflows() {
+        final TrainedHuskyCoder trained = TrainedHuskyCoder.train("Test", new String[]{"abc"});
+        final CommonPrefixHuskyCoder coder = new CommonPrefixHuskyCoder("pre", trained);
+        // NOTE: the overflows are counted by the trained coder according to the characters of each remainder, not its length.
+        final Coding perfect = coder.huskyEncode(new String[]{"preabc", "preab", "pre"});
+        assertEquals(0, perfect.overflows);
+        assertTrue(perfect.perfect);
+        final String[] xs = {"preabc", "prexyz", "quit", "preab"};
+        final long[] longs = new long[xs.length];
+        assertEquals(2, coder.huskyEncode(xs, 0, xs.length, longs));
+        assertEquals(trained.huskyEncode("abc"), longs[0]);
+        assertEquals(Long.MAX_VALUE, longs[2]);
+        assertEquals(trained.huskyEncode("ab"), longs[3]);
+        assertEquals(1, coder.huskyEncode(xs, 2, 4, longs));
+    }
+
+    @Test
+    public void testUnknownCodingOverflows() {
+        final HuskySequenceCoder<String> unknown = new HuskySequenceCoder<String>() {
+            public boolean perfectForLength(final int length) {
+                return true;
+            }
+
+            public long huskyEncode(final String x) {
+                return x.length();
+            }
+        };
+        // NOTE: the underlying coder cannot count its overflows, so neither can we (whatever perfectForLength says).
+        final Coding coding = new CommonPrefixHuskyCoder("pre", unknown).huskyEncode(new String[]{"prea", "preb"});
+        assertEquals(Coding.UNKNOWN, coding.overflows);
+        assertFalse(coding.perfect);
+    }
+
+    @Test
+    public void testBaseCodingOverflows() {
+        final Coding coding = HuskyCoderFactory.asciiCoder.huskyEncode(new String[]{"abc", "abcdefghij", "abcdefghi", "abcdefghijk"});
+        assertEquals(2, coding.overflows);
+        assertFalse(coding.perfect);
+    }
+
+    @Test
+    public void testCommonPrefixCoder() {
+        final String[] xs = HuskySortHelper.generateRandomPathArray(1000, 0);
+        final HuskySequenceCoder<String> unchanged = HuskyCoderFactory.commonPrefixCoder(new String[]{"a", "b"}, HuskyCoderFactory.asciiCoder);
+        assertSame(HuskyCoderFactory.asciiCoder, unchanged);
+        final String[] ys = new String[xs.length];
+        for (int i = 0; i < xs.length; i++) ys[i] = "/home/users/" + xs[i];
+        final HuskySequenceCoder<String> coder = HuskyCoderFactory.commonPrefixCoder(ys, HuskyCoderFactory.unicodeCoder);
+        assertTrue(coder instanceof CommonPrefixHuskyCoder);
+        assertTrue(((CommonPrefixHuskyCoder) coder).getPrefix().startsWith("/home/users/"));
+        assertEquals(HuskyCoderFactory.unicodeCoder.huskyEncode("file"), new CommonPrefixHuskyCoder("/home/users/", HuskyCoderFactory.unicodeCoder).huskyEncode("/home/users/file"));
+    }
+
+    @Test
+    public void testGetSequenceCoderByName() {
+        final String[] xs = {"https://example.com/a", "https://example.com/b", "https://example.com/c"};
+        final HuskySequenceCoder<String> coder = HuskySortHelper.getSequenceCoderByName("Prefix/English", xs);
+        assertEquals("Prefix/English", coder.name());
+        assertEquals("https://example.com/", ((CommonPrefixHuskyCoder) coder).getPrefix());
+        assertSame(HuskyCoderFactory.asciiCoder, HuskySortHelper.getSequenceCoderByName("ASCII", xs));
+    }
+
+    @Test
+    public void testPureHuskySort() {
+        final String[] xs = HuskySortHelper.generateRandomPathArray(10000, 3);
+        // NOTE: some elements do not share the prefix.
+        xs[0] = "/a";
+        xs[1] = "/z";
+        xs[2] = "";
+        final String[] expected = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(expected);
+        final HuskySequenceCoder<String> coder = HuskyCoderFactory.commonPrefixCoder(xs, HuskyCoderFactory.asciiCoder, 1000, 0.3);
+        assertTrue(coder instanceof CommonPrefixHuskyCoder);
+        new PureHuskySort<>(coder, false, false).sort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCollatorCoder() {
+        new CommonPrefixHuskyCoder("x", HuskyCoderFactory.chineseEncoderCollator);
+    }
+}
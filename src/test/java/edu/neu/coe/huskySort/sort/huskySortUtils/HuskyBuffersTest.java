@@ -0,0 +1,243 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import edu.neu.coe.huskySort.sort.huskySort.IntroHuskySort;
+import edu.neu.coe.huskySort.sort.huskySort.MergeHuskySort;
+import edu.neu.coe.huskySort.sort.huskySort.RadixHuskySort;
+import edu.neu.coe.huskySort.util.Config;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class HuskyBuffersTest {
+
+    @Test
+    public void testHuskyEncode() {
+        final HuskyBuffers buffers = new HuskyBuffers();
+        final Coding coding1 = buffers.huskyEncode(HuskyCoderFactory.asciiCoder, new String[]{"b", "a"});
+        assertTrue(coding1.perfect);
+        assertEquals(0, coding1.overflows);
+        assertEquals(2, buffers.getCapacity());
+        assertEquals(HuskyCoderFactory.asciiCoder.huskyEncode("b"), coding1.longs[0]);
+        assertSame(coding1, buffers.huskyEncode(HuskyCoderFactory.asciiCoder, new String[]{"x"}));
+        final Coding coding2 = buffers.huskyEncode(HuskyCoderFactory.asciiCoder, new String[]{"abcdefghijk", "abcdefghijkl"});
+        assertFalse(coding2.perfect);
+        assertEquals(2, coding2.overflows);
+        assertSame(coding1.longs, coding2.longs);
+        assertSame(coding2, buffers.huskyEncode(HuskyCoderFactory.asciiCoder, new String[]{"abcdefghijkl", "abcdefghijk"}));
+        final Coding coding3 = buffers.huskyEncode(HuskyCoderFactory.<Integer>createProbabilisticCoder(0.5), new Integer[]{1});
+        assertFalse(coding3.perfect);
+        assertEquals(Coding.UNKNOWN, coding3.overflows);
+        buffers.huskyEncode(HuskyCoderFactory.asciiCoder, new String[]{"x", "y", "z"});
+        assertEquals(3, buffers.getCapacity());
+    }
+
+    @Test
+    public void testAuxBuffers() {
+        final HuskyBuffers buffers = new HuskyBuffers();
+        final long[] longs = buffers.getAuxLongs(10);
+        assertEquals(10, longs.length);
+        assertSame(longs, buffers.getAuxLongs(5));
+        final String[] strings = buffers.getAuxObjects(new String[0], 10);
+        assertEquals(10, strings.length);
+        assertSame(strings, buffers.getAuxObjects(new String[3], 10));
+        final int[] ints = buffers.getAuxInts(10);
+        assertEquals(10, ints.length);
+        assertSame(ints, buffers.getAuxInts(3));
+        final Integer[] integers = buffers.getAuxObjects(new Integer[0], 4);
+        assertEquals(4, integers.length);
+        buffers.clear();
+        assertNotSame(integers, buffers.getAuxObjects(new Integer[0], 4));
+    }
+
+    @Test
+    public void testForCurrentThread() throws InterruptedException {
+        final HuskyBuffers buffers = HuskyBuffers.forCurrentThread();
+        assertSame(buffers, HuskyBuffers.forCurrentThread());
+        final HuskyBuffers[] other = new HuskyBuffers[1];
+        final Thread thread = new Thread(() -> other[0] = HuskyBuffers.forCurrentThread());
+        thread.start();
+        thread.join();
+        assertNotNull(other[0]);
+        assertNotSame(buffers, other[0]);
+    }
+
+    @Test
+    public void testHelperBufferReuse() {
+        final HuskyHelper<String> helper = new HuskyHelper<>("test", 0, HuskyCoderFactory.asciiCoder, null);
+        helper.setBufferReuse(true, false);
+        final HuskyBuffers buffers = helper.getBuffers();
+        assertNotNull(buffers);
+        helper.doCoding(new String[]{"a", "b"});
+        assertSame(buffers.huskyEncode(HuskyCoderFactory.asciiCoder, new String[0]).longs, helper.getLongs());
+        helper.setBufferReuse(true, true);
+        assertSame(HuskyBuffers.forCurrentThread(), helper.getBuffers());
+        helper.setBufferReuse(false, true);
+        assertNull(helper.getBuffers());
+    }
+
+    @Test
+    public void testRadixHuskySortAllocatesNothing() {
+        final Config config = HuskyBuffersTest.config.copy("huskyhelper", "reusebuffers", "true");
+        final RadixHuskySort<Long> sorter = new RadixHuskySort<>(HuskyCoderFactory.longCoder, config);
+        final Long[] source = randomLongs();
+        final Long[] xs = new Long[N];
+        final HuskyBuffers buffers = sorter.getHelper().getBuffers();
+        assertAllocatesNothing(() -> {
+            System.arraycopy(source, 0, xs, 0, N);
+            sorter.mutatingSort(xs);
+        });
+        assertTrue(sorter.getHelper().sorted(xs));
+        // NOTE: the codes and the auxiliary arrays all come from the buffers.
+        assertTrue(buffers.getCapacity() >= N);
+        assertTrue(buffers.getAuxLongs(0).length >= N);
+        assertTrue(buffers.getAuxObjects(xs, 0).length >= N);
+        sorter.close();
+    }
+
+    @Test
+    public void testRadixHuskySortThreadLocalAllocatesNothing() {
+        final Config config = HuskyBuffersTest.config.copy("huskyhelper", "reusebuffers", "true").copy("huskyhelper", "threadlocalbuffers", "true");
+        final RadixHuskySort<Long> sorter = new RadixHuskySort<>(HuskyCoderFactory.longCoder, config);
+        final Long[] source = randomLongs();
+        final Long[] xs = new Long[N];
+        final HuskyBuffers buffers = sorter.getHelper().getBuffers();
+        assertAllocatesNothing(() -> {
+            System.arraycopy(source, 0, xs, 0, N);
+            sorter.mutatingSort(xs);
+        });
+        assertTrue(sorter.getHelper().sorted(xs));
+        // NOTE: the codes and the auxiliary arrays all come from the buffers.
+        assertTrue(buffers.getCapacity() >= N);
+        assertTrue(buffers.getAuxLongs(0).length >= N);
+        assertTrue(buffers.getAuxObjects(xs, 0).length >= N);
+        sorter.close();
+    }
+
+    @Test
+    public void testIntroHuskySortIndexedAllocatesNothing() {
+        final Config config = HuskyBuffersTest.config.copy("huskyhelper", "reusebuffers", "true");
+        // NOTE: IntroHuskySort always invokes its post-sorter, which is not needed (and would allocate) since longCoder is perfect.
+        final IntroHuskySort<Long> sorter = new IntroHuskySort<>("IntroHuskySort/Indexed", HuskyCoderFactory.longCoder, ys -> {
+        }, config);
+        sorter.setIndexPermutation(true);
+        final Long[] source = randomLongs();
+        final Long[] xs = new Long[N];
+        final HuskyBuffers buffers = sorter.getHelper().getBuffers();
+        assertAllocatesNothing(() -> {
+            System.arraycopy(source, 0, xs, 0, N);
+            sorter.mutatingSort(xs);
+        });
+        assertTrue(sorter.getHelper().sorted(xs));
+        // NOTE: the indices and the copy used by the gather pass come from the buffers.
+        assertTrue(buffers.getAuxInts(0).length >= N);
+        assertTrue(buffers.getAuxObjects(xs, 0).length >= N);
+        sorter.close();
+    }
+
+    @Test
+    public void testMergeHuskySortAllocatesNothing() {
+        final MergeHuskySort<Long> sorter = new MergeHuskySort<>(HuskyCoderFactory.longCoder, new HuskyBuffers());
+        final Long[] source = randomLongs();
+        final Long[] xs = new Long[N];
+        assertAllocatesNothing(() -> {
+            System.arraycopy(source, 0, xs, 0, N);
+            sorter.sort(xs);
+        });
+        final Long[] expected = Arrays.copyOf(source, N);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testRadixHuskySortParallelCoding() {
+        final Config config = HuskyBuffersTest.config.copy("huskyhelper", "reusebuffers", "true");
+        final RadixHuskySort<Long> sorter = new RadixHuskySort<>(HuskyCoderFactory.longCoder, config);
+        final int n = 2 * ParallelCoding.DEFAULT_THRESHOLD;
+        final Long[] source = randomLongs(n);
+        final Long[] xs = new Long[n];
+        final HuskyBuffers buffers = sorter.getHelper().getBuffers();
+        // NOTE: the codes are encoded in parallel into the buffers: this thread allocates only fork-join tasks (far less than the 8 bytes per element of the codes).
+        assertAllocatesAtMost(n, PARALLEL_WARMUP, () -> {
+            System.arraycopy(source, 0, xs, 0, n);
+            sorter.mutatingSort(xs);
+        });
+        assertTrue(sorter.getHelper().sorted(xs));
+        assertSame(buffers.huskyEncode(HuskyCoderFactory.longCoder, new Long[0]).longs, sorter.getHelper().getLongs());
+        assertTrue(buffers.getCapacity() >= n);
+        sorter.close();
+    }
+
+    @Test
+    public void testMergeHuskySortParallelCoding() {
+        final MergeHuskySort<Long> sorter = new MergeHuskySort<>(HuskyCoderFactory.longCoder, new HuskyBuffers());
+        final int n = 2 * ParallelCoding.DEFAULT_THRESHOLD;
+        final Long[] source = randomLongs(n);
+        final Long[] xs = new Long[n];
+        // NOTE: the codes are encoded in parallel into the buffers: this thread allocates only fork-join tasks (far less than the 8 bytes per element of the codes).
+        assertAllocatesAtMost(n, PARALLEL_WARMUP, () -> {
+            System.arraycopy(source, 0, xs, 0, n);
+            sorter.sort(xs);
+        });
+        final Long[] expected = Arrays.copyOf(source, n);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, xs);
+    }
+
+    /**
+     * Method to assert that the current thread allocates nothing while running r (after warming up), on each of several trials.
+     */
+    private static void assertAllocatesNothing(final Runnable r) {
+        assertAllocatesAtMost(0L, WARMUP, r);
+    }
+
+    /**
+     * Method to assert that the current thread allocates no more than limit bytes while running r (after warming up), on each of several trials.
+     */
+    private static void assertAllocatesAtMost(final long limit, final int warmup, final Runnable r) {
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        for (int i = 0; i < warmup; i++) r.run();
+        for (int i = 0; i < TRIALS; i++) {
+            // NOTE: each measurement is adjusted for the cost of the measurement itself.
+            final long start = threadMXBean.getCurrentThreadAllocatedBytes();
+            final long overhead = threadMXBean.getCurrentThreadAllocatedBytes() - start;
+            final long before = threadMXBean.getCurrentThreadAllocatedBytes();
+            r.run();
+            final long after = threadMXBean.getCurrentThreadAllocatedBytes();
+            final long allocated = after - before - overhead;
+            assertTrue("trial " + i + ": " + allocated, allocated <= limit);
+        }
+    }
+
+    private static Long[] randomLongs() {
+        return randomLongs(N);
+    }
+
+    private static Long[] randomLongs(final int n) {
+        final Random random = new Random(0L);
+        final Long[] result = new Long[n];
+        for (int i = 0; i < n; i++) result[i] = random.nextLong();
+        return result;
+    }
+
+    @BeforeClass
+    public static void before() throws IOException {
+        config = Config.load(HuskyBuffersTest.class);
+    }
+
+    private static Config config;
+
+    private static final int N = 10000;
+    private static final int WARMUP = 200;
+    private static final int TRIALS = 5;
+    private static final int PARALLEL_WARMUP = 20;
+
+    private static final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+}
@@ -33,6 +33,53 @@ public class HuskyCoderFactoryTest {
         assertEquals(0x48CBB366F58823EFL, ((Long) invoker.invokePrivate("stringToLong", "Hello, Goodbye", 9, 7, 0x7F)).longValue());
     }
 
+    @Test
+    public void testUtf8ToLongByteBuffer() {
+        final String[] words = {"", "a", "asdfghjkl", "¥", "中文", "太长的中文", "a𐍈", "𝒑𝒒"};
+        for (final String word : words) {
+            final byte[] bytes = ("xy" + word).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            assertEquals(word, utf8ToLong(word), utf8ToLong(java.nio.ByteBuffer.wrap(bytes), 2, bytes.length - 2));
+        }
+    }
+
+    @Test
+    public void testWideAsciiCoder() {
+        final BaseWideHuskySequenceCoder<String> coder = HuskyCoderFactory.wideAsciiCoder;
+        final String x = "/usr/local/share/a";
+        final String y = "/usr/local/share/b";
+        // NOTE: the high halves are equal (as are the ordinary ASCII codes), but the low halves distinguish x from y.
+        assertEquals(coder.huskyEncode(x), coder.huskyEncode(y));
+        assertTrue(WideHuskyCoder.compare(coder.huskyEncode(x), coder.huskyEncodeLow(x), coder.huskyEncode(y), coder.huskyEncodeLow(y)) < 0);
+        assertEquals(0L, coder.huskyEncodeLow("abc"));
+        assertTrue(coder.huskyEncodeWide(new String[]{x, y}).perfect);
+        assertFalse(coder.huskyEncodeWide(new String[]{x + "c", y}).perfect);
+        assertFalse(coder.huskyEncode(new String[]{x, y}).perfect);
+    }
+
+    @Test
+    public void testWideCodersPreserveOrder() {
+        final String[] words = {"", "a", "abcdefghi", "abcdefghia", "abcdefghij", "abcdefghijklmnopq", "abcdefghijklmnopqr", "b", "z~~~~~~~~~~~~~~~~~", "中文", "中文中文中", "中文中文中文"};
+        for (final BaseWideHuskySequenceCoder<String> coder : Arrays.asList(HuskyCoderFactory.wideAsciiCoder, HuskyCoderFactory.wideUnicodeCoder))
+            for (int i = 1; i < words.length; i++) {
+                final String x = words[i - 1];
+                final String y = words[i];
+                final int cf = WideHuskyCoder.compare(coder.huskyEncode(x), coder.huskyEncodeLow(x), coder.huskyEncode(y), coder.huskyEncodeLow(y));
+                if (coder == HuskyCoderFactory.wideUnicodeCoder || y.charAt(0) < 0x80) assertTrue(coder.name() + ": " + x + ", " + y, cf <= 0);
+            }
+    }
+
+    @Test
+    public void testWideUnicodeCoder() {
+        final BaseWideHuskySequenceCoder<String> coder = HuskyCoderFactory.wideUnicodeCoder;
+        // NOTE: the ordinary Unicode coder distinguishes only three characters; the wide coder distinguishes seven.
+        final String x = "中文中文中文A";
+        final String y = "中文中文中文B";
+        assertEquals(coder.huskyEncode(x), coder.huskyEncode(y));
+        assertTrue(WideHuskyCoder.compare(coder.huskyEncode(x), coder.huskyEncodeLow(x), coder.huskyEncode(y), coder.huskyEncodeLow(y)) < 0);
+        assertTrue(coder.perfectForWideLength(7));
+        assertFalse(coder.perfectForWideLength(8));
+    }
+
     @Test
     public void testAsciiToLong() {
         final String word = "a";
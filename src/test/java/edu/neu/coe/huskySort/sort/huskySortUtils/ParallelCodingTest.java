@@ -0,0 +1,114 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ParallelCodingTest {
+
+    @Test
+    public void testHuskyEncodeSmall() {
+        final String[] xs = {"Hello", "Goodbye", "Ciao", "Willkommen"};
+        final Coding expected = HuskyCoderFactory.asciiCoder.huskyEncode(xs);
+        final Coding coding = ParallelCoding.DEFAULT.huskyEncode(HuskyCoderFactory.asciiCoder, xs);
+        assertArrayEquals(expected.longs, coding.longs);
+        assertEquals(expected.perfect, coding.perfect);
+    }
+
+    @Test
+    public void testHuskyEncodePerfect() {
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(10000, 2, 9);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final ParallelCoding parallelCoding = new ParallelCoding(pool, 100);
+            final Coding expected = HuskyCoderFactory.asciiCoder.huskyEncode(xs);
+            final Coding coding = parallelCoding.huskyEncode(HuskyCoderFactory.asciiCoder, xs);
+            assertArrayEquals(expected.longs, coding.longs);
+            assertTrue(coding.perfect);
+            assertEquals(0, coding.overflows);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testHuskyEncodeImperfect() {
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(10000, 2, 9);
+        // NOTE: a single element which is too long for the ASCII coder makes the whole coding imperfect.
+        xs[7777] = "abcdefghijklmnopqrstuvwxyz";
+        xs[42] = "abcdefghijklmnopqrstuvwxyz";
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final ParallelCoding parallelCoding = new ParallelCoding(pool, 100);
+            final Coding coding = parallelCoding.huskyEncode(HuskyCoderFactory.asciiCoder, xs);
+            assertArrayEquals(HuskyCoderFactory.asciiCoder.huskyEncode(xs).longs, coding.longs);
+            assertFalse(coding.perfect);
+            // NOTE: the overflows of the chunks are summed.
+            assertEquals(2, coding.overflows);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testHuskyEncodeInto() {
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(10000, 2, 9);
+        xs[42] = "abcdefghijklmnopqrstuvwxyz";
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final ParallelCoding parallelCoding = new ParallelCoding(pool, 100);
+            // NOTE: the codes are encoded into the given array, which may be longer than xs.
+            final long[] longs = new long[xs.length + 1];
+            longs[xs.length] = 99L;
+            assertEquals(1, parallelCoding.huskyEncode(HuskyCoderFactory.asciiCoder, xs, longs));
+            assertArrayEquals(HuskyCoderFactory.asciiCoder.huskyEncode(xs).longs, Arrays.copyOf(longs, xs.length));
+            assertEquals(99L, longs[xs.length]);
+            assertEquals(0, ParallelCoding.SEQUENTIAL.huskyEncode(HuskyCoderFactory.asciiCoder, new String[]{"a"}, longs));
+            assertEquals(HuskyCoderFactory.asciiCoder.huskyEncode("a"), longs[0]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testHuskyEncodeInteger() {
+        final Integer[] xs = new Integer[5000];
+        Arrays.setAll(xs, i -> 5000 - i);
+        final Coding coding = new ParallelCoding(ForkJoinPool.commonPool(), 10).huskyEncode(HuskyCoderFactory.integerCoder, xs);
+        for (int i = 0; i < xs.length; i++) assertEquals(5000 - i, coding.longs[i]);
+        assertTrue(coding.perfect);
+    }
+
+    @Test
+    public void testHuskyEncodeRange() {
+        final String[] xs = {"Hello", "Goodbye", "abcdefghijklmnopqrstuvwxyz", "Ciao", "Hallo"};
+        final long[] longs = new long[xs.length];
+        // NOTE: only the elements in the range are encoded; the long element is outside the range.
+        assertEquals(0, HuskyCoderFactory.asciiCoder.huskyEncode(xs, 3, 5, longs));
+        assertEquals(0L, longs[2]);
+        assertEquals(HuskyCoderFactory.asciiCoder.huskyEncode(xs[4]), longs[4]);
+        assertEquals(1, HuskyCoderFactory.asciiCoder.huskyEncode(xs, 1, 3, longs));
+        assertEquals(Coding.UNKNOWN, HuskyCoderFactory.<Integer>createProbabilisticCoder(0.5).huskyEncode(new Integer[]{1, 2}, 0, 2, new long[2]));
+        assertEquals(0, HuskyCoderFactory.integerCoder.huskyEncode(new Integer[]{1, 2}, 0, 2, new long[2]));
+    }
+
+    @Test
+    public void testHuskyEncodeUnknown() {
+        final Integer[] xs = new Integer[5000];
+        Arrays.setAll(xs, i -> i);
+        final Coding coding = new ParallelCoding(ForkJoinPool.commonPool(), 10).huskyEncode(HuskyCoderFactory.<Integer>createProbabilisticCoder(0.5), xs);
+        assertFalse(coding.perfect);
+        assertEquals(Coding.UNKNOWN, coding.overflows);
+    }
+
+    @Test
+    public void testSequential() {
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(1000, 10, 12);
+        final Coding coding = ParallelCoding.SEQUENTIAL.huskyEncode(HuskyCoderFactory.englishCoder, xs);
+        assertArrayEquals(HuskyCoderFactory.englishCoder.huskyEncode(xs).longs, coding.longs);
+        assertFalse(coding.perfect);
+    }
+}
@@ -0,0 +1,98 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.Assert.*;
+
+public class PinyinTableTest {
+
+    @BeforeClass
+    public static void beforeClass() throws IOException {
+        table = PinyinTable.cjkTable();
+    }
+
+    @Test
+    public void testCjkTable() {
+        assertTrue(table.toString().contains("chars=20992"));
+        assertTrue(table.entries() > 20000);
+        assertEquals("zh--ang-1", table.pinyin("张"));
+        assertEquals(HuskyCoderChinesePinyin.hanyuString("刘持平"), table.pinyin("刘持平"));
+        assertTrue(table.covers("刘持平"));
+        assertTrue(table.covers(""));
+        assertFalse(table.covers("刘a"));
+        assertFalse(table.covers("丆"));
+    }
+
+    @Test
+    public void testEncodeWords() {
+        checkEncode(getChineseRuns("zho-simp-tw_web_2014_10K-words.txt"));
+    }
+
+    @Test
+    public void testEncodeSentences() {
+        checkEncode(getChineseRuns("zho-simp-tw_web_2014_10K-sentences.txt"));
+    }
+
+    @Test
+    public void testBuildSaveAndLoad() throws IOException {
+        final PinyinTable built = PinyinTable.build('刘', '张');
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        built.save(output);
+        final PinyinTable loaded = PinyinTable.load(new ByteArrayInputStream(output.toByteArray()));
+        assertEquals(built.toString(), loaded.toString());
+        assertEquals(table.encode("张"), loaded.encode("张"));
+        assertEquals(table.encode("刘张"), loaded.encode("刘张"));
+        assertFalse(loaded.covers("刘持平"));
+        assertFalse(loaded.covers("一"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadInvalid() throws IOException {
+        PinyinTable.load(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    /**
+     * Check that (for every String covered by the table) the table yields the same code as pinyin4j,
+     * and that HuskyCoderChinesePinyin yields the same code either way.
+     */
+    private static void checkEncode(final String[] xs) {
+        int covered = 0;
+        for (final String x : xs)
+            if (table.covers(x)) {
+                covered++;
+                final String pinyin = HuskyCoderChinesePinyin.hanyuString(x);
+                assertEquals(x, pinyin, table.pinyin(x));
+                final long expected = HuskyCoderFactory.englishCoder.huskyEncode(pinyin);
+                assertEquals(x, expected, table.encode(x));
+                assertEquals(x, expected, HuskyCoderFactory.chineseEncoderPinyin.huskyEncode(x));
+            }
+        assertTrue(covered > xs.length / 2);
+    }
+
+    /**
+     * Get the (maximal) runs of CJK Unified Ideographs from the text (second) column of a Leipzig resource.
+     */
+    private static String[] getChineseRuns(final String resource) {
+        final List<String> result = new ArrayList<>();
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(Objects.requireNonNull(PinyinTableTest.class.getResourceAsStream("/" + resource)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] columns = line.split("\t");
+                if (columns.length > 1)
+                    for (final String run : columns[1].split("[^\\u4E00-\\u9FFF]+")) if (!run.isEmpty()) result.add(run);
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        return result.toArray(new String[0]);
+    }
+
+    private static PinyinTable table;
+}
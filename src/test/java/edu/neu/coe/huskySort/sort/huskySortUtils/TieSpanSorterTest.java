@@ -0,0 +1,154 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import edu.neu.coe.huskySort.sort.huskySort.IntroHuskySort;
+import edu.neu.coe.huskySort.util.Config;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class TieSpanSorterTest {
+
+    @Test
+    public void testSortSequential() {
+        final String[] xs = {"Ciao", "abcdefghijZ", "abcdefghijA", "abcdefghijM", "Hello", "zyxwvutsrqB", "zyxwvutsrqA"};
+        final long[] longs = codes(xs);
+        assertEquals(2, TieSpanSorter.SEQUENTIAL.sort(xs, longs, 0, xs.length));
+        assertArrayEquals(new String[]{"Ciao", "abcdefghijA", "abcdefghijM", "abcdefghijZ", "Hello", "zyxwvutsrqA", "zyxwvutsrqB"}, xs);
+    }
+
+    @Test
+    public void testSortRange() {
+        final String[] xs = {"abcdefghijZ", "abcdefghijA", "abcdefghijM"};
+        final long[] longs = codes(xs);
+        // NOTE: the first element is outside the range.
+        assertEquals(1, TieSpanSorter.SEQUENTIAL.sort(xs, longs, 1, 3));
+        assertArrayEquals(new String[]{"abcdefghijZ", "abcdefghijA", "abcdefghijM"}, xs);
+    }
+
+    @Test
+    public void testSortParallel() {
+        final int N = 100000;
+        final Random random = new Random(0L);
+        final String[] xs = new String[N];
+        // NOTE: there are 1000 distinct prefixes (hence spans), each of which is too long for the ASCII coder.
+        for (int i = 0; i < N; i++) xs[i] = String.format("prefix%03d", random.nextInt(1000)) + random.nextInt(1000000);
+        final long[] longs = HuskyCoderFactory.asciiCoder.huskyEncode(xs).longs;
+        firstPass(xs, longs);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(1000, new TieSpanSorter(pool, 100).sort(xs, longs, 0, N));
+        } finally {
+            pool.shutdown();
+        }
+        final String[] expected = Arrays.copyOf(xs, N);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testSortComparator() {
+        final Collator collator = Collator.getInstance(Locale.ENGLISH);
+        final String[] xs = {"b", "B", "a", "A"};
+        // NOTE: all codes are equal, so the whole array is one span.
+        final long[] longs = new long[xs.length];
+        assertEquals(1, TieSpanSorter.DEFAULT.sort(xs, longs, 0, xs.length, collator));
+        assertArrayEquals(new String[]{"a", "A", "b", "B"}, xs);
+    }
+
+    @Test
+    public void testSortCachingCollator() {
+        final Collator collator = Collator.getInstance(Locale.CHINA);
+        // NOTE: the cache is much smaller than the array, but each key is looked up (and generated) only once.
+        final CollationKeyCache cache = new CollationKeyCache(collator, 4, HuskyCoderFactory.chineseEncoderCollator::getCode, null);
+        final String[] xs = {"张伟", "王芳", "李娜", "刘持平", "a", "B", "王", "张", "李", "刘", "b", "A"};
+        // NOTE: the first two elements form one span and the rest another.
+        final long[] longs = new long[xs.length];
+        longs[0] = longs[1] = -1L;
+        final String[] actual = xs.clone();
+        assertEquals(2, TieSpanSorter.SEQUENTIAL.sort(actual, longs, 0, xs.length, cache.asCollator()));
+        final String[] sortedFirst = {xs[0], xs[1]};
+        Arrays.sort(sortedFirst, collator);
+        final String[] sortedRest = Arrays.copyOfRange(xs, 2, xs.length);
+        Arrays.sort(sortedRest, collator);
+        assertArrayEquals(sortedFirst, Arrays.copyOfRange(actual, 0, 2));
+        assertArrayEquals(sortedRest, Arrays.copyOfRange(actual, 2, xs.length));
+        assertEquals(xs.length, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testSortByKeys() {
+        final String[] xs = {"x", "d", "c", "b", "a", "y"};
+        final Integer[] keys = {9, 3, 1, 3, 2, 9};
+        // NOTE: the sort is stable, and the keys correspond to xs[1] thru xs[4].
+        TieSpanSorter.sortByKeys(xs, 1, 5, keys, 1);
+        assertArrayEquals(new String[]{"x", "c", "a", "d", "b", "y"}, xs);
+    }
+
+    @Test
+    public void testSortByKeysLong() {
+        // NOTE: a span longer than the insertion-sort cutoff is merge-sorted (still stably).
+        final Random random = new Random(0L);
+        final int n = 1000;
+        final Integer[] keys = new Integer[n + 1];
+        final Integer[] xs = new Integer[n + 1];
+        for (int i = 0; i <= n; i++) {
+            keys[i] = random.nextInt(50);
+            xs[i] = i;
+        }
+        TieSpanSorter.sortByKeys(xs, 1, n + 1, keys, 1);
+        assertEquals(Integer.valueOf(0), xs[0]);
+        for (int i = 2; i <= n; i++) {
+            final int k = keys[xs[i - 1]].compareTo(keys[xs[i]]);
+            assertTrue(k < 0 || k == 0 && xs[i - 1] < xs[i]);
+        }
+        final Integer[] permutation = xs.clone();
+        Arrays.sort(permutation);
+        for (int i = 0; i <= n; i++) assertEquals(Integer.valueOf(i), permutation[i]);
+    }
+
+    @Test
+    public void testCreate() throws IOException {
+        final Config config = Config.load(TieSpanSorterTest.class);
+        assertEquals(4096, TieSpanSorter.create(config).getThreshold());
+        assertSame(TieSpanSorter.SEQUENTIAL, TieSpanSorter.create(config.copy("huskyhelper", "parallelspanthreshold", "0")));
+    }
+
+    @Test
+    public void testIntroHuskySortTieSpan() throws IOException {
+        final Config config = Config.load(TieSpanSorterTest.class).copy("huskyhelper", "tiespanpostsort", "true");
+        final IntroHuskySort<String> sorter = new IntroHuskySort<>("IntroHuskySort/TieSpan", HuskyCoderFactory.asciiCoder, ys -> fail("post-sorter invoked"), config);
+        assertNotNull(sorter.getHelper().getTieSpanSorter());
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(10000, 4, 16);
+        final String[] ys = sorter.sort(xs);
+        final String[] expected = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, ys);
+    }
+
+    private static long[] codes(final String[] xs) {
+        return HuskyCoderFactory.asciiCoder.huskyEncode(xs).longs;
+    }
+
+    /**
+     * Sort xs and longs together by code (a simple stand-in for the first pass of HuskySort).
+     */
+    private static void firstPass(final String[] xs, final long[] longs) {
+        final Integer[] indices = new Integer[xs.length];
+        for (int i = 0; i < indices.length; i++) indices[i] = i;
+        Arrays.sort(indices, (i, j) -> Long.compare(longs[i], longs[j]));
+        final String[] xsCopy = xs.clone();
+        final long[] longsCopy = longs.clone();
+        for (int i = 0; i < indices.length; i++) {
+            xs[i] = xsCopy[indices[i]];
+            longs[i] = longsCopy[indices[i]];
+        }
+    }
+}
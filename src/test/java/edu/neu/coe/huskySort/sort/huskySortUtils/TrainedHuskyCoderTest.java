@@ -0,0 +1,110 @@
+package edu.neu.coe.huskySort.sort.huskySortUtils;
+
+import edu.neu.coe.huskySort.sort.huskySort.PureHuskySort;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TrainedHuskyCoderTest {
+
+    @Test
+    public void testTrainPreservesOrder() {
+        final String[] words = HuskySortHelper.generateRandomAlphaBetaArray(10000, 1, 20);
+        final TrainedHuskyCoder coder = TrainedHuskyCoder.train("Test", words);
+        final String[] xs = HuskySortHelper.generateRandomAlphaBetaArray(10000, 0, 20);
+        // NOTE: include some characters which were not seen in training.
+        xs[0] = "\u0000";
+        xs[1] = "Z!";
+        xs[2] = "ä";
+        xs[3] = "a~";
+        xs[4] = "";
+        Arrays.sort(xs);
+        for (int i = 1; i < xs.length; i++)
+            assertTrue(xs[i - 1] + ", " + xs[i], coder.huskyEncode(xs[i - 1]) <= coder.huskyEncode(xs[i]));
+    }
+
+    @Test
+    public void testPerfect() {
+        final TrainedHuskyCoder coder = TrainedHuskyCoder.train("Test", new String[]{"aaaaaaaab", "c"});
+        // NOTE: the most frequent character has a short code, so that many more than 9 (cf. ASCII) can be perfectly encoded.
+        final StringBuilder as = new StringBuilder();
+        while (coder.perfectFor(as + "a")) as.append('a');
+        assertTrue(as.length() > 20);
+        assertFalse(coder.perfectFor(as + "a"));
+        assertTrue(coder.perfectFor("abc"));
+        assertFalse(coder.perfectFor("abd"));
+        final Coding coding = coder.huskyEncode(new String[]{"abc", "abd", "cab"});
+        assertFalse(coding.perfect);
+        assertEquals(1, coding.overflows);
+        assertNotEquals(coder.huskyEncode("ab"), coder.huskyEncode("abc"));
+        assertNotEquals(coder.huskyEncode("ab"), coder.huskyEncode("aba"));
+    }
+
+    @Test
+    public void testPerfectForLength() throws IOException {
+        final TrainedHuskyCoder coder = HuskyCoderFactory.trainedEnglishCoder();
+        // NOTE: unseen characters share a code, so no (non-empty) length can be perfect.
+        assertTrue(coder.perfectForLength(0));
+        assertFalse(coder.perfectForLength(1));
+        assertFalse(coder.perfectFor("丁"));
+        assertEquals(coder.huskyEncode("丁"), coder.huskyEncode("一"));
+    }
+
+    @Test
+    public void testCommonPrefixUnseen() throws IOException {
+        final String[] xs = {"pre丁", "pre一", "pre丁", "pre一"};
+        final HuskySequenceCoder<String> coder = HuskyCoderFactory.commonPrefixCoder(xs, HuskyCoderFactory.trainedEnglishCoder());
+        assertTrue(coder instanceof CommonPrefixHuskyCoder);
+        final Coding coding = coder.huskyEncode(xs);
+        assertFalse(coding.perfect);
+        assertEquals(4, coding.overflows);
+        new PureHuskySort<>(coder, false, false).sort(xs);
+        assertArrayEquals(new String[]{"pre一", "pre一", "pre丁", "pre丁"}, xs);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        final TrainedHuskyCoder coder = TrainedHuskyCoder.train("Test", HuskySortHelper.generateRandomAlphaBetaArray(1000, 2, 10));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        coder.save(output);
+        final TrainedHuskyCoder loaded = TrainedHuskyCoder.load(new ByteArrayInputStream(output.toByteArray()));
+        assertEquals("Test", loaded.name());
+        for (final String x : HuskySortHelper.generateRandomAlphaBetaArray(1000, 0, 20))
+            assertEquals(coder.huskyEncode(x), loaded.huskyEncode(x));
+        final Path path = Files.createTempFile("trained", ".huskycoder");
+        try {
+            coder.save(path);
+            assertEquals(coder.huskyEncode("Hello"), TrainedHuskyCoder.load(path).huskyEncode("Hello"));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadInvalid() throws IOException {
+        TrainedHuskyCoder.load(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test
+    public void testTrainedEnglishCoder() throws IOException {
+        final TrainedHuskyCoder coder = HuskyCoderFactory.trainedEnglishCoder();
+        assertEquals("TrainedEnglish", coder.name());
+        // NOTE: the trained coder spends fewer bits on typical English characters than the English coder (6 bits).
+        final String[] words = {"internationalization", "international", "internal", "interest", "interesting", "interface"};
+        final Coding english = HuskyCoderFactory.englishCoder.huskyEncode(words);
+        final Coding trained = coder.huskyEncode(words);
+        assertTrue(trained.overflows < english.overflows);
+        final String[] xs = words.clone();
+        new PureHuskySort<>(coder, false, false).sort(xs);
+        final String[] expected = words.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, xs);
+    }
+}
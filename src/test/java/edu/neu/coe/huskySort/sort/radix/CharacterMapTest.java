@@ -9,6 +9,8 @@ import java.util.Comparator;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class CharacterMapTest {
@@ -43,6 +45,55 @@ public class CharacterMapTest {
     }
 
 
+    @Test
+    public void testGetOrdinals() {
+        final UnicodeString[] xs = {characterMap.getUnicodeString("卞艳红"), characterMap.getUnicodeString("卞燕燕"), characterMap.getUnicodeString("何昕")};
+        final CharacterMap.Ordinals ordinals = characterMap.getOrdinals(xs, 0, xs.length);
+        // NOTE: 燕 and 艳 are both yan4, so they share an ordinal.
+        assertEquals(ordinals.ordinal(xs[0], 1), ordinals.ordinal(xs[1], 1));
+        assertEquals(1, Integer.signum(ordinals.ordinal(xs[1], 2) - ordinals.ordinal(xs[0], 2)));
+        assertEquals(ordinals.end(), ordinals.ordinal(xs[2], 2));
+        assertEquals(0, ordinals.end());
+        // NOTE: 6 characters, but only 5 distinct long codes, plus the end of string.
+        assertEquals(6, ordinals.radix());
+        assertSame(ordinals, characterMap.getOrdinals(xs, 0, xs.length));
+        final UnicodeString[] ys = {new UnicodeString(new CharacterMap(ChineseCharacter::new), "阿")};
+        final CharacterMap.Ordinals updated = characterMap.getOrdinals(ys, 0, ys.length);
+        assertEquals(7, updated.radix());
+        assertEquals(7, characterMap.size());
+    }
+
+    @Test
+    public void testToOrdinals() {
+        final int[] ordinals = characterMap.toOrdinals("卞燕艳何");
+        assertEquals(4, ordinals.length);
+        // NOTE: 燕 and 艳 are both yan4, so they share an ordinal.
+        assertEquals(ordinals[1], ordinals[2]);
+        assertEquals(1, Integer.signum(ordinals[1] - ordinals[0]));
+        assertEquals(1, Integer.signum(ordinals[3] - ordinals[0]));
+        assertEquals(4, characterMap.size());
+        assertEquals(0, characterMap.toOrdinals("").length);
+        final CharacterMap.Ordinals snapshot = characterMap.getOrdinals(new String[]{"何卞"});
+        final int[] result = new int[5];
+        assertEquals(3, snapshot.toOrdinals("何卞", result, 1));
+        assertEquals(ordinals[3], result[1]);
+        assertEquals(ordinals[0], result[2]);
+        assertTrue(snapshot.covers('卞'));
+        assertFalse(snapshot.covers('阿'));
+    }
+
+    @Test
+    public void testPages() {
+        final String x = "a\u00ff\u0100阿\uffff";
+        for (int i = 0; i < x.length(); i++) assertSame(characterMap.get(x.charAt(i)), characterMap.get(x.charAt(i)));
+        assertEquals(5, characterMap.size());
+        final Set<Character> characters = characterMap.keySet();
+        for (int i = 0; i < x.length(); i++) assertTrue(characters.contains(x.charAt(i)));
+        characterMap.clear();
+        assertEquals(0, characterMap.size());
+        assertTrue(characterMap.keySet().isEmpty());
+    }
+
     @Test
     public void testComparison1() {
         final UnicodeString 卞燕燕 = characterMap.getUnicodeString("卞燕燕");// XXX bian4 yan4 yan4
@@ -5,13 +5,22 @@ import edu.neu.coe.huskySort.sort.ComparisonSortHelper;
 import edu.neu.coe.huskySort.sort.huskySort.HuskySortBenchmark;
 import edu.neu.coe.huskySort.sort.huskySort.HuskySortBenchmarkHelper;
 
+import org.junit.Test;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 
 public class MSDStringSortTest {
 
-    //    @Test
+    @Test
     public void sort() {
         final String[] input = "she sells seashells by the seashore the shells she sells are surely seashells".split(" ");
         final String[] expected = "are by seashells seashells seashore sells sells she she shells surely the the".split(" ");
@@ -21,7 +30,7 @@ public class MSDStringSortTest {
         assertArrayEquals(expected, input);
     }
 
-    //    @Test
+    @Test
     public void sort1() {
         final ComparisonSortHelper<String> helper = new ComparableSortHelper<>("test", 1000, 1L);
         final String[] words = HuskySortBenchmarkHelper.getWords("3000-common-words.txt", HuskySortBenchmark::lineAsList);
@@ -33,7 +42,7 @@ public class MSDStringSortTest {
         assertEquals("Palestinian", xs[16]);
     }
 
-    //    @Test
+    @Test
     public void sort2() {
         final ComparisonSortHelper<String> helper = new ComparableSortHelper<>("test", 1000, 1L);
         final String[] words = HuskySortBenchmarkHelper.getWords("3000-common-words.txt", HuskySortBenchmark::lineAsList);
@@ -45,7 +54,7 @@ public class MSDStringSortTest {
         assertEquals("Palestinian", xs[16]);
     }
 
-    //    @Test
+    @Test
     public void sortWithExtendedAscii() {
         final String[] input = ("Le renard brun rapide saute par-dessus le chien paresseux chacó chacra cháchara cántara cantar caña cana canal canapé cañón día desayuno ").split(" ");
         final MSDStringSort msdStringSort = new MSDStringSort(new Alphabet(Alphabet.RADIX_UNICODE));
@@ -59,8 +68,7 @@ public class MSDStringSortTest {
         // CONSIDER compiling regex
         final String[] input = "python.txt\t狗.txt\t\t羊.txt\t\t鸡.txt\t\t兔子.txt\t河马.txt\t猴子.txt\t豹子.txt\t眼镜蛇.txt\n熊.txt\t\t猪.txt\t\t蛇.txt\t\t鹅.txt\t\t大象.txt\t熊猫.txt\t老虎.txt\t骆驼.txt\n牛.txt\t\t猫.txt\t\t马.txt\t\t龙.txt\t\t斑马.txt\t狮子.txt\t老鼠.txt\t鳄鱼.txt".split("\\s+");
         System.out.println(Arrays.toString(input));
-        MSDStringSort.setCutoff(1);
-        final MSDStringSort msdStringSort = new MSDStringSort(new Alphabet(Alphabet.RADIX_UNICODE));
+        final MSDStringSort msdStringSort = new MSDStringSort(new Alphabet(Alphabet.RADIX_UNICODE), 1);
         msdStringSort.sort(input);
         final Alphabet alphabet = msdStringSort.getAlphabet();
         System.out.println(alphabet);
@@ -68,4 +76,59 @@ public class MSDStringSortTest {
         final boolean sorted = new ComparableSortHelper<String>("sortWithUnicode").sorted(input);
         assertTrue(sorted);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sortDuplicates() {
+        final String[] input = new String[100];
+        for (int i = 0; i < input.length; i++) input[i] = i % 3 == 0 ? "she" : i % 3 == 1 ? "sells" : "";
+        new MSDStringSort(Alphabet.ASCII).sort(input);
+        for (int i = 0; i < 33; i++) assertEquals("", input[i]);
+        for (int i = 33; i < 66; i++) assertEquals("sells", input[i]);
+        for (int i = 66; i < 100; i++) assertEquals("she", input[i]);
+    }
+
+    @Test
+    public void sortConcurrently() throws Exception {
+        final MSDStringSort msdStringSort = new MSDStringSort(Alphabet.ASCII);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final long seed = t;
+                futures.add(executor.submit(() -> {
+                    final String[] xs = randomWords(new Random(seed), 20000);
+                    final String[] expected = xs.clone();
+                    Arrays.sort(expected);
+                    msdStringSort.sort(xs);
+                    return Arrays.equals(expected, xs);
+                }));
+            }
+            for (final Future<Boolean> future : futures) assertTrue(future.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void sortParallel() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final MSDStringSort msdStringSort = new MSDStringSort(Alphabet.ASCII, MSDStringSort.DEFAULT_CUTOFF, pool, 1000);
+            assertEquals(4, msdStringSort.getParallelism());
+            final String[] xs = randomWords(new Random(0L), 100000);
+            final String[] expected = xs.clone();
+            Arrays.sort(expected);
+            msdStringSort.sort(xs);
+            assertArrayEquals(expected, xs);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String[] randomWords(final Random random, final int n) {
+        final String[] words = HuskySortBenchmarkHelper.getWords("3000-common-words.txt", HuskySortBenchmark::lineAsList);
+        final String[] result = new String[n];
+        for (int i = 0; i < n; i++) result[i] = words[random.nextInt(words.length)] + (i % 2 == 0 ? "" : random.nextInt(1000));
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package edu.neu.coe.huskySort.sort.radix;
+
+import edu.neu.coe.huskySort.sort.huskySort.HuskySortBenchmark;
+import edu.neu.coe.huskySort.sort.huskySort.HuskySortBenchmarkHelper;
+import edu.neu.coe.huskySort.sort.huskySortUtils.ChineseCharacter;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MultikeyQuicksortTest {
+
+    @Test
+    public void sort() {
+        final String[] input = "she sells seashells by the seashore the shells she sells are surely seashells".split(" ");
+        final String[] expected = "are by seashells seashells seashore sells sells she she shells surely the the".split(" ");
+        new MultikeyQuicksort().sort(input);
+        assertArrayEquals(expected, input);
+    }
+
+    @Test
+    public void sortSeeded() {
+        final String[] input = "she sells seashells by the seashore the shells she sells are surely seashells".split(" ");
+        final String[] expected = "are by seashells seashells seashore sells sells she she shells surely the the".split(" ");
+        new MultikeyQuicksort(2, true).sort(input);
+        assertArrayEquals(expected, input);
+    }
+
+    @Test
+    public void sortCommonWords() {
+        final String[] words = HuskySortBenchmarkHelper.getWords("3000-common-words.txt", HuskySortBenchmark::lineAsList);
+        final Random random = new Random(0L);
+        final String[] xs = new String[20000];
+        for (int i = 0; i < xs.length; i++) xs[i] = words[random.nextInt(words.length)];
+        final String[] expected = xs.clone();
+        Arrays.sort(expected);
+        for (final boolean seeded : new boolean[]{false, true}) {
+            final String[] actual = xs.clone();
+            new MultikeyQuicksort(seeded).sort(actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void sortAwkwardStrings() {
+        // NOTE: the char 0 is indistinguishable from the end of a string in the (seeded) long codes; \uffff sets the top bit of the code.
+        final String[] xs = {"ab", "ab\u0000", "ab\u0000\u0000c", "a", "", "\u0000", "\uffff", "\uffff\uffff\uffff\uffffz", "\uffff\uffff\uffff\uffff", "abcd", "abcde", "abcd\u0000", "ab"};
+        final String[] expected = xs.clone();
+        Arrays.sort(expected);
+        for (final boolean seeded : new boolean[]{false, true}) {
+            final String[] actual = xs.clone();
+            new MultikeyQuicksort(2, seeded).sort(actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void sortChinese() {
+        final CharacterMap characterMap = new CharacterMap(ChineseCharacter::new, "Hanyu", '阿');
+        final String[] words = HuskySortBenchmarkHelper.getWords("zho-simp-tw_web_2014_10K-words.txt", HuskySortBenchmark::lineAsList);
+        final Random random = new Random(0L);
+        final String[] xs = new String[20000];
+        for (int i = 0; i < xs.length; i++) xs[i] = words[random.nextInt(words.length)];
+        final String[] expected = xs.clone();
+        Arrays.sort(expected, characterMap.stringComparator);
+        for (final boolean seeded : new boolean[]{false, true}) {
+            final PackedUnicodeStrings ps = PackedUnicodeStrings.create(characterMap, xs);
+            new MultikeyQuicksort(seeded).sort(ps);
+            for (int i = 1; i < ps.size(); i++) assertTrue(ps.compareFromD(i - 1, i, 0) <= 0);
+            final String[] actual = xs.clone();
+            new MultikeyQuicksort(seeded).sort(characterMap, actual);
+            for (int i = 0; i < xs.length; i++) assertEquals(0, characterMap.stringComparator.compare(expected[i], actual[i]));
+        }
+    }
+
+    @Test
+    public void sortDuplicates() {
+        final String[] xs = new String[1000];
+        for (int i = 0; i < xs.length; i++) xs[i] = i % 3 == 0 ? "" : i % 3 == 1 ? "sells" : "sellsseashells";
+        final String[] expected = xs.clone();
+        Arrays.sort(expected);
+        for (final boolean seeded : new boolean[]{false, true}) {
+            final String[] actual = xs.clone();
+            new MultikeyQuicksort(seeded).sort(actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package edu.neu.coe.huskySort.sort.radix;
+
+import edu.neu.coe.huskySort.sort.huskySort.HuskySortBenchmark;
+import edu.neu.coe.huskySort.sort.huskySort.HuskySortBenchmarkHelper;
+import edu.neu.coe.huskySort.sort.huskySortUtils.ChineseCharacter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PackedUnicodeStringsTest {
+
+    static CharacterMap characterMap;
+
+    @BeforeClass
+    public static void beforeClass() {
+        characterMap = new CharacterMap(ChineseCharacter::new, "Hanyu", '阿');
+    }
+
+    @Test
+    public void testCreate() {
+        final String[] ws = {"卞燕燕", "卞艳红", "何昕", ""};
+        final PackedUnicodeStrings ps = PackedUnicodeStrings.create(characterMap, ws);
+        assertEquals(4, ps.size());
+        final CharacterMap.Ordinals ordinals = ps.getOrdinals();
+        for (int i = 0; i < ws.length; i++) {
+            assertEquals(ws[i], ps.recoverString(i));
+            for (int d = 0; d <= ws[i].length() + 1; d++)
+                assertEquals(ordinals.ordinal(characterMap.getUnicodeString(ws[i]), d), ps.charAt(i, d));
+        }
+        assertEquals(ordinals.end(), ps.charAt(3, 0));
+    }
+
+    @Test
+    public void testCompareFromD() {
+        final String[] ws = {"卞燕燕", "卞艳红", "卞艳", "卞艳", "何昕"};
+        final PackedUnicodeStrings ps = PackedUnicodeStrings.create(characterMap, ws);
+        // NOTE: 燕 and 艳 are both yan4.
+        assertTrue(ps.compareFromD(0, 1, 0) > 0);
+        assertTrue(ps.compareFromD(1, 0, 1) < 0);
+        assertTrue(ps.compareFromD(1, 2, 0) > 0);
+        assertEquals(0, ps.compareFromD(2, 3, 0));
+        assertEquals(0, ps.compareFromD(2, 3, 2));
+        for (int i = 0; i < ws.length; i++)
+            for (int j = 0; j < ws.length; j++)
+                assertEquals(Integer.signum(characterMap.stringComparator.compare(ws[i], ws[j])), Integer.signum(ps.compareFromD(i, j, 0)));
+    }
+
+    @Test
+    public void testSortArray() {
+        final String[] words = HuskySortBenchmarkHelper.getWords("zho-simp-tw_web_2014_10K-words.txt", HuskySortBenchmark::lineAsList);
+        final Random random = new Random(0L);
+        final String[] xs = new String[20000];
+        for (int i = 0; i < xs.length; i++) xs[i] = words[random.nextInt(words.length)];
+        final String[] expected = xs.clone();
+        Arrays.sort(expected, characterMap.stringComparator);
+        final PackedUnicodeStrings ps = PackedUnicodeStrings.create(characterMap, xs);
+        assertTrue(new UnicodeMSDStringSort(characterMap).sortArray(ps));
+        for (int i = 1; i < ps.size(); i++) assertTrue(ps.compareFromD(i - 1, i, 0) <= 0);
+        final String[] actual = new String[xs.length];
+        ps.recoverStrings(actual);
+        for (int i = 0; i < xs.length; i++) assertEquals(0, characterMap.stringComparator.compare(expected[i], actual[i]));
+    }
+}
@@ -155,6 +155,31 @@ public class UnicodeMSDStringSortTest {
         assertEquals(estimatedHits, hits, 1000);
     }
 
+    @Test
+    public void sortTextRuns() {
+        // NOTE: these are whole lines of a Leipzig corpus (rank, word and frequency), which mix Chinese characters with digits.
+        final String[] words = HuskySortBenchmarkHelper.getWords("zho-simp-tw_web_2014_10K-words.txt", HuskySortBenchmark::lineAsList);
+        final Random random = new Random(0L);
+        final String[] xs = new String[20000];
+        for (int i = 0; i < xs.length; i++) xs[i] = words[random.nextInt(words.length)];
+        final String[] expected = xs.clone();
+        Arrays.sort(expected, characterMap.stringComparator);
+        new UnicodeMSDStringSort(characterMap).sortArray(xs);
+        for (int i = 0; i < xs.length; i++) assertEquals(0, characterMap.stringComparator.compare(expected[i], xs[i]));
+    }
+
+    @Test
+    public void sortSubArray() throws IOException {
+        final String[] strings = {"王略", "邓世涛", "卞燕燕", "邓世林", "卞艳红", "何欣蔚", "何昕", "卞佳", "卞佳丽", "阿"};
+        final UnicodeString[] us = new UnicodeString[strings.length];
+        for (int i = 0; i < us.length; i++) us[i] = characterMap.getUnicodeString(strings[i]);
+        final Config config = Config.load(UnicodeMSDStringSort.class).copy("helper", "cutoff", "0");
+        new UnicodeMSDStringSort(characterMap, HelperFactory.createCountingSortHelper("UnicodeMSDStringSort", 0, false, config)).sort(us, 2, 9);
+        final String[] actual = new String[us.length];
+        for (int i = 0; i < us.length; i++) actual[i] = us[i].recoverString();
+        assertArrayEquals(new String[]{"王略", "邓世涛", "卞佳", "卞佳丽", "卞艳红", "卞燕燕", "邓世林", "何昕", "何欣蔚", "阿"}, actual);
+    }
+
     @Test
     public void reset() {
     }